@@ -0,0 +1,44 @@
+package com.userservice;
+
+import com.userservice.admission.AdmissionControlUserDAO;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOFactory;
+import com.userservice.loadgen.LoadGenConfig;
+import com.userservice.loadgen.LoadGenerator;
+import com.userservice.outbox.OutboxRelay;
+import com.userservice.service.UserService;
+import com.userservice.service.UserServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Точка входа генератора нагрузки: тот же стек DAO, что у {@link Main} (шарды, реплика, предел нагрузки,
+ * кэши, фильтр email, горячие ключи и relay outbox по тем же свойствам userservice.*), параметры нагрузки - свойства loadgen.*
+ * (см. {@link LoadGenConfig#fromSystemProperties()}).
+ */
+public class LoadGen {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGen.class);
+
+    public static void main(String[] args) {
+        int exitCode = 0;
+
+        try {
+            LoadGenConfig config = LoadGenConfig.fromSystemProperties();
+            UserDAO userDAO = Main.withCaches(AdmissionControlUserDAO.fromSystemProperties(
+                    UserDAOFactory.createUserDAO()));
+            UserService userService = new UserServiceImpl(userDAO, null, null, Main.hotKeys());
+            OutboxRelay.startFromSystemProperties();
+
+            new LoadGenerator(userService, config, System.out).run();
+        } catch (Exception e) {
+            logger.error("Load generation failed", e);
+            exitCode = 1;
+        } finally {
+            Main.shutdown();
+            if (exitCode != 0) {
+                System.exit(exitCode);
+            }
+        }
+    }
+}
@@ -1,56 +1,172 @@
 package com.userservice;
 
+import com.userservice.admission.AdmissionControlUserDAO;
+import com.userservice.cache.CachingUserDAO;
+import com.userservice.cache.EmailFilterUserDAO;
+import com.userservice.cache.ListingCacheUserDAO;
+import com.userservice.console.BatchCommandRunner;
 import com.userservice.console.ConsoleInterface;
 import com.userservice.dao.UserDAO;
-import com.userservice.dao.UserDAOImpl;
+import com.userservice.dao.UserDAOFactory;
+import com.userservice.hotkeys.HotKeyFile;
+import com.userservice.hotkeys.HotKeys;
+import com.userservice.outbox.OutboxRelay;
 import com.userservice.service.UserService;
 import com.userservice.service.UserServiceImpl;
+import com.userservice.snapshot.SnapshotFallbackUserDAO;
+import com.userservice.snapshot.SnapshotUserDAO;
+import com.userservice.snapshot.UserSnapshot;
 import com.userservice.util.HibernateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Главный класс приложения
+ * Главный класс приложения: сборка декораторов UserDAO; каждый из них читает свои свойства userservice.*
+ * и запускает свои фоновые задачи в фабрике fromSystemProperties своего пакета
  */
 public class Main {
 
     private static final Logger logger = LoggerFactory.getLogger(Main.class);
 
+    /**
+     * Завершение сразу после инициализации (запись AppCDS-архива, проверка старта)
+     */
+    private static final String EXIT_AFTER_INIT_PROPERTY = "userservice.startup.exit-after-init";
+
+    /**
+     * Максимальное число подряд идущих create/delete в одной транзакции пакетного режима
+     */
+    private static final String BATCH_SIZE_PROPERTY = "userservice.batch.size";
+
+    /**
+     * Аргумент пакетного режима: {@code --batch [файл]}, без файла или с "-" команды читаются из stdin
+     */
+    private static final String BATCH_ARGUMENT = "--batch";
+
+    /**
+     * Код завершения пакетного режима, если часть команд не выполнена
+     */
+    private static final int BATCH_FAILED_EXIT_CODE = 2;
+
+    /**
+     * Горячие ключи поиска; null - учет отключен
+     */
+    private static HotKeys hotKeys;
+
     public static void main(String[] args) {
         logger.info("=== USER SERVICE APPLICATION STARTING ===");
+        long startNanos = System.nanoTime();
+        int exitCode = 0;
 
         try {
             // Инициализация компонентов
             logger.info("Initializing application components...");
 
-            // Проверка доступности SessionFactory
-            HibernateUtil.getSessionFactory();
-            logger.info("Database connection established");
-
             // Создание зависимостей (manual dependency injection)
-            UserDAO userDAO = new UserDAOImpl(HibernateUtil.getSessionFactory());
-            UserService userService = new UserServiceImpl(userDAO);
-            ConsoleInterface consoleInterface = new ConsoleInterface(userService);
+            UserSnapshot snapshot = UserSnapshot.fromSystemProperties();
+            UserService userService;
+            try {
+                UserDAO userDAO = AdmissionControlUserDAO.fromSystemProperties(UserDAOFactory.createUserDAO());
+                logger.info("Database connection established");
+                if (snapshot != null) {
+                    userDAO = SnapshotFallbackUserDAO.fromSystemProperties(userDAO, snapshot);
+                }
+                userDAO = withCaches(userDAO);
+                userService = new UserServiceImpl(userDAO, UserDAOFactory.createUserStatsDAO(),
+                        UserDAOFactory.createUserChangeDAO(), hotKeys());
+                OutboxRelay.startFromSystemProperties();
+            } catch (RuntimeException e) {
+                if (snapshot == null || snapshot.isEmpty()) {
+                    throw e;
+                }
+                logger.error("Database is unavailable, starting in read-only snapshot mode", e);
+                userService = new UserServiceImpl(new SnapshotUserDAO(snapshot));
+            }
+            logger.info("Application components initialized successfully in {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
 
-            logger.info("Application components initialized successfully");
+            if (Boolean.getBoolean(EXIT_AFTER_INIT_PROPERTY)) {
+                return;
+            }
+
+            int batchArgument = List.of(args).indexOf(BATCH_ARGUMENT);
+            if (batchArgument >= 0) {
+                String file = batchArgument + 1 < args.length ? args[batchArgument + 1] : "-";
+                if (runBatch(userService, file).failed() > 0) {
+                    exitCode = BATCH_FAILED_EXIT_CODE;
+                }
+                return;
+            }
 
             // Запуск консольного интерфейса
-            consoleInterface.start();
+            new ConsoleInterface(userService).start();
         } catch (Exception e) {
             logger.error("Fatal error during application startup", e);
-            System.exit(1);
+            exitCode = 1;
         } finally {
             shutdown();
+            if (exitCode != 0) {
+                System.exit(exitCode);
+            }
+        }
+    }
+
+    /**
+     * Пакетный режим: команды из файла или stdin, результаты через один буферизованный writer в stdout
+     */
+    private static BatchCommandRunner.Summary runBatch(UserService userService, String file) throws IOException {
+        int batchSize = Integer.getInteger(BATCH_SIZE_PROPERTY, 500);
+        logger.info("Running batch commands from {}, batch size {}", "-".equals(file) ? "stdin" : file, batchSize);
+
+        BufferedWriter output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (BufferedReader input = "-".equals(file)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            return new BatchCommandRunner(userService, batchSize).run(input, output);
         }
     }
 
+    /**
+     * Кэши поверх DAO базы: findById вне кучи, списки по версии таблицы и фильтр Блума перед existsByEmail
+     */
+    static UserDAO withCaches(UserDAO userDAO) {
+        userDAO = CachingUserDAO.fromSystemProperties(userDAO, hotKeys());
+        userDAO = ListingCacheUserDAO.fromSystemProperties(userDAO);
+
+        return EmailFilterUserDAO.fromSystemProperties(userDAO);
+    }
+
+    /**
+     * Учет горячих ключей, общий для кэша и сервиса; null, если он отключен
+     */
+    static synchronized HotKeys hotKeys() {
+        if (hotKeys == null) {
+            hotKeys = HotKeys.fromSystemProperties();
+        }
+
+        return hotKeys;
+    }
+
     /**
      * Завершение работы приложения
      */
-    private static void shutdown() {
+    static void shutdown() {
         try {
             logger.info("=== SHUTTING DOWN APPLICATION ===");
 
+            saveHotKeys();
+
             // Закрытие Hibernate SessionFactory
             if (HibernateUtil.isSessionFactoryAvailable()) {
                 HibernateUtil.shutdown();
@@ -62,4 +178,18 @@ public class Main {
             logger.error("Error during shutdown", e);
         }
     }
+
+    /**
+     * Сохранение горячих ключей при завершении, чтобы следующий запуск прогрел кэш по последнему top-K
+     */
+    private static void saveHotKeys() throws IOException {
+        HotKeys current;
+        synchronized (Main.class) {
+            current = hotKeys;
+        }
+        HotKeyFile file = HotKeyFile.fromSystemProperties();
+        if (current != null && file != null) {
+            file.saveTop(current);
+        }
+    }
 }
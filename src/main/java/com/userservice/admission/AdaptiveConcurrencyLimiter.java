@@ -0,0 +1,150 @@
+package com.userservice.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Адаптивный предел одновременных запросов к базе (AIMD по задержке).
+ * <p>
+ * Быстрый ответ при загруженном пределе поднимает его на 1, ответ медленнее порога, таймаут или потеря
+ * соединения - снижает в BACKOFF раз. Сверх предела запрос отклоняется сразу ({@link OverloadedException}),
+ * а не ждет соединения в пуле Hikari до connectionTimeout. Второстепенный вид запросов (чтения или записи)
+ * занимает не больше LOW_PRIORITY_SHARE предела - остаток держится для приоритетного.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double BACKOFF = 0.9;
+    private static final double LOW_PRIORITY_SHARE = 0.75;
+
+    public enum Kind {
+        READ, WRITE
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final Kind prioritized;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejectedReads = new LongAdder();
+    private final LongAdder rejectedWrites = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    /**
+     * @param latencyThresholdNanos задержка, выше которой база считается перегруженной
+     * @param prioritized вид запросов, которому доступен весь предел
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+                                      Kind prioritized) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 0 < min <= initial <= max");
+        }
+        if (latencyThresholdNanos <= 0) {
+            throw new IllegalArgumentException("Latency threshold must be positive");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.prioritized = prioritized;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Занять место под запрос; после выполнения обязателен {@link #release}
+     * @return момент начала запроса для release
+     * @throws OverloadedException предел для этого вида запросов исчерпан
+     */
+    public long acquire(Kind kind) {
+        int currentLimit = getLimit();
+        int allowed = kind == prioritized ? currentLimit : Math.max(1, (int) (currentLimit * LOW_PRIORITY_SHARE));
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= allowed) {
+                (kind == Kind.READ ? rejectedReads : rejectedWrites).increment();
+                throw new OverloadedException(kind, currentLimit);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.increment();
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Освободить место и учесть результат запроса
+     * @param overloaded запрос завершился таймаутом или потерей соединения
+     */
+    public void release(long startNanos, boolean overloaded) {
+        long latencyNanos = System.nanoTime() - startNanos;
+        int current = inFlight.getAndDecrement();
+
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            decrease(startNanos, latencyNanos, overloaded);
+        } else if (current * 2 >= limit) {
+            // Рост только при реальной загрузке предела: простаивающий предел не должен разрастаться
+            increase();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected(Kind kind) {
+        return (kind == Kind.READ ? rejectedReads : rejectedWrites).sum();
+    }
+
+    /**
+     * Число снижений предела
+     */
+    public long getDecreases() {
+        return decreases.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("limit=%d, inFlight=%d, accepted=%d, rejectedReads=%d, rejectedWrites=%d, decreases=%d",
+                getLimit(), getInFlight(), getAccepted(), getRejected(Kind.READ), getRejected(Kind.WRITE),
+                getDecreases());
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1);
+    }
+
+    /**
+     * Снижение не чаще раза на поколение запросов: начатые до прошлого снижения его уже вызвали,
+     * иначе пачка одновременных медленных ответов обрушила бы предел до минимума
+     */
+    private synchronized void decrease(long startNanos, long latencyNanos, boolean overloaded) {
+        if (decreases.sum() > 0 && startNanos - lastDecreaseNanos <= 0) {
+            return;
+        }
+        lastDecreaseNanos = System.nanoTime();
+        double previous = limit;
+        limit = Math.max(minLimit, limit * BACKOFF);
+        decreases.increment();
+        if ((int) previous != (int) limit) {
+            logger.debug("Concurrency limit lowered {} -> {} ({} ms{})", (int) previous, (int) limit,
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos), overloaded ? ", timeout or connection failure" : "");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.userservice.admission;
+
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.UserDAO;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.BackgroundTasks;
+import com.userservice.util.DatabaseErrors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * UserDAO с контролем допуска: каждый вызов занимает место в {@link AdaptiveConcurrencyLimiter}
+ * или сразу отклоняется с {@link OverloadedException}, не дожидаясь соединения из пула.
+ */
+public class AdmissionControlUserDAO implements UserDAO {
+
+    /**
+     * Адаптивный предел одновременных запросов к базе (по умолчанию включен)
+     */
+    public static final String ENABLED_PROPERTY = "userservice.admission.enabled";
+
+    /**
+     * Начальный, минимальный и максимальный предел одновременных запросов
+     */
+    public static final String INITIAL_LIMIT_PROPERTY = "userservice.admission.initial-limit";
+    public static final String MIN_LIMIT_PROPERTY = "userservice.admission.min-limit";
+    public static final String MAX_LIMIT_PROPERTY = "userservice.admission.max-limit";
+
+    /**
+     * Задержка запроса в миллисекундах, выше которой предел снижается
+     */
+    public static final String LATENCY_PROPERTY = "userservice.admission.latency-ms";
+
+    /**
+     * Приоритетный вид запросов: reads или writes; второстепенному достается 75% предела
+     */
+    public static final String PRIORITY_PROPERTY = "userservice.admission.priority";
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlUserDAO.class);
+
+    private final UserDAO delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdmissionControlUserDAO(UserDAO delegate, AdaptiveConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Подключение предела по системным свойствам; статистика пишется в лог раз в минуту
+     * @return userDAO без изменений, если контроль допуска отключен
+     */
+    public static UserDAO fromSystemProperties(UserDAO userDAO) {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return userDAO;
+        }
+
+        AdaptiveConcurrencyLimiter.Kind prioritized =
+                "writes".equalsIgnoreCase(System.getProperty(PRIORITY_PROPERTY, "reads"))
+                        ? AdaptiveConcurrencyLimiter.Kind.WRITE
+                        : AdaptiveConcurrencyLimiter.Kind.READ;
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                Integer.getInteger(INITIAL_LIMIT_PROPERTY, 20),
+                Integer.getInteger(MIN_LIMIT_PROPERTY, 2),
+                Integer.getInteger(MAX_LIMIT_PROPERTY, 200),
+                TimeUnit.MILLISECONDS.toNanos(Long.getLong(LATENCY_PROPERTY, 200L)),
+                prioritized);
+        BackgroundTasks.logEveryMinute("Admission control stats", () -> logger.info("Admission control: {}", limiter));
+        logger.info("Admission control enabled: limit {}, {} prioritized", limiter.getLimit(), prioritized);
+
+        return new AdmissionControlUserDAO(userDAO, limiter);
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        return write(() -> delegate.create(userEntity));
+    }
+
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        return write(() -> delegate.createAll(userEntities));
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        return read(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Optional<UserEntity> findByIdOnPrimary(Long id) {
+        return read(() -> delegate.findByIdOnPrimary(id));
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return read(() -> delegate.findByEmail(email));
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        return read(delegate::findAll);
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        return read(() -> delegate.findPage(afterId, limit));
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return read(() -> delegate.findSummaryByEmail(email));
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return read(delegate::findAllSummaries);
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return read(() -> delegate.findSummaryPage(afterId, limit));
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        return read(() -> delegate.searchByName(query, mode, limit));
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        return write(() -> delegate.update(userEntity));
+    }
+
+    @Override
+    public boolean canChangeEmail(Long id, String newEmail) {
+        return delegate.canChangeEmail(id, newEmail);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return write(() -> delegate.delete(id));
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        return write(() -> delegate.deleteByIds(ids));
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        return write(() -> delegate.deleteCreatedBefore(createdBefore));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return read(() -> delegate.existsByEmail(email));
+    }
+
+    private <T> T read(Supplier<T> operation) {
+        return admit(AdaptiveConcurrencyLimiter.Kind.READ, operation);
+    }
+
+    private <T> T write(Supplier<T> operation) {
+        return admit(AdaptiveConcurrencyLimiter.Kind.WRITE, operation);
+    }
+
+    private <T> T admit(AdaptiveConcurrencyLimiter.Kind kind, Supplier<T> operation) {
+        long startNanos = limiter.acquire(kind);
+        boolean overloaded = false;
+        try {
+            return operation.get();
+        } catch (RuntimeException e) {
+            overloaded = DatabaseErrors.isTimeout(e) || DatabaseErrors.isConnectionFailure(e);
+            throw e;
+        } finally {
+            limiter.release(startNanos, overloaded);
+        }
+    }
+}
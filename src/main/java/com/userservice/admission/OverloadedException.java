@@ -0,0 +1,27 @@
+package com.userservice.admission;
+
+import java.util.Locale;
+
+/**
+ * Запрос отклонен без обращения к базе: предел одновременных запросов исчерпан.
+ * Вызывающему стоит повторить позже или отдать клиенту ответ "перегружено".
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final AdaptiveConcurrencyLimiter.Kind kind;
+    private final int limit;
+
+    public OverloadedException(AdaptiveConcurrencyLimiter.Kind kind, int limit) {
+        super("Service overloaded: " + kind.name().toLowerCase(Locale.ROOT) + " rejected at concurrency limit " + limit);
+        this.kind = kind;
+        this.limit = limit;
+    }
+
+    public AdaptiveConcurrencyLimiter.Kind getKind() {
+        return kind;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
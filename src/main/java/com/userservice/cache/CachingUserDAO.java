@@ -0,0 +1,278 @@
+package com.userservice.cache;
+
+import com.userservice.dao.HotUserLoader;
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.ShardedUserDAO;
+import com.userservice.dao.UserDAO;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.hotkeys.HotKeyFile;
+import com.userservice.hotkeys.HotKeys;
+import com.userservice.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * UserDAO с кэшем findById вне кучи (cache-aside).
+ * Записи обновляют кэш после успешной записи в базу, удаление инвалидирует запись.
+ * Промах сохраняет прочитанное значение, только если поколение ключа не изменилось за время запроса:
+ * параллельная запись или уведомление об изменении не перекрываются устаревшей строкой.
+ * Промахи читаются из primary ({@link UserDAO#findByIdOnPrimary}): уведомления приходят от primary,
+ * и строка из отстающей реплики, прочитанная после уведомления, осталась бы в кэше до следующей записи.
+ */
+public class CachingUserDAO implements UserDAO {
+
+    /**
+     * Емкость кэша findById вне кучи (число пользователей); 0 - кэш отключен
+     */
+    public static final String CAPACITY_PROPERTY = "userservice.cache.capacity";
+
+    /**
+     * Размер слота кэша в байтах: пользователи с более длинными name + email не кэшируются
+     */
+    public static final String SLOT_BYTES_PROPERTY = "userservice.cache.slot-bytes";
+
+    /**
+     * Инвалидация кэша по LISTEN/NOTIFY при изменениях на других узлах (по умолчанию включена)
+     */
+    public static final String LISTEN_PROPERTY = "userservice.cache.listen";
+
+    /**
+     * Ключей в одном запросе прогрева кэша
+     */
+    public static final String WARMUP_CHUNK_SIZE_PROPERTY = "userservice.cache.warmup.chunk-size";
+
+    /**
+     * Одновременных запросов прогрева кэша (соединений пула)
+     */
+    public static final String WARMUP_PARALLELISM_PROPERTY = "userservice.cache.warmup.parallelism";
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingUserDAO.class);
+
+    private final UserDAO delegate;
+    private final OffHeapUserCache cache;
+
+    public CachingUserDAO(UserDAO delegate, OffHeapUserCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Подключение кэша по системным свойствам: инвалидация по уведомлениям баз, закрепление горячих ID
+     * и прогрев по файлу горячих ключей прошлого запуска
+     * @param hotKeys горячие ключи или null
+     * @return userDAO без изменений, если емкость кэша не задана
+     */
+    public static UserDAO fromSystemProperties(UserDAO userDAO, HotKeys hotKeys) {
+        int capacity = Integer.getInteger(CAPACITY_PROPERTY, 0);
+        if (capacity <= 0) {
+            return userDAO;
+        }
+
+        OffHeapUserCache cache = new OffHeapUserCache(capacity, Integer.getInteger(SLOT_BYTES_PROPERTY, 128));
+        logger.info("Off-heap user cache enabled: {} users, {} MB off-heap, {} MB heap index",
+                capacity, cache.getOffHeapBytes() >> 20, cache.getHeapBytes() >> 20);
+
+        if (Boolean.parseBoolean(System.getProperty(LISTEN_PROPERTY, "true"))) {
+            if (HibernateUtil.isShardingConfigured()) {
+                List<SessionFactory> shards = HibernateUtil.getShardSessionFactories();
+                for (int shard = 0; shard < shards.size(); shard++) {
+                    int shardNumber = shard;
+                    new UserChangeListener(shards.get(shard), cache,
+                            localId -> ShardedUserDAO.globalId(localId, shardNumber), "shard-" + shard).start();
+                }
+            } else {
+                new UserChangeListener(HibernateUtil.getSessionFactory(), cache, id -> id,
+                        HibernateUtil.PRIMARY).start();
+            }
+        }
+
+        if (hotKeys != null && Boolean.parseBoolean(System.getProperty(HotKeys.PIN_PROPERTY, "true"))) {
+            cache.setPinned(hotKeys::isHotId);
+            logger.info("Hot user ids are pinned in the cache");
+        }
+        warmUp(cache);
+
+        return new CachingUserDAO(userDAO, cache);
+    }
+
+    /**
+     * Прогрев кэша пользователями из файла горячих ключей прошлого запуска: порции ID и email
+     * читаются параллельно на нескольких соединениях до того, как приложение начнет принимать запросы
+     */
+    private static void warmUp(OffHeapUserCache cache) {
+        HotKeyFile file = HotKeyFile.fromSystemProperties();
+        if (file == null) {
+            return;
+        }
+
+        HotKeyFile.Contents hotKeys;
+        try {
+            hotKeys = file.load();
+        } catch (IOException e) {
+            logger.warn("Cannot read hot keys file {}, cache is not warmed up", file.getPath(), e);
+            return;
+        }
+        if (hotKeys.isEmpty()) {
+            logger.info("No hot keys in {}, cache is not warmed up", file.getPath());
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        // Уведомления об изменениях уже слушаются: строка, измененная во время загрузки, в кэш не попадает
+        LongUnaryOperator generations = cache.generationSnapshot();
+        HotUserLoader loader = HibernateUtil.isShardingConfigured()
+                ? new HotUserLoader(HibernateUtil.getShardSessionFactories(), true)
+                : new HotUserLoader(List.of(HibernateUtil.getSessionFactory()), false);
+        HotUserLoader.Result result = loader.load(hotKeys.ids(), hotKeys.emails(),
+                Integer.getInteger(WARMUP_CHUNK_SIZE_PROPERTY, 1000),
+                Integer.getInteger(WARMUP_PARALLELISM_PROPERTY, 4),
+                user -> cache.putIfUnchanged(user, generations.applyAsLong(user.getId())));
+        logger.info("Cache warm-up: {} of {} hot keys loaded ({}% coverage, {} failed chunks), "
+                        + "{} users cached in {} ms",
+                result.loaded(), result.requested(), String.format(Locale.ROOT, "%.1f", result.coverage() * 100),
+                result.failedChunks(), cache.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        UserEntity created = delegate.create(userEntity);
+        cache.put(created);
+
+        return created;
+    }
+
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        List<UserEntity> created = delegate.createAll(userEntities);
+        created.forEach(cache::put);
+
+        return created;
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+
+        Optional<UserEntity> cached = cache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        long generation = cache.generation(id);
+        Optional<UserEntity> found = delegate.findByIdOnPrimary(id);
+        found.ifPresent(user -> cache.putIfUnchanged(user, generation));
+
+        return found;
+    }
+
+    @Override
+    public Optional<UserEntity> findByIdOnPrimary(Long id) {
+        return delegate.findByIdOnPrimary(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return delegate.findSummaryByEmail(email);
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return delegate.findAllSummaries();
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return delegate.findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        return delegate.searchByName(query, mode, limit);
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        try {
+            UserEntity updated = delegate.update(userEntity);
+            cache.put(updated);
+
+            return updated;
+        } catch (RuntimeException e) {
+            cache.invalidate(userEntity.getId());
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean canChangeEmail(Long id, String newEmail) {
+        return delegate.canChangeEmail(id, newEmail);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        try {
+            return delegate.delete(id);
+        } finally {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        try {
+            return delegate.deleteByIds(ids);
+        } finally {
+            cache.invalidateAll(ids.stream().filter(Objects::nonNull).mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    /**
+     * Удаленные ID неизвестны, поэтому кэш очищается целиком
+     */
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        try {
+            return delegate.deleteCreatedBefore(createdBefore);
+        } finally {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+
+    public OffHeapUserCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,338 @@
+package com.userservice.cache;
+
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserEmailReader;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.BackgroundTasks;
+import com.userservice.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * UserDAO с фильтром Блума перед existsByEmail: точно отрицательный ответ фильтра
+ * возвращается без обращения к базе, в базу идут только возможные совпадения.
+ * <p>
+ * Фильтр строится потоковым чтением всех email и пополняется при create/update, а записи других узлов
+ * приходят через LISTEN users_emails (V9__user_email_notify.sql). Без слушателя фильтр верен только
+ * при единственном пишущем узле: email, вставленный другим узлом, получил бы ложный отказ до пересборки.
+ * Удаленные email остаются в фильтре до следующей пересборки. До первой сборки все проверки идут в базу.
+ */
+public class EmailFilterUserDAO implements UserDAO {
+
+    /**
+     * Включение фильтра Блума перед existsByEmail
+     */
+    public static final String ENABLED_PROPERTY = "userservice.email-filter.enabled";
+
+    /**
+     * Целевая доля ложноположительных ответов фильтра
+     */
+    public static final String FPP_PROPERTY = "userservice.email-filter.fpp";
+
+    /**
+     * Период пересборки фильтра в минутах (удаленные email остаются в фильтре до пересборки)
+     */
+    public static final String REBUILD_PROPERTY = "userservice.email-filter.rebuild-minutes";
+
+    /**
+     * Прием email, записанных другими узлами, через LISTEN users_emails; false - только при единственном
+     * пишущем узле, иначе новый email другого узла до пересборки считается отсутствующим
+     */
+    public static final String LISTEN_PROPERTY = "userservice.email-filter.listen";
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailFilterUserDAO.class);
+
+    /**
+     * Запас емкости относительно текущего числа пользователей до следующей пересборки
+     */
+    private static final double GROWTH_HEADROOM = 1.5;
+
+    private final UserDAO delegate;
+    private final ToLongFunction<Consumer<String>> emailSource;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    /**
+     * Фильтр, собираемый в данный момент: новые email пишутся и в него, чтобы не потеряться при подмене
+     */
+    private volatile BloomFilter building;
+
+    private final LongAdder skippedQueries = new LongAdder();
+    private final LongAdder passedQueries = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * @param emailSource передает все email в consumer и возвращает их число
+     * @param falsePositiveRate целевая доля ложноположительных ответов
+     */
+    public EmailFilterUserDAO(UserDAO delegate, ToLongFunction<Consumer<String>> emailSource,
+                              double falsePositiveRate) {
+        this.delegate = delegate;
+        this.emailSource = emailSource;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Подключение фильтра по системным свойствам; фильтр строится в фоне и периодически пересобирается.
+     * Со слушателем первая сборка идет после подписки на каждую базу и повторяется после переподключения
+     * @return userDAO без изменений, если фильтр отключен
+     */
+    public static UserDAO fromSystemProperties(UserDAO userDAO) {
+        if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return userDAO;
+        }
+
+        List<SessionFactory> databases = HibernateUtil.isShardingConfigured()
+                ? HibernateUtil.getShardSessionFactories()
+                : List.of(HibernateUtil.getSessionFactory());
+        UserEmailReader emailReader = new UserEmailReader(databases);
+        double falsePositiveRate = Double.parseDouble(System.getProperty(FPP_PROPERTY, "0.01"));
+        EmailFilterUserDAO filterDAO = new EmailFilterUserDAO(userDAO, emailReader::forEachEmail, falsePositiveRate);
+
+        long rebuildMinutes = Long.getLong(REBUILD_PROPERTY, 360L);
+        boolean listen = Boolean.parseBoolean(System.getProperty(LISTEN_PROPERTY, "true"));
+        if (listen) {
+            for (int database = 0; database < databases.size(); database++) {
+                new UserChangeListener(databases.get(database), UserChangeListener.EMAIL_CHANNEL,
+                        emails -> Arrays.stream(emails).forEach(filterDAO::remember), filterDAO::resync,
+                        "email-" + database).start();
+            }
+        }
+        BackgroundTasks.scheduleWithFixedDelay("Email filter rebuild", () -> {
+            filterDAO.rebuild();
+            logger.info("Email filter stats: {} checks skipped, {} passed to database, "
+                            + "observed false positive rate {}, {} KB",
+                    filterDAO.getSkippedQueries(), filterDAO.getPassedQueries(),
+                    String.format(Locale.ROOT, "%.4f", filterDAO.getObservedFalsePositiveRate()),
+                    filterDAO.getMemoryBytes() >> 10);
+        }, listen ? rebuildMinutes : 0, rebuildMinutes, TimeUnit.MINUTES);
+        logger.info("Email filter enabled: target false positive rate {}, rebuild every {} min, {}",
+                falsePositiveRate, rebuildMinutes, listen ? "listening for other writers" : "single writer only");
+
+        return filterDAO;
+    }
+
+    /**
+     * Сборка нового фильтра по всем email и подмена текущего
+     */
+    public synchronized void rebuild() {
+        rebuild(filter);
+    }
+
+    /**
+     * Сброс фильтра и сборка заново: уведомления, пришедшие без соединения слушателя, потеряны,
+     * поэтому до конца сборки все проверки идут в базу
+     */
+    public synchronized void resync() {
+        BloomFilter stale = filter;
+        filter = null;
+        rebuild(stale);
+    }
+
+    private void rebuild(BloomFilter current) {
+        long startNanos = System.nanoTime();
+        long expected = current != null
+                ? Math.max(current.getInsertions(), 1_000)
+                : 1_000_000;
+        BloomFilter next = BloomFilter.create((long) (expected * GROWTH_HEADROOM), falsePositiveRate);
+
+        building = next;
+        try {
+            long emails = emailSource.applyAsLong(next::add);
+            if (emails > expected * 1.2) {
+                // Пользователей намного больше, чем рассчитывали: пересобрать под реальное число
+                next = BloomFilter.create((long) (emails * GROWTH_HEADROOM), falsePositiveRate);
+                building = next;
+                emailSource.applyAsLong(next::add);
+            }
+            filter = next;
+        } finally {
+            building = null;
+        }
+
+        logger.info("Email filter rebuilt in {} ms: {} emails, {} KB, {} hashes, expected false positive rate {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), next.getInsertions(),
+                next.getMemoryBytes() >> 10, next.getHashCount(),
+                String.format("%.4f", next.getExpectedFalsePositiveRate()));
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        UserEntity created = delegate.create(userEntity);
+        remember(created.getEmail());
+
+        return created;
+    }
+
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        List<UserEntity> created = delegate.createAll(userEntities);
+        created.forEach(userEntity -> remember(userEntity.getEmail()));
+
+        return created;
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByIdOnPrimary(Long id) {
+        return delegate.findByIdOnPrimary(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return delegate.findSummaryByEmail(email);
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return delegate.findAllSummaries();
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return delegate.findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        return delegate.searchByName(query, mode, limit);
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        // Новый email попадает в фильтр до записи: параллельная проверка не должна получить ложный отказ
+        remember(userEntity.getEmail());
+
+        return delegate.update(userEntity);
+    }
+
+    @Override
+    public boolean canChangeEmail(Long id, String newEmail) {
+        return delegate.canChangeEmail(id, newEmail);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return delegate.delete(id);
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        return delegate.deleteByIds(ids);
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        return delegate.deleteCreatedBefore(createdBefore);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(email)) {
+            skippedQueries.increment();
+            return false;
+        }
+
+        boolean exists = delegate.existsByEmail(email);
+        if (current != null) {
+            passedQueries.increment();
+            if (!exists) {
+                falsePositives.increment();
+            }
+        }
+
+        return exists;
+    }
+
+    /**
+     * Проверки, отвеченные фильтром без запроса к базе
+     */
+    public long getSkippedQueries() {
+        return skippedQueries.sum();
+    }
+
+    /**
+     * Проверки, переданные в базу (возможные совпадения)
+     */
+    public long getPassedQueries() {
+        return passedQueries.sum();
+    }
+
+    /**
+     * Наблюдаемая доля ложноположительных ответов среди отсутствующих email
+     */
+    public double getObservedFalsePositiveRate() {
+        long falsePositiveCount = falsePositives.sum();
+        long negatives = falsePositiveCount + skippedQueries.sum();
+
+        return negatives == 0 ? 0.0 : (double) falsePositiveCount / negatives;
+    }
+
+    /**
+     * Ожидаемая доля ложноположительных ответов текущего фильтра
+     */
+    public double getExpectedFalsePositiveRate() {
+        BloomFilter current = filter;
+
+        return current != null ? current.getExpectedFalsePositiveRate() : 1.0;
+    }
+
+    /**
+     * Память под биты фильтра в байтах
+     */
+    public long getMemoryBytes() {
+        BloomFilter current = filter;
+
+        return current != null ? current.getMemoryBytes() : 0;
+    }
+
+    /**
+     * Порядок важен: building читается до filter. Если сборки уже нет, подмена фильтра завершена
+     * или сборка еще не начала чтение и увидит закоммиченную строку сама.
+     */
+    void remember(String email) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(email);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(email);
+        }
+    }
+}
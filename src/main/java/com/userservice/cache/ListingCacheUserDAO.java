@@ -0,0 +1,260 @@
+package com.userservice.cache;
+
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.UserDAO;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.BackgroundTasks;
+import com.userservice.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * UserDAO с кэшем списков (findAll, findPage и их проекции) по версии таблицы users.
+ * <p>
+ * Версия увеличивается после каждой записи через этот DAO и при {@link #invalidate()} (уведомления
+ * других узлов). Версия читается до запроса к базе, поэтому результат, сохраненный под версией v,
+ * не старше записей, увеличивших ее до v; повторный список той же версии отдается без SQL.
+ * Списки неизменяемые и общие для всех вызывающих - сущности в них нельзя изменять.
+ * Пустые результаты не кэшируются: DAO возвращает пустой список и при ошибке запроса.
+ */
+public class ListingCacheUserDAO implements UserDAO {
+
+    /**
+     * Кэш findAll и страниц по версии таблицы users
+     */
+    public static final String ENABLED_PROPERTY = "userservice.listing-cache.enabled";
+
+    /**
+     * Число хранимых списков (findAll и страницы с разными параметрами)
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "userservice.listing-cache.max-entries";
+
+    /**
+     * Смена версии по уведомлениям users_version об изменениях на других узлах (по умолчанию включена)
+     */
+    public static final String LISTEN_PROPERTY = "userservice.listing-cache.listen";
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingCacheUserDAO.class);
+
+    private enum Listing {
+        USERS, USER_PAGE, SUMMARIES, SUMMARY_PAGE
+    }
+
+    private record Key(Listing listing, Long afterId, int limit) {
+    }
+
+    private record Entry(long version, List<?> result) {
+    }
+
+    private final UserDAO delegate;
+    private final int maxEntries;
+    private final AtomicLong version = new AtomicLong();
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxEntries число хранимых списков (findAll и страницы с разными afterId/limit)
+     */
+    public ListingCacheUserDAO(UserDAO delegate, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Listing cache size must be positive");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Подключение кэша списков по системным свойствам; версия меняется и по уведомлениям других узлов,
+     * доля попаданий пишется в лог раз в минуту
+     * @return userDAO без изменений, если кэш списков отключен
+     */
+    public static UserDAO fromSystemProperties(UserDAO userDAO) {
+        if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return userDAO;
+        }
+
+        int maxEntries = Integer.getInteger(MAX_ENTRIES_PROPERTY, 16);
+        ListingCacheUserDAO listingDAO = new ListingCacheUserDAO(userDAO, maxEntries);
+        if (Boolean.parseBoolean(System.getProperty(LISTEN_PROPERTY, "true"))) {
+            List<SessionFactory> databases = HibernateUtil.isShardingConfigured()
+                    ? HibernateUtil.getShardSessionFactories()
+                    : List.of(HibernateUtil.getSessionFactory());
+            for (int database = 0; database < databases.size(); database++) {
+                new UserChangeListener(databases.get(database), UserChangeListener.VERSION_CHANNEL,
+                        versions -> listingDAO.invalidate(), listingDAO::invalidate, version -> version,
+                        "version-" + database).start();
+            }
+        }
+        BackgroundTasks.logEveryMinute("Listing cache stats", () -> logger.info(
+                "Listing cache: version {}, {} hits, {} misses", listingDAO.getVersion(), listingDAO.getHits(),
+                listingDAO.getMisses()));
+        logger.info("Listing cache enabled: {} lists", maxEntries);
+
+        return listingDAO;
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        try {
+            return delegate.create(userEntity);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        try {
+            return delegate.createAll(userEntities);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByIdOnPrimary(Long id) {
+        return delegate.findByIdOnPrimary(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        return cached(new Key(Listing.USERS, null, 0), delegate::findAll);
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        return cached(new Key(Listing.USER_PAGE, afterId, limit), () -> delegate.findPage(afterId, limit));
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return delegate.findSummaryByEmail(email);
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return cached(new Key(Listing.SUMMARIES, null, 0), delegate::findAllSummaries);
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return cached(new Key(Listing.SUMMARY_PAGE, afterId, limit), () -> delegate.findSummaryPage(afterId, limit));
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        return delegate.searchByName(query, mode, limit);
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        try {
+            return delegate.update(userEntity);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean canChangeEmail(Long id, String newEmail) {
+        return delegate.canChangeEmail(id, newEmail);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        try {
+            return delegate.delete(id);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        try {
+            return delegate.deleteByIds(ids);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        try {
+            return delegate.deleteCreatedBefore(createdBefore);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+
+    /**
+     * Увеличение версии: все сохраненные списки устаревают
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> cached(Key key, Supplier<List<T>> loader) {
+        long current = version.get();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == current) {
+            hits.increment();
+            return (List<T>) entry.result();
+        }
+
+        misses.increment();
+        List<T> result = List.copyOf(loader.get());
+        if (!result.isEmpty()) {
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                entries.values().removeIf(stale -> stale.version() != current);
+                if (entries.size() >= maxEntries) {
+                    entries.clear();
+                }
+            }
+            entries.merge(key, new Entry(current, result),
+                    (existing, loaded) -> existing.version() > loaded.version() ? existing : loaded);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,474 @@
+package com.userservice.cache;
+
+import com.userservice.entity.UserEntity;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Кэш пользователей по ID вне кучи.
+ * <p>
+ * Индекс - открытая адресация с линейным пробированием по примитивным массивам long → номер слота,
+ * без упаковки ключей. Запись пользователя сериализуется в слот фиксированного размера
+ * в direct-буферах; сущность создается только при попадании. Вытеснение - CLOCK:
+ * стрелка обходит слоты и вытесняет первый без бита обращения, сбрасывая биты по пути.
+ * Закрепленные ID ({@link #setPinned}) стрелка пропускает, пока в круге есть другие кандидаты.
+ * Пользователи, не помещающиеся в слот, не кэшируются.
+ * <p>
+ * Значения, прочитанные из базы, добавляются через {@link #putIfUnchanged}: поколение ключа берется
+ * до запроса, и если запись или инвалидация ключа успела раньше, устаревшее значение не сохраняется.
+ */
+public class OffHeapUserCache {
+
+    /**
+     * Заголовок слота: id, createdAt (микросекунды UTC), age, длины name и email
+     */
+    private static final int HEADER_SIZE = 8 + 8 + 4 + 2 + 2;
+    private static final int NULL_AGE = Integer.MIN_VALUE;
+    private static final long NULL_CREATED_AT = Long.MIN_VALUE;
+    private static final long EMPTY_KEY = 0L;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+    private static final int MAX_SLOT_SIZE = 0xFFFF;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    /**
+     * Число полос поколений: поколение ключа - счетчик полосы по хешу id
+     */
+    private static final int GENERATION_STRIPES = 1024;
+    private static final long ANY_GENERATION = -1L;
+
+    private final int capacity;
+    private final int slotSize;
+    private final int slotsPerChunk;
+    private final ByteBuffer[] chunks;
+
+    /**
+     * Индекс: ключ (0 - пусто) и номер слота; размер - степень двойки не меньше 2 * capacity
+     */
+    private final long[] indexKeys;
+    private final int[] indexSlots;
+    private final int indexMask;
+
+    /**
+     * Биты обращения CLOCK; пишутся при чтении без эксклюзивной блокировки
+     */
+    private final byte[] referenced;
+    private final int[] freeSlots;
+
+    /**
+     * Поколения полос: растут при каждой записи, удалении и очистке под блокировкой записи
+     */
+    private final long[] generations = new long[GENERATION_STRIPES];
+    private int freeCount;
+    private int allocated;
+    private int clockHand;
+    private int size;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder pinnedSkips = new LongAdder();
+    private final LongAdder stalePuts = new LongAdder();
+
+    private volatile LongPredicate pinned = id -> false;
+
+    /**
+     * @param capacity максимальное число пользователей в кэше
+     * @param slotSize размер слота в байтах, включая заголовок
+     */
+    public OffHeapUserCache(int capacity, int slotSize) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Cache capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        if (slotSize <= HEADER_SIZE || slotSize > MAX_SLOT_SIZE) {
+            throw new IllegalArgumentException("Slot size must be between " + (HEADER_SIZE + 1)
+                    + " and " + MAX_SLOT_SIZE + " bytes");
+        }
+        this.capacity = capacity;
+        this.slotSize = slotSize;
+        this.slotsPerChunk = MAX_CHUNK_BYTES / slotSize;
+
+        int chunkCount = (capacity + slotsPerChunk - 1) / slotsPerChunk;
+        this.chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            int slots = Math.min(slotsPerChunk, capacity - i * slotsPerChunk);
+            chunks[i] = ByteBuffer.allocateDirect(slots * slotSize);
+        }
+
+        int indexSize = Integer.highestOneBit(Math.max(2, capacity * 2 - 1)) << 1;
+        this.indexKeys = new long[indexSize];
+        this.indexSlots = new int[indexSize];
+        this.indexMask = indexSize - 1;
+        this.referenced = new byte[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    /**
+     * Копия закэшированного пользователя
+     */
+    public Optional<UserEntity> get(long id) {
+        long stamp = lock.readLock();
+        try {
+            int position = find(id);
+            if (position < 0) {
+                misses.increment();
+                return Optional.empty();
+            }
+            int slot = indexSlots[position];
+            referenced[slot] = 1;
+            hits.increment();
+
+            return Optional.of(read(slot));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Добавление или замена пользователя; при заполнении вытесняется слот по CLOCK.
+     * ID должен быть положительным: 0 обозначает пустую позицию индекса
+     */
+    public void put(UserEntity userEntity) {
+        store(userEntity, ANY_GENERATION);
+    }
+
+    /**
+     * Добавление пользователя, прочитанного из базы после {@link #generation}: если ключ с тех пор
+     * записывался или инвалидировался, прочитанное значение могло устареть и не сохраняется
+     * @return true, если пользователь сохранен
+     */
+    public boolean putIfUnchanged(UserEntity userEntity, long generation) {
+        return store(userEntity, generation);
+    }
+
+    /**
+     * Поколение ключа для {@link #putIfUnchanged}; меняется при записи и инвалидации id
+     * (и других id его полосы)
+     */
+    public long generation(long id) {
+        long stamp = lock.readLock();
+        try {
+            return generations[stripe(id)];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Поколения всех ключей на текущий момент - для пакетной загрузки, ID которой заранее неизвестны
+     */
+    public LongUnaryOperator generationSnapshot() {
+        long[] snapshot;
+        long stamp = lock.readLock();
+        try {
+            snapshot = generations.clone();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        return id -> snapshot[stripe(id)];
+    }
+
+    private boolean store(UserEntity userEntity, long expectedGeneration) {
+        long id = userEntity.getId();
+        if (id <= 0) {
+            throw new IllegalArgumentException("Cached user id must be positive: " + id);
+        }
+        byte[] name = userEntity.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = userEntity.getEmail().getBytes(StandardCharsets.UTF_8);
+        if (HEADER_SIZE + name.length + email.length > slotSize) {
+            rejections.increment();
+            invalidate(id);
+            return false;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            int stripe = stripe(id);
+            if (expectedGeneration == ANY_GENERATION) {
+                generations[stripe]++;
+            } else if (generations[stripe] != expectedGeneration) {
+                stalePuts.increment();
+                return false;
+            }
+
+            int position = find(id);
+            int slot;
+            if (position >= 0) {
+                slot = indexSlots[position];
+            } else {
+                slot = allocateSlot();
+                insert(id, slot);
+                size++;
+            }
+            write(slot, userEntity, name, email);
+            referenced[slot] = 0;
+
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Удаление пользователя из кэша
+     */
+    public void invalidate(long id) {
+        invalidateAll(new long[]{id});
+    }
+
+    /**
+     * Удаление пачки пользователей под одной блокировкой
+     */
+    public void invalidateAll(long[] ids) {
+        long stamp = lock.writeLock();
+        try {
+            for (long id : ids) {
+                generations[stripe(id)]++;
+                int position = find(id);
+                if (position >= 0) {
+                    freeSlots[freeCount++] = indexSlots[position];
+                    removeAt(position);
+                    size--;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Очистка кэша; память вне кучи остается выделенной
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+                generations[stripe]++;
+            }
+            Arrays.fill(indexKeys, EMPTY_KEY);
+            Arrays.fill(referenced, (byte) 0);
+            freeCount = 0;
+            allocated = 0;
+            clockHand = 0;
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Условие закрепления ID: проверяется при вытеснении под блокировкой записи, должно быть быстрым
+     */
+    public void setPinned(LongPredicate pinned) {
+        this.pinned = pinned;
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Число пользователей, не поместившихся в слот
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * Число слотов, пропущенных при вытеснении из-за закрепления
+     */
+    public long getPinnedSkips() {
+        return pinnedSkips.sum();
+    }
+
+    /**
+     * Число значений из базы, не сохраненных из-за записи или инвалидации во время чтения
+     */
+    public long getStalePuts() {
+        return stalePuts.sum();
+    }
+
+    /**
+     * Память вне кучи под слоты в байтах
+     */
+    public long getOffHeapBytes() {
+        return (long) capacity * slotSize;
+    }
+
+    /**
+     * Память в куче под индекс и служебные массивы в байтах
+     */
+    public long getHeapBytes() {
+        return (long) indexKeys.length * (Long.BYTES + Integer.BYTES) + (long) capacity * (1 + Integer.BYTES)
+                + (long) GENERATION_STRIPES * Long.BYTES;
+    }
+
+    private int find(long id) {
+        if (id == EMPTY_KEY) {
+            return -1;
+        }
+        for (int position = mix(id) & indexMask; ; position = (position + 1) & indexMask) {
+            long key = indexKeys[position];
+            if (key == id) {
+                return position;
+            }
+            if (key == EMPTY_KEY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(long id, int slot) {
+        int position = mix(id) & indexMask;
+        while (indexKeys[position] != EMPTY_KEY) {
+            position = (position + 1) & indexMask;
+        }
+        indexKeys[position] = id;
+        indexSlots[position] = slot;
+    }
+
+    /**
+     * Удаление из индекса со сдвигом следующих элементов цепочки назад (без надгробий)
+     */
+    private void removeAt(int position) {
+        int hole = position;
+        int next = (hole + 1) & indexMask;
+        while (indexKeys[next] != EMPTY_KEY) {
+            int home = mix(indexKeys[next]) & indexMask;
+            // Элемент можно перенести в дыру, если его домашняя позиция не лежит между дырой и им
+            if (((next - home) & indexMask) >= ((next - hole) & indexMask)) {
+                indexKeys[hole] = indexKeys[next];
+                indexSlots[hole] = indexSlots[next];
+                hole = next;
+            }
+            next = (next + 1) & indexMask;
+        }
+        indexKeys[hole] = EMPTY_KEY;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (allocated < capacity) {
+            return allocated++;
+        }
+
+        LongPredicate pinned = this.pinned;
+        int skipped = 0;
+        while (true) {
+            int slot = clockHand;
+            clockHand = clockHand + 1 == capacity ? 0 : clockHand + 1;
+            if (referenced[slot] != 0) {
+                referenced[slot] = 0;
+                continue;
+            }
+            long id = buffer(slot).getLong(offset(slot));
+            // Если закреплены все слоты, после полного круга вытесняется закрепленный
+            if (skipped < capacity && pinned.test(id)) {
+                skipped++;
+                pinnedSkips.increment();
+                continue;
+            }
+
+            removeAt(find(id));
+            size--;
+            evictions.increment();
+
+            return slot;
+        }
+    }
+
+    private void write(int slot, UserEntity userEntity, byte[] name, byte[] email) {
+        ByteBuffer buffer = buffer(slot);
+        int offset = offset(slot);
+        buffer.putLong(offset, userEntity.getId());
+        buffer.putLong(offset + 8, userEntity.getCreatedAt() != null
+                ? ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), userEntity.getCreatedAt())
+                : NULL_CREATED_AT);
+        buffer.putInt(offset + 16, userEntity.getAge() != null ? userEntity.getAge() : NULL_AGE);
+        buffer.putShort(offset + 20, (short) name.length);
+        buffer.putShort(offset + 22, (short) email.length);
+        buffer.put(offset + HEADER_SIZE, name);
+        buffer.put(offset + HEADER_SIZE + name.length, email);
+    }
+
+    private UserEntity read(int slot) {
+        ByteBuffer buffer = buffer(slot);
+        int offset = offset(slot);
+        long createdAt = buffer.getLong(offset + 8);
+        int age = buffer.getInt(offset + 16);
+        byte[] name = new byte[Short.toUnsignedInt(buffer.getShort(offset + 20))];
+        byte[] email = new byte[Short.toUnsignedInt(buffer.getShort(offset + 22))];
+        buffer.get(offset + HEADER_SIZE, name);
+        buffer.get(offset + HEADER_SIZE + name.length, email);
+
+        UserEntity userEntity = new UserEntity(new String(name, StandardCharsets.UTF_8),
+                new String(email, StandardCharsets.UTF_8), age == NULL_AGE ? null : age);
+        userEntity.setId(buffer.getLong(offset));
+        userEntity.setCreatedAt(createdAt == NULL_CREATED_AT
+                ? null
+                : LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(createdAt, ChronoUnit.MICROS));
+
+        return userEntity;
+    }
+
+    private ByteBuffer buffer(int slot) {
+        return chunks[slot / slotsPerChunk];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerChunk) * slotSize;
+    }
+
+    private static int stripe(long id) {
+        return mix(id) & (GENERATION_STRIPES - 1);
+    }
+
+    /**
+     * Перемешивание битов id (финализатор murmur3), чтобы последовательные id не образовывали кластеров
+     */
+    private static int mix(long id) {
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3f99e3ca27fL;
+        hash ^= hash >>> 33;
+
+        return (int) hash;
+    }
+}
@@ -0,0 +1,237 @@
+package com.userservice.cache;
+
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Слушатель уведомлений об изменении пользователей (LISTEN users_changed, триггер из V4__user_change_notify.sql).
+ * <p>
+ * Работает на выделенном соединении pgjdbc вне пула и инвалидирует локальный кэш пачками:
+ * все уведомления, полученные за один опрос, удаляются из кэша под одной блокировкой.
+ * После каждого (пере)подключения кэш очищается целиком: уведомления, пришедшие
+ * пока соединения не было, потеряны, и устаревшие записи не должны пережить разрыв.
+ * Тот же механизм слушает канал {@link #VERSION_CHANNEL} версии таблицы (V7__users_version.sql)
+ * и канал {@link #EMAIL_CHANNEL} новых email (V9__user_email_notify.sql).
+ */
+public class UserChangeListener implements AutoCloseable {
+
+    public static final String CHANNEL = "users_changed";
+
+    /**
+     * Канал версии users: одно уведомление на изменяющий оператор, полезная нагрузка - номер версии
+     */
+    public static final String VERSION_CHANNEL = "users_version";
+
+    /**
+     * Канал новых email: уведомление на каждую вставку и смену email, полезная нагрузка - новый email
+     */
+    public static final String EMAIL_CHANNEL = "users_emails";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeListener.class);
+
+    private static final long POLL_MILLIS = 500;
+    private static final long KEEP_ALIVE_MILLIS = 10_000;
+    private static final long RECONNECT_DELAY_MILLIS = 1_000;
+
+    private final ConnectionSource connectionSource;
+    private final String channel;
+    private final Consumer<String[]> payloadBatch;
+    private final Runnable dropAll;
+    private final String name;
+
+    private volatile boolean closed;
+    private Thread thread;
+    private volatile Connection connection;
+
+    /**
+     * @param idMapper преобразование ID из уведомления в ключ кэша (например, глобальный ID шарда)
+     */
+    public UserChangeListener(SessionFactory sessionFactory, OffHeapUserCache cache, LongUnaryOperator idMapper,
+                              String name) {
+        this(sessionFactory, CHANNEL, cache::invalidateAll, cache::clear, idMapper, name);
+    }
+
+    /**
+     * @param invalidateBatch обработка пачки ID (или номеров версий) из уведомлений одного опроса
+     * @param dropAll сброс всего локального состояния после (пере)подключения
+     */
+    public UserChangeListener(SessionFactory sessionFactory, String channel, Consumer<long[]> invalidateBatch,
+                              Runnable dropAll, LongUnaryOperator idMapper, String name) {
+        this(jdbcConnectionSource(sessionFactory), channel, idBatches(invalidateBatch, idMapper), dropAll, name);
+    }
+
+    /**
+     * Слушатель с полезной нагрузкой уведомлений как есть (например, email из {@link #EMAIL_CHANNEL})
+     * @param payloadBatch обработка пачки полезных нагрузок из уведомлений одного опроса
+     * @param dropAll сброс всего локального состояния после (пере)подключения
+     */
+    public UserChangeListener(SessionFactory sessionFactory, String channel, Consumer<String[]> payloadBatch,
+                              Runnable dropAll, String name) {
+        this(jdbcConnectionSource(sessionFactory), channel, payloadBatch, dropAll, name);
+    }
+
+    UserChangeListener(ConnectionSource connectionSource, Consumer<long[]> invalidateBatch, Runnable dropAll,
+                       LongUnaryOperator idMapper, String name) {
+        this(connectionSource, CHANNEL, idBatches(invalidateBatch, idMapper), dropAll, name);
+    }
+
+    UserChangeListener(ConnectionSource connectionSource, String channel, Consumer<String[]> payloadBatch,
+                       Runnable dropAll, String name) {
+        this.connectionSource = connectionSource;
+        this.channel = channel;
+        this.payloadBatch = payloadBatch;
+        this.dropAll = dropAll;
+        this.name = name;
+    }
+
+    /**
+     * Запуск слушателя в daemon-потоке
+     */
+    public synchronized void start() {
+        if (thread != null || closed) {
+            return;
+        }
+        thread = new Thread(this::run, "user-change-listener-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly(connection);
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                listen();
+            } catch (SQLException e) {
+                if (closed) {
+                    break;
+                }
+                logger.warn("Change listener {} lost connection, reconnecting in {} ms",
+                        name, RECONNECT_DELAY_MILLIS, e);
+            }
+
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        logger.info("Change listener {} stopped", name);
+    }
+
+    /**
+     * Одна сессия: подключение, LISTEN, полная очистка кэша и прием уведомлений до ошибки или остановки
+     */
+    void listen() throws SQLException {
+        try (Connection listenerConnection = connectionSource.open()) {
+            connection = listenerConnection;
+            PGConnection pgConnection = listenerConnection.unwrap(PGConnection.class);
+            try (Statement statement = listenerConnection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+            }
+            // LISTEN уже действует, поэтому после очистки ни одно изменение не будет пропущено
+            dropAll.run();
+            logger.info("Change listener {} subscribed to {}, local cache dropped", name, channel);
+
+            long lastActivity = System.currentTimeMillis();
+            while (!closed) {
+                PGNotification[] notifications = pgConnection.getNotifications((int) POLL_MILLIS);
+                if (notifications != null && notifications.length > 0) {
+                    handle(notifications);
+                    lastActivity = System.currentTimeMillis();
+                } else if (System.currentTimeMillis() - lastActivity > KEEP_ALIVE_MILLIS) {
+                    // Без трафика обрыв соединения иначе не обнаружить
+                    try (Statement statement = listenerConnection.createStatement()) {
+                        statement.execute("SELECT 1");
+                    }
+                    lastActivity = System.currentTimeMillis();
+                }
+            }
+        } finally {
+            connection = null;
+        }
+    }
+
+    private void handle(PGNotification[] notifications) {
+        String[] payloads = new String[notifications.length];
+        for (int i = 0; i < notifications.length; i++) {
+            payloads[i] = notifications[i].getParameter();
+        }
+
+        payloadBatch.accept(payloads);
+        logger.debug("Change listener {} handled {} notifications", name, payloads.length);
+    }
+
+    /**
+     * Разбор уведомлений "id[,email]" в пачку уникальных ID; некорректные уведомления пропускаются
+     */
+    private static Consumer<String[]> idBatches(Consumer<long[]> invalidateBatch, LongUnaryOperator idMapper) {
+        return payloads -> {
+            long[] ids = new long[payloads.length];
+            int count = 0;
+            for (String payload : payloads) {
+                int separator = payload.indexOf(',');
+                try {
+                    ids[count++] = idMapper.applyAsLong(
+                            Long.parseLong(separator >= 0 ? payload.substring(0, separator) : payload));
+                } catch (NumberFormatException e) {
+                    count--;
+                    logger.warn("Ignoring malformed change notification: {}", payload);
+                }
+            }
+
+            invalidateBatch.accept(Arrays.stream(ids, 0, count).distinct().toArray());
+        };
+    }
+
+    /**
+     * Соединение вне пула с параметрами подключения SessionFactory
+     */
+    private static ConnectionSource jdbcConnectionSource(SessionFactory sessionFactory) {
+        Map<String, Object> properties = sessionFactory.getProperties();
+        String url = String.valueOf(properties.get("hibernate.hikari.dataSource.url"));
+        String user = String.valueOf(properties.get("hibernate.hikari.dataSource.user"));
+        String password = String.valueOf(properties.get("hibernate.hikari.dataSource.password"));
+
+        return () -> DriverManager.getConnection(url, user, password);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing change listener connection", e);
+        }
+    }
+
+    /**
+     * Источник выделенных соединений
+     */
+    @FunctionalInterface
+    interface ConnectionSource {
+        Connection open() throws SQLException;
+    }
+}
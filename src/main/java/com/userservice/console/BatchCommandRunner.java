@@ -0,0 +1,340 @@
+package com.userservice.console;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пакетный режим консоли: команды читаются построчно из файла или stdin, без подсказок и подтверждений.
+ * <p>
+ * Формат строки - команда и аргументы через ';' (пустые строки и строки с '#' пропускаются):
+ * <pre>
+ * create;имя;email;возраст    возраст может быть пустым
+ * update;id;имя;email;возраст
+ * delete;id
+ * get;id
+ * find;email
+ * list
+ * </pre>
+ * Подряд идущие create выполняются одной транзакцией (до batchSize команд), подряд идущие delete -
+ * одним удалением по списку ID. Если пачка create отклонена, ее команды повторяются по одной, чтобы
+ * ошибку получили только виновные строки. Чтение сначала выполняет накопленную пачку, поэтому видит
+ * предыдущие записи. Каждая команда дает строку "номер OK|NOT_FOUND|ERROR ...", в конце - сводка.
+ */
+public class BatchCommandRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchCommandRunner.class);
+
+    private static final String SEPARATOR = ";";
+    private static final int LIST_PAGE_SIZE = 1_000;
+
+    private final UserService userService;
+    private final int batchSize;
+
+    private final List<Command> pending = new ArrayList<>();
+    private Writer output;
+    private long succeeded;
+    private long failed;
+
+    public BatchCommandRunner(UserService userService, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.userService = userService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Выполнение всех команд из input; результаты буферизуются в output и сбрасываются в конце
+     * @return сводка по выполненным командам
+     */
+    public Summary run(BufferedReader input, Writer output) throws IOException {
+        long startNanos = System.nanoTime();
+        this.output = output;
+        succeeded = 0;
+        failed = 0;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            Command command;
+            try {
+                command = Command.parse(lineNumber, trimmed);
+            } catch (IllegalArgumentException e) {
+                flush();
+                error(lineNumber, e.getMessage());
+                continue;
+            }
+            execute(command);
+        }
+        flush();
+
+        Summary summary = new Summary(succeeded + failed, succeeded, failed, System.nanoTime() - startNanos);
+        output.write(summary.toString());
+        output.write(System.lineSeparator());
+        output.flush();
+        logger.info("Batch finished: {}", summary);
+
+        return summary;
+    }
+
+    private void execute(Command command) throws IOException {
+        switch (command.type()) {
+            case CREATE, DELETE -> {
+                if (!pending.isEmpty() && pending.get(0).type() != command.type()) {
+                    flush();
+                }
+                pending.add(command);
+                if (pending.size() >= batchSize) {
+                    flush();
+                }
+            }
+            case UPDATE -> {
+                flush();
+                update(command);
+            }
+            case GET -> {
+                flush();
+                get(command);
+            }
+            case FIND -> {
+                flush();
+                find(command);
+            }
+            case LIST -> {
+                flush();
+                list(command);
+            }
+        }
+    }
+
+    /**
+     * Выполнение накопленной пачки create или delete
+     */
+    private void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Command> batch = List.copyOf(pending);
+        pending.clear();
+
+        if (batch.get(0).type() == CommandType.CREATE) {
+            createBatch(batch);
+        } else {
+            deleteBatch(batch);
+        }
+    }
+
+    private void createBatch(List<Command> batch) throws IOException {
+        List<UserEntity> users = batch.stream()
+                .map(command -> new UserEntity(command.name(), command.email(), command.age()))
+                .toList();
+        try {
+            List<UserEntity> created = userService.createUsers(users);
+            for (int i = 0; i < batch.size(); i++) {
+                ok(batch.get(i).line(), "created " + created.get(i).getId());
+            }
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Create batch of {} commands rejected, retrying one by one: {}", batch.size(), e.getMessage());
+        }
+
+        for (Command command : batch) {
+            try {
+                UserEntity created = userService.createUser(command.name(), command.email(), command.age());
+                ok(command.line(), "created " + created.getId());
+            } catch (RuntimeException e) {
+                error(command.line(), e.getMessage());
+            }
+        }
+    }
+
+    private void deleteBatch(List<Command> batch) throws IOException {
+        String lines = batch.get(0).line() + (batch.size() > 1 ? "-" + batch.get(batch.size() - 1).line() : "");
+        try {
+            int deleted = userService.deleteUsers(batch.stream().map(Command::id).toList());
+            succeeded += batch.size();
+            writeLine(lines + " OK deleted " + deleted + " of " + batch.size());
+        } catch (RuntimeException e) {
+            failed += batch.size();
+            writeLine(lines + " ERROR " + e.getMessage());
+        }
+    }
+
+    private void update(Command command) throws IOException {
+        try {
+            UserEntity updated = userService.updateUser(command.id(), command.name(), command.email(), command.age());
+            ok(command.line(), "updated " + updated.getId());
+        } catch (RuntimeException e) {
+            error(command.line(), e.getMessage());
+        }
+    }
+
+    private void get(Command command) throws IOException {
+        try {
+            found(command.line(), userService.getUserById(command.id()), String.valueOf(command.id()));
+        } catch (RuntimeException e) {
+            error(command.line(), e.getMessage());
+        }
+    }
+
+    private void find(Command command) throws IOException {
+        try {
+            found(command.line(), userService.getUserByEmail(command.email()), command.email());
+        } catch (RuntimeException e) {
+            error(command.line(), e.getMessage());
+        }
+    }
+
+    /**
+     * Список постранично через проекции, без загрузки всех сущностей в память
+     */
+    private void list(Command command) throws IOException {
+        try {
+            long count = 0;
+            Long afterId = null;
+            List<UserSummary> page;
+            do {
+                page = userService.listUsers(afterId, LIST_PAGE_SIZE);
+                for (UserSummary summary : page) {
+                    writeLine(summary.id() + SEPARATOR + summary.name() + SEPARATOR + summary.email());
+                }
+                count += page.size();
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).id();
+                }
+            } while (page.size() == LIST_PAGE_SIZE);
+            ok(command.line(), "listed " + count);
+        } catch (RuntimeException e) {
+            error(command.line(), e.getMessage());
+        }
+    }
+
+    private void found(int line, Optional<UserEntity> user, String key) throws IOException {
+        if (user.isPresent()) {
+            ok(line, user.get().toString());
+        } else {
+            succeeded++;
+            writeLine(line + " NOT_FOUND " + key);
+        }
+    }
+
+    private void ok(int line, String message) throws IOException {
+        succeeded++;
+        writeLine(line + " OK " + message);
+    }
+
+    private void error(int line, String message) throws IOException {
+        failed++;
+        writeLine(line + " ERROR " + message);
+    }
+
+    private void writeLine(String text) throws IOException {
+        output.write(text);
+        output.write(System.lineSeparator());
+    }
+
+    /**
+     * Итог пакетного выполнения
+     */
+    public record Summary(long commands, long succeeded, long failed, long elapsedNanos) {
+
+        public double commandsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : commands * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Processed %d commands: %d ok, %d failed in %d ms (%.0f commands/s)",
+                    commands, succeeded, failed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), commandsPerSecond());
+        }
+    }
+
+    private enum CommandType {
+        CREATE, UPDATE, DELETE, GET, FIND, LIST
+    }
+
+    /**
+     * Разобранная команда; неиспользуемые командой поля равны null
+     */
+    private record Command(int line, CommandType type, Long id, String name, String email, Integer age) {
+
+        static Command parse(int line, String text) {
+            String[] fields = text.split(SEPARATOR, -1);
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = fields[i].trim();
+            }
+            String name = fields[0].toLowerCase(Locale.ROOT);
+
+            return switch (name) {
+                case "create" -> {
+                    expectFields(fields, 4, "create;name;email;age");
+                    yield new Command(line, CommandType.CREATE, null, fields[1], fields[2], parseAge(fields[3]));
+                }
+                case "update" -> {
+                    expectFields(fields, 5, "update;id;name;email;age");
+                    yield new Command(line, CommandType.UPDATE, parseId(fields[1]), fields[2], fields[3],
+                            parseAge(fields[4]));
+                }
+                case "delete" -> {
+                    expectFields(fields, 2, "delete;id");
+                    yield new Command(line, CommandType.DELETE, parseId(fields[1]), null, null, null);
+                }
+                case "get" -> {
+                    expectFields(fields, 2, "get;id");
+                    yield new Command(line, CommandType.GET, parseId(fields[1]), null, null, null);
+                }
+                case "find" -> {
+                    expectFields(fields, 2, "find;email");
+                    yield new Command(line, CommandType.FIND, null, null, fields[1], null);
+                }
+                case "list" -> {
+                    expectFields(fields, 1, "list");
+                    yield new Command(line, CommandType.LIST, null, null, null, null);
+                }
+                default -> throw new IllegalArgumentException("Unknown command: " + fields[0]);
+            };
+        }
+
+        private static void expectFields(String[] fields, int count, String usage) {
+            if (fields.length != count) {
+                throw new IllegalArgumentException("Expected " + usage);
+            }
+        }
+
+        private static Long parseId(String value) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid user ID: " + value);
+            }
+        }
+
+        private static Integer parseAge(String value) {
+            if (value.isEmpty()) {
+                return null;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid age: " + value);
+            }
+        }
+    }
+}
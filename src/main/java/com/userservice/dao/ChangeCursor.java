@@ -0,0 +1,44 @@
+package com.userservice.dao;
+
+/**
+ * Позиция в ленте изменений: (транзакция, номер изменения, id пользователя).
+ * В текстовом виде - "txId.sequence.userId"; null или пустая строка - начало ленты.
+ */
+record ChangeCursor(long txId, long sequence, long userId) {
+
+    static final ChangeCursor START = new ChangeCursor(-1, -1, -1);
+
+    static ChangeCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+
+        String[] parts = cursor.split("\\.");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid change cursor: " + cursor);
+        }
+        try {
+            return new ChangeCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid change cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Позиция раньше other в порядке ленты
+     */
+    boolean isBefore(ChangeCursor other) {
+        if (txId != other.txId) {
+            return txId < other.txId;
+        }
+        if (sequence != other.sequence) {
+            return sequence < other.sequence;
+        }
+
+        return userId < other.userId;
+    }
+
+    String encode() {
+        return txId + "." + sequence + "." + userId;
+    }
+}
@@ -0,0 +1,188 @@
+package com.userservice.dao;
+
+import com.userservice.entity.UserEntity;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Массовая загрузка пользователей по спискам ID и email для прогрева кэша при старте.
+ * Списки делятся на порции; каждая порция - один SELECT ... = ANY(массив) на своем соединении,
+ * порции выполняются параллельно. Ошибка порции не прерывает остальные: прогрев не обязателен.
+ * При шардировании ID раскладываются по шардам, email - по шарду, вычисленному как в {@link ShardedUserDAO}.
+ */
+public class HotUserLoader {
+
+    static final String FIND_BY_IDS_SQL = "SELECT " + JdbcUserDAO.USER_COLUMNS + " FROM users WHERE id = ANY(?)";
+    static final String FIND_BY_EMAILS_SQL =
+            "SELECT " + JdbcUserDAO.USER_COLUMNS + " FROM users WHERE email = ANY(?)";
+
+    private static final Logger logger = LoggerFactory.getLogger(HotUserLoader.class);
+
+    /**
+     * Итог загрузки: запрошено ключей, найдено пользователей, порций с ошибкой
+     */
+    public record Result(int requested, int loaded, int failedChunks) {
+
+        /**
+         * Доля найденных ключей
+         */
+        public double coverage() {
+            return requested == 0 ? 1.0 : (double) loaded / requested;
+        }
+    }
+
+    private final List<SessionFactory> sessionFactories;
+    private final boolean sharded;
+
+    /**
+     * @param sessionFactories одна база или шарды в порядке номеров
+     * @param sharded ID глобальные (см. {@link ShardedUserDAO#globalId})
+     */
+    public HotUserLoader(List<SessionFactory> sessionFactories, boolean sharded) {
+        if (sessionFactories.isEmpty() || !sharded && sessionFactories.size() > 1) {
+            throw new IllegalArgumentException("Expected one database or a list of shards");
+        }
+        this.sessionFactories = List.copyOf(sessionFactories);
+        this.sharded = sharded;
+    }
+
+    /**
+     * Загрузка пользователей; consumer вызывается из нескольких потоков
+     * @param chunkSize ключей в одном запросе
+     * @param parallelism одновременных запросов (не больше размера пула соединений)
+     */
+    public Result load(Collection<Long> ids, Collection<String> emails, int chunkSize, int parallelism,
+                       Consumer<UserEntity> consumer) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Chunk size and parallelism must be positive");
+        }
+
+        List<List<Long>> idsByShard = new ArrayList<>();
+        List<List<String>> emailsByShard = new ArrayList<>();
+        for (int shard = 0; shard < sessionFactories.size(); shard++) {
+            idsByShard.add(new ArrayList<>());
+            emailsByShard.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            if (!sharded) {
+                idsByShard.get(0).add(id);
+            } else if (ShardedUserDAO.shardOf(id) < sessionFactories.size()) {
+                idsByShard.get(ShardedUserDAO.shardOf(id)).add(ShardedUserDAO.localIdOf(id));
+            }
+        }
+        for (String email : emails) {
+            emailsByShard.get(sharded ? ShardedUserDAO.shardForEmail(email, sessionFactories.size()) : 0).add(email);
+        }
+
+        AtomicInteger loaded = new AtomicInteger();
+        Consumer<UserEntity> counting = userEntity -> {
+            loaded.incrementAndGet();
+            consumer.accept(userEntity);
+        };
+        List<Runnable> chunks = new ArrayList<>();
+        for (int shard = 0; shard < sessionFactories.size(); shard++) {
+            int shardNumber = shard;
+            for (List<Long> chunk : partition(idsByShard.get(shard), chunkSize)) {
+                chunks.add(() -> loadChunk(shardNumber, FIND_BY_IDS_SQL, "bigint", chunk.toArray(new Long[0]),
+                        counting));
+            }
+            for (List<String> chunk : partition(emailsByShard.get(shard), chunkSize)) {
+                chunks.add(() -> loadChunk(shardNumber, FIND_BY_EMAILS_SQL, "text", chunk.toArray(new String[0]),
+                        counting));
+            }
+        }
+
+        int failedChunks = runAll(chunks, parallelism);
+
+        return new Result(ids.size() + emails.size(), loaded.get(), failedChunks);
+    }
+
+    private void loadChunk(int shard, String sql, String elementType, Object[] keys, Consumer<UserEntity> consumer) {
+        try (Session session = sessionFactories.get(shard).openSession()) {
+            List<UserEntity> userEntities = session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    statement.setArray(1, connection.createArrayOf(elementType, keys));
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        List<UserEntity> found = new ArrayList<>(keys.length);
+                        while (resultSet.next()) {
+                            found.add(JdbcUserDAO.mapUser(resultSet));
+                        }
+
+                        return found;
+                    }
+                }
+            });
+            for (UserEntity userEntity : userEntities) {
+                if (sharded) {
+                    userEntity.setId(ShardedUserDAO.globalId(userEntity.getId(), shard));
+                }
+                consumer.accept(userEntity);
+            }
+        }
+    }
+
+    /**
+     * Выполнение порций в parallelism потоках
+     * @return число порций, завершившихся ошибкой
+     */
+    private static int runAll(List<Runnable> chunks, int parallelism) {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "hot-user-loader-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks.size());
+            for (Runnable chunk : chunks) {
+                futures.add(executor.submit(chunk));
+            }
+
+            int succeeded = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    logger.warn("Error loading hot users chunk", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("Hot users loading interrupted");
+                    break;
+                }
+            }
+
+            return chunks.size() - succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> List<List<T>> partition(List<T> keys, int chunkSize) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            chunks.add(keys.subList(from, Math.min(keys.size(), from + chunkSize)));
+        }
+
+        return chunks;
+    }
+}
@@ -0,0 +1,581 @@
+package com.userservice.dao;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.DatabaseErrors;
+import org.hibernate.JDBCException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.Transaction;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.jdbc.spi.SqlExceptionHelper;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jdbc.ReturningWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.TimeZone;
+
+/**
+ * Реализация UserDAO на JDBC без ORM: запросы написаны вручную, строки ResultSet отображаются в UserEntity
+ * напрямую, без сессии, контекста персистентности и снимков сущностей.
+ * <p>
+ * Соединения берутся из того же пула Hikari, что и у SessionFactory. Одиночный запрос выполняется
+ * в autocommit, без BEGIN/COMMIT; явная транзакция открывается для createAll и при заданном таймауте.
+ * SQLException преобразуются в исключения Hibernate (ConstraintViolationException и т.д.), как в UserDAOImpl.
+ */
+public class JdbcUserDAO implements UserDAO {
+
+    /**
+     * Размер JDBC-пачки при пакетном создании
+     */
+    static final int CREATE_BATCH_SIZE = 500;
+
+    static final String USER_COLUMNS = "id, name, email, age, created_at, updated_at";
+
+    static final String INSERT_SQL = "INSERT INTO users (name, email, age, created_at) VALUES (?, ?, ?, ?)";
+
+    static final String FIND_BY_ID_SQL = "SELECT " + USER_COLUMNS + " FROM users WHERE id = ?";
+
+    static final String FIND_BY_EMAIL_SQL = "SELECT " + USER_COLUMNS + " FROM users WHERE email = ?";
+
+    static final String FIND_ALL_SQL = "SELECT " + USER_COLUMNS + " FROM users ORDER BY id";
+
+    static final String FIND_PAGE_SQL = "SELECT " + USER_COLUMNS + " FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    static final String FIND_SUMMARY_BY_EMAIL_SQL = "SELECT id, name, email FROM users WHERE email = ?";
+
+    static final String FIND_ALL_SUMMARIES_SQL = "SELECT id, name, email FROM users ORDER BY id";
+
+    static final String FIND_SUMMARY_PAGE_SQL = "SELECT id, name, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+
+    static final String SEARCH_BY_NAME_PREFIX_SQL = "SELECT id, name, email FROM users "
+            + "WHERE lower(name) COLLATE \"C\" LIKE ? "
+            + "ORDER BY lower(name) COLLATE \"C\", id LIMIT ?";
+
+    static final String SEARCH_BY_NAME_FUZZY_SQL = "SELECT id, name, email FROM users "
+            + "WHERE lower(name) % ? "
+            + "ORDER BY similarity(lower(name), ?) DESC, id LIMIT ?";
+
+    /**
+     * created_at не изменяется (как updatable = false в UserEntity), updated_at заполняет триггер
+     */
+    static final String UPDATE_SQL = "UPDATE users SET name = ?, email = ?, age = ? WHERE id = ? "
+            + "RETURNING created_at, updated_at";
+
+    static final String DELETE_BY_ID_SQL = "DELETE FROM users WHERE id = ?";
+
+    static final String DELETE_CREATED_BEFORE_SQL = "DELETE FROM users WHERE id IN "
+            + "(SELECT id FROM users WHERE created_at < ? LIMIT ?)";
+
+    static final String EXISTS_BY_EMAIL_SQL = "SELECT EXISTS (SELECT 1 FROM users WHERE email = ?)";
+
+    private static final TimeZone JDBC_TIME_ZONE = TimeZone.getTimeZone("UTC");
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcUserDAO.class);
+    private final DataSource dataSource;
+    private final SqlExceptionHelper sqlExceptionHelper;
+    private final QueryTimeouts timeouts;
+
+    public JdbcUserDAO(SessionFactory sessionFactory) {
+        this(sessionFactory, QueryTimeouts.none());
+    }
+
+    /**
+     * @param sessionFactory источник пула соединений и преобразования SQLException; сессии не открываются
+     */
+    public JdbcUserDAO(SessionFactory sessionFactory, QueryTimeouts timeouts) {
+        SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+        this.dataSource = factory.getServiceRegistry().requireService(ConnectionProvider.class)
+                .unwrap(DataSource.class);
+        this.sqlExceptionHelper = factory.getJdbcServices().getSqlExceptionHelper();
+        this.timeouts = timeouts;
+    }
+
+    /**
+     * Прогрев запросов на соединении сессии: при prepareThreshold=1 первое выполнение готовит серверный
+     * prepared statement, и он остается в кеше pgjdbc этого соединения. Запросы без фильтра не выполняются.
+     */
+    public static void warmUpQueries(Session session) {
+        Transaction transaction = session.beginTransaction();
+        try {
+            session.doWork(connection -> {
+                for (String sql : List.of(FIND_BY_ID_SQL, DELETE_BY_ID_SQL)) {
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        statement.setLong(1, 0L);
+                        statement.execute();
+                    }
+                }
+                for (String sql : List.of(FIND_BY_EMAIL_SQL, FIND_SUMMARY_BY_EMAIL_SQL, EXISTS_BY_EMAIL_SQL)) {
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        statement.setString(1, "");
+                        statement.execute();
+                    }
+                }
+                for (String sql : List.of(FIND_PAGE_SQL, FIND_SUMMARY_PAGE_SQL)) {
+                    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                        statement.setLong(1, Long.MAX_VALUE);
+                        statement.setInt(2, 1);
+                        statement.execute();
+                    }
+                }
+            });
+        } finally {
+            transaction.rollback();
+        }
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        execute("create", false, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                bindInsert(statement, userEntity);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    userEntity.setId(keys.getLong(1));
+                }
+            }
+
+            return userEntity;
+        });
+        logger.info("User created successfully: {}", userEntity.getId());
+
+        return userEntity;
+    }
+
+    /**
+     * В отличие от IDENTITY в Hibernate, вставки идут JDBC-пачками: ID возвращаются через getGeneratedKeys
+     */
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        execute("createAll", true, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (int from = 0; from < userEntities.size(); from += CREATE_BATCH_SIZE) {
+                    List<UserEntity> chunk = userEntities.subList(from,
+                            Math.min(from + CREATE_BATCH_SIZE, userEntities.size()));
+                    for (UserEntity userEntity : chunk) {
+                        bindInsert(statement, userEntity);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (UserEntity userEntity : chunk) {
+                            keys.next();
+                            userEntity.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+
+            return userEntities;
+        });
+        logger.info("Users created in one transaction: {}", userEntities.size());
+
+        return userEntities;
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        Optional<UserEntity> userEntity = execute("findById", false, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ID_SQL)) {
+                statement.setLong(1, id);
+
+                return readUser(statement);
+            }
+        });
+        logger.debug("Find by id {}: {}", id, userEntity.isPresent() ? "found" : "not found");
+
+        return userEntity;
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        Optional<UserEntity> userEntity = execute("findByEmail", false, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_BY_EMAIL_SQL)) {
+                statement.setString(1, email);
+
+                return readUser(statement);
+            }
+        });
+        logger.debug("Find by email {}: {}", email, userEntity.isPresent() ? "found" : "not found");
+
+        return userEntity;
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        try {
+            List<UserEntity> userEntities = execute("findAll", false, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(FIND_ALL_SQL)) {
+                    return readUsers(statement);
+                }
+            });
+            logger.debug("Found {} users", userEntities.size());
+
+            return userEntities;
+        } catch (JDBCException e) {
+            // Недоступность базы пробрасывается резервному снимку и ограничителю нагрузки
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        try {
+            List<UserEntity> userEntities = execute("findPage", false, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(FIND_PAGE_SQL)) {
+                    statement.setLong(1, afterId != null ? afterId : 0L);
+                    statement.setInt(2, limit);
+
+                    return readUsers(statement);
+                }
+            });
+            logger.debug("Found {} users after id {}", userEntities.size(), afterId);
+
+            return userEntities;
+        } catch (JDBCException e) {
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return execute("findSummaryByEmail", false, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(FIND_SUMMARY_BY_EMAIL_SQL)) {
+                statement.setString(1, email);
+                List<UserSummary> summaries = readSummaries(statement);
+
+                return summaries.isEmpty() ? Optional.empty() : Optional.of(summaries.get(0));
+            }
+        });
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        try {
+            List<UserSummary> summaries = execute("findAllSummaries", false, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(FIND_ALL_SUMMARIES_SQL)) {
+                    return readSummaries(statement);
+                }
+            });
+            logger.debug("Found {} user summaries", summaries.size());
+
+            return summaries;
+        } catch (JDBCException e) {
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        try {
+            List<UserSummary> summaries = execute("findSummaryPage", false, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(FIND_SUMMARY_PAGE_SQL)) {
+                    statement.setLong(1, afterId != null ? afterId : 0L);
+                    statement.setInt(2, limit);
+
+                    return readSummaries(statement);
+                }
+            });
+            logger.debug("Found {} user summaries after id {}", summaries.size(), afterId);
+
+            return summaries;
+        } catch (JDBCException e) {
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        try {
+            List<UserSummary> summaries = execute("searchByName", false, connection -> {
+                if (mode == NameSearchMode.PREFIX) {
+                    try (PreparedStatement statement = connection.prepareStatement(SEARCH_BY_NAME_PREFIX_SQL)) {
+                        statement.setString(1, UserDAOImpl.escapeLike(normalized) + "%");
+                        statement.setInt(2, limit);
+
+                        return readSummaries(statement);
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(SEARCH_BY_NAME_FUZZY_SQL)) {
+                    statement.setString(1, normalized);
+                    statement.setString(2, normalized);
+                    statement.setInt(3, limit);
+
+                    return readSummaries(statement);
+                }
+            });
+            logger.debug("Search by name '{}' ({}): {} found", query, mode, summaries.size());
+
+            return summaries;
+        } catch (JDBCException e) {
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Один UPDATE ... RETURNING вместо загрузки и сравнения сущности при merge
+     * @throws StaleObjectStateException пользователь уже удален
+     */
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        UserEntity updated = execute("update", false, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+                statement.setString(1, userEntity.getName());
+                statement.setString(2, userEntity.getEmail());
+                setAge(statement, 3, userEntity.getAge());
+                statement.setLong(4, userEntity.getId());
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        return null;
+                    }
+                    UserEntity result = new UserEntity(userEntity.getName(), userEntity.getEmail(),
+                            userEntity.getAge());
+                    result.setId(userEntity.getId());
+                    result.setCreatedAt(getDateTime(resultSet, 1));
+                    result.setUpdatedAt(getDateTime(resultSet, 2));
+
+                    return result;
+                }
+            }
+        });
+        if (updated == null) {
+            logger.error("Error updating user: {} not found", userEntity.getId());
+            throw new StaleObjectStateException(UserEntity.class.getName(), userEntity.getId());
+        }
+        logger.info("User updated successfully: {}", userEntity.getId());
+
+        return updated;
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        int deleted = execute("delete", false, connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_BY_ID_SQL)) {
+                statement.setLong(1, id);
+
+                return statement.executeUpdate();
+            }
+        });
+
+        if (deleted > 0) {
+            logger.info("User deleted successfully: {}", id);
+        } else {
+            logger.warn("User not found for deletion: {}", id);
+        }
+
+        return deleted > 0;
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        Long[] distinctIds = ids.stream().distinct().toArray(Long[]::new);
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.length; from += UserDAOImpl.DELETE_CHUNK_SIZE) {
+            Long[] chunk = Arrays.copyOfRange(distinctIds, from,
+                    Math.min(from + UserDAOImpl.DELETE_CHUNK_SIZE, distinctIds.length));
+            deleted += execute("deleteByIds", false, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(UserDAOImpl.DELETE_BY_IDS_SQL)) {
+                    statement.setArray(1, connection.createArrayOf("bigint", chunk));
+
+                    return statement.executeUpdate();
+                }
+            });
+        }
+        logger.info("Users deleted by ids: {} of {}", deleted, distinctIds.length);
+
+        return deleted;
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        long deleted = 0;
+        int chunkDeleted;
+        do {
+            chunkDeleted = execute("deleteCreatedBefore", false, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_CREATED_BEFORE_SQL)) {
+                    setDateTime(statement, 1, createdBefore);
+                    statement.setInt(2, UserDAOImpl.DELETE_CHUNK_SIZE);
+
+                    return statement.executeUpdate();
+                }
+            });
+            deleted += chunkDeleted;
+        } while (chunkDeleted == UserDAOImpl.DELETE_CHUNK_SIZE);
+        logger.info("Users created before {} deleted: {}", createdBefore, deleted);
+
+        return deleted;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        try {
+            boolean exists = execute("existsByEmail", false, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(EXISTS_BY_EMAIL_SQL)) {
+                    statement.setString(1, email);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        return resultSet.next() && resultSet.getBoolean(1);
+                    }
+                }
+            });
+            logger.debug("Email {} exists: {}", email, exists);
+
+            return exists;
+        } catch (JDBCException e) {
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Выполнение запросов на соединении из пула; транзакция открывается, если она нужна работе
+     * или таймауту (set_config действует до конца транзакции). Autocommit восстанавливает Hikari при возврате.
+     *
+     * @throws JDBCException ошибка базы, преобразованная как в Hibernate
+     */
+    private <T> T execute(String operation, boolean transactional, ReturningWork<T> work) {
+        long timeoutMillis = timeouts.begin(operation);
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!transactional && timeoutMillis <= 0) {
+                return work.execute(connection);
+            }
+
+            connection.setAutoCommit(false);
+            try {
+                timeouts.apply(connection, timeoutMillis);
+                T result = work.execute(connection);
+                connection.commit();
+
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                logger.error("Transaction rolled back due to error", e);
+                throw e;
+            }
+        } catch (SQLException e) {
+            JDBCException converted = sqlExceptionHelper.convert(e, "Error executing " + operation);
+            timeouts.onError(operation, converted);
+            logger.error("Error executing {}", operation, e);
+            throw converted;
+        }
+    }
+
+    private static void bindInsert(PreparedStatement statement, UserEntity userEntity) throws SQLException {
+        if (userEntity.getCreatedAt() == null) {
+            userEntity.setCreatedAt(LocalDateTime.now());
+        }
+        statement.setString(1, userEntity.getName());
+        statement.setString(2, userEntity.getEmail());
+        setAge(statement, 3, userEntity.getAge());
+        setDateTime(statement, 4, userEntity.getCreatedAt());
+    }
+
+    private static Optional<UserEntity> readUser(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? Optional.of(mapUser(resultSet)) : Optional.empty();
+        }
+    }
+
+    private static List<UserEntity> readUsers(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            List<UserEntity> userEntities = new ArrayList<>();
+            while (resultSet.next()) {
+                userEntities.add(mapUser(resultSet));
+            }
+
+            return userEntities;
+        }
+    }
+
+    private static List<UserSummary> readSummaries(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            List<UserSummary> summaries = new ArrayList<>();
+            while (resultSet.next()) {
+                summaries.add(new UserSummary(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)));
+            }
+
+            return summaries;
+        }
+    }
+
+    /**
+     * Строка USER_COLUMNS в сущность
+     */
+    static UserEntity mapUser(ResultSet resultSet) throws SQLException {
+        int age = resultSet.getInt(4);
+        Integer nullableAge = resultSet.wasNull() ? null : age;
+        UserEntity userEntity = new UserEntity(resultSet.getString(2), resultSet.getString(3), nullableAge);
+        userEntity.setId(resultSet.getLong(1));
+        userEntity.setCreatedAt(getDateTime(resultSet, 5));
+        userEntity.setUpdatedAt(getDateTime(resultSet, 6));
+
+        return userEntity;
+    }
+
+    private static void setAge(PreparedStatement statement, int index, Integer age) throws SQLException {
+        if (age != null) {
+            statement.setInt(index, age);
+        } else {
+            statement.setNull(index, Types.INTEGER);
+        }
+    }
+
+    /**
+     * Время пишется и читается как у Hibernate с hibernate.jdbc.time_zone=UTC, поэтому строки,
+     * записанные любой из реализаций, читаются обеими одинаково
+     */
+    private static void setDateTime(PreparedStatement statement, int index, LocalDateTime value)
+            throws SQLException {
+        statement.setTimestamp(index, Timestamp.valueOf(value), Calendar.getInstance(JDBC_TIME_ZONE));
+    }
+
+    private static LocalDateTime getDateTime(ResultSet resultSet, int index) throws SQLException {
+        Timestamp timestamp = resultSet.getTimestamp(index, Calendar.getInstance(JDBC_TIME_ZONE));
+
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.userservice.dao;
+
+/**
+ * Режим поиска пользователей по имени
+ */
+public enum NameSearchMode {
+
+    /**
+     * Имя начинается с запроса (без учета регистра)
+     */
+    PREFIX,
+
+    /**
+     * Имя похоже на запрос (триграммное сходство pg_trgm)
+     */
+    FUZZY
+}
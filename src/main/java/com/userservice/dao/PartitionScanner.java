@@ -0,0 +1,156 @@
+package com.userservice.dao;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Чтение всей таблицы users по секциям параллельно: каждая секция - отдельный запрос на своем соединении.
+ * <p>
+ * Все запросы видят один снимок базы, как в параллельном pg_dump: ведущая транзакция REPEATABLE READ
+ * экспортирует снимок (pg_export_snapshot) и остается открытой, пока секции не прочитаны,
+ * остальные транзакции подключаются к нему через SET TRANSACTION SNAPSHOT.
+ * Одновременно занято parallelism + 1 соединений пула.
+ */
+public class PartitionScanner {
+
+    static final String EXPORT_SNAPSHOT_SQL = "SELECT pg_export_snapshot()";
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionScanner.class);
+
+    /**
+     * Преобразование строки результата
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+
+    private final SessionFactory sessionFactory;
+    private final List<String> partitions;
+    private final ExecutorService executor;
+
+    /**
+     * @param partitions имена секций (см. SchemaManager.userPartitions)
+     * @param parallelism одновременно читаемых секций
+     */
+    public PartitionScanner(SessionFactory sessionFactory, List<String> partitions, int parallelism) {
+        if (partitions.isEmpty() || parallelism <= 0) {
+            throw new IllegalArgumentException("Expected partitions and positive parallelism");
+        }
+        this.sessionFactory = sessionFactory;
+        this.partitions = List.copyOf(partitions);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.min(parallelism, partitions.size()), runnable -> {
+            Thread thread = new Thread(runnable, "partition-scan-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /**
+     * Все строки всех секций, отсортированные order
+     * @param columns список столбцов SELECT
+     * @param timeouts таймауты операции, применяются к запросу каждой секции
+     */
+    public <T> List<T> scan(String columns, RowMapper<T> mapper, Comparator<T> order, QueryTimeouts timeouts,
+                            long timeoutMillis) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                String snapshot = session.doReturningWork(PartitionScanner::exportSnapshot);
+
+                List<Future<List<T>>> futures = new ArrayList<>(partitions.size());
+                for (String partition : partitions) {
+                    String sql = "SELECT " + columns + " FROM " + partition;
+                    futures.add(executor.submit(() -> scanPartition(snapshot, sql, mapper, timeouts, timeoutMillis)));
+                }
+
+                List<T> merged = new ArrayList<>();
+                for (Future<List<T>> future : futures) {
+                    merged.addAll(future.get());
+                }
+                merged.sort(order);
+                logger.debug("Scanned {} partitions in parallel: {} rows", partitions.size(), merged.size());
+
+                return merged;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Partition scan interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Partition scan failed", e.getCause());
+            } finally {
+                // Транзакция только читала; снимок перестает действовать после ее завершения
+                transaction.rollback();
+            }
+        }
+    }
+
+    public List<String> getPartitions() {
+        return partitions;
+    }
+
+    private <T> List<T> scanPartition(String snapshot, String sql, RowMapper<T> mapper, QueryTimeouts timeouts,
+                                      long timeoutMillis) {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                return session.doReturningWork(connection -> {
+                    importSnapshot(connection, snapshot);
+                    timeouts.apply(connection, timeoutMillis);
+
+                    List<T> rows = new ArrayList<>();
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(sql)) {
+                        while (resultSet.next()) {
+                            rows.add(mapper.map(resultSet));
+                        }
+                    }
+
+                    return rows;
+                });
+            } finally {
+                transaction.rollback();
+            }
+        }
+    }
+
+    private static String exportSnapshot(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+            try (ResultSet resultSet = statement.executeQuery(EXPORT_SNAPSHOT_SQL)) {
+                resultSet.next();
+
+                return resultSet.getString(1);
+            }
+        }
+    }
+
+    /**
+     * Подключение к снимку ведущей транзакции: должно быть первым оператором транзакции
+     */
+    private static void importSnapshot(Connection connection, String snapshot) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ");
+            // Идентификатор снимка выдан сервером и не содержит кавычек; параметры SET не поддерживает
+            statement.execute("SET TRANSACTION SNAPSHOT '" + snapshot + "'");
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.userservice.dao;
+
+import com.userservice.util.BackgroundTasks;
+import com.userservice.util.DatabaseErrors;
+import com.userservice.util.Deadline;
+import com.userservice.util.DeadlineExceededException;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Таймауты запросов DAO: общий, по операциям и срок {@link Deadline} вызывающего (берется меньший).
+ * <p>
+ * Таймаут ставится в транзакции через set_config(..., true) как statement_timeout и lock_timeout:
+ * после commit или rollback соединение возвращается в пул с настройками по умолчанию. Это один
+ * дополнительный запрос на транзакцию, поэтому без заданного таймаута и срока ничего не выставляется.
+ * Операция с истекшим сроком отклоняется до открытия сессии и не занимает соединение.
+ */
+public class QueryTimeouts {
+
+    /**
+     * Таймаут запросов к базе в миллисекундах (statement_timeout и lock_timeout); 0 - без ограничения
+     */
+    public static final String DEFAULT_PROPERTY = "userservice.timeout.default-ms";
+
+    /**
+     * Таймауты отдельных операций DAO: "findById:100,searchByName:500"
+     */
+    public static final String OPERATIONS_PROPERTY = "userservice.timeout.operations";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryTimeouts.class);
+
+    static final String SET_TIMEOUTS_SQL =
+            "SELECT set_config('statement_timeout', ?, true), set_config('lock_timeout', ?, true)";
+
+    private final long defaultMillis;
+    private final Map<String, Long> operationMillis;
+
+    private final ConcurrentMap<String, LongAdder> timeouts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> abandoned = new ConcurrentHashMap<>();
+
+    /**
+     * @param defaultTimeout таймаут операций без своего значения; {@link Duration#ZERO} - без ограничения
+     * @param operationTimeouts таймауты по именам методов UserDAO
+     */
+    public QueryTimeouts(Duration defaultTimeout, Map<String, Duration> operationTimeouts) {
+        if (defaultTimeout.isNegative()) {
+            throw new IllegalArgumentException("Query timeout must not be negative");
+        }
+        this.defaultMillis = defaultTimeout.toMillis();
+        this.operationMillis = new HashMap<>();
+        operationTimeouts.forEach((operation, timeout) -> {
+            if (timeout.isNegative()) {
+                throw new IllegalArgumentException("Query timeout must not be negative: " + operation);
+            }
+            operationMillis.put(operation, timeout.toMillis());
+        });
+    }
+
+    /**
+     * Без таймаутов: учитываются только сроки вызывающих
+     */
+    public static QueryTimeouts none() {
+        return new QueryTimeouts(Duration.ZERO, Map.of());
+    }
+
+    /**
+     * Таймауты из строки вида "findById:100,searchByName:500" (миллисекунды)
+     */
+    public static QueryTimeouts parse(Duration defaultTimeout, String operationSpec) {
+        Map<String, Duration> operationTimeouts = new HashMap<>();
+        if (operationSpec != null && !operationSpec.isBlank()) {
+            for (String part : operationSpec.split(",")) {
+                String[] pair = part.split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Expected operation:millis, got: " + part.trim());
+                }
+                try {
+                    operationTimeouts.put(pair[0].trim(), Duration.ofMillis(Long.parseLong(pair[1].trim())));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid timeout for " + pair[0].trim() + ": " + pair[1].trim());
+                }
+            }
+        }
+
+        return new QueryTimeouts(defaultTimeout, operationTimeouts);
+    }
+
+    /**
+     * Таймауты из системных свойств; счетчики прерванных и отклоненных по сроку запросов пишутся в лог раз в минуту
+     */
+    public static QueryTimeouts fromSystemProperties() {
+        long defaultMillis = Long.getLong(DEFAULT_PROPERTY, 0L);
+        String operations = System.getProperty(OPERATIONS_PROPERTY);
+        QueryTimeouts timeouts = parse(Duration.ofMillis(defaultMillis), operations);
+        BackgroundTasks.logEveryMinute("Query timeout stats", () -> logger.info("Query timeouts: {}", timeouts));
+        logger.info("Query timeouts: default {} ms, per operation [{}]", defaultMillis,
+                operations == null ? "" : operations);
+
+        return timeouts;
+    }
+
+    /**
+     * Таймаут операции перед открытием сессии
+     * @return таймаут в миллисекундах, 0 - без ограничения
+     * @throws DeadlineExceededException срок вызывающего уже истек
+     */
+    public long begin(String operation) {
+        long millis = operationMillis.getOrDefault(operation, defaultMillis);
+        Optional<Deadline> deadline = Deadline.current();
+        if (deadline.isPresent()) {
+            if (deadline.get().isExpired()) {
+                counter(abandoned, operation).increment();
+                throw new DeadlineExceededException(operation);
+            }
+            long remaining = Math.max(1, deadline.get().remainingMillis());
+            millis = millis == 0 ? remaining : Math.min(millis, remaining);
+        }
+
+        return millis;
+    }
+
+    /**
+     * Установка таймаутов в начатой транзакции сессии
+     */
+    public void apply(Session session, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return;
+        }
+        session.doWork(connection -> apply(connection, timeoutMillis));
+    }
+
+    /**
+     * Установка таймаутов в начатой транзакции соединения (autocommit выключен)
+     */
+    public void apply(Connection connection, long timeoutMillis) throws SQLException {
+        if (timeoutMillis <= 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SET_TIMEOUTS_SQL)) {
+            String value = Long.toString(timeoutMillis);
+            statement.setString(1, value);
+            statement.setString(2, value);
+            statement.execute();
+        }
+    }
+
+    /**
+     * Учет ошибки операции: прерывания по statement_timeout или lock_timeout считаются
+     */
+    public void onError(String operation, Throwable error) {
+        if (DatabaseErrors.isTimeout(error)) {
+            counter(timeouts, operation).increment();
+        }
+    }
+
+    /**
+     * Число запросов операции, прерванных по таймауту
+     */
+    public long getTimeouts(String operation) {
+        LongAdder counter = timeouts.get(operation);
+
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Число вызовов операции, отклоненных до обращения к базе из-за истекшего срока
+     */
+    public long getAbandoned(String operation) {
+        LongAdder counter = abandoned.get(operation);
+
+        return counter == null ? 0 : counter.sum();
+    }
+
+    @Override
+    public String toString() {
+        Set<String> operations = new TreeSet<>(timeouts.keySet());
+        operations.addAll(abandoned.keySet());
+        StringJoiner joiner = new StringJoiner(", ");
+        operations.forEach(operation -> joiner.add(String.format("%s=%d timed out/%d abandoned",
+                operation, getTimeouts(operation), getAbandoned(operation))));
+
+        return joiner.length() == 0 ? "no timeouts" : joiner.toString();
+    }
+
+    private static LongAdder counter(ConcurrentMap<String, LongAdder> counters, String operation) {
+        return counters.computeIfAbsent(operation, key -> new LongAdder());
+    }
+}
@@ -0,0 +1,102 @@
+package com.userservice.dao;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Неблокирующий вариант UserDAO: операции те же, результат приходит через Mono/Flux.
+ * Отсутствие пользователя - пустой Mono вместо пустого Optional; ошибки приходят сигналом onError.
+ */
+public interface ReactiveUserDAO {
+
+    /**
+     * Создать нового пользователя
+     * @return созданный пользователь с присвоенным ID
+     */
+    Mono<UserEntity> create(UserEntity userEntity);
+
+    /**
+     * Создать пользователей одной транзакцией: при ошибке не создается ни один
+     * @return созданные пользователи с присвоенными ID в исходном порядке
+     */
+    Flux<UserEntity> createAll(List<UserEntity> userEntities);
+
+    /**
+     * Найти пользователя по ID
+     * @return Mono с пользователем или пустой Mono
+     */
+    Mono<UserEntity> findById(Long id);
+
+    /**
+     * Найти пользователя по email
+     * @return Mono с пользователем или пустой Mono
+     */
+    Mono<UserEntity> findByEmail(String email);
+
+    /**
+     * Поток всех пользователей по возрастанию ID; строки читаются из базы порциями по мере запроса подписчика
+     */
+    Flux<UserEntity> findAll();
+
+    /**
+     * Страница пользователей по возрастанию ID (keyset-пагинация)
+     * @param afterId ID последнего пользователя предыдущей страницы или null для первой страницы
+     */
+    Flux<UserEntity> findPage(Long afterId, int limit);
+
+    /**
+     * Найти проекцию пользователя по email
+     */
+    Mono<UserSummary> findSummaryByEmail(String email);
+
+    /**
+     * Поток проекций всех пользователей по возрастанию ID, с тем же чтением порциями, что и findAll
+     */
+    Flux<UserSummary> findAllSummaries();
+
+    /**
+     * Страница проекций пользователей по возрастанию ID (keyset-пагинация)
+     */
+    Flux<UserSummary> findSummaryPage(Long afterId, int limit);
+
+    /**
+     * Поиск пользователей по имени
+     * @return проекции: по имени для PREFIX, по убыванию сходства для FUZZY
+     */
+    Flux<UserSummary> searchByName(String query, NameSearchMode mode, int limit);
+
+    /**
+     * Обновить существующего пользователя
+     * @return обновленный пользователь
+     */
+    Mono<UserEntity> update(UserEntity userEntity);
+
+    /**
+     * Удалить пользователя по ID
+     * @return true если удален, false если не найден
+     */
+    Mono<Boolean> delete(Long id);
+
+    /**
+     * Удалить пользователей по списку ID порциями, каждая в своей транзакции
+     * @return количество удаленных пользователей
+     */
+    Mono<Integer> deleteByIds(Collection<Long> ids);
+
+    /**
+     * Удалить пользователей, зарегистрированных раньше заданного момента, порциями
+     * @return количество удаленных пользователей
+     */
+    Mono<Long> deleteCreatedBefore(LocalDateTime createdBefore);
+
+    /**
+     * Проверить существование пользователя по email
+     */
+    Mono<Boolean> existsByEmail(String email);
+}
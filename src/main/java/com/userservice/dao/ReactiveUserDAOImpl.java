@@ -0,0 +1,355 @@
+package com.userservice.dao;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import org.hibernate.StaleObjectStateException;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Реализация ReactiveUserDAO на R2DBC: запросы уходят через неблокирующий драйвер r2dbc-postgresql,
+ * и ожидание ответа базы не занимает поток. Соединения дает переданная ConnectionFactory
+ * (обычно пул r2dbc-pool: {@code r2dbc:pool:postgresql://...}).
+ * <p>
+ * findAll и findAllSummaries читают строки курсором по FETCH_SIZE в транзакции: следующая порция
+ * запрашивается у базы только по мере спроса подписчика, и медленный подписчик не копит всю таблицу в памяти.
+ */
+public class ReactiveUserDAOImpl implements ReactiveUserDAO {
+
+    /**
+     * Число строк, запрашиваемых у базы за раз при потоковом чтении
+     */
+    static final int FETCH_SIZE = 256;
+
+    private static final String USER_COLUMNS = "id, name, email, age, created_at, updated_at";
+
+    static final String INSERT_SQL = "INSERT INTO users (name, email, age, created_at) VALUES ($1, $2, $3, $4)";
+
+    static final String FIND_BY_ID_SQL = "SELECT " + USER_COLUMNS + " FROM users WHERE id = $1";
+
+    static final String FIND_BY_EMAIL_SQL = "SELECT " + USER_COLUMNS + " FROM users WHERE email = $1";
+
+    static final String FIND_ALL_SQL = "SELECT " + USER_COLUMNS + " FROM users ORDER BY id";
+
+    static final String FIND_PAGE_SQL = "SELECT " + USER_COLUMNS + " FROM users WHERE id > $1 ORDER BY id LIMIT $2";
+
+    static final String FIND_SUMMARY_BY_EMAIL_SQL = "SELECT id, name, email FROM users WHERE email = $1";
+
+    static final String FIND_ALL_SUMMARIES_SQL = "SELECT id, name, email FROM users ORDER BY id";
+
+    static final String FIND_SUMMARY_PAGE_SQL = "SELECT id, name, email FROM users WHERE id > $1 ORDER BY id LIMIT $2";
+
+    static final String SEARCH_BY_NAME_PREFIX_SQL = "SELECT id, name, email FROM users "
+            + "WHERE lower(name) COLLATE \"C\" LIKE $1 "
+            + "ORDER BY lower(name) COLLATE \"C\", id LIMIT $2";
+
+    static final String SEARCH_BY_NAME_FUZZY_SQL = "SELECT id, name, email FROM users "
+            + "WHERE lower(name) % $1 "
+            + "ORDER BY similarity(lower(name), $1) DESC, id LIMIT $2";
+
+    static final String UPDATE_SQL = "UPDATE users SET name = $1, email = $2, age = $3 WHERE id = $4 "
+            + "RETURNING created_at, updated_at";
+
+    static final String DELETE_BY_ID_SQL = "DELETE FROM users WHERE id = $1";
+
+    static final String DELETE_BY_IDS_SQL = "DELETE FROM users WHERE id = ANY($1)";
+
+    static final String DELETE_CREATED_BEFORE_SQL = "DELETE FROM users WHERE id IN "
+            + "(SELECT id FROM users WHERE created_at < $1 LIMIT $2)";
+
+    static final String EXISTS_BY_EMAIL_SQL = "SELECT EXISTS (SELECT 1 FROM users WHERE email = $1)";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserDAOImpl.class);
+    private final ConnectionFactory connectionFactory;
+
+    public ReactiveUserDAOImpl(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Mono<UserEntity> create(UserEntity userEntity) {
+        return withConnection("create", connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+            bindInsert(statement, userEntity);
+
+            return Flux.from(statement.execute()).concatMap(result -> result.map((row, metadata) -> {
+                userEntity.setId(row.get(0, Long.class));
+                return userEntity;
+            }));
+        }).singleOrEmpty()
+                .doOnSuccess(created -> logger.info("User created successfully: {}", userEntity.getId()));
+    }
+
+    @Override
+    public Flux<UserEntity> createAll(List<UserEntity> userEntities) {
+        if (userEntities.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return inTransaction("createAll", connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL).returnGeneratedValues("id");
+            for (int i = 0; i < userEntities.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                bindInsert(statement, userEntities.get(i));
+            }
+
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)));
+        }).collectList().flatMapMany(ids -> {
+            for (int i = 0; i < ids.size(); i++) {
+                userEntities.get(i).setId(ids.get(i));
+            }
+            logger.info("Users created in one transaction: {}", userEntities.size());
+
+            return Flux.fromIterable(userEntities);
+        });
+    }
+
+    @Override
+    public Mono<UserEntity> findById(Long id) {
+        return select("findById", FIND_BY_ID_SQL, ReactiveUserDAOImpl::mapUser, id).singleOrEmpty();
+    }
+
+    @Override
+    public Mono<UserEntity> findByEmail(String email) {
+        return select("findByEmail", FIND_BY_EMAIL_SQL, ReactiveUserDAOImpl::mapUser, email).singleOrEmpty();
+    }
+
+    @Override
+    public Flux<UserEntity> findAll() {
+        return stream("findAll", FIND_ALL_SQL, ReactiveUserDAOImpl::mapUser);
+    }
+
+    @Override
+    public Flux<UserEntity> findPage(Long afterId, int limit) {
+        return select("findPage", FIND_PAGE_SQL, ReactiveUserDAOImpl::mapUser, afterId != null ? afterId : 0L, limit);
+    }
+
+    @Override
+    public Mono<UserSummary> findSummaryByEmail(String email) {
+        return select("findSummaryByEmail", FIND_SUMMARY_BY_EMAIL_SQL, ReactiveUserDAOImpl::mapSummary, email)
+                .singleOrEmpty();
+    }
+
+    @Override
+    public Flux<UserSummary> findAllSummaries() {
+        return stream("findAllSummaries", FIND_ALL_SUMMARIES_SQL, ReactiveUserDAOImpl::mapSummary);
+    }
+
+    @Override
+    public Flux<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return select("findSummaryPage", FIND_SUMMARY_PAGE_SQL, ReactiveUserDAOImpl::mapSummary,
+                afterId != null ? afterId : 0L, limit);
+    }
+
+    @Override
+    public Flux<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        if (mode == NameSearchMode.PREFIX) {
+            return select("searchByName", SEARCH_BY_NAME_PREFIX_SQL, ReactiveUserDAOImpl::mapSummary,
+                    UserDAOImpl.escapeLike(normalized) + "%", limit);
+        }
+
+        return select("searchByName", SEARCH_BY_NAME_FUZZY_SQL, ReactiveUserDAOImpl::mapSummary, normalized, limit);
+    }
+
+    /**
+     * @return Mono с ошибкой StaleObjectStateException, если пользователь уже удален
+     */
+    @Override
+    public Mono<UserEntity> update(UserEntity userEntity) {
+        return withConnection("update", connection -> {
+            Statement statement = connection.createStatement(UPDATE_SQL)
+                    .bind(0, userEntity.getName())
+                    .bind(1, userEntity.getEmail())
+                    .bind(3, userEntity.getId());
+            bindAge(statement, 2, userEntity.getAge());
+
+            return Flux.from(statement.execute()).concatMap(result -> result.map((row, metadata) -> {
+                UserEntity updated = new UserEntity(userEntity.getName(), userEntity.getEmail(), userEntity.getAge());
+                updated.setId(userEntity.getId());
+                updated.setCreatedAt(fromDatabase(row.get(0, LocalDateTime.class)));
+                updated.setUpdatedAt(fromDatabase(row.get(1, LocalDateTime.class)));
+                return updated;
+            }));
+        }).singleOrEmpty()
+                .switchIfEmpty(Mono.error(() ->
+                        new StaleObjectStateException(UserEntity.class.getName(), userEntity.getId())))
+                .doOnSuccess(updated -> logger.info("User updated successfully: {}", userEntity.getId()));
+    }
+
+    @Override
+    public Mono<Boolean> delete(Long id) {
+        return execute("delete", DELETE_BY_ID_SQL, id)
+                .map(deleted -> {
+                    if (deleted > 0) {
+                        logger.info("User deleted successfully: {}", id);
+                    } else {
+                        logger.warn("User not found for deletion: {}", id);
+                    }
+                    return deleted > 0;
+                });
+    }
+
+    @Override
+    public Mono<Integer> deleteByIds(Collection<Long> ids) {
+        Long[] distinctIds = ids.stream().distinct().toArray(Long[]::new);
+        List<Long[]> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.length; from += UserDAOImpl.DELETE_CHUNK_SIZE) {
+            chunks.add(Arrays.copyOfRange(distinctIds, from,
+                    Math.min(from + UserDAOImpl.DELETE_CHUNK_SIZE, distinctIds.length)));
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> execute("deleteByIds", DELETE_BY_IDS_SQL, (Object) chunk))
+                .reduce(0L, Long::sum)
+                .map(Long::intValue)
+                .doOnSuccess(deleted -> logger.info("Users deleted by ids: {} of {}", deleted, distinctIds.length));
+    }
+
+    /**
+     * Порции удаляются последовательно, пока очередная не окажется неполной
+     */
+    @Override
+    public Mono<Long> deleteCreatedBefore(LocalDateTime createdBefore) {
+        Mono<Long> chunk = Mono.defer(() -> execute("deleteCreatedBefore", DELETE_CREATED_BEFORE_SQL,
+                toDatabase(createdBefore), UserDAOImpl.DELETE_CHUNK_SIZE));
+
+        return chunk.expand(deleted -> deleted == UserDAOImpl.DELETE_CHUNK_SIZE ? chunk : Mono.empty())
+                .reduce(0L, Long::sum)
+                .doOnSuccess(deleted -> logger.info("Users created before {} deleted: {}", createdBefore, deleted));
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmail(String email) {
+        return select("existsByEmail", EXISTS_BY_EMAIL_SQL, (row, metadata) -> row.get(0, Boolean.class), email)
+                .singleOrEmpty()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Запрос с параметрами по порядку ($1, $2, ...) на отдельном соединении в autocommit
+     */
+    private <T> Flux<T> select(String operation, String sql, BiFunction<Row, RowMetadata, T> mapper,
+                              Object... parameters) {
+        return withConnection(operation, connection -> Flux.from(bind(connection.createStatement(sql), parameters)
+                .execute()).concatMap(result -> result.map(mapper)));
+    }
+
+    /**
+     * Потоковое чтение курсором: порции по FETCH_SIZE строк запрашиваются по спросу подписчика
+     */
+    private <T> Flux<T> stream(String operation, String sql, BiFunction<Row, RowMetadata, T> mapper) {
+        return inTransaction(operation, connection -> Flux.from(connection.createStatement(sql)
+                .fetchSize(FETCH_SIZE)
+                .execute()).concatMap(result -> result.map(mapper)));
+    }
+
+    /**
+     * Изменяющий запрос
+     * @return число измененных строк
+     */
+    private Mono<Long> execute(String operation, String sql, Object... parameters) {
+        return withConnection(operation, connection -> Flux.from(bind(connection.createStatement(sql), parameters)
+                .execute()).concatMap(Result::getRowsUpdated))
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Работа на соединении из фабрики; соединение закрывается (возвращается в пул) при любом завершении потока
+     */
+    private <T> Flux<T> withConnection(String operation, Function<Connection, Publisher<T>> work) {
+        return Flux.usingWhen(connectionFactory.create(), work, Connection::close)
+                .doOnError(e -> logger.error("Error executing {}", operation, e));
+    }
+
+    /**
+     * Работа в транзакции: commit при успешном завершении, rollback при ошибке или отмене подписки
+     */
+    private <T> Flux<T> inTransaction(String operation, Function<Connection, Publisher<T>> work) {
+        return withConnection(operation, connection -> Flux.usingWhen(
+                Mono.from(connection.beginTransaction()).thenReturn(connection),
+                work,
+                Connection::commitTransaction,
+                (transactional, error) -> transactional.rollbackTransaction(),
+                Connection::rollbackTransaction));
+    }
+
+    private static Statement bind(Statement statement, Object... parameters) {
+        for (int i = 0; i < parameters.length; i++) {
+            statement.bind(i, parameters[i]);
+        }
+
+        return statement;
+    }
+
+    private static void bindInsert(Statement statement, UserEntity userEntity) {
+        if (userEntity.getCreatedAt() == null) {
+            userEntity.setCreatedAt(LocalDateTime.now());
+        }
+        statement.bind(0, userEntity.getName())
+                .bind(1, userEntity.getEmail())
+                .bind(3, toDatabase(userEntity.getCreatedAt()));
+        bindAge(statement, 2, userEntity.getAge());
+    }
+
+    private static void bindAge(Statement statement, int index, Integer age) {
+        if (age != null) {
+            statement.bind(index, age);
+        } else {
+            statement.bindNull(index, Integer.class);
+        }
+    }
+
+    /**
+     * Строка USER_COLUMNS в сущность
+     */
+    private static UserEntity mapUser(Row row, RowMetadata metadata) {
+        UserEntity userEntity = new UserEntity(row.get(1, String.class), row.get(2, String.class),
+                row.get(3, Integer.class));
+        userEntity.setId(row.get(0, Long.class));
+        userEntity.setCreatedAt(fromDatabase(row.get(4, LocalDateTime.class)));
+        userEntity.setUpdatedAt(fromDatabase(row.get(5, LocalDateTime.class)));
+
+        return userEntity;
+    }
+
+    private static UserSummary mapSummary(Row row, RowMetadata metadata) {
+        return new UserSummary(row.get(0, Long.class), row.get(1, String.class), row.get(2, String.class));
+    }
+
+    /**
+     * Время хранится как у Hibernate с hibernate.jdbc.time_zone=UTC: значение в часовом поясе JVM,
+     * переведенное в UTC. Драйвер R2DBC читает и пишет TIMESTAMP без перевода, поэтому перевод здесь
+     */
+    private static LocalDateTime toDatabase(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    private static LocalDateTime fromDatabase(LocalDateTime value) {
+        return value == null ? null
+                : value.atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
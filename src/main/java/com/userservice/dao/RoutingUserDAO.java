@@ -0,0 +1,184 @@
+package com.userservice.dao;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * UserDAO с разделением чтения и записи: запись идет в primary, чтение - в реплику.
+ * <p>
+ * Режим read-your-writes: после записи поток в течение заданного окна читает из primary,
+ * чтобы не увидеть устаревшие данные из-за лага репликации.
+ * Уникальность email при этом по-прежнему гарантируется ограничением на primary.
+ */
+public class RoutingUserDAO implements UserDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingUserDAO.class);
+
+    private final UserDAO primary;
+    private final UserDAO replica;
+    private final long readYourWritesNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Момент (System.nanoTime), до которого текущий поток читает из primary
+     */
+    private final ThreadLocal<Long> pinnedUntil = new ThreadLocal<>();
+
+    public RoutingUserDAO(UserDAO primary, UserDAO replica) {
+        this(primary, replica, Duration.ZERO);
+    }
+
+    public RoutingUserDAO(UserDAO primary, UserDAO replica, Duration readYourWritesWindow) {
+        this(primary, replica, readYourWritesWindow, System::nanoTime);
+    }
+
+    RoutingUserDAO(UserDAO primary, UserDAO replica, Duration readYourWritesWindow, LongSupplier nanoClock) {
+        if (readYourWritesWindow.isNegative()) {
+            throw new IllegalArgumentException("Read-your-writes window cannot be negative");
+        }
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        UserEntity created = primary.create(userEntity);
+        pinToPrimary();
+
+        return created;
+    }
+
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        List<UserEntity> created = primary.createAll(userEntities);
+        pinToPrimary();
+
+        return created;
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        return readTarget().findById(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByIdOnPrimary(Long id) {
+        return primary.findById(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return readTarget().findByEmail(email);
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        return readTarget().findAll();
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        return readTarget().findPage(afterId, limit);
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return readTarget().findSummaryByEmail(email);
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return readTarget().findAllSummaries();
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return readTarget().findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        return readTarget().searchByName(query, mode, limit);
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        UserEntity updated = primary.update(userEntity);
+        pinToPrimary();
+
+        return updated;
+    }
+
+    @Override
+    public boolean canChangeEmail(Long id, String newEmail) {
+        return primary.canChangeEmail(id, newEmail);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        boolean deleted = primary.delete(id);
+        pinToPrimary();
+
+        return deleted;
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        int deleted = primary.deleteByIds(ids);
+        pinToPrimary();
+
+        return deleted;
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        long deleted = primary.deleteCreatedBefore(createdBefore);
+        pinToPrimary();
+
+        return deleted;
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return readTarget().existsByEmail(email);
+    }
+
+    /**
+     * Закрепление текущего потока за primary на окно read-your-writes
+     */
+    private void pinToPrimary() {
+        if (readYourWritesNanos > 0) {
+            pinnedUntil.set(nanoClock.getAsLong() + readYourWritesNanos);
+        }
+    }
+
+    /**
+     * Выбор источника для чтения с учетом окна read-your-writes
+     */
+    private UserDAO readTarget() {
+        Long until = pinnedUntil.get();
+        if (until == null) {
+            return replica;
+        }
+
+        if (nanoClock.getAsLong() - until < 0) {
+            logger.debug("Read routed to primary (read-your-writes window)");
+
+            return primary;
+        }
+        pinnedUntil.remove();
+
+        return replica;
+    }
+}
@@ -0,0 +1,64 @@
+package com.userservice.dao;
+
+import com.userservice.dto.ChangePage;
+import com.userservice.dto.UserChange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Лента изменений поверх шардов: курсор - курсоры шардов через "~",
+ * страница заполняется по шардам по порядку, ID переводятся в глобальные
+ */
+public class ShardedUserChangeDAO implements UserChangeDAO {
+
+    private static final String SEPARATOR = "~";
+
+    private final List<UserChangeDAO> shards;
+
+    public ShardedUserChangeDAO(List<UserChangeDAO> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public ChangePage findChangesSince(String cursor, int limit) {
+        String[] shardCursors = decode(cursor);
+        List<UserChange> changes = new ArrayList<>(limit);
+
+        for (int shard = 0; shard < shards.size() && changes.size() < limit; shard++) {
+            ChangePage page = shards.get(shard).findChangesSince(shardCursors[shard], limit - changes.size());
+            for (UserChange change : page.changes()) {
+                changes.add(new UserChange(change.type(), ShardedUserDAO.globalId(change.id(), shard),
+                        change.name(), change.email(), change.age(), change.changedAt()));
+            }
+            shardCursors[shard] = page.nextCursor();
+        }
+
+        return new ChangePage(changes, String.join(SEPARATOR, shardCursors));
+    }
+
+    @Override
+    public long purgeTombstonesBefore(LocalDateTime deletedBefore) {
+        return shards.stream().mapToLong(shard -> shard.purgeTombstonesBefore(deletedBefore)).sum();
+    }
+
+    private String[] decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            String[] empty = new String[shards.size()];
+            Arrays.fill(empty, "");
+            return empty;
+        }
+
+        String[] shardCursors = cursor.split(SEPARATOR, -1);
+        if (shardCursors.length != shards.size()) {
+            throw new IllegalArgumentException("Change cursor does not match shard count: " + cursor);
+        }
+
+        return shardCursors;
+    }
+}
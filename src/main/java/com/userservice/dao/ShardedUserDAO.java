@@ -0,0 +1,358 @@
+package com.userservice.dao;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.Deadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * UserDAO поверх N шардов (отдельных баз данных).
+ * <p>
+ * Запись размещается на шарде по стабильному хешу email, поэтому findByEmail и existsByEmail
+ * обращаются к одному шарду, а уникальность email обеспечивает ограничение этого шарда.
+ * Глобальный ID кодирует шард в младших битах: {@code (localId << SHARD_BITS) | shard},
+ * поэтому findById сразу идет в нужный шард. findAll и findPage опрашивают шарды параллельно
+ * и сливают результаты по глобальному ID.
+ * <p>
+ * ID пользователя не меняется, поэтому смена email на значение с другим домашним шардом отклоняется:
+ * перенос строки между базами не атомарен и менял бы первичный ключ. Количество шардов после запуска не меняется.
+ */
+public class ShardedUserDAO implements UserDAO {
+
+    static final int SHARD_BITS = 10;
+    static final int MAX_SHARDS = 1 << SHARD_BITS;
+    private static final long SHARD_MASK = MAX_SHARDS - 1;
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardedUserDAO.class);
+
+    private final List<UserDAO> shards;
+    private final ExecutorService executor;
+
+    public ShardedUserDAO(List<UserDAO> shards) {
+        if (shards.isEmpty() || shards.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + MAX_SHARDS);
+        }
+        this.shards = List.copyOf(shards);
+        this.executor = Executors.newFixedThreadPool(shards.size(), daemonThreadFactory());
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        int shard = shardForEmail(userEntity.getEmail());
+        UserEntity created = shards.get(shard).create(userEntity);
+
+        return toGlobal(created, shard);
+    }
+
+    /**
+     * Пачка делится по домашним шардам; атомарность - в пределах одного шарда
+     */
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        List<List<Integer>> positions = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            positions.add(new ArrayList<>());
+        }
+        for (int position = 0; position < userEntities.size(); position++) {
+            positions.get(shardForEmail(userEntities.get(position).getEmail())).add(position);
+        }
+
+        UserEntity[] created = new UserEntity[userEntities.size()];
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<Integer> shardPositions = positions.get(shard);
+            if (shardPositions.isEmpty()) {
+                continue;
+            }
+            List<UserEntity> shardCreated = shards.get(shard).createAll(shardPositions.stream()
+                    .map(userEntities::get)
+                    .toList());
+            for (int i = 0; i < shardCreated.size(); i++) {
+                created[shardPositions.get(i)] = toGlobal(shardCreated.get(i), shard);
+            }
+        }
+
+        return Arrays.asList(created);
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        if (!isValidGlobalId(id)) {
+            return Optional.empty();
+        }
+        int shard = shardOf(id);
+
+        return shards.get(shard).findById(localIdOf(id)).map(user -> toGlobal(user, shard));
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        int shard = shardForEmail(email);
+
+        return shards.get(shard).findByEmail(email).map(user -> toGlobal(user, shard));
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        return scatterGather(shard -> shards.get(shard).findAll());
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        long after = afterId != null ? afterId : 0L;
+        long afterLocal = after >>> SHARD_BITS;
+        long afterShard = after & SHARD_MASK;
+
+        // Глобальный ID (local, shard) больше after, если local > afterLocal
+        // или local == afterLocal и shard > afterShard
+        List<UserEntity> merged = scatterGather(shard -> shards.get(shard)
+                .findPage(shard > afterShard ? afterLocal - 1 : afterLocal, limit));
+
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        int shard = shardForEmail(email);
+
+        return shards.get(shard).findSummaryByEmail(email).map(summary -> toGlobal(summary, shard));
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return scatterGatherSummaries(shard -> shards.get(shard).findAllSummaries());
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        long after = afterId != null ? afterId : 0L;
+        long afterLocal = after >>> SHARD_BITS;
+        long afterShard = after & SHARD_MASK;
+
+        List<UserSummary> merged = scatterGatherSummaries(shard -> shards.get(shard)
+                .findSummaryPage(shard > afterShard ? afterLocal - 1 : afterLocal, limit));
+
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * Префиксные результаты сливаются по имени; для нечеткого поиска оценка сходства
+     * в проекцию не входит, поэтому рейтинги шардов чередуются по позициям
+     */
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        List<List<UserSummary>> perShard = scatter(shard -> shards.get(shard)
+                .searchByName(query, mode, limit).stream()
+                .map(summary -> toGlobal(summary, shard))
+                .toList());
+
+        List<UserSummary> merged = new ArrayList<>();
+        if (mode == NameSearchMode.PREFIX) {
+            perShard.forEach(merged::addAll);
+            merged.sort(Comparator.comparing((UserSummary summary) -> summary.name().toLowerCase(Locale.ROOT))
+                    .thenComparing(UserSummary::id));
+        } else {
+            int longest = perShard.stream().mapToInt(List::size).max().orElse(0);
+            for (int position = 0; position < longest; position++) {
+                for (List<UserSummary> ranking : perShard) {
+                    if (position < ranking.size()) {
+                        merged.add(ranking.get(position));
+                    }
+                }
+            }
+        }
+
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        Long id = userEntity.getId();
+        if (!isValidGlobalId(id)) {
+            throw new IllegalArgumentException("Unknown user id: " + id);
+        }
+        int currentShard = shardOf(id);
+        int homeShard = shardForEmail(userEntity.getEmail());
+
+        if (currentShard != homeShard) {
+            throw new IllegalArgumentException("Email " + userEntity.getEmail() + " belongs to shard " + homeShard
+                    + ", but user " + id + " is stored on shard " + currentShard
+                    + ": cross-shard email change is not supported");
+        }
+        UserEntity updated = shards.get(currentShard).update(copyOf(userEntity, localIdOf(id)));
+
+        return toGlobal(updated, currentShard);
+    }
+
+    @Override
+    public boolean canChangeEmail(Long id, String newEmail) {
+        return !isValidGlobalId(id) || shardOf(id) == shardForEmail(newEmail);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        if (!isValidGlobalId(id)) {
+            return false;
+        }
+
+        return shards.get(shardOf(id)).delete(localIdOf(id));
+    }
+
+    /**
+     * ID группируются по шардам, шарды обрабатываются параллельно
+     */
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        List<List<Long>> localIds = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            localIds.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            if (isValidGlobalId(id)) {
+                localIds.get(shardOf(id)).add(localIdOf(id));
+            }
+        }
+
+        return scatter(shard -> localIds.get(shard).isEmpty()
+                ? List.of(0)
+                : List.of(shards.get(shard).deleteByIds(localIds.get(shard))))
+                .stream()
+                .mapToInt(counts -> counts.get(0))
+                .sum();
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        return scatter(shard -> List.of(shards.get(shard).deleteCreatedBefore(createdBefore)))
+                .stream()
+                .mapToLong(counts -> counts.get(0))
+                .sum();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return shards.get(shardForEmail(email)).existsByEmail(email);
+    }
+
+    /**
+     * Номер шарда для email: CRC32 стабилен между запусками и JVM
+     */
+    int shardForEmail(String email) {
+        return shardForEmail(email, shards.size());
+    }
+
+    static int shardForEmail(String email, int shardCount) {
+        CRC32 crc = new CRC32();
+        crc.update(email.getBytes(StandardCharsets.UTF_8));
+
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    /**
+     * Глобальный ID пользователя по локальному ID на шарде
+     */
+    public static long globalId(long localId, int shard) {
+        return (localId << SHARD_BITS) | shard;
+    }
+
+    static int shardOf(long globalId) {
+        return (int) (globalId & SHARD_MASK);
+    }
+
+    static long localIdOf(long globalId) {
+        return globalId >>> SHARD_BITS;
+    }
+
+    private boolean isValidGlobalId(Long id) {
+        return id != null && id > 0 && shardOf(id) < shards.size();
+    }
+
+    /**
+     * Параллельный опрос всех шардов и слияние результатов по глобальному ID
+     */
+    private List<UserEntity> scatterGather(Function<Integer, List<UserEntity>> query) {
+        List<UserEntity> merged = new ArrayList<>();
+        scatter(shard -> query.apply(shard).stream()
+                .map(user -> toGlobal(user, shard))
+                .toList())
+                .forEach(merged::addAll);
+        merged.sort(Comparator.comparing(UserEntity::getId));
+        logger.debug("Scatter-gather over {} shards returned {} users", shards.size(), merged.size());
+
+        return merged;
+    }
+
+    /**
+     * Параллельный опрос всех шардов и слияние проекций по глобальному ID
+     */
+    private List<UserSummary> scatterGatherSummaries(Function<Integer, List<UserSummary>> query) {
+        List<UserSummary> merged = new ArrayList<>();
+        scatter(shard -> query.apply(shard).stream()
+                .map(summary -> toGlobal(summary, shard))
+                .toList())
+                .forEach(merged::addAll);
+        merged.sort(Comparator.comparing(UserSummary::id));
+
+        return merged;
+    }
+
+    /**
+     * Параллельный опрос всех шардов; результаты возвращаются по номерам шардов.
+     * Срок {@link Deadline} вызывающего переносится в потоки опроса.
+     */
+    private <T> List<List<T>> scatter(Function<Integer, List<T>> query) {
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(Deadline.propagate(() -> query.apply(target)), executor));
+        }
+
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static UserSummary toGlobal(UserSummary summary, int shard) {
+        return new UserSummary(globalId(summary.id(), shard), summary.name(), summary.email());
+    }
+
+    private static UserEntity toGlobal(UserEntity userEntity, int shard) {
+        userEntity.setId(globalId(userEntity.getId(), shard));
+
+        return userEntity;
+    }
+
+    private static UserEntity copyOf(UserEntity source, Long localId) {
+        UserEntity copy = new UserEntity(source.getName(), source.getEmail(), source.getAge());
+        copy.setId(localId);
+        copy.setCreatedAt(source.getCreatedAt());
+
+        return copy;
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        };
+    }
+}
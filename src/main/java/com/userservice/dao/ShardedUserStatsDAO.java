@@ -0,0 +1,75 @@
+package com.userservice.dao;
+
+import com.userservice.dto.AgeBucket;
+import com.userservice.dto.SignupCount;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * UserStatsDAO поверх шардов: агрегаты шардов суммируются
+ */
+public class ShardedUserStatsDAO implements UserStatsDAO {
+
+    private final List<UserStatsDAO> shards;
+
+    public ShardedUserStatsDAO(List<UserStatsDAO> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public List<AgeBucket> countByAgeBuckets(int[] bounds) {
+        long[] counts = new long[bounds.length + 1];
+        for (UserStatsDAO shard : shards) {
+            List<AgeBucket> buckets = shard.countByAgeBuckets(bounds);
+            for (int i = 0; i < buckets.size(); i++) {
+                counts[i] += buckets.get(i).count();
+            }
+        }
+
+        List<AgeBucket> merged = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            merged.add(new AgeBucket(i == 0 ? 0 : bounds[i - 1], i < bounds.length ? bounds[i] : null, counts[i]));
+        }
+
+        return merged;
+    }
+
+    @Override
+    public List<SignupCount> countSignups(LocalDateTime from, LocalDateTime to, SignupPeriod period) {
+        Map<LocalDate, Long> totals = new TreeMap<>();
+        shards.forEach(shard -> shard.countSignups(from, to, period)
+                .forEach(signups -> totals.merge(signups.periodStart(), signups.count(), Long::sum)));
+
+        return totals.entrySet().stream()
+                .map(entry -> new SignupCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    public long countAll() {
+        return sum(UserStatsDAO::countAll);
+    }
+
+    @Override
+    public long estimateCount() {
+        return sum(UserStatsDAO::estimateCount);
+    }
+
+    private long sum(Function<UserStatsDAO, Long> query) {
+        long total = 0;
+        for (UserStatsDAO shard : shards) {
+            total += query.apply(shard);
+        }
+
+        return total;
+    }
+}
@@ -0,0 +1,27 @@
+package com.userservice.dao;
+
+/**
+ * Период группировки регистраций
+ */
+public enum SignupPeriod {
+
+    DAY("day"),
+
+    /**
+     * Неделя по ISO: с понедельника
+     */
+    WEEK("week");
+
+    private final String truncUnit;
+
+    SignupPeriod(String truncUnit) {
+        this.truncUnit = truncUnit;
+    }
+
+    /**
+     * Единица для date_trunc в PostgreSQL
+     */
+    public String getTruncUnit() {
+        return truncUnit;
+    }
+}
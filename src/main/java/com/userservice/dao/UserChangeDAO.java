@@ -0,0 +1,28 @@
+package com.userservice.dao;
+
+import com.userservice.dto.ChangePage;
+
+import java.time.LocalDateTime;
+
+/**
+ * DAO ленты изменений пользователей
+ */
+public interface UserChangeDAO {
+
+    /**
+     * Изменения после курсора в порядке ленты
+     * @param cursor курсор из предыдущей страницы или null для начала ленты
+     * @param limit максимальный размер страницы
+     * @return изменения и курсор следующей страницы (равен переданному, если изменений нет)
+     * @throws IllegalArgumentException если курсор некорректен или старше удаленных надгробий
+     */
+    ChangePage findChangesSince(String cursor, int limit);
+
+    /**
+     * Удаление надгробий старше срока хранения; курсоры до последнего удаленного надгробия
+     * после этого отклоняются, и потребитель начинает ленту заново
+     * @param deletedBefore граница по deleted_at (время UTC, как в ленте)
+     * @return число удаленных надгробий
+     */
+    long purgeTombstonesBefore(LocalDateTime deletedBefore);
+}
@@ -0,0 +1,196 @@
+package com.userservice.dao;
+
+import com.userservice.dto.ChangePage;
+import com.userservice.dto.UserChange;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Лента изменений на колонках change_xid/change_seq и таблице user_tombstones (V5__change_feed.sql).
+ * <p>
+ * Порядок ленты - (транзакция, номер изменения, id). Отдаются только изменения транзакций
+ * с номером меньше xmin текущего снимка: все они завершены, и новых строк с меньшим номером
+ * транзакции уже не появится, поэтому курсор никогда не перескакивает через позднее закоммиченное изменение.
+ * Долгая открытая транзакция задерживает ленту, но не теряет изменения. Повторные изменения
+ * одной строки схлопываются: отдается ее последнее состояние.
+ * <p>
+ * Надгробия хранятся ограниченное время (V10__tombstone_retention.sql): курсор раньше последнего
+ * удаленного надгробия отклоняется, так как удаления после него могли быть потеряны.
+ */
+public class UserChangeDAOImpl implements UserChangeDAO {
+
+    private static final String HORIZON_SQL = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+    private static final String CHANGES_SQL = "SELECT * FROM ("
+            + "(SELECT change_xid, change_seq, id, 'UPSERT' AS type, name, email, age, updated_at AS changed_at "
+            + "FROM users WHERE (change_xid, change_seq, id) > (?, ?, ?) AND change_xid < ? "
+            + "ORDER BY change_xid, change_seq, id LIMIT ?) "
+            + "UNION ALL "
+            + "(SELECT change_xid, change_seq, user_id, 'DELETE', NULL, email, NULL, deleted_at "
+            + "FROM user_tombstones WHERE (change_xid, change_seq, user_id) > (?, ?, ?) AND change_xid < ? "
+            + "ORDER BY change_xid, change_seq, user_id LIMIT ?)"
+            + ") changes ORDER BY change_xid, change_seq, id LIMIT ?";
+
+    private static final String PURGED_SQL = "SELECT change_xid, change_seq, user_id FROM user_tombstones_purged";
+
+    /**
+     * Удаление порции старых надгробий с запоминанием позиции последнего из них
+     */
+    private static final String PURGE_SQL = "WITH purged AS ("
+            + "DELETE FROM user_tombstones WHERE (change_xid, change_seq, user_id) IN "
+            + "(SELECT change_xid, change_seq, user_id FROM user_tombstones WHERE deleted_at < ? LIMIT ?) "
+            + "RETURNING change_xid, change_seq, user_id), "
+            + "horizon AS (INSERT INTO user_tombstones_purged AS h (change_xid, change_seq, user_id) "
+            + "SELECT change_xid, change_seq, user_id FROM purged "
+            + "ORDER BY change_xid DESC, change_seq DESC, user_id DESC LIMIT 1 "
+            + "ON CONFLICT (singleton) DO UPDATE SET change_xid = EXCLUDED.change_xid, "
+            + "change_seq = EXCLUDED.change_seq, user_id = EXCLUDED.user_id "
+            + "WHERE (EXCLUDED.change_xid, EXCLUDED.change_seq, EXCLUDED.user_id) "
+            + "> (h.change_xid, h.change_seq, h.user_id)) "
+            + "SELECT count(*) FROM purged";
+
+    static final int PURGE_CHUNK_SIZE = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserChangeDAOImpl.class);
+    private final SessionFactory sessionFactory;
+
+    public UserChangeDAOImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public ChangePage findChangesSince(String cursor, int limit) {
+        ChangeCursor from = ChangeCursor.decode(cursor);
+        Transaction transaction = null;
+        ChangePage page;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+
+            page = session.doReturningWork(connection -> {
+                long horizon;
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(HORIZON_SQL)) {
+                    resultSet.next();
+                    horizon = resultSet.getLong(1);
+                }
+
+                List<UserChange> changes = new ArrayList<>();
+                ChangeCursor last = from;
+                try (PreparedStatement statement = connection.prepareStatement(CHANGES_SQL)) {
+                    int index = 1;
+                    for (int branch = 0; branch < 2; branch++) {
+                        statement.setLong(index++, from.txId());
+                        statement.setLong(index++, from.sequence());
+                        statement.setLong(index++, from.userId());
+                        statement.setLong(index++, horizon);
+                        statement.setInt(index++, limit);
+                    }
+                    statement.setInt(index, limit);
+
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            last = new ChangeCursor(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3));
+                            changes.add(new UserChange(
+                                    UserChange.Type.valueOf(resultSet.getString(4)),
+                                    resultSet.getLong(3),
+                                    resultSet.getString(5),
+                                    resultSet.getString(6),
+                                    resultSet.getObject(7, Integer.class),
+                                    resultSet.getObject(8, LocalDateTime.class)));
+                        }
+                    }
+                }
+
+                // Проверка после чтения: удаление, закоммиченное до чтения страницы, здесь уже видно
+                if (!from.equals(ChangeCursor.START) && isPurgedAfter(connection, from)) {
+                    return null;
+                }
+
+                return new ChangePage(changes, last.encode());
+            });
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error reading changes after cursor: {}", cursor, e);
+            throw e;
+        }
+
+        if (page == null) {
+            throw new IllegalArgumentException("Change cursor " + cursor + " is older than the tombstone retention: "
+                    + "deletions after it were purged, restart the feed from a null cursor");
+        }
+        logger.debug("Found {} changes after cursor {}", page.changes().size(), cursor);
+
+        return page;
+    }
+
+    @Override
+    public long purgeTombstonesBefore(LocalDateTime deletedBefore) {
+        long purged = 0;
+        int chunkPurged;
+        do {
+            chunkPurged = purgeChunk(deletedBefore);
+            purged += chunkPurged;
+        } while (chunkPurged == PURGE_CHUNK_SIZE);
+        logger.info("Tombstones deleted before {} purged: {}", deletedBefore, purged);
+
+        return purged;
+    }
+
+    private int purgeChunk(LocalDateTime deletedBefore) {
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+
+            int purged = session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(PURGE_SQL)) {
+                    statement.setObject(1, deletedBefore);
+                    statement.setInt(2, PURGE_CHUNK_SIZE);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+
+                        return resultSet.getInt(1);
+                    }
+                }
+            });
+            transaction.commit();
+
+            return purged;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error purging tombstones deleted before {}", deletedBefore, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Удалено ли надгробие после курсора: такой курсор мог пропустить удаления, и лента с него неполна
+     */
+    private static boolean isPurgedAfter(Connection connection, ChangeCursor from) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PURGED_SQL)) {
+            return resultSet.next() && from.isBefore(
+                    new ChangeCursor(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3)));
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.userservice.dao;
 
+import com.userservice.dto.UserSummary;
 import com.userservice.entity.UserEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +19,13 @@ public interface UserDAO {
      * @return созданный пользователь с присвоенным ID
      */
     UserEntity create(UserEntity userEntity);
+
+    /**
+     * Создать пользователей одной транзакцией: при ошибке не создается ни один
+     * @param userEntities пользователи для создания
+     * @return созданные пользователи с присвоенными ID в исходном порядке
+     */
+    List<UserEntity> createAll(List<UserEntity> userEntities);
     
     /**
      * Найти пользователя по ID
@@ -23,6 +33,16 @@ public interface UserDAO {
      * @return Optional с пользователем или пустой Optional
      */
     Optional<UserEntity> findById(Long id);
+
+    /**
+     * Найти пользователя по ID в primary, минуя реплику: для загрузки в кэши, которые
+     * инвалидируются уведомлениями primary и не должны получить строку из отстающей реплики
+     * @param id идентификатор пользователя
+     * @return Optional с пользователем или пустой Optional
+     */
+    default Optional<UserEntity> findByIdOnPrimary(Long id) {
+        return findById(id);
+    }
     
     /**
      * Найти пользователя по email
@@ -36,13 +56,62 @@ public interface UserDAO {
      * @return список всех пользователей
      */
     List<UserEntity> findAll();
+
+    /**
+     * Получить страницу пользователей по возрастанию ID (keyset-пагинация)
+     * @param afterId ID последнего пользователя предыдущей страницы или null для первой страницы
+     * @param limit максимальный размер страницы
+     * @return пользователи с ID больше afterId
+     */
+    List<UserEntity> findPage(Long afterId, int limit);
+
+    /**
+     * Найти проекцию пользователя по email без загрузки сущности
+     * @param email email пользователя
+     * @return Optional с проекцией или пустой Optional
+     */
+    Optional<UserSummary> findSummaryByEmail(String email);
+
+    /**
+     * Получить проекции всех пользователей по возрастанию ID
+     * @return неизменяемые записи id, name, email
+     */
+    List<UserSummary> findAllSummaries();
+
+    /**
+     * Получить страницу проекций пользователей по возрастанию ID (keyset-пагинация)
+     * @param afterId ID последнего пользователя предыдущей страницы или null для первой страницы
+     * @param limit максимальный размер страницы
+     * @return проекции пользователей с ID больше afterId
+     */
+    List<UserSummary> findSummaryPage(Long afterId, int limit);
     
+    /**
+     * Поиск пользователей по имени
+     * @param query строка поиска
+     * @param mode префиксный или нечеткий поиск
+     * @param limit максимальное количество результатов
+     * @return проекции найденных пользователей: по имени для PREFIX, по убыванию сходства для FUZZY
+     */
+    List<UserSummary> searchByName(String query, NameSearchMode mode, int limit);
+
     /**
      * Обновить существующего пользователя
      * @param userEntity пользователь с обновленными данными
      * @return обновленный пользователь
      */
     UserEntity update(UserEntity userEntity);
+
+    /**
+     * Можно ли сменить email пользователя на newEmail, не перенося его строку в другое хранилище
+     * (при шардировании по email новый email может принадлежать другому шарду)
+     * @param id идентификатор пользователя
+     * @param newEmail новый email
+     * @return false, если смена email требует переноса пользователя
+     */
+    default boolean canChangeEmail(Long id, String newEmail) {
+        return true;
+    }
     
     /**
      * Удалить пользователя по ID
@@ -50,6 +119,21 @@ public interface UserDAO {
      * @return true если удален, false если не найден
      */
     boolean delete(Long id);
+
+    /**
+     * Удалить пользователей по списку ID; удаление идет порциями, каждая в своей транзакции
+     * @param ids идентификаторы пользователей
+     * @return количество удаленных пользователей
+     */
+    int deleteByIds(Collection<Long> ids);
+
+    /**
+     * Удалить пользователей, зарегистрированных раньше заданного момента; удаление идет порциями,
+     * каждая в своей транзакции, поэтому при ошибке уже удаленные порции остаются удаленными
+     * @param createdBefore граница даты регистрации (не включительно)
+     * @return количество удаленных пользователей
+     */
+    long deleteCreatedBefore(LocalDateTime createdBefore);
     
     /**
      * Проверить существование пользователя по email
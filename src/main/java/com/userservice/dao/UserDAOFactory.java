@@ -0,0 +1,162 @@
+package com.userservice.dao;
+
+import com.userservice.id.UserIdGenerator;
+import com.userservice.util.BackgroundTasks;
+import com.userservice.util.HibernateUtil;
+import com.userservice.util.SchemaManager;
+import com.userservice.util.StartupWarmer;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создание DAO по конфигурации HibernateUtil и системным свойствам: шарды, primary с репликой или одна база
+ */
+public final class UserDAOFactory {
+
+    /**
+     * Окно read-your-writes в миллисекундах при работе с репликой
+     */
+    public static final String READ_YOUR_WRITES_PROPERTY = "userservice.replica.read-your-writes-ms";
+
+    /**
+     * Реализация UserDAO: hibernate (по умолчанию) или jdbc - запросы без ORM на том же пуле соединений
+     */
+    public static final String IMPLEMENTATION_PROPERTY = "userservice.dao.implementation";
+
+    /**
+     * Число одновременно читаемых секций users в findAll (см. HibernateUtil.USER_PARTITIONS_PROPERTY)
+     */
+    public static final String PARTITION_SCAN_PARALLELISM_PROPERTY = "userservice.users.scan-parallelism";
+
+    /**
+     * Срок хранения надгробий ленты изменений в днях; 0 - не удалять. Курсор старше срока отклоняется
+     */
+    public static final String TOMBSTONE_RETENTION_PROPERTY = "userservice.change-feed.tombstone-retention-days";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDAOFactory.class);
+
+    /**
+     * Таймауты запросов, общие для всех UserDAO
+     */
+    private static QueryTimeouts queryTimeouts;
+
+    private UserDAOFactory() {
+    }
+
+    /**
+     * Создание DAO: шарды, primary с репликой или одна база
+     */
+    public static UserDAO createUserDAO() {
+        if (HibernateUtil.isShardingConfigured()) {
+            // Глобальный ID шарда - localId << 10: 63-битный TSID в нем не помещается
+            if (UserIdGenerator.mode(System.getProperty(UserIdGenerator.MODE_PROPERTY, "identity"))
+                    == UserIdGenerator.Mode.TSID) {
+                throw new IllegalStateException("User id generator tsid is not supported with sharding, use pooled");
+            }
+            List<UserDAO> shardDAOs = HibernateUtil.getShardSessionFactories().stream()
+                    .map(UserDAOFactory::newUserDAO)
+                    .toList();
+            logger.info("Sharding enabled, shards: {}", shardDAOs.size());
+
+            return new ShardedUserDAO(shardDAOs);
+        }
+
+        UserDAO primaryDAO = newUserDAO(HibernateUtil.getSessionFactory());
+        if (!HibernateUtil.isReplicaConfigured()) {
+            return primaryDAO;
+        }
+
+        UserDAO replicaDAO = newUserDAO(HibernateUtil.getReplicaSessionFactory());
+        Duration readYourWritesWindow = Duration.ofMillis(Long.getLong(READ_YOUR_WRITES_PROPERTY, 1000L));
+        logger.info("Read/write splitting enabled, read-your-writes window: {}", readYourWritesWindow);
+
+        return new RoutingUserDAO(primaryDAO, replicaDAO, readYourWritesWindow);
+    }
+
+    /**
+     * Создание DAO аналитики: агрегаты читаются с реплики, если она задана
+     */
+    public static UserStatsDAO createUserStatsDAO() {
+        if (HibernateUtil.isShardingConfigured()) {
+            return new ShardedUserStatsDAO(HibernateUtil.getShardSessionFactories().stream()
+                    .map(factory -> (UserStatsDAO) new UserStatsDAOImpl(factory))
+                    .toList());
+        }
+
+        return new UserStatsDAOImpl(HibernateUtil.isReplicaConfigured()
+                ? HibernateUtil.getReplicaSessionFactory()
+                : HibernateUtil.getSessionFactory());
+    }
+
+    /**
+     * Создание DAO ленты изменений: читается с primary, так как горизонт ленты зависит от активных транзакций.
+     * Надгробия старше срока хранения удаляются в фоне раз в час
+     */
+    public static UserChangeDAO createUserChangeDAO() {
+        UserChangeDAO userChangeDAO = HibernateUtil.isShardingConfigured()
+                ? new ShardedUserChangeDAO(HibernateUtil.getShardSessionFactories().stream()
+                        .map(factory -> (UserChangeDAO) new UserChangeDAOImpl(factory))
+                        .toList())
+                : new UserChangeDAOImpl(HibernateUtil.getSessionFactory());
+
+        long retentionDays = Long.getLong(TOMBSTONE_RETENTION_PROPERTY, 30L);
+        if (retentionDays > 0) {
+            // deleted_at пишется триггером в UTC
+            BackgroundTasks.scheduleWithFixedDelay("Tombstone purge", () -> userChangeDAO.purgeTombstonesBefore(
+                    LocalDateTime.now(ZoneOffset.UTC).minusDays(retentionDays)), 1, 60, TimeUnit.MINUTES);
+            logger.info("Change feed tombstones are kept for {} days", retentionDays);
+        }
+
+        return userChangeDAO;
+    }
+
+    /**
+     * Создание UserDAO выбранной реализации; горячие запросы прогреваются до первого запроса пользователя,
+     * при быстром старте - на каждом соединении заранее заполненного пула.
+     * При включенной статистике Hibernate доля попаданий в кеш планов пишется в лог раз в минуту.
+     */
+    private static UserDAO newUserDAO(SessionFactory sessionFactory) {
+        if ("jdbc".equalsIgnoreCase(System.getProperty(IMPLEMENTATION_PROPERTY, "hibernate"))) {
+            StartupWarmer.warmUp(sessionFactory, JdbcUserDAO::warmUpQueries, HibernateUtil.isFastStartup());
+
+            return new JdbcUserDAO(sessionFactory, queryTimeouts());
+        }
+
+        StartupWarmer.warmUp(sessionFactory, UserDAOImpl::warmUpQueries, HibernateUtil.isFastStartup());
+        if (sessionFactory.getStatistics().isStatisticsEnabled()) {
+            BackgroundTasks.logEveryMinute("Query plan cache stats",
+                    () -> logger.info("Query plans: {}", StartupWarmer.planCacheStats(sessionFactory)));
+        }
+
+        return new UserDAOImpl(sessionFactory, queryTimeouts(), partitionScanner(sessionFactory));
+    }
+
+    /**
+     * Параллельное чтение секций users; null, если таблица не секционирована
+     */
+    private static PartitionScanner partitionScanner(SessionFactory sessionFactory) {
+        List<String> partitions = SchemaManager.userPartitions(sessionFactory);
+        if (partitions.isEmpty()) {
+            return null;
+        }
+        logger.info("Table users is partitioned: {} partitions", partitions.size());
+
+        return new PartitionScanner(sessionFactory, partitions,
+                Integer.getInteger(PARTITION_SCAN_PARALLELISM_PROPERTY, 4));
+    }
+
+    private static synchronized QueryTimeouts queryTimeouts() {
+        if (queryTimeouts == null) {
+            queryTimeouts = QueryTimeouts.fromSystemProperties();
+        }
+
+        return queryTimeouts;
+    }
+}
@@ -1,35 +1,141 @@
 package com.userservice.dao;
 
+import com.userservice.dto.UserSummary;
 import com.userservice.entity.UserEntity;
+import com.userservice.util.DatabaseErrors;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 /**
- * Реализация UserDAO с транзакционной логикой
+ * Реализация UserDAO с транзакционной логикой.
+ * <p>
+ * Для hash-секционированной по id таблицы (задан {@link PartitionScanner}) поиск по email идет через user_emails:
+ * ID из подзапроса отсекает секции при выполнении, и читается одна секция вместо индекса email в каждой.
+ * findAll и findAllSummaries читают секции параллельно.
  */
 public class UserDAOImpl implements UserDAO {
 
+    /**
+     * Период сброса и очистки контекста персистентности при пакетном создании
+     */
+    static final int CREATE_FLUSH_INTERVAL = 500;
+
+    static final String DELETE_BY_IDS_SQL = "DELETE FROM users WHERE id = ANY(?)";
+
+    /**
+     * Порция удаления по дате регистрации: подзапрос с LIMIT ограничивает число блокировок и объем WAL
+     */
+    static final String DELETE_CREATED_BEFORE_SQL = "DELETE FROM users WHERE id IN "
+            + "(SELECT id FROM users WHERE created_at < :createdBefore LIMIT :limit)";
+
+    /**
+     * Максимальное число строк, удаляемых одной транзакцией
+     */
+    static final int DELETE_CHUNK_SIZE = 5_000;
+
+    /**
+     * Префиксный поиск: выражение совпадает с индексом idx_users_name_prefix
+     */
+    static final String SEARCH_BY_NAME_PREFIX_SQL = "SELECT id, name, email FROM users "
+            + "WHERE lower(name) COLLATE \"C\" LIKE :pattern "
+            + "ORDER BY lower(name) COLLATE \"C\", id LIMIT :limit";
+
+    /**
+     * Нечеткий поиск: оператор % использует GIN-индекс idx_users_name_trgm
+     */
+    static final String SEARCH_BY_NAME_FUZZY_SQL = "SELECT id, name, email FROM users "
+            + "WHERE lower(name) % :query "
+            + "ORDER BY similarity(lower(name), :query) DESC, id LIMIT :limit";
+
+    static final String FIND_BY_EMAIL_PARTITIONED_SQL = "SELECT " + JdbcUserDAO.USER_COLUMNS + " FROM users "
+            + "WHERE id = (SELECT user_id FROM user_emails WHERE email = :email)";
+
+    static final String FIND_SUMMARY_BY_EMAIL_PARTITIONED_SQL = "SELECT id, name, email FROM users "
+            + "WHERE id = (SELECT user_id FROM user_emails WHERE email = :email)";
+
+    static final String EXISTS_BY_EMAIL_PARTITIONED_SQL = "SELECT count(*) FROM user_emails WHERE email = :email";
+
     private static final Logger logger = LoggerFactory.getLogger(UserDAOImpl.class);
     private final SessionFactory sessionFactory;
+    private final QueryTimeouts timeouts;
+    private final PartitionScanner partitionScanner;
 
     public UserDAOImpl(SessionFactory sessionFactory) {
+        this(sessionFactory, QueryTimeouts.none());
+    }
+
+    public UserDAOImpl(SessionFactory sessionFactory, QueryTimeouts timeouts) {
+        this(sessionFactory, timeouts, null);
+    }
+
+    /**
+     * @param partitionScanner секции таблицы users; null - таблица не секционирована
+     */
+    public UserDAOImpl(SessionFactory sessionFactory, QueryTimeouts timeouts, PartitionScanner partitionScanner) {
         this.sessionFactory = sessionFactory;
+        this.timeouts = timeouts;
+        this.partitionScanner = partitionScanner;
+    }
+
+    /**
+     * Прогрев горячих запросов на соединении сессии: по одному выполнению с параметрами, не находящими строк,
+     * в откатываемой транзакции. Первое выполнение кладет план SQL в кеш Hibernate, а при prepareThreshold=1
+     * pgjdbc сразу готовит серверный prepared statement на этом соединении. Запросы без фильтра
+     * (findAll, findAllSummaries) не выполняются - они читали бы всю таблицу.
+     */
+    public static void warmUpQueries(Session session) {
+        Transaction transaction = session.beginTransaction();
+        try {
+            session.find(UserEntity.class, 0L);
+            session.createNamedQuery(UserEntity.FIND_BY_EMAIL, UserEntity.class)
+                    .setParameter("email", "")
+                    .uniqueResult();
+            session.createNamedQuery(UserEntity.FIND_PAGE, UserEntity.class)
+                    .setParameter("afterId", Long.MAX_VALUE)
+                    .setMaxResults(1)
+                    .list();
+            session.createNamedQuery(UserEntity.FIND_SUMMARY_BY_EMAIL, UserSummary.class)
+                    .setParameter("email", "")
+                    .uniqueResultOptional();
+            session.createNamedQuery(UserEntity.FIND_SUMMARY_PAGE, UserSummary.class)
+                    .setParameter("afterId", Long.MAX_VALUE)
+                    .setMaxResults(1)
+                    .list();
+            session.createNamedQuery(UserEntity.EXISTS_BY_EMAIL, Long.class)
+                    .setParameter("email", "")
+                    .uniqueResult();
+            session.createNamedMutationQuery(UserEntity.DELETE_BY_ID)
+                    .setParameter("id", 0L)
+                    .executeUpdate();
+        } finally {
+            transaction.rollback();
+        }
     }
 
     @Override
     public UserEntity create(UserEntity userEntity) {
+        long timeoutMillis = timeouts.begin("create");
         Transaction transaction = null;
 
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
 
             session.persist(userEntity);
             transaction.commit();
@@ -38,6 +144,7 @@ public class UserDAOImpl implements UserDAO {
 
             return userEntity;
         } catch (Exception e) {
+            timeouts.onError("create", e);
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
                 logger.error("Transaction rolled back due to error", e);
@@ -47,12 +154,48 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        long timeoutMillis = timeouts.begin("createAll");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            int persisted = 0;
+            for (UserEntity userEntity : userEntities) {
+                session.persist(userEntity);
+                // Контекст не должен расти с размером пачки
+                if (++persisted % CREATE_FLUSH_INTERVAL == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+
+            logger.info("Users created in one transaction: {}", userEntities.size());
+
+            return userEntities;
+        } catch (Exception e) {
+            timeouts.onError("createAll", e);
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error creating users batch", e);
+            throw e;
+        }
+    }
+
     @Override
     public Optional<UserEntity> findById(Long id) {
+        long timeoutMillis = timeouts.begin("findById");
         Transaction transaction = null;
 
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
 
             UserEntity userEntity = session.find(UserEntity.class, id);
             transaction.commit();
@@ -60,6 +203,7 @@ public class UserDAOImpl implements UserDAO {
 
             return Optional.ofNullable(userEntity);
         } catch (Exception e) {
+            timeouts.onError("findById", e);
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
                 logger.error("Transaction rolled back due to error", e);
@@ -71,13 +215,16 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public Optional<UserEntity> findByEmail(String email) {
+        long timeoutMillis = timeouts.begin("findByEmail");
         Transaction transaction = null;
 
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
 
-            Query<UserEntity> query = session.createQuery(
-                    "FROM UserEntity u WHERE u.email = :email", UserEntity.class);
+            Query<UserEntity> query = partitionScanner == null
+                    ? session.createNamedQuery(UserEntity.FIND_BY_EMAIL, UserEntity.class)
+                    : session.createNativeQuery(FIND_BY_EMAIL_PARTITIONED_SQL, UserEntity.class);
             query.setParameter("email", email);
             UserEntity userEntity = query.uniqueResult();
             transaction.commit();
@@ -85,6 +232,7 @@ public class UserDAOImpl implements UserDAO {
 
             return Optional.ofNullable(userEntity);
         } catch (Exception e) {
+            timeouts.onError("findByEmail", e);
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
                 logger.error("Transaction rolled back due to error", e);
@@ -96,18 +244,31 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public List<UserEntity> findAll() {
+        if (partitionScanner != null) {
+            return scanPartitions("findAll", JdbcUserDAO.USER_COLUMNS, JdbcUserDAO::mapUser,
+                    Comparator.comparing(UserEntity::getId));
+        }
+
+        long timeoutMillis = timeouts.begin("findAll");
         Transaction transaction = null;
 
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
 
-            Query<UserEntity> query = session.createQuery("FROM UserEntity u ORDER BY u.id", UserEntity.class);
+            Query<UserEntity> query = session.createNamedQuery(UserEntity.FIND_ALL, UserEntity.class);
             List<UserEntity> userEntities = query.list();
             logger.debug("Found {} users", userEntities.size());
             transaction.commit();
 
             return userEntities;
         } catch (Exception e) {
+            timeouts.onError("findAll", e);
+            // Отказ соединения не подменяется пустым ответом: его видят резервный снимок и ограничитель нагрузки.
+            // Откатывать нечего - соединение вернулось в пул при закрытии сессии
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
                 logger.error("Transaction rolled back due to error", e);
@@ -118,12 +279,192 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        long timeoutMillis = timeouts.begin("findPage");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            Query<UserEntity> query = session.createNamedQuery(UserEntity.FIND_PAGE, UserEntity.class);
+            query.setParameter("afterId", afterId != null ? afterId : 0L);
+            query.setMaxResults(limit);
+            List<UserEntity> userEntities = query.list();
+            logger.debug("Found {} users after id {}", userEntities.size(), afterId);
+            transaction.commit();
+
+            return userEntities;
+        } catch (Exception e) {
+            timeouts.onError("findPage", e);
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error finding users page after id: {}", afterId, e);
+
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Проекции через конструктор записи: выбираются только три столбца, сущности
+     * и их снимки в контексте персистентности не создаются
+     */
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        long timeoutMillis = timeouts.begin("findSummaryByEmail");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            Optional<UserSummary> summary = partitionScanner == null
+                    ? session.createNamedQuery(UserEntity.FIND_SUMMARY_BY_EMAIL, UserSummary.class)
+                            .setParameter("email", email)
+                            .uniqueResultOptional()
+                    : session.createNativeQuery(FIND_SUMMARY_BY_EMAIL_PARTITIONED_SQL, Object[].class)
+                            .setParameter("email", email)
+                            .uniqueResultOptional()
+                            .map(row -> new UserSummary(((Number) row[0]).longValue(), (String) row[1],
+                                    (String) row[2]));
+            transaction.commit();
+
+            return summary;
+        } catch (Exception e) {
+            timeouts.onError("findSummaryByEmail", e);
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error finding user summary by email: {}", email, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        if (partitionScanner != null) {
+            return scanPartitions("findAllSummaries", "id, name, email",
+                    resultSet -> new UserSummary(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3)),
+                    Comparator.comparing(UserSummary::id));
+        }
+
+        long timeoutMillis = timeouts.begin("findAllSummaries");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            List<UserSummary> summaries = session.createNamedQuery(UserEntity.FIND_ALL_SUMMARIES, UserSummary.class)
+                    .list();
+            logger.debug("Found {} user summaries", summaries.size());
+            transaction.commit();
+
+            return summaries;
+        } catch (Exception e) {
+            timeouts.onError("findAllSummaries", e);
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error finding all user summaries", e);
+
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        long timeoutMillis = timeouts.begin("findSummaryPage");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            List<UserSummary> summaries = session.createNamedQuery(UserEntity.FIND_SUMMARY_PAGE, UserSummary.class)
+                    .setParameter("afterId", afterId != null ? afterId : 0L)
+                    .setMaxResults(limit)
+                    .list();
+            logger.debug("Found {} user summaries after id {}", summaries.size(), afterId);
+            transaction.commit();
+
+            return summaries;
+        } catch (Exception e) {
+            timeouts.onError("findSummaryPage", e);
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error finding user summaries page after id: {}", afterId, e);
+
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        long timeoutMillis = timeouts.begin("searchByName");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            String normalized = query.trim().toLowerCase(Locale.ROOT);
+            NativeQuery<Object[]> nativeQuery;
+            if (mode == NameSearchMode.PREFIX) {
+                nativeQuery = session.createNativeQuery(SEARCH_BY_NAME_PREFIX_SQL, Object[].class);
+                nativeQuery.setParameter("pattern", escapeLike(normalized) + "%");
+            } else {
+                nativeQuery = session.createNativeQuery(SEARCH_BY_NAME_FUZZY_SQL, Object[].class);
+                nativeQuery.setParameter("query", normalized);
+            }
+            nativeQuery.setParameter("limit", limit);
+
+            List<UserSummary> summaries = nativeQuery.list().stream()
+                    .map(row -> new UserSummary(((Number) row[0]).longValue(), (String) row[1], (String) row[2]))
+                    .toList();
+            transaction.commit();
+            logger.debug("Search by name '{}' ({}): {} found", query, mode, summaries.size());
+
+            return summaries;
+        } catch (Exception e) {
+            timeouts.onError("searchByName", e);
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error searching users by name: {}", query, e);
+
+            return Collections.emptyList();
+        }
+    }
+
     @Override
     public UserEntity update(UserEntity userEntity) {
+        long timeoutMillis = timeouts.begin("update");
         Transaction transaction = null;
 
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
 
             UserEntity mergedUserEntity = session.merge(userEntity);
             transaction.commit();
@@ -131,6 +472,7 @@ public class UserDAOImpl implements UserDAO {
 
             return mergedUserEntity;
         } catch (Exception e) {
+            timeouts.onError("update", e);
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
                 logger.error("Transaction rolled back due to error", e);
@@ -142,26 +484,28 @@ public class UserDAOImpl implements UserDAO {
 
     @Override
     public boolean delete(Long id) {
+        long timeoutMillis = timeouts.begin("delete");
         Transaction transaction = null;
 
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
 
-            UserEntity userEntity = session.find(UserEntity.class, id);
-            if (userEntity != null) {
-                session.remove(userEntity);
-                transaction.commit();
-                logger.info("User deleted successfully: {}", id);
-
-                return true;
+            // Один DELETE по первичному ключу, без загрузки сущности в контекст
+            int deleted = session.createNamedMutationQuery(UserEntity.DELETE_BY_ID)
+                    .setParameter("id", id)
+                    .executeUpdate();
+            transaction.commit();
 
+            if (deleted > 0) {
+                logger.info("User deleted successfully: {}", id);
             } else {
-                transaction.rollback();
                 logger.warn("User not found for deletion: {}", id);
-
-                return false;
             }
+
+            return deleted > 0;
         } catch (Exception e) {
+            timeouts.onError("delete", e);
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
                 logger.error("Transaction rolled back due to error", e);
@@ -171,15 +515,106 @@ public class UserDAOImpl implements UserDAO {
         }
     }
 
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        Long[] distinctIds = ids.stream().distinct().toArray(Long[]::new);
+        int deleted = 0;
+        for (int from = 0; from < distinctIds.length; from += DELETE_CHUNK_SIZE) {
+            Long[] chunk = Arrays.copyOfRange(distinctIds, from,
+                    Math.min(from + DELETE_CHUNK_SIZE, distinctIds.length));
+            deleted += deleteChunk(chunk);
+        }
+        logger.info("Users deleted by ids: {} of {}", deleted, distinctIds.length);
+
+        return deleted;
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        long deleted = 0;
+        int chunkDeleted;
+        do {
+            chunkDeleted = deleteCreatedBeforeChunk(createdBefore);
+            deleted += chunkDeleted;
+        } while (chunkDeleted == DELETE_CHUNK_SIZE);
+        logger.info("Users created before {} deleted: {}", createdBefore, deleted);
+
+        return deleted;
+    }
+
+    /**
+     * Удаление одной порции ID: один DELETE ... = ANY(массив) вместо списка параметров
+     */
+    private int deleteChunk(Long[] ids) {
+        long timeoutMillis = timeouts.begin("deleteByIds");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            int deleted = session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_BY_IDS_SQL)) {
+                    Array idArray = connection.createArrayOf("bigint", ids);
+                    statement.setArray(1, idArray);
+
+                    return statement.executeUpdate();
+                }
+            });
+            transaction.commit();
+            logger.debug("Deleted {} users in chunk of {} ids", deleted, ids.length);
+
+            return deleted;
+        } catch (Exception e) {
+            timeouts.onError("deleteByIds", e);
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error deleting users by ids", e);
+            throw e;
+        }
+    }
+
+    private int deleteCreatedBeforeChunk(LocalDateTime createdBefore) {
+        long timeoutMillis = timeouts.begin("deleteCreatedBefore");
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
+
+            int deleted = session.createNativeMutationQuery(DELETE_CREATED_BEFORE_SQL)
+                    .setParameter("createdBefore", createdBefore)
+                    .setParameter("limit", DELETE_CHUNK_SIZE)
+                    .executeUpdate();
+            transaction.commit();
+            logger.debug("Deleted {} users created before {}", deleted, createdBefore);
+
+            return deleted;
+        } catch (Exception e) {
+            timeouts.onError("deleteCreatedBefore", e);
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error deleting users created before: {}", createdBefore, e);
+            throw e;
+        }
+    }
+
     @Override
     public boolean existsByEmail(String email) {
+        long timeoutMillis = timeouts.begin("existsByEmail");
         Transaction transaction = null;
 
         try (Session session = sessionFactory.openSession()) {
             transaction = session.beginTransaction();
+            timeouts.apply(session, timeoutMillis);
 
-            Query<Long> query = session.createQuery(
-                    "SELECT COUNT(u) FROM UserEntity u WHERE u.email = :email", Long.class);
+            Query<Long> query = partitionScanner == null
+                    ? session.createNamedQuery(UserEntity.EXISTS_BY_EMAIL, Long.class)
+                    : session.createNativeQuery(EXISTS_BY_EMAIL_PARTITIONED_SQL, Long.class);
             query.setParameter("email", email);
 
             Long count = query.uniqueResult();
@@ -189,6 +624,10 @@ public class UserDAOImpl implements UserDAO {
 
             return exists;
         } catch (Exception e) {
+            timeouts.onError("existsByEmail", e);
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
                 logger.error("Transaction rolled back due to error", e);
@@ -198,4 +637,37 @@ public class UserDAOImpl implements UserDAO {
             return false;
         }
     }
+
+    /**
+     * Параллельное чтение секций; при ошибке - пустой список, как у несекционированного findAll,
+     * отказ соединения пробрасывается
+     */
+    private <T> List<T> scanPartitions(String operation, String columns, PartitionScanner.RowMapper<T> mapper,
+                                       Comparator<T> order) {
+        long timeoutMillis = timeouts.begin(operation);
+        try {
+            List<T> rows = partitionScanner.scan(columns, mapper, order, timeouts, timeoutMillis);
+            logger.debug("{}: {} rows from {} partitions", operation, rows.size(),
+                    partitionScanner.getPartitions().size());
+
+            return rows;
+        } catch (Exception e) {
+            timeouts.onError(operation, e);
+            if (DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+            logger.error("Error scanning user partitions: {}", operation, e);
+
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Экранирование спецсимволов LIKE (escape-символ по умолчанию в PostgreSQL - обратный слеш)
+     */
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
 }
@@ -0,0 +1,76 @@
+package com.userservice.dao;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение столбца email всех пользователей (со всех шардов) без загрузки сущностей.
+ * Внутри транзакции pgjdbc читает результат курсором порциями по FETCH_SIZE строк.
+ */
+public class UserEmailReader {
+
+    private static final String EMAILS_SQL = "SELECT email FROM users";
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailReader.class);
+    private final List<SessionFactory> sessionFactories;
+
+    public UserEmailReader(List<SessionFactory> sessionFactories) {
+        this.sessionFactories = List.copyOf(sessionFactories);
+    }
+
+    /**
+     * Передача каждого email в consumer
+     * @return число прочитанных email
+     */
+    public long forEachEmail(Consumer<String> consumer) {
+        long total = 0;
+        for (SessionFactory sessionFactory : sessionFactories) {
+            total += readEmails(sessionFactory, consumer);
+        }
+        logger.debug("Streamed {} emails", total);
+
+        return total;
+    }
+
+    private long readEmails(SessionFactory sessionFactory, Consumer<String> consumer) {
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+
+            long count = session.doReturningWork(connection -> {
+                long read = 0;
+                try (Statement statement = connection.createStatement()) {
+                    statement.setFetchSize(FETCH_SIZE);
+                    try (ResultSet resultSet = statement.executeQuery(EMAILS_SQL)) {
+                        while (resultSet.next()) {
+                            consumer.accept(resultSet.getString(1));
+                            read++;
+                        }
+                    }
+                }
+
+                return read;
+            });
+            transaction.commit();
+
+            return count;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error streaming user emails", e);
+            throw e;
+        }
+    }
+}
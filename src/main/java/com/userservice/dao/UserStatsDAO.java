@@ -0,0 +1,37 @@
+package com.userservice.dao;
+
+import com.userservice.dto.AgeBucket;
+import com.userservice.dto.SignupCount;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DAO агрегатов по пользователям; результаты считаются в SQL без загрузки сущностей
+ */
+public interface UserStatsDAO {
+
+    /**
+     * Гистограмма возрастов
+     * @param bounds границы интервалов по возрастанию, например [18, 30, 45]:
+     *               интервалы [0, 18), [18, 30), [30, 45), [45, +inf)
+     * @return количество пользователей в каждом интервале; пользователи без возраста не учитываются
+     */
+    List<AgeBucket> countByAgeBuckets(int[] bounds);
+
+    /**
+     * Количество регистраций по периодам в диапазоне [from, to)
+     * @return периоды с ненулевым количеством по возрастанию
+     */
+    List<SignupCount> countSignups(LocalDateTime from, LocalDateTime to, SignupPeriod period);
+
+    /**
+     * Точное количество пользователей
+     */
+    long countAll();
+
+    /**
+     * Оценка количества пользователей по статистике планировщика, без сканирования таблицы
+     */
+    long estimateCount();
+}
@@ -0,0 +1,188 @@
+package com.userservice.dao;
+
+import com.userservice.dto.AgeBucket;
+import com.userservice.dto.SignupCount;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.jdbc.ReturningWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Реализация UserStatsDAO на SQL-агрегатах (индексы idx_users_age и idx_users_created_at)
+ */
+public class UserStatsDAOImpl implements UserStatsDAO {
+
+    private static final String AGE_HISTOGRAM_SQL = "SELECT width_bucket(age, ?) AS bucket, count(*) "
+            + "FROM users WHERE age IS NOT NULL GROUP BY bucket";
+
+    /**
+     * created_at хранится в UTC (hibernate.jdbc.time_zone), периоды считаются в часовом поясе JVM:
+     * значение переводится из UTC в местное время до date_trunc
+     */
+    private static final String SIGNUPS_SQL = "SELECT date_trunc(?, created_at AT TIME ZONE 'UTC' AT TIME ZONE ?) "
+            + "AS period, count(*) FROM users WHERE created_at >= ? AND created_at < ? GROUP BY 1 ORDER BY 1";
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM users";
+
+    /**
+     * Оценка как у планировщика: плотность строк из последнего ANALYZE, умноженная на текущий размер таблицы.
+     * Статистика и данные секционированной таблицы хранятся в секциях (у родителя relpages = 0),
+     * поэтому суммируются по листьям pg_partition_tree; обычная таблица - единственный лист своего дерева
+     */
+    private static final String ESTIMATE_SQL = "SELECT CASE WHEN bool_or(c.reltuples < 0) OR sum(c.relpages) = 0 "
+            + "THEN -1 ELSE (sum(c.reltuples) / sum(c.relpages) "
+            + "* (sum(pg_relation_size(c.oid)) / current_setting('block_size')::int))::bigint END "
+            + "FROM pg_partition_tree('users') t JOIN pg_class c ON c.oid = t.relid WHERE t.isleaf";
+
+    private static final TimeZone JDBC_TIME_ZONE = TimeZone.getTimeZone("UTC");
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsDAOImpl.class);
+    private final SessionFactory sessionFactory;
+
+    public UserStatsDAOImpl(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public List<AgeBucket> countByAgeBuckets(int[] bounds) {
+        long[] counts = inTransaction("age histogram", connection -> {
+            long[] result = new long[bounds.length + 1];
+            try (PreparedStatement statement = connection.prepareStatement(AGE_HISTOGRAM_SQL)) {
+                Integer[] thresholds = new Integer[bounds.length];
+                for (int i = 0; i < bounds.length; i++) {
+                    thresholds[i] = bounds[i];
+                }
+                statement.setArray(1, connection.createArrayOf("integer", thresholds));
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        result[resultSet.getInt(1)] = resultSet.getLong(2);
+                    }
+                }
+            }
+
+            return result;
+        });
+
+        List<AgeBucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            int minAge = i == 0 ? 0 : bounds[i - 1];
+            Integer maxAge = i < bounds.length ? bounds[i] : null;
+            buckets.add(new AgeBucket(minAge, maxAge, counts[i]));
+        }
+
+        return buckets;
+    }
+
+    @Override
+    public List<SignupCount> countSignups(LocalDateTime from, LocalDateTime to, SignupPeriod period) {
+        return inTransaction("signups per " + period, connection -> {
+            List<SignupCount> result = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(SIGNUPS_SQL)) {
+                statement.setString(1, period.getTruncUnit());
+                statement.setString(2, databaseZone(ZoneId.systemDefault()));
+                // Границы пишутся как у Hibernate и JdbcUserDAO: местное время JVM переводится в UTC
+                statement.setTimestamp(3, Timestamp.valueOf(from), Calendar.getInstance(JDBC_TIME_ZONE));
+                statement.setTimestamp(4, Timestamp.valueOf(to), Calendar.getInstance(JDBC_TIME_ZONE));
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        result.add(new SignupCount(
+                                resultSet.getObject(1, LocalDateTime.class).toLocalDate(), resultSet.getLong(2)));
+                    }
+                }
+            }
+
+            return result;
+        });
+    }
+
+    @Override
+    public long countAll() {
+        return inTransaction("exact count", connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(COUNT_SQL)) {
+                resultSet.next();
+
+                return resultSet.getLong(1);
+            }
+        });
+    }
+
+    @Override
+    public long estimateCount() {
+        long estimate = inTransaction("estimated count", connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(ESTIMATE_SQL)) {
+                resultSet.next();
+
+                return resultSet.getLong(1);
+            }
+        });
+
+        if (estimate < 0) {
+            // Таблица или одна из ее секций еще не анализировалась - статистики нет
+            logger.debug("No planner statistics for users, falling back to exact count");
+
+            return countAll();
+        }
+
+        return estimate;
+    }
+
+    /**
+     * Часовой пояс для AT TIME ZONE: имя из базы tz или POSIX-смещение, в котором положительный знак - к западу
+     */
+    static String databaseZone(ZoneId zone) {
+        ZoneId normalized = zone.normalized();
+        if (!(normalized instanceof ZoneOffset offset)) {
+            return normalized.getId();
+        }
+        int seconds = offset.getTotalSeconds();
+        if (seconds == 0) {
+            return "UTC";
+        }
+
+        return String.format(Locale.ROOT, "UTC%s%02d:%02d", seconds > 0 ? "-" : "+",
+                Math.abs(seconds) / 3600, Math.abs(seconds) % 3600 / 60);
+    }
+
+    /**
+     * Выполнение JDBC-запроса в транзакции Hibernate-сессии
+     */
+    private <T> T inTransaction(String operation, ReturningWork<T> work) {
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+
+            T result = session.doReturningWork(work);
+            transaction.commit();
+            logger.debug("Computed {}", operation);
+
+            return result;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error computing {}", operation, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.userservice.dto;
+
+/**
+ * Интервал гистограммы возрастов [minAge, maxAgeExclusive); maxAgeExclusive == null - без верхней границы
+ */
+public record AgeBucket(int minAge, Integer maxAgeExclusive, long count) {
+}
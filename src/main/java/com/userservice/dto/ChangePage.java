@@ -0,0 +1,9 @@
+package com.userservice.dto;
+
+import java.util.List;
+
+/**
+ * Страница ленты изменений и курсор для следующего запроса
+ */
+public record ChangePage(List<UserChange> changes, String nextCursor) {
+}
@@ -0,0 +1,16 @@
+package com.userservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие жизненного цикла пользователя из outbox; payload - JSON с состоянием пользователя
+ * (для DELETED - только email)
+ */
+public record OutboxEvent(long id, Type type, long userId, String payload, LocalDateTime createdAt) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
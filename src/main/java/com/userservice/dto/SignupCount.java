@@ -0,0 +1,9 @@
+package com.userservice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Количество регистраций за период, начинающийся с periodStart
+ */
+public record SignupCount(LocalDate periodStart, long count) {
+}
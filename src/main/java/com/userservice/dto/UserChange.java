@@ -0,0 +1,15 @@
+package com.userservice.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Изменение пользователя в ленте: текущее состояние после записи или надгробие удаления
+ * (для DELETE известны только id и последний email)
+ */
+public record UserChange(Type type, Long id, String name, String email, Integer age, LocalDateTime changedAt) {
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+}
@@ -0,0 +1,7 @@
+package com.userservice.dto;
+
+/**
+ * Облегченная проекция пользователя для списков и поиска
+ */
+public record UserSummary(Long id, String name, String email) {
+}
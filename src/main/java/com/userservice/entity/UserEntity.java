@@ -1,10 +1,10 @@
 package com.userservice.entity;
 
+import com.userservice.id.GeneratedUserId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
@@ -12,14 +12,39 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
- * Класс сущности User его атрибуты
+ * Класс сущности User его атрибуты.
+ * <p>
+ * HQL-запросы DAO объявлены именованными: Hibernate разбирает и проверяет их при сборке SessionFactory,
+ * ошибка в запросе останавливает старт, а не первый запрос пользователя.
  */
 @Entity
 @Table(name = "users")
+@NamedQuery(name = UserEntity.FIND_BY_EMAIL, query = "FROM UserEntity u WHERE u.email = :email")
+@NamedQuery(name = UserEntity.FIND_ALL, query = "FROM UserEntity u ORDER BY u.id")
+@NamedQuery(name = UserEntity.FIND_PAGE, query = "FROM UserEntity u WHERE u.id > :afterId ORDER BY u.id")
+@NamedQuery(name = UserEntity.FIND_SUMMARY_BY_EMAIL,
+        query = "SELECT new com.userservice.dto.UserSummary(u.id, u.name, u.email) FROM UserEntity u "
+                + "WHERE u.email = :email")
+@NamedQuery(name = UserEntity.FIND_ALL_SUMMARIES,
+        query = "SELECT new com.userservice.dto.UserSummary(u.id, u.name, u.email) FROM UserEntity u ORDER BY u.id")
+@NamedQuery(name = UserEntity.FIND_SUMMARY_PAGE,
+        query = "SELECT new com.userservice.dto.UserSummary(u.id, u.name, u.email) FROM UserEntity u "
+                + "WHERE u.id > :afterId ORDER BY u.id")
+@NamedQuery(name = UserEntity.EXISTS_BY_EMAIL, query = "SELECT COUNT(u) FROM UserEntity u WHERE u.email = :email")
+@NamedQuery(name = UserEntity.DELETE_BY_ID, query = "DELETE FROM UserEntity u WHERE u.id = :id")
 public class UserEntity {
 
+    public static final String FIND_BY_EMAIL = "UserEntity.findByEmail";
+    public static final String FIND_ALL = "UserEntity.findAll";
+    public static final String FIND_PAGE = "UserEntity.findPage";
+    public static final String FIND_SUMMARY_BY_EMAIL = "UserEntity.findSummaryByEmail";
+    public static final String FIND_ALL_SUMMARIES = "UserEntity.findAllSummaries";
+    public static final String FIND_SUMMARY_PAGE = "UserEntity.findSummaryPage";
+    public static final String EXISTS_BY_EMAIL = "UserEntity.existsByEmail";
+    public static final String DELETE_BY_ID = "UserEntity.deleteById";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedUserId
     private Long id;
 
     @Column(name = "name", nullable = false, length = 100)
@@ -34,9 +59,17 @@ public class UserEntity {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * Время последнего изменения; заполняется триггером users_track_change и читается только из базы
+     */
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
     public UserEntity() {
@@ -88,6 +121,17 @@ public class UserEntity {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Заполнение времени изменения при чтении из базы без ORM
+     */
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
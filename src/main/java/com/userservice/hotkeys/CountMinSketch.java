@@ -0,0 +1,93 @@
+package com.userservice.hotkeys;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch по 64-битным хешам ключей: DEPTH строк счетчиков, оценка частоты - минимум по строкам.
+ * Оценка не меньше истинной частоты и завышена не больше чем на e / width от числа добавлений
+ * с вероятностью 1 - e^-DEPTH. Счетчики увеличиваются атомарно без блокировок.
+ */
+final class CountMinSketch {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9e3779b97f4a7c15L, 0xc2b2ae3d27d4eb4fL, 0x165667b19e3779f9L, 0x27d4eb2f165667c5L
+    };
+    private static final int MAX_WIDTH = 1 << 24;
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int widthMask;
+
+    /**
+     * @param width число счетчиков в строке; округляется вверх до степени двойки
+     */
+    CountMinSketch(int width) {
+        if (width <= 0 || width > MAX_WIDTH) {
+            throw new IllegalArgumentException("Sketch width must be between 1 and " + MAX_WIDTH);
+        }
+        this.width = Integer.highestOneBit(Math.max(1, width * 2 - 1));
+        this.widthMask = this.width - 1;
+        this.counters = new AtomicLongArray(DEPTH * this.width);
+    }
+
+    /**
+     * Учет одного обращения
+     * @return оценка частоты ключа с учетом этого обращения
+     */
+    long increment(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash)));
+        }
+
+        return estimate;
+    }
+
+    long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash)));
+        }
+
+        return estimate;
+    }
+
+    /**
+     * Уменьшение всех счетчиков вдвое; параллельные increment не блокируются,
+     * обращение, попавшее между чтением и записью счетчика, может быть потеряно
+     */
+    void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            if (counters.get(i) != 0) {
+                counters.getAndUpdate(i, value -> value >>> 1);
+            }
+        }
+    }
+
+    int width() {
+        return width;
+    }
+
+    long memoryBytes() {
+        return (long) counters.length() * Long.BYTES;
+    }
+
+    private int index(int row, long hash) {
+        return row * width + (mix(hash ^ SEEDS[row]) & widthMask);
+    }
+
+    /**
+     * Финализатор murmur3: независимые позиции в строках при разных SEEDS
+     */
+    private static int mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3f99e3ca27fL;
+        hash ^= hash >>> 33;
+
+        return (int) hash;
+    }
+}
@@ -0,0 +1,120 @@
+package com.userservice.hotkeys;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Локальный файл горячих ключей между перезапусками: строки "id\t123" и "email\tuser@example.com".
+ * Запись идет во временный файл рядом и атомарно заменяет прежний, поэтому при падении
+ * во время записи остается предыдущая версия.
+ */
+public class HotKeyFile {
+
+    /**
+     * Файл, в который периодически сохраняются горячие ключи; при старте по нему прогревается кэш
+     */
+    public static final String FILE_PROPERTY = "userservice.hotkeys.file";
+
+    private static final String ID_PREFIX = "id\t";
+    private static final String EMAIL_PREFIX = "email\t";
+
+    /**
+     * Содержимое файла в порядке убывания частоты
+     */
+    public record Contents(List<Long> ids, List<String> emails) {
+
+        public boolean isEmpty() {
+            return ids.isEmpty() && emails.isEmpty();
+        }
+    }
+
+    private final Path path;
+
+    public HotKeyFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Файл, заданный системным свойством; null, если он не задан
+     */
+    public static HotKeyFile fromSystemProperties() {
+        String file = System.getProperty(FILE_PROPERTY);
+
+        return file == null || file.isBlank() ? null : new HotKeyFile(Path.of(file));
+    }
+
+    /**
+     * Сохранение текущего top-K; пустой top-K (нет обращений) не затирает список прошлого запуска
+     * @return false, если сохранять нечего
+     */
+    public boolean saveTop(HotKeys hotKeys) throws IOException {
+        List<Long> ids = hotKeys.hotIds();
+        List<String> emails = hotKeys.hotEmails();
+        if (ids.isEmpty() && emails.isEmpty()) {
+            return false;
+        }
+        save(ids, emails);
+
+        return true;
+    }
+
+    public void save(List<Long> ids, List<String> emails) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Long id : ids) {
+                writer.write(ID_PREFIX);
+                writer.write(Long.toString(id));
+                writer.newLine();
+            }
+            for (String email : emails) {
+                writer.write(EMAIL_PREFIX);
+                writer.write(email);
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Чтение файла; отсутствующий файл - пустое содержимое, непонятные строки пропускаются
+     */
+    public Contents load() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        List<String> emails = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return new Contents(ids, emails);
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ID_PREFIX)) {
+                    try {
+                        ids.add(Long.parseLong(line.substring(ID_PREFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Поврежденная строка: остальные ключи еще пригодны
+                    }
+                } else if (line.startsWith(EMAIL_PREFIX) && line.length() > EMAIL_PREFIX.length()) {
+                    emails.add(line.substring(EMAIL_PREFIX.length()));
+                }
+            }
+        }
+
+        return new Contents(ids, emails);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
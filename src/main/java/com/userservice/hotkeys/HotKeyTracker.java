@@ -0,0 +1,188 @@
+package com.userservice.hotkeys;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Поиск самых частых ключей: частоты оцениваются {@link CountMinSketch}, кандидаты в top-K
+ * хранятся в конкурентном множестве. Ключ становится кандидатом, если его оценка выше K-й оценки
+ * на момент последней чистки; когда кандидатов больше 2K, лишние отбрасываются.
+ * <p>
+ * {@link #decay()} периодически уменьшает счетчики вдвое, поэтому оценки отражают недавнюю нагрузку.
+ * Частота в секунду - оценка, деленная на длину окна с теми же весами (текущий период целиком,
+ * прошлые - с весом 1/2, 1/4, ...).
+ */
+public class HotKeyTracker<K> {
+
+    private static final int LOGGED_KEYS = 10;
+
+    public record HotKey<K>(K key, long count, double ratePerSecond) {
+    }
+
+    private final CountMinSketch sketch;
+    private final ToLongFunction<K> hasher;
+    private final int topK;
+    private final LongSupplier nanoClock;
+
+    private final Set<K> candidates = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final LongAdder lookups = new LongAdder();
+
+    private volatile long admissionThreshold;
+    private volatile Set<K> hotKeys = Set.of();
+    private volatile long periodStartNanos;
+    private volatile long decayedWindowNanos;
+
+    /**
+     * @param topK число отслеживаемых самых частых ключей
+     * @param width ширина sketch: больше - точнее оценки редких ключей
+     * @param hasher 64-битный хеш ключа
+     */
+    public HotKeyTracker(int topK, int width, ToLongFunction<K> hasher) {
+        this(topK, width, hasher, System::nanoTime);
+    }
+
+    HotKeyTracker(int topK, int width, ToLongFunction<K> hasher, LongSupplier nanoClock) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Top-K size must be positive");
+        }
+        this.sketch = new CountMinSketch(width);
+        this.hasher = hasher;
+        this.topK = topK;
+        this.nanoClock = nanoClock;
+        this.periodStartNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Учет обращения к ключу
+     */
+    public void record(K key) {
+        lookups.increment();
+        long estimate = sketch.increment(hasher.applyAsLong(key));
+        if (estimate > admissionThreshold && !candidates.contains(key)) {
+            candidates.add(key);
+            if (candidates.size() > 2 * topK) {
+                trim();
+            }
+        }
+    }
+
+    /**
+     * Оценка числа обращений к ключу с учетом затухания
+     */
+    public long estimate(K key) {
+        return sketch.estimate(hasher.applyAsLong(key));
+    }
+
+    /**
+     * Самые частые ключи по убыванию оценки
+     */
+    public List<HotKey<K>> topKeys() {
+        List<HotKey<K>> ranked = rank();
+        double windowSeconds = Math.max(1, windowNanos()) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        return ranked.stream()
+                .limit(topK)
+                .map(hotKey -> new HotKey<>(hotKey.key(), hotKey.count(), hotKey.count() / windowSeconds))
+                .toList();
+    }
+
+    /**
+     * Входит ли ключ в top-K на момент последней чистки или затухания
+     */
+    public boolean isHot(K key) {
+        return hotKeys.contains(key);
+    }
+
+    /**
+     * Уменьшение всех оценок вдвое и пересчет top-K
+     */
+    public void decay() {
+        long now = nanoClock.getAsLong();
+        sketch.halve();
+        decayedWindowNanos = (decayedWindowNanos + now - periodStartNanos) / 2;
+        periodStartNanos = now;
+        admissionThreshold = admissionThreshold >>> 1;
+        trim();
+    }
+
+    /**
+     * Отбрасывание кандидатов вне top-K; выполняется одним потоком, остальные его не ждут
+     */
+    public void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<HotKey<K>> ranked = rank();
+            Set<K> top = new HashSet<>();
+            for (int i = 0; i < ranked.size() && i < topK; i++) {
+                top.add(ranked.get(i).key());
+            }
+            candidates.retainAll(top);
+            hotKeys = Set.copyOf(top);
+            admissionThreshold = ranked.size() >= topK ? ranked.get(topK - 1).count() : 0;
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public long getMemoryBytes() {
+        return sketch.memoryBytes();
+    }
+
+    /**
+     * Первые LOGGED_KEYS ключей top-K с частотой
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("[");
+        for (HotKey<K> hotKey : topKeys().stream().limit(LOGGED_KEYS).toList()) {
+            if (result.length() > 1) {
+                result.append(", ");
+            }
+            result.append(hotKey.key()).append('=').append(formatRate(hotKey.ratePerSecond())).append("/s");
+        }
+
+        return result.append(']').toString();
+    }
+
+    static String formatRate(double ratePerSecond) {
+        return String.format(Locale.ROOT, "%.1f", ratePerSecond);
+    }
+
+    private List<HotKey<K>> rank() {
+        List<HotKey<K>> ranked = new ArrayList<>(candidates.size());
+        for (K key : candidates) {
+            long count = estimate(key);
+            if (count > 0) {
+                ranked.add(new HotKey<>(key, count, 0));
+            }
+        }
+        ranked.sort(Comparator.comparingLong((HotKey<K> hotKey) -> hotKey.count()).reversed());
+
+        return ranked;
+    }
+
+    private long windowNanos() {
+        return decayedWindowNanos + nanoClock.getAsLong() - periodStartNanos;
+    }
+}
@@ -0,0 +1,197 @@
+package com.userservice.hotkeys;
+
+import com.userservice.util.BackgroundTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие ключи поиска пользователей: отдельные {@link HotKeyTracker} для ID и для email.
+ * Заполняется сервисным слоем при каждом поиске; top-K ID используются для закрепления в кэше
+ * и его прогрева.
+ */
+public class HotKeys implements HotKeysMXBean {
+
+    /**
+     * Учет горячих ключей поиска по ID и email (count-min sketch и top-K)
+     */
+    public static final String ENABLED_PROPERTY = "userservice.hotkeys.enabled";
+
+    /**
+     * Число отслеживаемых самых частых ID и email
+     */
+    public static final String TOP_K_PROPERTY = "userservice.hotkeys.top-k";
+
+    /**
+     * Ширина sketch (счетчиков в строке): больше - точнее оценки при большом числе разных ключей
+     */
+    public static final String SKETCH_WIDTH_PROPERTY = "userservice.hotkeys.sketch-width";
+
+    /**
+     * Период уменьшения оценок вдвое в секундах
+     */
+    public static final String DECAY_PROPERTY = "userservice.hotkeys.decay-seconds";
+
+    /**
+     * Закрепление горячих ID в кэше findById (по умолчанию включено)
+     */
+    public static final String PIN_PROPERTY = "userservice.hotkeys.pin";
+
+    /**
+     * Период сохранения горячих ключей в файл {@link HotKeyFile#FILE_PROPERTY} в секундах
+     */
+    public static final String SAVE_PROPERTY = "userservice.hotkeys.save-seconds";
+
+    /**
+     * Имя MBean горячих ключей
+     */
+    public static final String MBEAN_NAME = "com.userservice:type=HotKeys";
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeys.class);
+
+    private final HotKeyTracker<Long> ids;
+    private final HotKeyTracker<String> emails;
+
+    /**
+     * @param topK число отслеживаемых ID и email
+     * @param width ширина sketch каждого трекера
+     */
+    public HotKeys(int topK, int width) {
+        this.ids = new HotKeyTracker<>(topK, width, Long::longValue);
+        this.emails = new HotKeyTracker<>(topK, width, String::hashCode);
+    }
+
+    /**
+     * Учет горячих ключей по системным свойствам: затухание по расписанию, top-K в лог раз в минуту и в JMX,
+     * периодическое сохранение в файл, если он задан
+     * @return null, если учет отключен
+     */
+    public static HotKeys fromSystemProperties() {
+        if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return null;
+        }
+
+        HotKeys hotKeys = new HotKeys(Integer.getInteger(TOP_K_PROPERTY, 20),
+                Integer.getInteger(SKETCH_WIDTH_PROPERTY, 8192));
+        long decaySeconds = Long.getLong(DECAY_PROPERTY, 60L);
+        BackgroundTasks.scheduleWithFixedDelay("Hot keys decay", hotKeys::decay,
+                decaySeconds, decaySeconds, TimeUnit.SECONDS);
+        BackgroundTasks.logEveryMinute("Hot keys stats", () -> logger.info("Hot keys: {}", hotKeys));
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(hotKeys, new ObjectName(MBEAN_NAME));
+        } catch (JMException e) {
+            logger.warn("Cannot register hot keys MBean {}", MBEAN_NAME, e);
+        }
+        logger.info("Hot key tracking enabled: top {}, decay every {} s, {} KB sketches",
+                hotKeys.getIds().getTopK(), decaySeconds, hotKeys.getMemoryBytes() >> 10);
+
+        HotKeyFile file = HotKeyFile.fromSystemProperties();
+        if (file != null) {
+            long saveSeconds = Long.getLong(SAVE_PROPERTY, 60L);
+            BackgroundTasks.scheduleWithFixedDelay("Hot keys save", () -> {
+                try {
+                    if (file.saveTop(hotKeys)) {
+                        logger.debug("Saved hot keys to {}", file.getPath());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot save hot keys to " + file.getPath(), e);
+                }
+            }, saveSeconds, saveSeconds, TimeUnit.SECONDS);
+            logger.info("Hot keys are saved to {} every {} s", file.getPath(), saveSeconds);
+        }
+
+        return hotKeys;
+    }
+
+    public void recordId(long id) {
+        ids.record(id);
+    }
+
+    public void recordEmail(String email) {
+        emails.record(email);
+    }
+
+    /**
+     * Входит ли ID в текущий top-K
+     */
+    public boolean isHotId(long id) {
+        return ids.isHot(id);
+    }
+
+    /**
+     * Самые частые ID по убыванию оценки
+     */
+    public List<Long> hotIds() {
+        return ids.topKeys().stream()
+                .map(HotKeyTracker.HotKey::key)
+                .toList();
+    }
+
+    /**
+     * Самые частые email по убыванию оценки
+     */
+    public List<String> hotEmails() {
+        return emails.topKeys().stream()
+                .map(HotKeyTracker.HotKey::key)
+                .toList();
+    }
+
+    /**
+     * Затухание оценок обоих трекеров
+     */
+    public void decay() {
+        ids.decay();
+        emails.decay();
+    }
+
+    public HotKeyTracker<Long> getIds() {
+        return ids;
+    }
+
+    public HotKeyTracker<String> getEmails() {
+        return emails;
+    }
+
+    @Override
+    public List<String> getTopIds() {
+        return describe(ids);
+    }
+
+    @Override
+    public List<String> getTopEmails() {
+        return describe(emails);
+    }
+
+    @Override
+    public long getIdLookups() {
+        return ids.getLookups();
+    }
+
+    @Override
+    public long getEmailLookups() {
+        return emails.getLookups();
+    }
+
+    public long getMemoryBytes() {
+        return ids.getMemoryBytes() + emails.getMemoryBytes();
+    }
+
+    @Override
+    public String toString() {
+        return "ids " + ids + " of " + ids.getLookups() + " lookups, emails " + emails + " of "
+                + emails.getLookups() + " lookups";
+    }
+
+    private static <K> List<String> describe(HotKeyTracker<K> tracker) {
+        return tracker.topKeys().stream()
+                .map(hotKey -> hotKey.key() + "=" + HotKeyTracker.formatRate(hotKey.ratePerSecond()))
+                .toList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.userservice.hotkeys;
+
+import java.util.List;
+
+/**
+ * Горячие ключи в JMX: элементы списков - "ключ=обращений/с"
+ */
+public interface HotKeysMXBean {
+
+    List<String> getTopIds();
+
+    List<String> getTopEmails();
+
+    long getIdLookups();
+
+    long getEmailLookups();
+}
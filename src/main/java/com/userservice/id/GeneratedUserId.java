@@ -0,0 +1,17 @@
+package com.userservice.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ID пользователя из {@link UserIdGenerator}; способ генерации выбирается свойством при старте
+ */
+@IdGeneratorType(UserIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUserId {
+}
@@ -0,0 +1,65 @@
+package com.userservice.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 64-битные ID, упорядоченные по времени (TSID/Snowflake): 41 бит миллисекунд от EPOCH,
+ * 10 бит номера узла и 12 бит счетчика в пределах миллисекунды. Старший бит всегда 0.
+ * <p>
+ * Состояние - одно AtomicLong (миллисекунда и счетчик), выдача без блокировок. ID строго возрастают
+ * на узле: при переполнении счетчика и при переводе часов назад берется следующая миллисекунда.
+ */
+public class TsidGenerator {
+
+    /**
+     * Начало отсчета: 2020-01-01T00:00:00Z, 41 бита миллисекунд хватает до 2089 года
+     */
+    public static final long EPOCH_MILLIS = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+
+    public static final int MAX_NODE = (1 << 10) - 1;
+
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+
+    /**
+     * Миллисекунда от EPOCH, сдвинутая на COUNTER_BITS, плюс счетчик последнего выданного ID
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public TsidGenerator(int node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    TsidGenerator(int node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    public long next() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << COUNTER_BITS;
+        long next = state.updateAndGet(last -> Math.max(last + 1, now));
+        long millis = next >>> COUNTER_BITS;
+
+        return (millis << (NODE_BITS + COUNTER_BITS)) | (node << COUNTER_BITS) | (next & COUNTER_MASK);
+    }
+
+    /**
+     * Момент создания ID (с точностью до миллисекунды)
+     */
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + COUNTER_BITS)) + EPOCH_MILLIS);
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> COUNTER_BITS) & MAX_NODE);
+    }
+}
@@ -0,0 +1,172 @@
+package com.userservice.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.mapping.SimpleValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Генератор ID пользователя; режим задается свойством {@link #MODE_PROPERTY} при сборке SessionFactory:
+ * <ul>
+ *     <li>identity (по умолчанию) - ID присваивает база при вставке, каждый persist сразу выполняет INSERT
+ *     и JDBC-пакеты вставок невозможны;</li>
+ *     <li>tsid - ID из {@link TsidGenerator} без обращения к базе;</li>
+ *     <li>pooled - значения последовательности identity-столбца берутся одним запросом
+ *     по {@link #POOL_SIZE_PROPERTY} штук.</li>
+ * </ul>
+ * В режимах tsid и pooled ID известен сразу после persist, и вставки уходят пакетами при flush.
+ * Столбец остается identity: вставки в обход Hibernate (JdbcUserDAO, R2DBC) по-прежнему получают ID от базы.
+ */
+public class UserIdGenerator extends IdentityGenerator implements BeforeExecutionGenerator {
+
+    /**
+     * Режим генерации: identity, tsid или pooled
+     */
+    public static final String MODE_PROPERTY = "userservice.id.generator";
+
+    /**
+     * Номер узла для tsid (0-1023), уникальный среди экземпляров приложения
+     */
+    public static final String NODE_PROPERTY = "userservice.id.node";
+
+    /**
+     * Число значений последовательности, получаемых одним запросом в режиме pooled
+     */
+    public static final String POOL_SIZE_PROPERTY = "userservice.id.pool-size";
+
+    static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, ?)";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdGenerator.class);
+
+    public enum Mode {
+        IDENTITY, TSID, POOLED
+    }
+
+    private final Mode mode;
+    private final TsidGenerator tsid;
+    private final int poolSize;
+    private final ArrayDeque<Long> pool = new ArrayDeque<>();
+
+    public UserIdGenerator(GeneratedUserId config, Member member, GeneratorCreationContext context) {
+        Map<String, Object> settings = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings();
+        this.mode = mode(setting(settings, MODE_PROPERTY, "identity"));
+        this.tsid = mode == Mode.TSID
+                ? new TsidGenerator(Integer.parseInt(setting(settings, NODE_PROPERTY, "0")))
+                : null;
+        this.poolSize = Integer.parseInt(setting(settings, POOL_SIZE_PROPERTY, "50"));
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("User id pool size must be positive: " + poolSize);
+        }
+        // Столбец identity во всех режимах, как в V1: схема Hibernate не зависит от режима
+        if (context.getProperty().getValue() instanceof SimpleValue value) {
+            value.setColumnToIdentity();
+        }
+        logger.info("User id generation: {}", mode.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Режим из значения свойства
+     */
+    public static Mode mode(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown user id generator: " + value
+                    + " (expected identity, tsid or pooled)", e);
+        }
+    }
+
+    /**
+     * true - ID присваивает база при вставке (identity)
+     */
+    @Override
+    public boolean generatedOnExecution() {
+        return mode == Mode.IDENTITY;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return switch (mode) {
+            case TSID -> tsid.next();
+            case POOLED -> nextPooled(session);
+            case IDENTITY -> throw new IllegalStateException("Identity ids are assigned by the database");
+        };
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    private Long nextPooled(SharedSessionContractImplementor session) {
+        synchronized (pool) {
+            Long id = pool.poll();
+            if (id != null) {
+                return id;
+            }
+        }
+
+        List<Long> fetched = fetchIds(session);
+        synchronized (pool) {
+            pool.addAll(fetched.subList(1, fetched.size()));
+        }
+
+        return fetched.get(0);
+    }
+
+    /**
+     * poolSize значений последовательности одним запросом на соединении текущей сессии
+     */
+    private List<Long> fetchIds(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbcCoordinator.getStatementPreparer().prepareStatement(NEXT_IDS_SQL);
+        try {
+            statement.setInt(1, poolSize);
+            ResultSet resultSet = jdbcCoordinator.getResultSetReturn().extract(statement, NEXT_IDS_SQL);
+            List<Long> ids = new ArrayList<>(poolSize);
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+            logger.debug("Fetched {} user ids", ids.size());
+
+            return ids;
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "Could not fetch user ids", NEXT_IDS_SQL);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+    }
+
+    /**
+     * Значение из настроек Hibernate, затем из системных свойств
+     */
+    private static String setting(Map<String, Object> settings, String name, String defaultValue) {
+        Object value = settings.get(name);
+        if (value == null) {
+            value = System.getProperty(name);
+        }
+
+        return value == null || value.toString().isBlank() ? defaultValue : value.toString();
+    }
+}
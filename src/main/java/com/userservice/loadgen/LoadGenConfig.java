@@ -0,0 +1,68 @@
+package com.userservice.loadgen;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Параметры прогона генератора нагрузки
+ * @param mode open - запросы по расписанию независимо от ответов; closed - threads воркеров шлют следующий запрос после ответа
+ * @param rate целевая скорость в операциях в секунду; для closed 0 - без ограничения
+ * @param threads число воркеров (для open - предел одновременных запросов)
+ * @param keys число ключей, по которым распределяются чтения и обновления
+ * @param zipfTheta перекос распределения ключей (0 - равномерное, 0.99 - как в YCSB)
+ * @param histogramLog файл HdrHistogram-лога интервалов для построения графиков или null
+ */
+public record LoadGenConfig(Mode mode, WorkloadMix mix, double rate, int threads, Duration warmup, Duration duration,
+                            Duration reportInterval, int keys, double zipfTheta, long seed, String histogramLog) {
+
+    public enum Mode {
+        OPEN, CLOSED
+    }
+
+    public LoadGenConfig {
+        if (mode == Mode.OPEN && rate <= 0) {
+            throw new IllegalArgumentException("Open-loop mode requires a positive rate");
+        }
+        if (rate < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        if (duration.isZero() || duration.isNegative() || warmup.isNegative()) {
+            throw new IllegalArgumentException("Duration must be positive and warm-up must not be negative");
+        }
+        if (reportInterval.isZero() || reportInterval.isNegative()) {
+            throw new IllegalArgumentException("Report interval must be positive");
+        }
+        if (keys <= 0) {
+            throw new IllegalArgumentException("Key count must be positive");
+        }
+    }
+
+    /**
+     * Параметры из системных свойств loadgen.*
+     */
+    public static LoadGenConfig fromSystemProperties() {
+        return new LoadGenConfig(
+                Mode.valueOf(System.getProperty("loadgen.mode", "closed").toUpperCase(Locale.ROOT)),
+                WorkloadMix.parse(System.getProperty("loadgen.mix", WorkloadMix.DEFAULT)),
+                Double.parseDouble(System.getProperty("loadgen.rate", "0")),
+                Integer.getInteger("loadgen.threads", 16),
+                Duration.ofSeconds(Long.getLong("loadgen.warmup-seconds", 10L)),
+                Duration.ofSeconds(Long.getLong("loadgen.duration-seconds", 60L)),
+                Duration.ofSeconds(Long.getLong("loadgen.report-seconds", 5L)),
+                Integer.getInteger("loadgen.keys", 10_000),
+                Double.parseDouble(System.getProperty("loadgen.zipf-theta", "0.99")),
+                Long.getLong("loadgen.seed", 42L),
+                System.getProperty("loadgen.histogram-log"));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "mode=%s, mix=[%s], rate=%s, threads=%d, warmup=%ds, duration=%ds, keys=%d, zipf-theta=%.2f",
+                mode.name().toLowerCase(Locale.ROOT), mix, rate > 0 ? String.format(Locale.ROOT, "%.0f/s", rate)
+                        : "unlimited", threads, warmup.toSeconds(), duration.toSeconds(), keys, zipfTheta);
+    }
+}
@@ -0,0 +1,366 @@
+package com.userservice.loadgen;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.service.UserService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки на {@link UserService}: смесь операций, ключи по Ципфу, прогрев и замер.
+ * <p>
+ * В open-режиме запросы идут по расписанию rate в секунду, и задержка считается от запланированного
+ * момента отправки, а не от фактического: если сервис тормозит и воркеры не успевают, ожидание в очереди
+ * попадает в перцентили (поправка на coordinated omission). Отдельно печатается время обслуживания - от
+ * фактической отправки. В closed-режиме threads воркеров шлют запросы друг за другом; при заданном rate
+ * каждый воркер держит свой интервал, а пропущенные из-за медленных ответов отправки досчитываются через
+ * {@link Recorder#recordValueWithExpectedInterval}. Перцентили печатаются за каждый интервал и итогом по замеру.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final int KEY_PAGE_SIZE = 1_000;
+    private static final int SEED_BATCH_SIZE = 500;
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String EMAIL_DOMAIN = "@loadgen.test";
+
+    private final UserService userService;
+    private final LoadGenConfig config;
+    private final PrintStream out;
+
+    private final Map<Operation, Recorder> latency = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Recorder serviceTime = new Recorder(SIGNIFICANT_DIGITS);
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private long[] ids;
+    private String[] emails;
+    private ZipfianGenerator keyChooser;
+    private volatile boolean stopped;
+
+    public LoadGenerator(UserService userService, LoadGenConfig config, PrintStream out) {
+        this.userService = userService;
+        this.config = config;
+        this.out = out;
+        for (Operation operation : Operation.values()) {
+            latency.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Прогон: подготовка ключей, прогрев, замер и итоговый отчет
+     * @return итог фазы замера
+     */
+    public Result run() throws InterruptedException, FileNotFoundException {
+        loadKeys();
+        out.println("Load generator: " + config);
+
+        long startNanos = System.nanoTime();
+        List<Thread> workers = startWorkers(startNanos);
+        Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+        Map<Operation, Long> totalErrors = new EnumMap<>(Operation.class);
+        Histogram totalServiceTime = new Histogram(SIGNIFICANT_DIGITS);
+        for (Operation operation : Operation.values()) {
+            totals.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+            totalErrors.put(operation, 0L);
+        }
+
+        PrintStream histogramLog = config.histogramLog() == null ? null : new PrintStream(config.histogramLog());
+        HistogramLogWriter logWriter = histogramLog == null ? null : startHistogramLog(histogramLog);
+        long measureNanos;
+        try {
+            runPhase("warmup", config.warmup().toNanos(), startNanos, null, null, null, logWriter);
+            long measureStartNanos = System.nanoTime();
+            runPhase("measure", config.duration().toNanos(), startNanos, totals, totalErrors, totalServiceTime,
+                    logWriter);
+            measureNanos = System.nanoTime() - measureStartNanos;
+        } finally {
+            stopped = true;
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            if (histogramLog != null) {
+                histogramLog.close();
+            }
+        }
+
+        Result result = summarize(totals, totalErrors, totalServiceTime, measureNanos);
+        logger.info("Load generation finished: {} operations, {} errors, {} ops/s", result.operations(),
+                result.errors(), String.format("%.0f", result.operationsPerSecond()));
+
+        return result;
+    }
+
+    /**
+     * Ключи для чтений и обновлений: существующие пользователи, недостающие создаются пачками.
+     * Порядок перемешивается, чтобы горячие ранги Ципфа не совпадали с самыми старыми ID.
+     */
+    private void loadKeys() {
+        List<UserSummary> users = new ArrayList<>(config.keys());
+        Long afterId = null;
+        List<UserSummary> page;
+        do {
+            page = userService.listUsers(afterId, Math.min(KEY_PAGE_SIZE, config.keys() - users.size()));
+            users.addAll(page);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (!page.isEmpty() && users.size() < config.keys());
+
+        if (users.size() < config.keys()) {
+            int missing = config.keys() - users.size();
+            logger.info("Seeding {} users for load generation", missing);
+            List<UserEntity> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = 0; i < missing; i++) {
+                batch.add(new UserEntity("Load User " + i, "loadgen-" + runId + "-seed-" + i + EMAIL_DOMAIN,
+                        18 + i % 60));
+                if (batch.size() == SEED_BATCH_SIZE || i == missing - 1) {
+                    for (UserEntity created : userService.createUsers(batch)) {
+                        users.add(new UserSummary(created.getId(), created.getName(), created.getEmail()));
+                    }
+                    batch.clear();
+                }
+            }
+        }
+
+        Random random = new Random(config.seed());
+        ids = new long[users.size()];
+        emails = new String[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            int j = random.nextInt(i + 1);
+            ids[i] = ids[j];
+            emails[i] = emails[j];
+            ids[j] = users.get(i).id();
+            emails[j] = users.get(i).email();
+        }
+        keyChooser = new ZipfianGenerator(ids.length, config.zipfTheta());
+        logger.info("Load generator keyspace: {} users", ids.length);
+    }
+
+    private List<Thread> startWorkers(long startNanos) {
+        List<Thread> workers = new ArrayList<>(config.threads());
+        for (int i = 0; i < config.threads(); i++) {
+            Runnable loop = config.mode() == LoadGenConfig.Mode.OPEN
+                    ? () -> openLoop(startNanos)
+                    : this::closedLoop;
+            Thread worker = new Thread(loop, "loadgen-worker-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+
+        return workers;
+    }
+
+    /**
+     * Open-режим: общий график отправок, задержка от запланированного момента
+     */
+    private void openLoop(long startNanos) {
+        double nanosPerOperation = 1e9 / config.rate();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!stopped) {
+            long intendedNanos = startNanos + (long) (sequence.getAndIncrement() * nanosPerOperation);
+            if (!waitUntil(intendedNanos)) {
+                return;
+            }
+            Operation operation = config.mix().pick(random.nextDouble());
+            long sentNanos = System.nanoTime();
+            execute(operation, random);
+            long doneNanos = System.nanoTime();
+            latency.get(operation).recordValue(doneNanos - intendedNanos);
+            serviceTime.recordValue(doneNanos - sentNanos);
+        }
+    }
+
+    /**
+     * Closed-режим: следующий запрос после ответа; при заданном rate - с интервалом на воркер
+     */
+    private void closedLoop() {
+        long expectedIntervalNanos = config.rate() > 0 ? (long) (config.threads() * 1e9 / config.rate()) : 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long nextNanos = System.nanoTime();
+        while (!stopped) {
+            if (expectedIntervalNanos > 0 && !waitUntil(nextNanos)) {
+                return;
+            }
+            Operation operation = config.mix().pick(random.nextDouble());
+            long sentNanos = System.nanoTime();
+            execute(operation, random);
+            long doneNanos = System.nanoTime();
+            latency.get(operation).recordValueWithExpectedInterval(doneNanos - sentNanos, expectedIntervalNanos);
+            serviceTime.recordValue(doneNanos - sentNanos);
+            // Опоздавший воркер не навёрстывает залпом: пропуски уже учтены expected interval
+            nextNanos = Math.max(nextNanos + expectedIntervalNanos, doneNanos);
+        }
+    }
+
+    private void execute(Operation operation, ThreadLocalRandom random) {
+        try {
+            switch (operation) {
+                case GET_BY_ID -> userService.getUserById(ids[nextKey(random)]);
+                case GET_BY_EMAIL -> userService.getUserByEmail(emails[nextKey(random)]);
+                case CREATE -> {
+                    long n = random.nextLong(Long.MAX_VALUE);
+                    userService.createUser("Load User " + n, "loadgen-" + runId + "-" + n + EMAIL_DOMAIN,
+                            random.nextInt(18, 80));
+                }
+                case UPDATE -> {
+                    int key = nextKey(random);
+                    userService.updateUser(ids[key], "Load User " + random.nextInt(1_000_000), emails[key],
+                            random.nextInt(18, 80));
+                }
+            }
+        } catch (RuntimeException e) {
+            errors.get(operation).increment();
+            logger.debug("Load generator {} failed: {}", operation, e.getMessage());
+        }
+    }
+
+    private int nextKey(Random random) {
+        return (int) keyChooser.next(random);
+    }
+
+    /**
+     * Ожидание момента отправки
+     * @return false, если прогон остановлен
+     */
+    private boolean waitUntil(long targetNanos) {
+        long remaining;
+        while ((remaining = targetNanos - System.nanoTime()) > 0) {
+            if (stopped) {
+                return false;
+            }
+            LockSupport.parkNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)));
+        }
+
+        return !stopped;
+    }
+
+    /**
+     * Фаза прогона с отчетом за каждый интервал; totals == null - результаты фазы не копятся (прогрев)
+     */
+    private void runPhase(String phase, long phaseNanos, long runStartNanos, Map<Operation, Histogram> totals,
+                          Map<Operation, Long> totalErrors, Histogram totalServiceTime,
+                          HistogramLogWriter logWriter) throws InterruptedException {
+        long phaseEndNanos = System.nanoTime() + phaseNanos;
+        long reportNanos = config.reportInterval().toNanos();
+        long intervalStartNanos = System.nanoTime();
+        while (intervalStartNanos < phaseEndNanos) {
+            long intervalEndNanos = Math.min(intervalStartNanos + reportNanos, phaseEndNanos);
+            TimeUnit.NANOSECONDS.sleep(intervalEndNanos - System.nanoTime());
+
+            long nowNanos = System.nanoTime();
+            long intervalErrors = 0;
+            Histogram interval = new Histogram(SIGNIFICANT_DIGITS);
+            for (Operation operation : Operation.values()) {
+                Histogram histogram = latency.get(operation).getIntervalHistogram();
+                long operationErrors = errors.get(operation).sumThenReset();
+                interval.add(histogram);
+                intervalErrors += operationErrors;
+                if (totals != null) {
+                    totals.get(operation).add(histogram);
+                    totalErrors.merge(operation, operationErrors, Long::sum);
+                }
+            }
+            Histogram service = serviceTime.getIntervalHistogram();
+            if (totalServiceTime != null) {
+                totalServiceTime.add(service);
+            }
+
+            printInterval(phase, nowNanos - runStartNanos, nowNanos - intervalStartNanos, interval, intervalErrors);
+            if (logWriter != null) {
+                long endMillis = System.currentTimeMillis();
+                interval.setStartTimeStamp(endMillis - TimeUnit.NANOSECONDS.toMillis(nowNanos - intervalStartNanos));
+                interval.setEndTimeStamp(endMillis);
+                interval.setTag(phase);
+                logWriter.outputIntervalHistogram(interval);
+            }
+            intervalStartNanos = nowNanos;
+        }
+    }
+
+    private HistogramLogWriter startHistogramLog(PrintStream histogramLog) {
+        HistogramLogWriter logWriter = new HistogramLogWriter(histogramLog);
+        long startMillis = System.currentTimeMillis();
+        logWriter.outputComment("user-service load generator: " + config);
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(startMillis);
+        logWriter.setBaseTime(startMillis);
+        logWriter.outputLegend();
+
+        return logWriter;
+    }
+
+    private void printInterval(String phase, long elapsedNanos, long intervalNanos, Histogram interval, long errorCount) {
+        out.println(String.format(Locale.ROOT, "[%6.1fs] %-7s %8d ops %9.0f ops/s %6d err  %s",
+                elapsedNanos / 1e9, phase, interval.getTotalCount(),
+                interval.getTotalCount() * 1e9 / Math.max(intervalNanos, 1), errorCount, percentiles(interval)));
+    }
+
+    private Result summarize(Map<Operation, Histogram> totals, Map<Operation, Long> totalErrors,
+                             Histogram totalServiceTime, long measureNanos) {
+        Histogram all = new Histogram(SIGNIFICANT_DIGITS);
+        long allErrors = 0;
+        String latencyLabel = config.mode() == LoadGenConfig.Mode.OPEN ? "from intended start" : "service time";
+        out.println();
+        out.println("Latency percentiles, ms (" + latencyLabel + ", measure phase only):");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = totals.get(operation);
+            if (histogram.getTotalCount() == 0 && totalErrors.get(operation) == 0) {
+                continue;
+            }
+            printTotal(operation.key(), histogram, totalErrors.get(operation), measureNanos);
+            all.add(histogram);
+            allErrors += totalErrors.get(operation);
+        }
+        printTotal("all", all, allErrors, measureNanos);
+        if (config.mode() == LoadGenConfig.Mode.OPEN) {
+            printTotal("service", totalServiceTime, allErrors, measureNanos);
+        }
+
+        return new Result(all.getTotalCount(), allErrors, all.getTotalCount() * 1e9 / Math.max(measureNanos, 1), all);
+    }
+
+    private void printTotal(String label, Histogram histogram, long errorCount, long measureNanos) {
+        out.println(String.format(Locale.ROOT, "  %-8s %9d ops %9.0f ops/s %6d err  %s p99.99=%.2f mean=%.2f",
+                label, histogram.getTotalCount(), histogram.getTotalCount() * 1e9 / Math.max(measureNanos, 1),
+                errorCount, percentiles(histogram), millis(histogram.getValueAtPercentile(99.99)),
+                histogram.getMean() / 1e6));
+    }
+
+    private static String percentiles(Histogram histogram) {
+        return String.format(Locale.ROOT, "p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f",
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Итог фазы замера: задержки в наносекундах по всем операциям
+     */
+    public record Result(long operations, long errors, double operationsPerSecond, Histogram latency) {
+    }
+}
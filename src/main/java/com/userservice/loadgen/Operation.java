@@ -0,0 +1,33 @@
+package com.userservice.loadgen;
+
+import java.util.Locale;
+
+/**
+ * Операции генератора нагрузки и их имена в спецификации смеси
+ */
+public enum Operation {
+    GET_BY_ID("get"),
+    GET_BY_EMAIL("email"),
+    CREATE("create"),
+    UPDATE("update");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        String normalized = key.trim().toLowerCase(Locale.ROOT);
+        for (Operation operation : values()) {
+            if (operation.key.equals(normalized)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,97 @@
+package com.userservice.loadgen;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Доли операций в нагрузке, например "get=80,email=10,create=5,update=5".
+ * Веса не обязаны давать в сумме 100 - они нормируются.
+ */
+public final class WorkloadMix {
+
+    public static final String DEFAULT = "get=80,email=10,create=5,update=5";
+
+    private final Operation[] operations;
+    private final double[] cumulative;
+
+    private WorkloadMix(Map<Operation, Double> weights) {
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Workload mix must have a positive weight");
+        }
+        operations = weights.keySet().toArray(new Operation[0]);
+        cumulative = new double[operations.length];
+        double sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulative[i] = sum / total;
+        }
+        cumulative[operations.length - 1] = 1.0;
+    }
+
+    public static WorkloadMix parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("Workload mix cannot be empty");
+        }
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight, got: " + part.trim());
+            }
+            Operation operation = Operation.fromKey(pair[0]);
+            double weight;
+            try {
+                weight = Double.parseDouble(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid weight for " + operation.key() + ": " + pair[1].trim());
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight for " + operation.key() + " must not be negative");
+            }
+            if (weights.putIfAbsent(operation, weight) != null) {
+                throw new IllegalArgumentException("Duplicate operation in mix: " + operation.key());
+            }
+        }
+        weights.values().removeIf(weight -> weight == 0);
+
+        return new WorkloadMix(weights);
+    }
+
+    /**
+     * Выбор операции по равномерному числу из [0, 1)
+     */
+    public Operation pick(double uniform) {
+        for (int i = 0; i < cumulative.length; i++) {
+            if (uniform < cumulative[i]) {
+                return operations[i];
+            }
+        }
+
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Доля операции в смеси (0, если операции в смеси нет)
+     */
+    public double share(Operation operation) {
+        for (int i = 0; i < operations.length; i++) {
+            if (operations[i] == operation) {
+                return cumulative[i] - (i == 0 ? 0.0 : cumulative[i - 1]);
+            }
+        }
+
+        return 0.0;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Operation operation : operations) {
+            joiner.add(operation.key() + "=" + String.format("%.1f%%", share(operation) * 100));
+        }
+
+        return joiner.toString();
+    }
+}
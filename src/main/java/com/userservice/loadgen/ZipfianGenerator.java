@@ -0,0 +1,67 @@
+package com.userservice.loadgen;
+
+import java.util.Random;
+
+/**
+ * Ранги ключей [0, items) с распределением Ципфа: ранг 0 самый частый.
+ * Алгоритм Gray et al. ("Quickly generating billion-record synthetic databases"), как в YCSB:
+ * zeta(n) считается один раз при создании, дальше - O(1) на значение. При theta = 0 распределение равномерное.
+ */
+public final class ZipfianGenerator {
+
+    private final long items;
+    private final double theta;
+    private final double alpha;
+    private final double zetaN;
+    private final double eta;
+    private final double halfPowTheta;
+
+    public ZipfianGenerator(long items, double theta) {
+        if (items <= 0) {
+            throw new IllegalArgumentException("Zipfian item count must be positive");
+        }
+        if (theta < 0 || theta >= 1) {
+            throw new IllegalArgumentException("Zipfian theta must be in [0, 1)");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetaN = zeta(items, theta);
+        double zeta2 = zeta(Math.min(items, 2), theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2 / zetaN);
+        this.halfPowTheta = 1 + Math.pow(0.5, theta);
+    }
+
+    public long items() {
+        return items;
+    }
+
+    /**
+     * Следующий ранг; random не разделяется между потоками (ThreadLocalRandom в воркерах)
+     */
+    public long next(Random random) {
+        if (theta == 0 || items == 1) {
+            return (long) (random.nextDouble() * items);
+        }
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < halfPowTheta) {
+            return 1;
+        }
+        long rank = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+
+        return Math.min(rank, items - 1);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,61 @@
+package com.userservice.outbox;
+
+import com.userservice.dto.OutboxEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Локальный получатель: события дописываются в файл по одной JSON-строке.
+ * Пачка сбрасывается на диск (fsync) до возврата из publish, чтобы удаление из outbox
+ * не опередило запись; один fsync на пачку - основная причина отправлять события крупными пачками.
+ */
+public class FileOutboxSink implements OutboxSink, Closeable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final OutputStream output;
+
+    public FileOutboxSink(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.output = Channels.newOutputStream(channel);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder(events.size() * 160);
+        for (OutboxEvent event : events) {
+            lines.append("{\"id\":").append(event.id())
+                    .append(",\"type\":\"").append(event.type())
+                    .append("\",\"userId\":").append(event.userId())
+                    .append(",\"createdAt\":\"").append(event.createdAt())
+                    .append("\",\"payload\":").append(event.payload())
+                    .append("}\n");
+        }
+        output.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        channel.force(false);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
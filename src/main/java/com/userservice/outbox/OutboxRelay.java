@@ -0,0 +1,315 @@
+package com.userservice.outbox;
+
+import com.userservice.dao.ShardedUserDAO;
+import com.userservice.dto.OutboxEvent;
+import com.userservice.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Relay событий из таблицы user_outbox (V6__user_outbox.sql) в {@link OutboxSink}.
+ * <p>
+ * Пачка выбирается с FOR UPDATE SKIP LOCKED, отправляется и удаляется в одной транзакции:
+ * несколько relay (потоков или узлов) разбирают очередь параллельно, не блокируя друг друга.
+ * Доставка at-least-once: получатель принимает пачку до DELETE и коммита, поэтому при ошибке
+ * получателя, удаления или коммита (в том числе при падении процесса) транзакция откатывается,
+ * и следующая попытка отправит уже доставленные события повторно. Получатели должны отбрасывать
+ * повторы по {@link OutboxEvent#id()}. Порядок событий сохраняется внутри пачки;
+ * между параллельными relay он не гарантирован.
+ * <p>
+ * Outbox включается явно: триггер users_outbox_event выключен (V11__user_outbox_opt_in.sql),
+ * пока relay не включит его при старте, и без relay строки в user_outbox не накапливаются.
+ */
+public class OutboxRelay implements AutoCloseable {
+
+    /**
+     * Отправка событий из outbox (по умолчанию выключена); при старте relay включает запись событий триггером
+     */
+    public static final String ENABLED_PROPERTY = "userservice.outbox.enabled";
+
+    /**
+     * Файл, в который relay дописывает события (JSON Lines)
+     */
+    public static final String FILE_PROPERTY = "userservice.outbox.file";
+
+    /**
+     * Число параллельных relay на каждую базу
+     */
+    public static final String RELAYS_PROPERTY = "userservice.outbox.relays";
+
+    /**
+     * Размер пачки relay
+     */
+    public static final String BATCH_SIZE_PROPERTY = "userservice.outbox.batch-size";
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String SELECT_SQL = "SELECT id, event_type, user_id, payload, created_at "
+            + "FROM user_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_SQL = "DELETE FROM user_outbox WHERE id = ANY(?)";
+    private static final String CAPTURE_ENABLED_SQL = "SELECT tgenabled <> 'D' FROM pg_trigger "
+            + "WHERE tgrelid = 'users'::regclass AND tgname = 'users_outbox_event'";
+    private static final String ENABLE_CAPTURE_SQL = "ALTER TABLE users ENABLE TRIGGER users_outbox_event";
+
+    private static final long POLL_MILLIS = 200;
+    private static final long RETRY_DELAY_MILLIS = 1_000;
+
+    private final SessionFactory sessionFactory;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final LongUnaryOperator idMapper;
+    private final String name;
+
+    private final LongAdder relayedEvents = new LongAdder();
+    private final LongAdder relayNanos = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private volatile boolean closed;
+    private Thread thread;
+
+    /**
+     * @param idMapper преобразование локальных ID (события и пользователя) в глобальные, например для шарда
+     */
+    public OutboxRelay(SessionFactory sessionFactory, OutboxSink sink, int batchSize, LongUnaryOperator idMapper,
+                       String name) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Outbox batch size must be positive");
+        }
+        this.sessionFactory = sessionFactory;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.idMapper = idMapper;
+        this.name = name;
+    }
+
+    /**
+     * Запуск relay по системным свойствам: по несколько на каждый шард или на primary, события - в файл.
+     * Запись событий триггером включается в каждой базе до запуска relay
+     */
+    public static void startFromSystemProperties() {
+        if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+            return;
+        }
+
+        Path file = Path.of(System.getProperty(FILE_PROPERTY, "logs/user-events.jsonl"));
+        FileOutboxSink sink;
+        try {
+            sink = new FileOutboxSink(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open outbox file " + file, e);
+        }
+        int relays = Integer.getInteger(RELAYS_PROPERTY, 1);
+        int batchSize = Integer.getInteger(BATCH_SIZE_PROPERTY, 1000);
+
+        if (HibernateUtil.isShardingConfigured()) {
+            List<SessionFactory> shards = HibernateUtil.getShardSessionFactories();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                enableCapture(shards.get(shard));
+                int shardNumber = shard;
+                for (int relay = 0; relay < relays; relay++) {
+                    new OutboxRelay(shards.get(shard), sink, batchSize,
+                            localId -> ShardedUserDAO.globalId(localId, shardNumber),
+                            "shard-" + shard + "-" + relay).start();
+                }
+            }
+        } else {
+            enableCapture(HibernateUtil.getSessionFactory());
+            for (int relay = 0; relay < relays; relay++) {
+                new OutboxRelay(HibernateUtil.getSessionFactory(), sink, batchSize, id -> id,
+                        HibernateUtil.PRIMARY + "-" + relay).start();
+            }
+        }
+        logger.info("Outbox relay enabled: {} relays per database, batch size {}, events to {}",
+                relays, batchSize, file);
+    }
+
+    /**
+     * Включение триггера users_outbox_event, если он выключен: ALTER TABLE берет блокировку users,
+     * поэтому уже включенный триггер не трогается
+     */
+    public static void enableCapture(SessionFactory sessionFactory) {
+        sessionFactory.inTransaction(session -> session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet resultSet = statement.executeQuery(CAPTURE_ENABLED_SQL)) {
+                    if (!resultSet.next() || resultSet.getBoolean(1)) {
+                        return;
+                    }
+                }
+                statement.execute(ENABLE_CAPTURE_SQL);
+                logger.info("Outbox event capture enabled on table users");
+            }
+        }));
+    }
+
+    /**
+     * Отправка одной пачки
+     * @return число отправленных событий (0 - очередь пуста или занята другими relay)
+     */
+    public int relayBatch() {
+        long startNanos = System.nanoTime();
+        Transaction transaction = null;
+
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+
+            int relayed = session.doReturningWork(connection -> {
+                List<OutboxEvent> events = new ArrayList<>(batchSize);
+                Long[] ids = new Long[batchSize];
+                try (PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+                    statement.setInt(1, batchSize);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            ids[events.size()] = resultSet.getLong(1);
+                            events.add(new OutboxEvent(
+                                    idMapper.applyAsLong(resultSet.getLong(1)),
+                                    OutboxEvent.Type.valueOf(resultSet.getString(2)),
+                                    idMapper.applyAsLong(resultSet.getLong(3)),
+                                    resultSet.getString(4),
+                                    resultSet.getObject(5, LocalDateTime.class)));
+                        }
+                    }
+                }
+                if (events.isEmpty()) {
+                    return 0;
+                }
+
+                try {
+                    sink.publish(events);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Outbox sink failed", e);
+                }
+
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+                    Array idArray = connection.createArrayOf("bigint", Arrays.copyOf(ids, events.size()));
+                    statement.setArray(1, idArray);
+                    statement.executeUpdate();
+                }
+
+                return events.size();
+            });
+            transaction.commit();
+
+            if (relayed > 0) {
+                relayedEvents.add(relayed);
+                relayNanos.add(System.nanoTime() - startNanos);
+            }
+            logger.debug("Outbox relay {} published {} events", name, relayed);
+
+            return relayed;
+        } catch (Exception e) {
+            failedBatches.increment();
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+                logger.error("Transaction rolled back due to error", e);
+            }
+            logger.error("Error relaying outbox batch in {}", name, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Отправка пачек, пока очередь не опустеет
+     * @return число отправленных событий
+     */
+    public long drain() {
+        long startNanos = System.nanoTime();
+        long total = 0;
+        int relayed;
+        do {
+            relayed = relayBatch();
+            total += relayed;
+        } while (relayed == batchSize && !closed);
+
+        if (total > 0) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            logger.info("Outbox relay {} published {} events in {} ms ({} events/s)", name, total,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    String.format("%.0f", total * 1e9 / Math.max(elapsedNanos, 1)));
+        }
+
+        return total;
+    }
+
+    /**
+     * Запуск relay в daemon-потоке: очередь опрашивается каждые 200 ms, пока не пуста - без пауз
+     */
+    public synchronized void start() {
+        if (thread != null || closed) {
+            return;
+        }
+        thread = new Thread(this::run, "outbox-relay-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Число отправленных событий
+     */
+    public long getRelayedEvents() {
+        return relayedEvents.sum();
+    }
+
+    /**
+     * Число пачек, отправка которых завершилась ошибкой
+     */
+    public long getFailedBatches() {
+        return failedBatches.sum();
+    }
+
+    /**
+     * Пропускная способность в событиях в секунду по времени, затраченному на непустые пачки
+     */
+    public double getEventsPerSecond() {
+        long nanos = relayNanos.sum();
+
+        return nanos == 0 ? 0.0 : relayedEvents.sum() * 1e9 / nanos;
+    }
+
+    private void run() {
+        while (!closed) {
+            long delay = POLL_MILLIS;
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                if (closed) {
+                    break;
+                }
+                delay = RETRY_DELAY_MILLIS;
+            }
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        logger.info("Outbox relay {} stopped", name);
+    }
+}
@@ -0,0 +1,18 @@
+package com.userservice.outbox;
+
+import com.userservice.dto.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Получатель событий outbox (брокер, файл).
+ * <p>
+ * Пачка считается доставленной, если publish завершился без исключения; иначе relay откатывает
+ * транзакцию и пачка будет отправлена повторно. Доставка - at-least-once, получатель
+ * отбрасывает повторы по id события.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events) throws IOException;
+}
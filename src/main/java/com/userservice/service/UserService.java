@@ -1,7 +1,15 @@
 package com.userservice.service;
 
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.SignupPeriod;
+import com.userservice.dto.AgeBucket;
+import com.userservice.dto.ChangePage;
+import com.userservice.dto.SignupCount;
+import com.userservice.dto.UserSummary;
 import com.userservice.entity.UserEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +22,11 @@ public interface UserService {
      * Создать нового пользователя с валидацией
      */
     UserEntity createUser(String name, String email, Integer age);
+
+    /**
+     * Создать пользователей одной транзакцией; повтор email в базе отклоняет всю пачку
+     */
+    List<UserEntity> createUsers(List<UserEntity> userEntities);
     
     /**
      * Найти пользователя по ID
@@ -29,6 +42,17 @@ public interface UserService {
      * Получить всех пользователей
      */
     List<UserEntity> getAllUsers();
+
+    /**
+     * Страница проекций пользователей (id, name, email) по возрастанию ID для списков
+     * @param afterId ID последнего пользователя предыдущей страницы или null для первой страницы
+     */
+    List<UserSummary> listUsers(Long afterId, int limit);
+
+    /**
+     * Найти пользователей по началу имени или по похожему имени
+     */
+    List<UserSummary> searchUsersByName(String query, NameSearchMode mode, int limit);
     
     /**
      * Обновить данные пользователя
@@ -39,4 +63,45 @@ public interface UserService {
      * Удалить пользователя
      */
     boolean deleteUser(Long id);
+
+    /**
+     * Удалить пользователей по списку ID
+     * @return количество удаленных пользователей
+     */
+    int deleteUsers(Collection<Long> ids);
+
+    /**
+     * Удалить пользователей, зарегистрированных раньше заданного момента
+     * @return количество удаленных пользователей
+     */
+    long deleteUsersCreatedBefore(LocalDateTime createdBefore);
+
+    /**
+     * Гистограмма возрастов по границам интервалов (по возрастанию)
+     */
+    List<AgeBucket> getAgeHistogram(int... bucketBounds);
+
+    /**
+     * Регистрации по дням или неделям в диапазоне [from, to)
+     */
+    List<SignupCount> getSignups(LocalDateTime from, LocalDateTime to, SignupPeriod period);
+
+    /**
+     * Точное количество пользователей
+     */
+    long countUsers();
+
+    /**
+     * Быстрая оценка количества пользователей для дашбордов
+     */
+    long estimateUserCount();
+
+    /**
+     * Изменения и удаления пользователей после курсора в порядке ленты. Надгробия удаленных пользователей
+     * хранятся userservice.change-feed.tombstone-retention-days (30 дней): более старый курсор отклоняется
+     * @param cursor курсор из предыдущей страницы или null для начала ленты
+     * @param limit максимальный размер страницы
+     * @throws IllegalArgumentException если курсор некорректен или старше срока хранения надгробий
+     */
+    ChangePage getChangesSince(String cursor, int limit);
 }
@@ -1,13 +1,26 @@
 package com.userservice.service;
 
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.SignupPeriod;
+import com.userservice.dao.UserChangeDAO;
 import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserStatsDAO;
+import com.userservice.dto.AgeBucket;
+import com.userservice.dto.ChangePage;
+import com.userservice.dto.SignupCount;
+import com.userservice.dto.UserSummary;
 import com.userservice.entity.UserEntity;
+import com.userservice.hotkeys.HotKeys;
 import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Реализация сервисного слоя с бизнес-логикой и валидацией
@@ -16,12 +29,37 @@ public class UserServiceImpl implements UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final int MAX_CHANGES_LIMIT = 10_000;
+    private static final int MAX_PAGE_LIMIT = 1_000;
 
     private final UserDAO userDAO;
+    private final UserStatsDAO userStatsDAO;
+    private final UserChangeDAO userChangeDAO;
+    private final HotKeys hotKeys;
 
 
     public UserServiceImpl(UserDAO userDAO) {
+        this(userDAO, null);
+    }
+
+    public UserServiceImpl(UserDAO userDAO, UserStatsDAO userStatsDAO) {
+        this(userDAO, userStatsDAO, null);
+    }
+
+    public UserServiceImpl(UserDAO userDAO, UserStatsDAO userStatsDAO, UserChangeDAO userChangeDAO) {
+        this(userDAO, userStatsDAO, userChangeDAO, null);
+    }
+
+    /**
+     * @param hotKeys учет горячих ключей поиска по ID и email; null - без учета
+     */
+    public UserServiceImpl(UserDAO userDAO, UserStatsDAO userStatsDAO, UserChangeDAO userChangeDAO,
+                           HotKeys hotKeys) {
         this.userDAO = userDAO;
+        this.userStatsDAO = userStatsDAO;
+        this.userChangeDAO = userChangeDAO;
+        this.hotKeys = hotKeys;
     }
 
     @Override
@@ -47,12 +85,37 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public List<UserEntity> createUsers(List<UserEntity> userEntities) {
+        if (userEntities == null || userEntities.isEmpty()) {
+            throw new IllegalArgumentException("At least one user is required");
+        }
+        Set<String> emails = new HashSet<>();
+        for (UserEntity userEntity : userEntities) {
+            validateUserData(userEntity.getName(), userEntity.getEmail(), userEntity.getAge());
+            if (!emails.add(userEntity.getEmail())) {
+                throw new IllegalArgumentException("Duplicate email in batch: " + userEntity.getEmail());
+            }
+        }
+
+        // Уникальность проверяет ограничение базы: отдельный existsByEmail на каждую строку удвоил бы число запросов
+        try {
+            return userDAO.createAll(userEntities);
+        } catch (ConstraintViolationException e) {
+            logger.warn("Email already exists in users batch");
+            throw new IllegalArgumentException("Email already exists");
+        }
+    }
+
     @Override
     public Optional<UserEntity> getUserById(Long id) {
         if (id == null || id <= 0) {
             logger.warn("Invalid user ID: {}", id);
             throw new IllegalArgumentException("User ID must be positive");
         }
+        if (hotKeys != null) {
+            hotKeys.recordId(id);
+        }
         return userDAO.findById(id);
     }
 
@@ -62,6 +125,9 @@ public class UserServiceImpl implements UserService {
             logger.warn("Empty email provided");
             throw new IllegalArgumentException("Email cannot be empty");
         }
+        if (hotKeys != null) {
+            hotKeys.recordEmail(email);
+        }
 
         return userDAO.findByEmail(email);
     }
@@ -71,6 +137,34 @@ public class UserServiceImpl implements UserService {
         return userDAO.findAll();
     }
 
+    @Override
+    public List<UserSummary> listUsers(Long afterId, int limit) {
+        if (afterId != null && afterId < 0) {
+            throw new IllegalArgumentException("After ID must not be negative");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+
+        return userDAO.findSummaryPage(afterId, limit);
+    }
+
+    @Override
+    public List<UserSummary> searchUsersByName(String query, NameSearchMode mode, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            logger.warn("Empty name search query provided");
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Search mode must be specified");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        return userDAO.searchByName(query.trim(), mode, limit);
+    }
+
     @Override
     public UserEntity updateUser(Long id, String name, String email, Integer age) {
         logger.debug("Updating user: id={}, name={}, email={}, age={}", id, name, email, age);
@@ -88,6 +182,11 @@ public class UserServiceImpl implements UserService {
         
         // Проверка уникальности email (если изменился)
         if (!existingUserEntity.getEmail().equals(email)) {
+            if (!userDAO.canChangeEmail(id, email)) {
+                logger.warn("Attempt to move user {} to another shard by changing email to {}", id, email);
+                throw new IllegalArgumentException("Email of user with ID " + id + " cannot be changed to " + email
+                        + ": it belongs to another shard, and moving users between shards is not supported");
+            }
             if (userDAO.existsByEmail(email)) {
                 logger.warn("Attempt to update user with existing email: {}", email);
                 throw new IllegalArgumentException("User with email " + email + " already exists");
@@ -117,6 +216,89 @@ public class UserServiceImpl implements UserService {
         return deleted;
     }
 
+    @Override
+    public int deleteUsers(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one user ID is required");
+        }
+        for (Long id : ids) {
+            if (id == null || id <= 0) {
+                logger.warn("Invalid user ID for deletion: {}", id);
+                throw new IllegalArgumentException("User ID must be positive");
+            }
+        }
+
+        return userDAO.deleteByIds(ids);
+    }
+
+    @Override
+    public long deleteUsersCreatedBefore(LocalDateTime createdBefore) {
+        if (createdBefore == null) {
+            throw new IllegalArgumentException("Created before date is required");
+        }
+
+        return userDAO.deleteCreatedBefore(createdBefore);
+    }
+
+    @Override
+    public List<AgeBucket> getAgeHistogram(int... bucketBounds) {
+        if (bucketBounds == null || bucketBounds.length == 0) {
+            throw new IllegalArgumentException("At least one bucket bound is required");
+        }
+        for (int i = 0; i < bucketBounds.length; i++) {
+            if (bucketBounds[i] <= 0 || bucketBounds[i] > 150) {
+                throw new IllegalArgumentException("Bucket bounds must be between 1 and 150");
+            }
+            if (i > 0 && bucketBounds[i] <= bucketBounds[i - 1]) {
+                throw new IllegalArgumentException("Bucket bounds must be strictly ascending");
+            }
+        }
+
+        return requireStatsDAO().countByAgeBuckets(bucketBounds);
+    }
+
+    @Override
+    public List<SignupCount> getSignups(LocalDateTime from, LocalDateTime to, SignupPeriod period) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Signup range must have from before to");
+        }
+        if (period == null) {
+            throw new IllegalArgumentException("Signup period must be specified");
+        }
+
+        return requireStatsDAO().countSignups(from, to, period);
+    }
+
+    @Override
+    public long countUsers() {
+        return requireStatsDAO().countAll();
+    }
+
+    @Override
+    public long estimateUserCount() {
+        return requireStatsDAO().estimateCount();
+    }
+
+    @Override
+    public ChangePage getChangesSince(String cursor, int limit) {
+        if (limit <= 0 || limit > MAX_CHANGES_LIMIT) {
+            throw new IllegalArgumentException("Changes limit must be between 1 and " + MAX_CHANGES_LIMIT);
+        }
+        if (userChangeDAO == null) {
+            throw new IllegalStateException("Change feed is not configured");
+        }
+
+        return userChangeDAO.findChangesSince(cursor, limit);
+    }
+
+    private UserStatsDAO requireStatsDAO() {
+        if (userStatsDAO == null) {
+            throw new IllegalStateException("User analytics are not configured");
+        }
+
+        return userStatsDAO;
+    }
+
     /**
      * Валидация данных пользователя
      */
@@ -0,0 +1,211 @@
+package com.userservice.snapshot;
+
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.UserDAO;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.BackgroundTasks;
+import com.userservice.util.DatabaseErrors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * UserDAO со снимком вторым уровнем за основным DAO.
+ * <p>
+ * Чтение идет в основной DAO; при ошибке соединения с базой запрос обслуживается из снимка,
+ * и на время паузы все чтения идут сразу в снимок, не ожидая таймаутов пула. Прочие ошибки, в том числе
+ * OverloadedException контроля нагрузки, пробрасываются: доступная база не подменяется устаревшими данными.
+ * Запись всегда идет в основной DAO - при недоступной базе она завершается ошибкой.
+ * <p>
+ * Снимок отстает от базы: новые пользователи появляются в нем через refresh-seconds, а изменения,
+ * удаления и строки с id ниже водяного знака, закоммиченные позже (параллельные вставки), - только
+ * после полной пересборки, то есть с задержкой до rebuild-minutes.
+ */
+public class SnapshotFallbackUserDAO implements UserDAO {
+
+    /**
+     * Период инкрементального обновления снимка в секундах
+     */
+    public static final String REFRESH_PROPERTY = "userservice.snapshot.refresh-seconds";
+
+    /**
+     * Период полной пересборки снимка (изменения и удаления) в минутах
+     */
+    public static final String REBUILD_PROPERTY = "userservice.snapshot.rebuild-minutes";
+
+    /**
+     * Пауза перед повторной попыткой чтения из базы после ошибки соединения в миллисекундах
+     */
+    public static final String RETRY_PROPERTY = "userservice.snapshot.retry-ms";
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotFallbackUserDAO.class);
+
+    private final UserDAO live;
+    private final UserDAO snapshot;
+    private final long retryNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Момент (System.nanoTime), до которого чтение идет в снимок; 0 - база доступна
+     */
+    private final AtomicLong degradedUntil = new AtomicLong();
+
+    public SnapshotFallbackUserDAO(UserDAO live, UserSnapshot snapshot, Duration retryInterval) {
+        this(live, new SnapshotUserDAO(snapshot), retryInterval, System::nanoTime);
+    }
+
+    SnapshotFallbackUserDAO(UserDAO live, UserDAO snapshot, Duration retryInterval, LongSupplier nanoClock) {
+        if (retryInterval.isNegative()) {
+            throw new IllegalArgumentException("Retry interval cannot be negative");
+        }
+        this.live = live;
+        this.snapshot = snapshot;
+        this.retryNanos = retryInterval.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Подключение снимка вторым уровнем за userDAO и запуск его фонового обновления из userDAO
+     */
+    public static UserDAO fromSystemProperties(UserDAO userDAO, UserSnapshot snapshot) {
+        long refreshSeconds = Long.getLong(REFRESH_PROPERTY, 60L);
+        long rebuildMinutes = Long.getLong(REBUILD_PROPERTY, 60L);
+        BackgroundTasks.scheduleWithFixedDelay("User snapshot refresh", () -> snapshot.refresh(userDAO),
+                0, refreshSeconds, TimeUnit.SECONDS);
+        BackgroundTasks.scheduleWithFixedDelay("User snapshot rebuild", () -> snapshot.rebuild(userDAO),
+                rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+        logger.info("User snapshot enabled: refresh every {} s, rebuild every {} min; in degraded mode reads miss "
+                + "updates and deletes up to {} min old", refreshSeconds, rebuildMinutes, rebuildMinutes);
+
+        return new SnapshotFallbackUserDAO(userDAO, snapshot, Duration.ofMillis(Long.getLong(RETRY_PROPERTY, 5000L)));
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        return live.create(userEntity);
+    }
+
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        return live.createAll(userEntities);
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        return read(dao -> dao.findById(id));
+    }
+
+    @Override
+    public Optional<UserEntity> findByIdOnPrimary(Long id) {
+        return read(dao -> dao.findByIdOnPrimary(id));
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return read(dao -> dao.findByEmail(email));
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        return read(UserDAO::findAll);
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        return read(dao -> dao.findPage(afterId, limit));
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return read(dao -> dao.findSummaryByEmail(email));
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        return read(UserDAO::findAllSummaries);
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        return read(dao -> dao.findSummaryPage(afterId, limit));
+    }
+
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        return read(dao -> dao.searchByName(query, mode, limit));
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        return live.update(userEntity);
+    }
+
+    @Override
+    public boolean canChangeEmail(Long id, String newEmail) {
+        return live.canChangeEmail(id, newEmail);
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        return live.delete(id);
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        return live.deleteByIds(ids);
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        return live.deleteCreatedBefore(createdBefore);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return read(dao -> dao.existsByEmail(email));
+    }
+
+    /**
+     * Работает ли DAO в режиме деградации (чтение из снимка)
+     */
+    public boolean isDegraded() {
+        long until = degradedUntil.get();
+
+        return until != 0 && nanoClock.getAsLong() - until < 0;
+    }
+
+    private <T> T read(Function<UserDAO, T> query) {
+        if (isDegraded()) {
+            return query.apply(snapshot);
+        }
+
+        try {
+            T result = query.apply(live);
+            if (degradedUntil.getAndSet(0) != 0) {
+                logger.info("Database is reachable again, leaving read-only snapshot mode");
+            }
+
+            return result;
+        } catch (RuntimeException e) {
+            if (!DatabaseErrors.isConnectionFailure(e)) {
+                throw e;
+            }
+            degradedUntil.set(nanoClock.getAsLong() + retryNanos);
+            logger.warn("Database is unavailable, serving reads from snapshot for {} ms: updates and deletes "
+                    + "since the last snapshot rebuild and users since the last refresh are missing",
+                    Duration.ofNanos(retryNanos).toMillis(), e);
+
+            return query.apply(snapshot);
+        }
+    }
+}
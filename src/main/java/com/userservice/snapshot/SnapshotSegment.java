@@ -0,0 +1,335 @@
+package com.userservice.snapshot;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Сегмент бинарного снимка пользователей, отображаемый в память.
+ * <p>
+ * Формат (big-endian):
+ * <pre>
+ * header   64 байта: magic, version, count, maxId, maxCreatedAt, heapOffset, indexOffset, indexSlots
+ * records  count * 48 байт, по возрастанию id (бинарный поиск по ним - индекс id -> запись):
+ *          id, createdAt (микросекунды UTC, NULL_CREATED_AT если нет), age (NULL_AGE если нет), nameLength, emailLength,
+ *          резерв, nameOffset, emailOffset (смещения в heap)
+ * heap     строки name и email в UTF-8
+ * index    indexSlots * 4 байта: открытая адресация по хешу email, номер записи + 1 (0 - пусто)
+ * </pre>
+ */
+final class SnapshotSegment {
+
+    static final int MAGIC = 0x55534E50;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 48;
+    static final int NULL_AGE = Integer.MIN_VALUE;
+    static final long NULL_CREATED_AT = Long.MIN_VALUE;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final long maxId;
+    private final long maxCreatedAtMicros;
+    private final long heapOffset;
+    private final long indexOffset;
+    private final int indexMask;
+
+    private SnapshotSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a user snapshot segment: " + path);
+        }
+        this.count = (int) buffer.getLong(8);
+        this.maxId = buffer.getLong(16);
+        this.maxCreatedAtMicros = buffer.getLong(24);
+        this.heapOffset = buffer.getLong(32);
+        this.indexOffset = buffer.getLong(40);
+        this.indexMask = buffer.getInt(48) - 1;
+    }
+
+    /**
+     * Отображение файла сегмента в память (только чтение)
+     */
+    static SnapshotSegment map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot segment exceeds 2 GB: " + path);
+            }
+
+            return new SnapshotSegment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long getMaxId() {
+        return maxId;
+    }
+
+    long getMaxCreatedAtMicros() {
+        return maxCreatedAtMicros;
+    }
+
+    /**
+     * Номер записи с данным id или -1
+     */
+    int indexOfId(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(recordPosition(mid));
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Номер записи с данным email или -1
+     */
+    int indexOfEmail(String email) {
+        if (count == 0) {
+            return -1;
+        }
+        byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+
+        for (int slot = emailHash(email) & indexMask; ; slot = (slot + 1) & indexMask) {
+            int entry = buffer.getInt((int) (indexOffset + (long) slot * Integer.BYTES));
+            if (entry == 0) {
+                return -1;
+            }
+            int record = entry - 1;
+            int position = recordPosition(record);
+            if (buffer.getInt(position + 24) == emailBytes.length
+                    && heapEquals(buffer.getLong(position + 40), emailBytes)) {
+                return record;
+            }
+        }
+    }
+
+    long idAt(int record) {
+        return buffer.getLong(recordPosition(record));
+    }
+
+    String nameAt(int record) {
+        int position = recordPosition(record);
+
+        return readString(buffer.getLong(position + 32), buffer.getInt(position + 20));
+    }
+
+    String emailAt(int record) {
+        int position = recordPosition(record);
+
+        return readString(buffer.getLong(position + 40), buffer.getInt(position + 24));
+    }
+
+    UserSummary toSummary(int record) {
+        return new UserSummary(idAt(record), nameAt(record), emailAt(record));
+    }
+
+    /**
+     * Копия записи в новую (отсоединенную) сущность
+     */
+    UserEntity toEntity(int record) {
+        int position = recordPosition(record);
+        int age = buffer.getInt(position + 16);
+
+        UserEntity userEntity = new UserEntity(
+                readString(buffer.getLong(position + 32), buffer.getInt(position + 20)),
+                readString(buffer.getLong(position + 40), buffer.getInt(position + 24)),
+                age == NULL_AGE ? null : age);
+        userEntity.setId(buffer.getLong(position));
+        long createdAtMicros = buffer.getLong(position + 8);
+        userEntity.setCreatedAt(createdAtMicros == NULL_CREATED_AT ? null : fromMicros(createdAtMicros));
+
+        return userEntity;
+    }
+
+    private int recordPosition(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private String readString(long heapPosition, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get((int) (heapOffset + heapPosition), bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean heapEquals(long heapPosition, byte[] expected) {
+        int start = (int) (heapOffset + heapPosition);
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer.get(start + i) != expected[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Хеш email: String.hashCode стабилен между JVM, финализатор murmur3 выравнивает распределение
+     */
+    static int emailHash(String email) {
+        int hash = email.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+
+        return hash;
+    }
+
+    static long toMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), dateTime);
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(micros, ChronoUnit.MICROS);
+    }
+
+    /**
+     * Потоковая запись сегмента: записи и строки пишутся во временные файлы,
+     * индекс email строится в конце, затем файл собирается и атомарно переименовывается
+     */
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path recordsFile;
+        private final Path heapFile;
+        private final DataOutputStream records;
+        private final DataOutputStream heap;
+        private int[] emailHashes = new int[1024];
+        private int count;
+        private long heapSize;
+        private long maxId;
+        private long maxCreatedAtMicros = Long.MIN_VALUE;
+
+        Writer(Path target) throws IOException {
+            this.target = target;
+            this.recordsFile = Files.createTempFile(target.getParent(), "records", ".tmp");
+            this.heapFile = Files.createTempFile(target.getParent(), "heap", ".tmp");
+            this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+            this.heap = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(heapFile), 1 << 16));
+        }
+
+        /**
+         * Добавление пользователя; id должны строго возрастать
+         */
+        void add(UserEntity userEntity) throws IOException {
+            long id = userEntity.getId();
+            if (count > 0 && id <= maxId) {
+                throw new IllegalArgumentException("Snapshot records must be ordered by id: " + id);
+            }
+            byte[] name = userEntity.getName().getBytes(StandardCharsets.UTF_8);
+            byte[] email = userEntity.getEmail().getBytes(StandardCharsets.UTF_8);
+            long createdAtMicros = userEntity.getCreatedAt() != null
+                    ? toMicros(userEntity.getCreatedAt())
+                    : NULL_CREATED_AT;
+
+            records.writeLong(id);
+            records.writeLong(createdAtMicros);
+            records.writeInt(userEntity.getAge() != null ? userEntity.getAge() : NULL_AGE);
+            records.writeInt(name.length);
+            records.writeInt(email.length);
+            records.writeInt(0);
+            records.writeLong(heapSize);
+            records.writeLong(heapSize + name.length);
+            heap.write(name);
+            heap.write(email);
+            heapSize += name.length + email.length;
+
+            if (count == emailHashes.length) {
+                emailHashes = Arrays.copyOf(emailHashes, count * 2);
+            }
+            emailHashes[count++] = emailHash(userEntity.getEmail());
+            maxId = id;
+            maxCreatedAtMicros = Math.max(maxCreatedAtMicros, createdAtMicros);
+        }
+
+        int size() {
+            return count;
+        }
+
+        /**
+         * Сборка файла сегмента
+         */
+        void finish() throws IOException {
+            records.close();
+            heap.close();
+
+            int slots = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+            int[] index = new int[slots];
+            for (int record = 0; record < count; record++) {
+                int slot = emailHashes[record] & (slots - 1);
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & (slots - 1);
+                }
+                index[slot] = record + 1;
+            }
+
+            long heapOffset = HEADER_SIZE + (long) count * RECORD_SIZE;
+            long indexOffset = heapOffset + heapSize;
+            if (indexOffset + (long) slots * Integer.BYTES > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot segment exceeds 2 GB");
+            }
+
+            Path assembled = Files.createTempFile(target.getParent(), "segment", ".tmp");
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(assembled), 1 << 16)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putLong(count).putLong(maxId)
+                        .putLong(maxCreatedAtMicros)
+                        .putLong(heapOffset).putLong(indexOffset).putInt(slots);
+                output.write(header.array());
+                Files.copy(recordsFile, output);
+                Files.copy(heapFile, output);
+
+                ByteBuffer indexBytes = ByteBuffer.allocate(slots * Integer.BYTES);
+                indexBytes.asIntBuffer().put(index);
+                output.write(indexBytes.array());
+            }
+            Files.move(assembled, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            records.close();
+            heap.close();
+            Files.deleteIfExists(recordsFile);
+            Files.deleteIfExists(heapFile);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.userservice.snapshot;
+
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.UserDAO;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * UserDAO только для чтения поверх снимка: режим деградации, когда база недоступна.
+ * Запись невозможна, данные актуальны на момент последнего обновления снимка.
+ */
+public class SnapshotUserDAO implements UserDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotUserDAO.class);
+
+    private final UserSnapshot snapshot;
+
+    public SnapshotUserDAO(UserSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public UserEntity create(UserEntity userEntity) {
+        throw readOnly();
+    }
+
+    @Override
+    public List<UserEntity> createAll(List<UserEntity> userEntities) {
+        throw readOnly();
+    }
+
+    @Override
+    public Optional<UserEntity> findById(Long id) {
+        return snapshot.findById(id);
+    }
+
+    @Override
+    public Optional<UserEntity> findByEmail(String email) {
+        return snapshot.findByEmail(email);
+    }
+
+    @Override
+    public List<UserEntity> findAll() {
+        List<UserEntity> userEntities = new ArrayList<>(snapshot.size());
+        snapshot.scan(null, (segment, record) -> userEntities.add(segment.toEntity(record)));
+
+        return userEntities;
+    }
+
+    @Override
+    public List<UserEntity> findPage(Long afterId, int limit) {
+        List<UserEntity> page = new ArrayList<>(limit);
+        snapshot.scan(afterId, (segment, record) -> {
+            page.add(segment.toEntity(record));
+            return page.size() < limit;
+        });
+
+        return page;
+    }
+
+    @Override
+    public Optional<UserSummary> findSummaryByEmail(String email) {
+        return snapshot.findByEmail(email)
+                .map(userEntity -> new UserSummary(userEntity.getId(), userEntity.getName(), userEntity.getEmail()));
+    }
+
+    @Override
+    public List<UserSummary> findAllSummaries() {
+        List<UserSummary> summaries = new ArrayList<>(snapshot.size());
+        snapshot.scan(null, (segment, record) -> summaries.add(segment.toSummary(record)));
+
+        return summaries;
+    }
+
+    @Override
+    public List<UserSummary> findSummaryPage(Long afterId, int limit) {
+        List<UserSummary> page = new ArrayList<>(limit);
+        snapshot.scan(afterId, (segment, record) -> {
+            page.add(segment.toSummary(record));
+            return page.size() < limit;
+        });
+
+        return page;
+    }
+
+    /**
+     * Префиксный поиск полным обходом снимка; нечеткий поиск без pg_trgm недоступен
+     */
+    @Override
+    public List<UserSummary> searchByName(String query, NameSearchMode mode, int limit) {
+        if (mode == NameSearchMode.FUZZY) {
+            logger.warn("Fuzzy name search is unavailable in read-only snapshot mode");
+            return List.of();
+        }
+
+        String prefix = query.trim().toLowerCase(Locale.ROOT);
+        List<UserSummary> matches = new ArrayList<>();
+        snapshot.scan(null, (segment, record) -> {
+            if (segment.nameAt(record).toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                matches.add(segment.toSummary(record));
+            }
+            return true;
+        });
+
+        return matches.stream()
+                .sorted(Comparator.comparing((UserSummary summary) -> summary.name().toLowerCase(Locale.ROOT))
+                        .thenComparing(UserSummary::id))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public UserEntity update(UserEntity userEntity) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        throw readOnly();
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        throw readOnly();
+    }
+
+    @Override
+    public long deleteCreatedBefore(LocalDateTime createdBefore) {
+        throw readOnly();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return snapshot.findByEmail(email).isPresent();
+    }
+
+    private static IllegalStateException readOnly() {
+        return new IllegalStateException("Database is unavailable, user service is in read-only snapshot mode");
+    }
+}
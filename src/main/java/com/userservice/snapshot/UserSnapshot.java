@@ -0,0 +1,357 @@
+package com.userservice.snapshot;
+
+import com.userservice.dao.UserDAO;
+import com.userservice.entity.UserEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Бинарный снимок таблицы users в каталоге: базовый сегмент и дельта-сегменты, отображенные в память.
+ * <p>
+ * Инкрементальное обновление дописывает дельту со строками, id которых выше водяного знака
+ * (максимального id снимка). Изменения и удаления существующих строк, а также строки с id ниже
+ * водяного знака, закоммиченные после него, попадают в снимок только при полной пересборке,
+ * которая также сливает накопившиеся дельты.
+ */
+public class UserSnapshot {
+
+    /**
+     * Каталог бинарного снимка users; без него снимок не используется
+     */
+    public static final String DIR_PROPERTY = "userservice.snapshot.dir";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSnapshot.class);
+
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{10})\\.snap");
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int PAGE_SIZE = 10_000;
+
+    /**
+     * Число дельт, после которого refresh выполняет полную пересборку
+     */
+    static final int MAX_DELTAS = 8;
+
+    private final Path directory;
+
+    /**
+     * Сегменты от старого к новому; список заменяется целиком под монитором снимка
+     */
+    private volatile List<SnapshotSegment> segments;
+
+    private UserSnapshot(Path directory, List<SnapshotSegment> segments) {
+        this.directory = directory;
+        this.segments = segments;
+    }
+
+    /**
+     * Открытие снимка: существующие сегменты отображаются в память без чтения данных
+     * @param directory каталог снимка, создается при отсутствии
+     */
+    public static UserSnapshot open(Path directory) {
+        long startNanos = System.nanoTime();
+
+        try {
+            Files.createDirectories(directory);
+            List<SnapshotSegment> segments = new ArrayList<>();
+            for (Path file : listSegmentFiles(directory)) {
+                segments.add(SnapshotSegment.map(file));
+            }
+
+            UserSnapshot snapshot = new UserSnapshot(directory, List.copyOf(segments));
+            logger.info("User snapshot opened from {} in {} ms: {} users in {} segments, watermark id {}",
+                    directory, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    snapshot.size(), segments.size(), snapshot.getIdWatermark());
+
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open user snapshot in " + directory, e);
+        }
+    }
+
+    /**
+     * Открытие снимка из каталога, заданного системным свойством
+     * @return null, если каталог не задан
+     */
+    public static UserSnapshot fromSystemProperties() {
+        String directory = System.getProperty(DIR_PROPERTY);
+
+        return directory == null || directory.isBlank() ? null : open(Path.of(directory));
+    }
+
+    /**
+     * Поиск по ID: от новых сегментов к старым
+     */
+    public Optional<UserEntity> findById(long id) {
+        List<SnapshotSegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            SnapshotSegment segment = current.get(i);
+            int record = segment.indexOfId(id);
+            if (record >= 0) {
+                return Optional.of(segment.toEntity(record));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Поиск по email: от новых сегментов к старым, так что новая строка перекрывает старую
+     */
+    public Optional<UserEntity> findByEmail(String email) {
+        List<SnapshotSegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            SnapshotSegment segment = current.get(i);
+            int record = segment.indexOfEmail(email);
+            if (record >= 0) {
+                return Optional.of(segment.toEntity(record));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Обход записей по возрастанию ID начиная после afterId; id в сегментах не пересекаются
+     * @param visitor получает номер записи и сегмент, возвращает false для остановки
+     */
+    void scan(Long afterId, SegmentVisitor visitor) {
+        for (SnapshotSegment segment : segments) {
+            int record = 0;
+            if (afterId != null) {
+                if (segment.size() == 0 || segment.getMaxId() <= afterId) {
+                    continue;
+                }
+                record = firstRecordAfter(segment, afterId);
+            }
+            for (; record < segment.size(); record++) {
+                if (!visitor.visit(segment, record)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Дописывание строк с id выше водяного знака; при большом числе дельт - полная пересборка
+     * @return число добавленных строк
+     */
+    public synchronized int refresh(UserDAO source) {
+        if (segments.isEmpty() || segments.size() - 1 >= MAX_DELTAS) {
+            return rebuild(source);
+        }
+
+        long startNanos = System.nanoTime();
+        long watermark = getIdWatermark();
+        List<SnapshotSegment> current = segments;
+        Path file = nextSegmentFile(current);
+        Path written = writeSegment(file, source, watermark);
+        if (written == null) {
+            logger.debug("User snapshot is up to date, watermark id {}", watermark);
+            return 0;
+        }
+        SnapshotSegment delta = install(written, file);
+
+        List<SnapshotSegment> updated = new ArrayList<>(current);
+        updated.add(delta);
+        segments = List.copyOf(updated);
+        logger.info("User snapshot refreshed in {} ms: {} new users, watermark id {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), delta.size(), delta.getMaxId());
+
+        return delta.size();
+    }
+
+    /**
+     * Полная пересборка снимка из источника с удалением старых сегментов.
+     * Новый базовый сегмент пишется во временный файл и заменяет старые только после полного чтения:
+     * при ошибке источника (UserDAOImpl пробрасывает отказ соединения) снимок остается прежним.
+     * Непустой снимок пустым не заменяется: UserDAOImpl при прочих ошибках чтения возвращает пустую страницу.
+     * @return число строк в снимке
+     */
+    public synchronized int rebuild(UserDAO source) {
+        long startNanos = System.nanoTime();
+        List<SnapshotSegment> current = segments;
+        Path file = nextSegmentFile(current);
+        Path written;
+        try {
+            written = writeSegment(file, source, null);
+        } catch (RuntimeException e) {
+            logger.warn("User snapshot rebuild failed, keeping existing snapshot of {} users", size());
+            throw e;
+        }
+        if (written == null && !current.isEmpty()) {
+            // Пустой результат при непустом снимке - скорее недоступная база, чем пустая таблица
+            logger.warn("Source returned no users, keeping existing snapshot of {} users", size());
+            return size();
+        }
+        SnapshotSegment base = written != null ? install(written, file) : null;
+        segments = base != null ? List.of(base) : List.of();
+
+        for (SnapshotSegment segment : current) {
+            try {
+                // Отображение остается валидным до сборки мусора, удалять файл можно сразу
+                Files.deleteIfExists(segment.getPath());
+            } catch (IOException e) {
+                logger.warn("Cannot delete old snapshot segment {}", segment.getPath(), e);
+            }
+        }
+
+        int size = base != null ? base.size() : 0;
+        logger.info("User snapshot rebuilt in {} ms: {} users",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), size);
+
+        return size;
+    }
+
+    /**
+     * Водяной знак по ID: максимальный id в снимке или 0
+     */
+    public long getIdWatermark() {
+        List<SnapshotSegment> current = segments;
+
+        return current.stream()
+                .filter(segment -> segment.size() > 0)
+                .mapToLong(SnapshotSegment::getMaxId)
+                .max()
+                .orElse(0L);
+    }
+
+    /**
+     * Водяной знак по времени: самая поздняя дата регистрации в снимке
+     */
+    public Optional<LocalDateTime> getCreatedAtWatermark() {
+        return segments.stream()
+                .mapToLong(SnapshotSegment::getMaxCreatedAtMicros)
+                .filter(micros -> micros != SnapshotSegment.NULL_CREATED_AT)
+                .max()
+                .stream()
+                .mapToObj(SnapshotSegment::fromMicros)
+                .findFirst();
+    }
+
+    /**
+     * Число пользователей в снимке
+     */
+    public int size() {
+        return segments.stream().mapToInt(SnapshotSegment::size).sum();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Запись сегмента из источника постранично (keyset по id) во временный файл рядом с file;
+     * open его не видит, при ошибке чтения файл удаляется
+     * @return временный файл сегмента или null, если новых строк нет
+     */
+    private Path writeSegment(Path file, UserDAO source, Long afterId) {
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+        try (SnapshotSegment.Writer writer = new SnapshotSegment.Writer(temporary)) {
+            Long lastId = afterId;
+            List<UserEntity> page;
+            do {
+                page = source.findPage(lastId, PAGE_SIZE);
+                for (UserEntity userEntity : page) {
+                    writer.add(userEntity);
+                }
+                if (!page.isEmpty()) {
+                    lastId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == PAGE_SIZE);
+
+            if (writer.size() == 0) {
+                return null;
+            }
+            writer.finish();
+
+            return temporary;
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new UncheckedIOException("Cannot write user snapshot segment " + file, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * Перенос полностью записанного сегмента под постоянное имя и отображение в память
+     */
+    private static SnapshotSegment install(Path temporary, Path file) {
+        try {
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+
+            return SnapshotSegment.map(file);
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new UncheckedIOException("Cannot install user snapshot segment " + file, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Cannot delete snapshot file {}", file, e);
+        }
+    }
+
+    private Path nextSegmentFile(List<SnapshotSegment> current) {
+        long sequence = current.isEmpty() ? 0 : sequenceOf(current.get(current.size() - 1).getPath());
+
+        return directory.resolve(String.format("segment-%010d.snap", sequence + 1));
+    }
+
+    private static List<Path> listSegmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> SEGMENT_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingLong(UserSnapshot::sequenceOf))
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    private static int firstRecordAfter(SnapshotSegment segment, long afterId) {
+        int low = 0;
+        int high = segment.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (segment.idAt(mid) <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Посетитель записей при обходе снимка
+     */
+    @FunctionalInterface
+    interface SegmentVisitor {
+        boolean visit(SnapshotSegment segment, int record);
+    }
+}
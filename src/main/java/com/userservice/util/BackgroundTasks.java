@@ -0,0 +1,55 @@
+package com.userservice.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий планировщик фоновых задач приложения (обновление снимка, пересборка фильтров, статистика в лог)
+ * на daemon-потоках: задачи не держат JVM при завершении
+ */
+public final class BackgroundTasks {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundTasks.class);
+
+    private static ScheduledExecutorService scheduler;
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Периодическая задача; ошибка запуска пишется в лог и не отменяет следующие запуски
+     */
+    public static void scheduleWithFixedDelay(String taskName, Runnable task, long initialDelay, long delay,
+                                              TimeUnit unit) {
+        scheduler().scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("{} failed", taskName, e);
+            }
+        }, initialDelay, delay, unit);
+    }
+
+    /**
+     * Запись в лог раз в минуту
+     */
+    public static void logEveryMinute(String taskName, Runnable log) {
+        scheduleWithFixedDelay(taskName, log, 1, 1, TimeUnit.MINUTES);
+    }
+
+    private static synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newScheduledThreadPool(2, task -> {
+                Thread thread = new Thread(task, "user-service-background");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return scheduler;
+    }
+}
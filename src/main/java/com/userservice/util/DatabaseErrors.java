@@ -0,0 +1,71 @@
+package com.userservice.util;
+
+import org.hibernate.QueryTimeoutException;
+import org.hibernate.exception.JDBCConnectionException;
+
+import java.net.ConnectException;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+
+/**
+ * Классификация ошибок работы с базой данных
+ */
+public final class DatabaseErrors {
+
+    /**
+     * Класс SQLSTATE "08" - ошибки соединения
+     */
+    private static final String CONNECTION_EXCEPTION_CLASS = "08";
+
+    /**
+     * SQLSTATE отмены по statement_timeout (57014) и неполученной блокировки по lock_timeout (55P03)
+     */
+    private static final Set<String> TIMEOUT_STATES = Set.of("57014", "55P03");
+
+    private DatabaseErrors() {
+    }
+
+    /**
+     * Ошибка вызвана недоступностью базы (нет соединения или пул не смог его получить)
+     */
+    public static boolean isConnectionFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JDBCConnectionException
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof ConnectException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith(CONNECTION_EXCEPTION_CLASS)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Запрос прерван по таймауту выполнения или ожидания блокировки
+     */
+    public static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException || cause instanceof QueryTimeoutException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && TIMEOUT_STATES.contains(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.userservice.util;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Крайний срок операции, передаваемый вниз по вызовам через текущий поток.
+ * <p>
+ * Вызывающий оборачивает обращение к сервису:
+ * {@code Deadline.within(Duration.ofMillis(300), () -> userService.getUserById(id))}.
+ * Все запросы к базе внутри получают statement_timeout и lock_timeout не больше оставшегося времени,
+ * а запрос, срок которого уже истек, не берет соединение из пула. Вложенный срок не может быть позже внешнего.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Срок текущего потока, если задан
+     */
+    public static Optional<Deadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Выполнение work со сроком timeout от текущего момента (или раньше, если внешний срок ближе)
+     */
+    public static <T> T within(Duration timeout, Supplier<T> work) {
+        return within(after(timeout), work);
+    }
+
+    public static <T> T within(Deadline deadline, Supplier<T> work) {
+        Deadline outer = CURRENT.get();
+        CURRENT.set(outer != null && outer.expiresAtNanos - deadline.expiresAtNanos < 0 ? outer : deadline);
+        try {
+            return work.get();
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Перенос срока текущего потока в задачу, выполняемую в другом потоке
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        Deadline deadline = CURRENT.get();
+
+        return deadline == null ? work : () -> within(deadline, work);
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
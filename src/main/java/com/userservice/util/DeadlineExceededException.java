@@ -0,0 +1,18 @@
+package com.userservice.util;
+
+/**
+ * Срок операции истек до обращения к базе: запрос не выполнялся и соединение не занималось
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private final String operation;
+
+    public DeadlineExceededException(String operation) {
+        super("Deadline exceeded before " + operation);
+        this.operation = operation;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+}
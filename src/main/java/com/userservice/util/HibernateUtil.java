@@ -5,13 +5,56 @@ import org.hibernate.cfg.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Singleton класс для управления Hibernate SessionFactory
+ * Реестр Hibernate SessionFactory: primary, реплика для чтения и шарды.
+ * Каждая SessionFactory создается один раз под своим именем, инициализация потокобезопасна.
+ * <p>
+ * В режиме быстрого старта hbm2ddl и чтение JDBC-метаданных отключены,
+ * вместо сравнения схемы проверяется ее версия (см. {@link SchemaManager}).
  */
 public class HibernateUtil {
-    
+
+    /**
+     * JDBC URL реплики; если не задан, все запросы идут в primary
+     */
+    public static final String REPLICA_URL_PROPERTY = "userservice.replica.url";
+
+    /**
+     * JDBC URL шардов через запятую; порядок задает номер шарда и не должен меняться
+     */
+    public static final String SHARD_URLS_PROPERTY = "userservice.shard.urls";
+
+    /**
+     * Режим старта: standard (по умолчанию) или fast
+     */
+    public static final String STARTUP_MODE_PROPERTY = "userservice.startup.mode";
+
+    /**
+     * Число hash-секций таблицы users; 0 (по умолчанию) - без секционирования.
+     * Таблица преобразуется один раз при старте в стандартном режиме, число секций потом не меняется
+     */
+    public static final String USER_PARTITIONS_PROPERTY = "userservice.users.partitions";
+
+    /**
+     * Сбор статистики Hibernate (доля попаданий в кеш планов); по умолчанию выключен -
+     * статистика считается на каждом запросе и нужна только для диагностики
+     */
+    public static final String STATISTICS_PROPERTY = "userservice.hibernate.statistics";
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+    private static final String SHARD_PREFIX = "shard-";
+
     private static final Logger logger = LoggerFactory.getLogger(HibernateUtil.class);
-    private static SessionFactory sessionFactory;
+    private static final Map<String, SessionFactory> registry = new ConcurrentHashMap<>();
 
     private HibernateUtil() {
     }
@@ -20,40 +63,169 @@ public class HibernateUtil {
      * Получение экземпляра SessionFactory
      */
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                logger.info("Initializing Hibernate SessionFactory");
-
-                Configuration configuration = new Configuration();
-                configuration.configure();
-                
-                sessionFactory = configuration.buildSessionFactory();
-                
-                logger.info("SessionFactory initialized successfully");
-            } catch (Exception e) {
-                logger.error("Error creating SessionFactory", e);
-                throw e;
-            }
+        return registry.computeIfAbsent(PRIMARY, name -> buildSessionFactory(name, Collections.emptyMap(), true));
+    }
+
+    /**
+     * Получение зарегистрированной SessionFactory по имени
+     */
+    public static SessionFactory getSessionFactory(String name) {
+        SessionFactory factory = registry.get(name);
+        if (factory == null) {
+            throw new IllegalStateException("SessionFactory is not registered: " + name);
         }
 
-        return sessionFactory;
+        return factory;
     }
 
     /**
-     * Закрытие SessionFactory
+     * Получение SessionFactory для реплики (только чтение).
+     * Схема на реплике не изменяется: она приходит с primary через репликацию.
      */
-    public static void shutdown() {
-        if (sessionFactory != null && !sessionFactory.isClosed()) {
-            logger.info("Closing SessionFactory");
-            sessionFactory.close();
-            logger.info("SessionFactory closed");
+    public static SessionFactory getReplicaSessionFactory() {
+        if (!isReplicaConfigured()) {
+            throw new IllegalStateException("Replica URL is not configured: " + REPLICA_URL_PROPERTY);
+        }
+
+        return registry.computeIfAbsent(REPLICA, name -> buildSessionFactory(name, Map.of(
+                "hibernate.hikari.dataSource.url", System.getProperty(REPLICA_URL_PROPERTY),
+                "hibernate.hikari.readOnly", "true",
+                "hibernate.hbm2ddl.auto", "none"), false));
+    }
+
+    /**
+     * Проверка, задана ли реплика для чтения
+     */
+    public static boolean isReplicaConfigured() {
+        String replicaUrl = System.getProperty(REPLICA_URL_PROPERTY);
+
+        return replicaUrl != null && !replicaUrl.isBlank();
+    }
+
+    /**
+     * Получение SessionFactory всех шардов в порядке их номеров
+     */
+    public static List<SessionFactory> getShardSessionFactories() {
+        List<String> shardUrls = getShardUrls();
+        if (shardUrls.isEmpty()) {
+            throw new IllegalStateException("Shard URLs are not configured: " + SHARD_URLS_PROPERTY);
         }
+
+        List<SessionFactory> factories = new ArrayList<>(shardUrls.size());
+        for (int shard = 0; shard < shardUrls.size(); shard++) {
+            String url = shardUrls.get(shard);
+            factories.add(registry.computeIfAbsent(SHARD_PREFIX + shard, name -> buildSessionFactory(name, Map.of(
+                    "hibernate.hikari.dataSource.url", url), true)));
+        }
+
+        return factories;
+    }
+
+    /**
+     * Проверка, включено ли шардирование
+     */
+    public static boolean isShardingConfigured() {
+        return !getShardUrls().isEmpty();
+    }
+
+    /**
+     * Проверка, включен ли режим быстрого старта
+     */
+    public static boolean isFastStartup() {
+        return "fast".equalsIgnoreCase(System.getProperty(STARTUP_MODE_PROPERTY));
+    }
+
+    /**
+     * Закрытие всех SessionFactory
+     */
+    public static void shutdown() {
+        registry.forEach((name, factory) -> {
+            if (!factory.isClosed()) {
+                logger.info("Closing SessionFactory: {}", name);
+                factory.close();
+            }
+        });
+        registry.clear();
+        logger.info("SessionFactory closed");
     }
 
     /**
      * Проверка доступности SessionFactory
      */
     public static boolean isSessionFactoryAvailable() {
-        return sessionFactory != null && !sessionFactory.isClosed();
+        return registry.values().stream().anyMatch(factory -> !factory.isClosed());
+    }
+
+    /**
+     * Создание SessionFactory из hibernate.cfg.xml с переопределением свойств
+     *
+     * @param manageSchema применять миграции (standard) или проверять версию схемы (fast)
+     */
+    private static SessionFactory buildSessionFactory(String name, Map<String, String> overrides,
+                                                      boolean manageSchema) {
+        boolean fastStartup = isFastStartup();
+
+        try {
+            logger.info("Initializing Hibernate SessionFactory: {} ({} startup)", name,
+                    fastStartup ? "fast" : "standard");
+            long start = System.nanoTime();
+
+            Configuration configuration = new Configuration();
+            configuration.configure();
+            if (fastStartup) {
+                configuration.setProperty("hibernate.hbm2ddl.auto", "none");
+                configuration.setProperty("hibernate.boot.allow_jdbc_metadata_access", "false");
+                configuration.setProperty("hibernate.hikari.minimumIdle",
+                        configuration.getProperty("hibernate.hikari.maximumPoolSize"));
+            }
+            if (Boolean.getBoolean(STATISTICS_PROPERTY)) {
+                configuration.setProperty("hibernate.generate_statistics", "true");
+            }
+            overrides.forEach(configuration::setProperty);
+            long configured = System.nanoTime();
+
+            SessionFactory factory = configuration.buildSessionFactory();
+            long built = System.nanoTime();
+
+            try {
+                if (manageSchema) {
+                    if (fastStartup) {
+                        SchemaManager.verify(factory);
+                    } else {
+                        SchemaManager.migrate(factory);
+                        int partitions = Integer.getInteger(USER_PARTITIONS_PROPERTY, 0);
+                        if (partitions > 0) {
+                            SchemaManager.partitionUsers(factory, partitions);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                factory.close();
+                throw e;
+            }
+            long schemaReady = System.nanoTime();
+
+            logger.info("SessionFactory initialized successfully: {} (config {} ms, build {} ms, schema {} ms)", name,
+                    TimeUnit.NANOSECONDS.toMillis(configured - start),
+                    TimeUnit.NANOSECONDS.toMillis(built - configured),
+                    TimeUnit.NANOSECONDS.toMillis(schemaReady - built));
+
+            return factory;
+        } catch (Exception e) {
+            logger.error("Error creating SessionFactory: {}", name, e);
+            throw e;
+        }
+    }
+
+    private static List<String> getShardUrls() {
+        String urls = System.getProperty(SHARD_URLS_PROPERTY);
+        if (urls == null || urls.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
     }
 }
@@ -0,0 +1,193 @@
+package com.userservice.util;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Версионированные миграции схемы из classpath:db/migration.
+ * <p>
+ * Номер версии - позиция скрипта в {@link #MIGRATIONS}, примененные версии хранятся в таблице schema_version.
+ * Быстрый старт не применяет миграции и не сравнивает схему с маппингом, а только проверяет номер версии.
+ */
+public final class SchemaManager {
+
+    /**
+     * Скрипты миграций по порядку; новые скрипты добавляются только в конец.
+     * Скрипты идемпотентны: {@link #partitionUsers} применяет их повторно к секционированной таблице
+     */
+    static final List<String> MIGRATIONS = List.of(
+            "V1__baseline.sql",
+            "V2__name_search.sql",
+            "V3__analytics_indexes.sql",
+            "V4__user_change_notify.sql",
+            "V5__change_feed.sql",
+            "V6__user_outbox.sql",
+            "V7__users_version.sql",
+            "V8__users_partitioning.sql",
+            "V9__user_email_notify.sql",
+            "V10__tombstone_retention.sql",
+            "V11__user_outbox_opt_in.sql");
+
+    public static final int CURRENT_VERSION = MIGRATIONS.size();
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaManager.class);
+    private static final String MIGRATION_PATH = "db/migration/";
+
+    static final String USER_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = to_regclass('users') ORDER BY c.relname";
+
+    private SchemaManager() {
+    }
+
+    /**
+     * Применение недостающих миграций
+     */
+    public static void migrate(SessionFactory sessionFactory) {
+        sessionFactory.inTransaction(session -> session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                        + "version INTEGER PRIMARY KEY, "
+                        + "script VARCHAR(200) NOT NULL, "
+                        + "applied_at TIMESTAMP NOT NULL DEFAULT now())");
+                // Защита от одновременной миграции с нескольких узлов
+                statement.execute("LOCK TABLE schema_version IN EXCLUSIVE MODE");
+            }
+
+            int applied = readVersion(connection);
+            for (int version = applied + 1; version <= CURRENT_VERSION; version++) {
+                String script = MIGRATIONS.get(version - 1);
+                logger.info("Applying schema migration {}", script);
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(loadScript(script));
+                }
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO schema_version (version, script) VALUES (?, ?)")) {
+                    insert.setInt(1, version);
+                    insert.setString(2, script);
+                    insert.executeUpdate();
+                }
+            }
+            logger.info("Schema is at version {}", CURRENT_VERSION);
+        }));
+    }
+
+    /**
+     * Преобразование users в hash-секционированную по id таблицу (см. V8), если она еще не секционирована.
+     * Выполняется одной транзакцией под исключительной блокировкой users: чтение и запись ждут копирования строк.
+     *
+     * @return true, если таблица преобразована сейчас
+     */
+    public static boolean partitionUsers(SessionFactory sessionFactory, int partitions) {
+        long start = System.nanoTime();
+        boolean converted = sessionFactory.fromTransaction(session -> session.doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLE schema_version IN EXCLUSIVE MODE");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("SELECT users_partition_by_hash(?)")) {
+                statement.setInt(1, partitions);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    if (!resultSet.getBoolean(1)) {
+                        return false;
+                    }
+                }
+            }
+
+            // Индексы, триггеры и ограничения миграций создаются заново на секционированной таблице
+            for (String script : MIGRATIONS) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(loadScript(script));
+                }
+            }
+
+            return true;
+        }));
+
+        if (converted) {
+            logger.info("Table users partitioned by hash of id into {} partitions in {} ms", partitions,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        return converted;
+    }
+
+    /**
+     * Секции таблицы users; пустой список, если таблица не секционирована
+     */
+    public static List<String> userPartitions(SessionFactory sessionFactory) {
+        return sessionFactory.fromSession(session -> session.doReturningWork(connection -> {
+            List<String> partitions = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(USER_PARTITIONS_SQL)) {
+                while (resultSet.next()) {
+                    partitions.add(resultSet.getString(1));
+                }
+            }
+
+            return partitions;
+        }));
+    }
+
+    /**
+     * Проверка версии схемы без интроспекции метаданных БД
+     *
+     * @throws IllegalStateException если схема не соответствует версии приложения
+     */
+    public static void verify(SessionFactory sessionFactory) {
+        int version = sessionFactory.fromSession(session -> session.doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                         "SELECT to_regclass('schema_version') IS NOT NULL")) {
+                resultSet.next();
+                if (!resultSet.getBoolean(1)) {
+                    return 0;
+                }
+            }
+
+            return readVersion(connection);
+        }));
+
+        if (version != CURRENT_VERSION) {
+            throw new IllegalStateException("Schema version is " + version + ", application expects "
+                    + CURRENT_VERSION + "; start once in standard mode to migrate");
+        }
+        logger.info("Schema version {} verified", version);
+    }
+
+    private static int readVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            resultSet.next();
+
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static String loadScript(String script) {
+        try (InputStream input = SchemaManager.class.getClassLoader().getResourceAsStream(MIGRATION_PATH + script)) {
+            if (input == null) {
+                throw new IllegalStateException("Migration script not found: " + script);
+            }
+
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading migration script: " + script, e);
+        }
+    }
+}
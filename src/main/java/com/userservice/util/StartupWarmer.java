@@ -0,0 +1,106 @@
+package com.userservice.util;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Прогрев при старте: выполнение горячих запросов до первого запроса пользователя, чтобы их планы
+ * уже лежали в кеше Hibernate, а серверные prepared statements - на соединениях.
+ * При быстром старте пул заполняется целиком, и запросы прогреваются на каждом соединении параллельно.
+ */
+public final class StartupWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmer.class);
+    private static final long POOL_FILL_TIMEOUT_SECONDS = 30;
+
+    private StartupWarmer() {
+    }
+
+    /**
+     * Прогрев SessionFactory
+     *
+     * @param queryWarmUp выполнение горячих запросов в переданной сессии
+     * @param fillPool открыть все соединения пула и прогреть запросы на каждом
+     */
+    public static void warmUp(SessionFactory sessionFactory, Consumer<Session> queryWarmUp, boolean fillPool) {
+        long start = System.nanoTime();
+        if (!fillPool) {
+            try (Session session = sessionFactory.openSession()) {
+                queryWarmUp.accept(session);
+            }
+            logger.info("Startup warm-up: query plans in {} ms, {}",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), planCacheStats(sessionFactory));
+
+            return;
+        }
+
+        int poolSize = Integer.parseInt(String.valueOf(
+                sessionFactory.getProperties().getOrDefault("hibernate.hikari.maximumPoolSize", "10")).trim());
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            fillPool(sessionFactory, poolSize, queryWarmUp, executor);
+            logger.info("Startup warm-up: {} connections with prepared queries in {} ms, {}", poolSize,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), planCacheStats(sessionFactory));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Попадания в кеш планов запросов Hibernate (нужно hibernate.generate_statistics)
+     */
+    public static String planCacheStats(SessionFactory sessionFactory) {
+        Statistics statistics = sessionFactory.getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return "query plan cache statistics disabled";
+        }
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+
+        return String.format("query plan cache %d hits, %d misses (hit ratio %.3f)", hits, misses,
+                hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+    }
+
+    /**
+     * Одновременное удержание poolSize соединений, чтобы Hikari открыл их все сразу;
+     * пока соединение удерживается, на нем выполняются горячие запросы
+     */
+    private static void fillPool(SessionFactory sessionFactory, int poolSize, Consumer<Session> queryWarmUp,
+                                 ExecutorService executor) {
+        CountDownLatch acquired = new CountDownLatch(poolSize);
+        List<CompletableFuture<Void>> holders = new ArrayList<>(poolSize);
+
+        for (int i = 0; i < poolSize; i++) {
+            holders.add(CompletableFuture.runAsync(() -> {
+                // Соединение удерживается сессией до закрытия: прогрев идет на том же соединении
+                try (Session session = sessionFactory.withOptions()
+                        .connectionHandlingMode(PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_HOLD)
+                        .openSession()) {
+                    session.doWork(connection -> {
+                        acquired.countDown();
+                        try {
+                            acquired.await(POOL_FILL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                    queryWarmUp.accept(session);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(holders.toArray(new CompletableFuture[0])).join();
+    }
+}
@@ -0,0 +1,12 @@
+-- Срок хранения надгробий ленты изменений: старые удаляются по deleted_at порциями
+-- (UserChangeDAO.purgeTombstonesBefore).
+-- В user_tombstones_purged хранится позиция последнего удаленного надгробия: курсор до нее
+-- мог пропустить удаления, и лента отклоняет его вместо молчаливой потери DELETE.
+CREATE INDEX IF NOT EXISTS idx_user_tombstones_deleted_at ON user_tombstones (deleted_at);
+
+CREATE TABLE IF NOT EXISTS user_tombstones_purged (
+    singleton BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+    change_xid BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    user_id BIGINT NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Outbox включается явно (userservice.outbox.enabled=true): без relay строки user_outbox никто не удаляет.
+-- Триггер users_outbox_event выключен, пока relay не включит его при старте (OutboxRelay.enableCapture).
+-- Выключенный вручную триггер: ALTER TABLE users DISABLE TRIGGER users_outbox_event.
+ALTER TABLE users DISABLE TRIGGER users_outbox_event;
@@ -0,0 +1,8 @@
+-- Базовая схема: таблица пользователей в том виде, в котором ее создает Hibernate
+CREATE TABLE IF NOT EXISTS users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(100) NOT NULL,
+    email      VARCHAR(150) NOT NULL UNIQUE,
+    age        INTEGER,
+    created_at TIMESTAMP(6) NOT NULL
+);
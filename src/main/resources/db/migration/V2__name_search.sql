@@ -0,0 +1,7 @@
+-- Поиск по имени: префиксный (btree в collation "C") и нечеткий (триграммы pg_trgm)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Collation "C" позволяет использовать индекс и для LIKE 'abc%', и для ORDER BY
+CREATE INDEX IF NOT EXISTS idx_users_name_prefix ON users ((lower(name) COLLATE "C"));
+
+CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
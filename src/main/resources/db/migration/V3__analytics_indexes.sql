@@ -0,0 +1,4 @@
+-- Индексы для агрегатов аналитики: гистограмма возрастов и регистрации по периодам
+CREATE INDEX IF NOT EXISTS idx_users_age ON users (age);
+
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
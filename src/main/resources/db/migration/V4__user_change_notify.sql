@@ -0,0 +1,14 @@
+-- Уведомление узлов об изменении или удалении пользователя для инвалидации локальных кэшей.
+-- Полезная нагрузка: "id,email" (email до изменения); NOTIFY доставляется при коммите транзакции.
+CREATE OR REPLACE FUNCTION users_notify_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('users_changed', OLD.id || ',' || OLD.email);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_notify_change ON users;
+
+CREATE TRIGGER users_notify_change
+    AFTER UPDATE OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_notify_change();
@@ -0,0 +1,48 @@
+-- Лента изменений: у каждой строки транзакция и номер последнего изменения, удаления пишутся в надгробия.
+-- Существующие строки получают (0, 0) и отдаются первыми по порядку id.
+CREATE SEQUENCE IF NOT EXISTS users_change_seq;
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN IF NOT EXISTS change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_users_change ON users (change_xid, change_seq, id);
+
+CREATE TABLE IF NOT EXISTS user_tombstones (
+    change_xid BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    email VARCHAR(150) NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (change_xid, change_seq, user_id)
+);
+
+CREATE OR REPLACE FUNCTION users_track_change() RETURNS trigger AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id()::text::bigint;
+    NEW.change_seq := nextval('users_change_seq');
+    NEW.updated_at := now() AT TIME ZONE 'UTC';
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION users_track_delete() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO user_tombstones (change_xid, change_seq, user_id, email, deleted_at)
+    VALUES (pg_current_xact_id()::text::bigint, nextval('users_change_seq'), OLD.id, OLD.email,
+            now() AT TIME ZONE 'UTC');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_track_change ON users;
+
+CREATE TRIGGER users_track_change
+    BEFORE INSERT OR UPDATE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_track_change();
+
+DROP TRIGGER IF EXISTS users_track_delete ON users;
+
+CREATE TRIGGER users_track_delete
+    AFTER DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_track_delete();
@@ -0,0 +1,30 @@
+-- Transactional outbox: событие пишется триггером в той же транзакции, что и изменение users.
+-- Таблица работает как очередь (relay удаляет отправленные строки), поэтому autovacuum для нее агрессивнее.
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(16) NOT NULL,
+    user_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT (now() AT TIME ZONE 'UTC')
+) WITH (autovacuum_vacuum_scale_factor = 0.01, autovacuum_vacuum_threshold = 1000);
+
+CREATE OR REPLACE FUNCTION users_outbox_event() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO user_outbox (event_type, user_id, payload)
+        VALUES ('DELETED', OLD.id, json_build_object('email', OLD.email)::text);
+    ELSE
+        INSERT INTO user_outbox (event_type, user_id, payload)
+        VALUES (CASE TG_OP WHEN 'INSERT' THEN 'CREATED' ELSE 'UPDATED' END, NEW.id,
+                json_build_object('name', NEW.name, 'email', NEW.email, 'age', NEW.age,
+                                  'createdAt', NEW.created_at)::text);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_outbox_event ON users;
+
+CREATE TRIGGER users_outbox_event
+    AFTER INSERT OR UPDATE OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_outbox_event();
@@ -0,0 +1,17 @@
+-- Версия таблицы users для кэшей списков на нескольких узлах: каждый изменяющий оператор берет
+-- следующее значение последовательности и шлет его в канал users_version. Сама последовательность
+-- не транзакционна, поэтому узлы ориентируются на уведомление: NOTIFY доставляется только при коммите.
+CREATE SEQUENCE IF NOT EXISTS users_version_seq;
+
+CREATE OR REPLACE FUNCTION users_bump_version() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('users_version', nextval('users_version_seq')::text);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_bump_version ON users;
+
+CREATE TRIGGER users_bump_version
+    AFTER INSERT OR UPDATE OR DELETE ON users
+    FOR EACH STATEMENT EXECUTE FUNCTION users_bump_version();
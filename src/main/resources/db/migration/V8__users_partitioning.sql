@@ -0,0 +1,68 @@
+-- Необязательное hash-секционирование users по id (SchemaManager.partitionUsers). Скрипт только объявляет
+-- функции: таблица преобразуется один раз по настройке, после чего миграции V2.. применяются заново
+-- и создают индексы и триггеры уже на секционированной таблице.
+--
+-- PostgreSQL не проверяет уникальность по столбцу вне ключа секционирования, поэтому email
+-- уникален через таблицу user_emails (email -> id), которую триггер ведет в той же транзакции.
+CREATE OR REPLACE FUNCTION users_sync_email() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.email = OLD.email THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM user_emails WHERE email = OLD.email;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO user_emails (email, user_id) VALUES (NEW.email, NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Преобразование под ACCESS EXCLUSIVE в одной транзакции: строки копируются в секции, старая таблица удаляется.
+-- Последовательность identity продолжается с прежнего значения. Для уже секционированной таблицы ничего не делает.
+CREATE OR REPLACE FUNCTION users_partition_by_hash(partitions INTEGER) RETURNS BOOLEAN AS $$
+DECLARE
+    next_id BIGINT;
+BEGIN
+    IF partitions < 2 THEN
+        RAISE EXCEPTION 'Partition count must be at least 2: %', partitions;
+    END IF;
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'users'::regclass) THEN
+        RETURN FALSE;
+    END IF;
+
+    LOCK TABLE users IN ACCESS EXCLUSIVE MODE;
+    next_id := nextval(pg_get_serial_sequence('users', 'id'));
+    ALTER TABLE users RENAME TO users_unpartitioned;
+
+    CREATE TABLE users (LIKE users_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY)
+        PARTITION BY HASH (id);
+    FOR part IN 0 .. partitions - 1 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF users FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       'users_p' || part, partitions, part);
+    END LOOP;
+
+    INSERT INTO users OVERRIDING SYSTEM VALUE SELECT * FROM users_unpartitioned;
+
+    CREATE TABLE IF NOT EXISTS user_emails (
+        email VARCHAR(150) PRIMARY KEY,
+        user_id BIGINT NOT NULL
+    );
+    TRUNCATE user_emails;
+    INSERT INTO user_emails (email, user_id) SELECT email, id FROM users_unpartitioned;
+
+    DROP TABLE users_unpartitioned;
+    PERFORM setval(pg_get_serial_sequence('users', 'id'), next_id, false);
+    ALTER TABLE users ADD PRIMARY KEY (id);
+    -- Неуникальный индекс email в каждой секции: запросы WHERE email = ? в обход user_emails
+    -- (JdbcUserDAO, R2DBC, прогрев кэша) проверяют индекс каждой секции, а не читают их целиком
+    CREATE INDEX IF NOT EXISTS idx_users_email ON users (email);
+
+    CREATE TRIGGER users_sync_email
+        AFTER INSERT OR UPDATE OR DELETE ON users
+        FOR EACH ROW EXECUTE FUNCTION users_sync_email();
+
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
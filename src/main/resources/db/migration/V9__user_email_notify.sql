@@ -0,0 +1,18 @@
+-- Уведомление узлов о новых email для фильтров Блума перед existsByEmail: каждая вставка и смена email
+-- шлет новый email в канал users_emails, и фильтр каждого узла узнает о записях других узлов.
+-- NOTIFY доставляется при коммите транзакции.
+CREATE OR REPLACE FUNCTION users_notify_email() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.email = OLD.email THEN
+        RETURN NULL;
+    END IF;
+    PERFORM pg_notify('users_emails', NEW.email);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_notify_email ON users;
+
+CREATE TRIGGER users_notify_email
+    AFTER INSERT OR UPDATE OF email ON users
+    FOR EACH ROW EXECUTE FUNCTION users_notify_email();
@@ -0,0 +1,88 @@
+package com.userservice.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.userservice.admission.AdaptiveConcurrencyLimiter.Kind.READ;
+import static com.userservice.admission.AdaptiveConcurrencyLimiter.Kind.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit тесты для AdaptiveConcurrencyLimiter
+ */
+@DisplayName("AdaptiveConcurrencyLimiter Unit Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long HOUR_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    @DisplayName("Should reserve part of the limit for prioritized requests")
+    void testAcquire_LimitReached_ShouldRejectLowPriorityFirst() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, HOUR_NANOS, READ);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(WRITE);
+        }
+
+        // Then
+        assertThatThrownBy(() -> limiter.acquire(WRITE))
+                .isInstanceOf(OverloadedException.class)
+                .satisfies(e -> assertThat(((OverloadedException) e).getKind()).isEqualTo(WRITE));
+        limiter.acquire(READ);
+        assertThatThrownBy(() -> limiter.acquire(READ)).isInstanceOf(OverloadedException.class);
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+        assertThat(limiter.getAccepted()).isEqualTo(4);
+        assertThat(limiter.getRejected(WRITE)).isEqualTo(1);
+        assertThat(limiter.getRejected(READ)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should lower the limit once per generation of slow requests")
+    void testRelease_SlowRequests_ShouldDecreaseOnce() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 1, READ);
+        long first = limiter.acquire(READ);
+        long second = limiter.acquire(READ);
+
+        // When
+        limiter.release(first, false);
+        limiter.release(second, false);
+        int afterConcurrentSlow = limiter.getLimit();
+        limiter.release(limiter.acquire(READ), false);
+
+        // Then
+        assertThat(afterConcurrentSlow).isEqualTo(9);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should raise the limit on fast responses only while it is in use")
+    void testRelease_FastLoadedRequests_ShouldIncrease() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, HOUR_NANOS, READ);
+
+        // When
+        long first = limiter.acquire(READ);
+        long second = limiter.acquire(READ);
+        limiter.release(first, false);
+        limiter.release(second, false);
+        int afterLoaded = limiter.getLimit();
+        for (int i = 0; i < 5; i++) {
+            long a = limiter.acquire(READ);
+            long b = limiter.acquire(READ);
+            limiter.release(a, false);
+            limiter.release(b, false);
+        }
+
+        // Then
+        assertThat(afterLoaded).isEqualTo(3);
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getDecreases()).isZero();
+    }
+}
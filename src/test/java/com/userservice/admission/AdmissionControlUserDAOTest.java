@@ -0,0 +1,75 @@
+package com.userservice.admission;
+
+import com.userservice.dao.UserDAO;
+import com.userservice.entity.UserEntity;
+import org.hibernate.QueryTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit тесты для AdmissionControlUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AdmissionControlUserDAO Unit Tests")
+class AdmissionControlUserDAOTest {
+
+    @Mock
+    private UserDAO delegate;
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private AdmissionControlUserDAO admissionDAO;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, TimeUnit.HOURS.toNanos(1),
+                AdaptiveConcurrencyLimiter.Kind.READ);
+        admissionDAO = new AdmissionControlUserDAO(delegate, limiter);
+    }
+
+    @Test
+    @DisplayName("Should reject without touching the database when the limit is exhausted")
+    void testWrite_LimitExhausted_ShouldRejectImmediately() {
+        // Given
+        for (int i = 0; i < 7; i++) {
+            limiter.acquire(AdaptiveConcurrencyLimiter.Kind.WRITE);
+        }
+
+        // When / Then
+        assertThatThrownBy(() -> admissionDAO.create(new UserEntity("Test", "test@example.com", 30)))
+                .isInstanceOf(OverloadedException.class);
+        verify(delegate, never()).create(any());
+    }
+
+    @Test
+    @DisplayName("Should release the slot and lower the limit after a query timeout")
+    void testRead_Timeout_ShouldReleaseAndDecrease() {
+        // Given
+        when(delegate.findById(1L))
+                .thenThrow(new QueryTimeoutException("canceled", new SQLException("canceled", "57014"), "select"))
+                .thenReturn(Optional.empty());
+
+        // When
+        assertThatThrownBy(() -> admissionDAO.findById(1L)).isInstanceOf(QueryTimeoutException.class);
+        Optional<UserEntity> found = admissionDAO.findById(1L);
+
+        // Then
+        assertThat(found).isEmpty();
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+}
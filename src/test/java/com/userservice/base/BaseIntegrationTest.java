@@ -1,5 +1,6 @@
 package com.userservice.base;
 
+import com.userservice.util.SchemaManager;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
 import org.junit.jupiter.api.AfterEach;
@@ -36,6 +37,21 @@ public class BaseIntegrationTest {
         sessionFactory = createSessionFactory();
     }
 
+    /**
+     * Применение миграций (расширения и индексы) к схеме, созданной Hibernate. Hibernate пересоздает
+     * перед каждым тестом только users, поэтому таблицы и последовательности миграций удаляются:
+     * иначе триггеры были бы только у первого теста класса, а строки ленты и outbox переходили бы в следующие
+     */
+    protected void migrateSchema() {
+        sessionFactory.inTransaction(session -> {
+            session.createNativeMutationQuery("DROP TABLE IF EXISTS schema_version, user_tombstones, "
+                    + "user_tombstones_purged, user_outbox, user_emails").executeUpdate();
+            session.createNativeMutationQuery("DROP SEQUENCE IF EXISTS users_change_seq, users_version_seq")
+                    .executeUpdate();
+        });
+        SchemaManager.migrate(sessionFactory);
+    }
+
     /**
      * Закрытие SessionFactory после каждого теста
      */
@@ -0,0 +1,93 @@
+package com.userservice.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.userservice.util.SchemaManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Подключение бенчмарков к локальному PostgreSQL и наполнение таблицы users
+ */
+final class BenchmarkDatabase {
+
+    private static final long SEED_CHUNK = 1_000_000L;
+
+    /**
+     * Синтетические пользователи: имя + фамилия + короткий хеш, email уникален по номеру строки
+     */
+    private static final String SEED_SQL = "INSERT INTO users (name, email, age, created_at) "
+            + "SELECT (ARRAY['Ivan','Petr','Anna','Maria','Alexander','Elena','Dmitry','Olga','Sergey','Natalia'])"
+            + "[1 + g % 10] || ' ' "
+            + "|| (ARRAY['Ivanov','Petrov','Smirnov','Kuznetsov','Popov','Sokolov','Lebedev','Kozlov',"
+            + "'Novikov','Morozov'])[1 + (g / 10) % 10] || ' ' || substr(md5(g::text), 1, 6), "
+            + "'bench' || g || '@example.com', 18 + g % 60, now() - (g % 1000) * interval '1 day' "
+            + "FROM generate_series(?, ?) AS g";
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * SessionFactory на основной конфигурации с параметрами подключения из system properties
+     */
+    static SessionFactory createSessionFactory() {
+        quietLogging();
+
+        Configuration configuration = new Configuration();
+        configuration.configure();
+        configuration.setProperty("hibernate.hikari.dataSource.url",
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/userdb"));
+        configuration.setProperty("hibernate.hikari.dataSource.user",
+                System.getProperty("benchmark.jdbc.user", "admin"));
+        configuration.setProperty("hibernate.hikari.dataSource.password",
+                System.getProperty("benchmark.jdbc.password", "admin123"));
+        configuration.setProperty("hibernate.show_sql", "false");
+
+        SessionFactory sessionFactory = configuration.buildSessionFactory();
+        SchemaManager.migrate(sessionFactory);
+
+        return sessionFactory;
+    }
+
+    /**
+     * Наполнение таблицы до заданного числа строк (benchmark.rows) и обновление статистики
+     */
+    static long ensureUsers(SessionFactory sessionFactory) {
+        long targetRows = Long.getLong("benchmark.rows", 10_000_000L);
+
+        return sessionFactory.fromSession(session -> session.doReturningWork(connection -> {
+            long existing;
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM users")) {
+                resultSet.next();
+                existing = resultSet.getLong(1);
+            }
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try (PreparedStatement insert = connection.prepareStatement(SEED_SQL)) {
+                for (long from = existing + 1; from <= targetRows; from += SEED_CHUNK) {
+                    insert.setLong(1, from);
+                    insert.setLong(2, Math.min(from + SEED_CHUNK - 1, targetRows));
+                    insert.executeUpdate();
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("VACUUM ANALYZE users");
+            }
+            connection.setAutoCommit(autoCommit);
+
+            return Math.max(existing, targetRows);
+        }));
+    }
+
+    private static void quietLogging() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.userservice")).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("org.hibernate")).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("com.zaxxer")).setLevel(Level.WARN);
+    }
+}
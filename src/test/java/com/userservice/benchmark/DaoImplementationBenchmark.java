@@ -0,0 +1,109 @@
+package com.userservice.benchmark;
+
+import com.userservice.dao.JdbcUserDAO;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDAOImpl (Hibernate) против JdbcUserDAO на горячих операциях чтения и обновлении по ID.
+ * Обе реализации работают через один пул Hikari, разница - накладные расходы ORM и лишние
+ * запросы транзакции (BEGIN/COMMIT), которых нет у одиночного запроса JDBC в autocommit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(4)
+@Fork(1)
+public class DaoImplementationBenchmark {
+
+    private static final int UPDATE_TARGETS = 1_000;
+
+    @Param({"hibernate", "jdbc"})
+    private String implementation;
+
+    private SessionFactory sessionFactory;
+    private UserDAO userDAO;
+    private long rows;
+    private UserEntity[] updateTargets;
+
+    @Setup(Level.Trial)
+    public void setUpDatabase() {
+        sessionFactory = BenchmarkDatabase.createSessionFactory();
+        rows = BenchmarkDatabase.ensureUsers(sessionFactory);
+        userDAO = "jdbc".equals(implementation) ? new JdbcUserDAO(sessionFactory) : new UserDAOImpl(sessionFactory);
+
+        // Обновляются отдельные строки, чтобы не менять синтетических пользователей других бенчмарков
+        updateTargets = new UserEntity[UPDATE_TARGETS];
+        for (int i = 0; i < UPDATE_TARGETS; i++) {
+            String email = "dao-bench" + i + "@example.com";
+            updateTargets[i] = userDAO.findByEmail(email)
+                    .orElseGet(() -> userDAO.create(new UserEntity("Dao Bench", email, 30)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Optional<UserEntity> findById() {
+        return userDAO.findById(randomId());
+    }
+
+    @Benchmark
+    public Optional<UserEntity> findByEmail() {
+        return userDAO.findByEmail("bench" + randomId() + "@example.com");
+    }
+
+    @Benchmark
+    public boolean existsByEmail() {
+        return userDAO.existsByEmail("bench" + randomId() + "@example.com");
+    }
+
+    @Benchmark
+    public List<UserSummary> summaryPage() {
+        return userDAO.findSummaryPage(randomId(), 20);
+    }
+
+    /**
+     * Обновление возраста без смены email: у Hibernate merge сначала загружает строку, у JDBC - один UPDATE
+     */
+    @Benchmark
+    public UserEntity update() {
+        UserEntity target = updateTargets[ThreadLocalRandom.current().nextInt(UPDATE_TARGETS)];
+        UserEntity userEntity = new UserEntity(target.getName(), target.getEmail(),
+                18 + ThreadLocalRandom.current().nextInt(60));
+        userEntity.setId(target.getId());
+
+        return userDAO.update(userEntity);
+    }
+
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextLong(rows);
+    }
+}
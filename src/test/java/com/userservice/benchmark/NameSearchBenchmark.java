@@ -0,0 +1,80 @@
+package com.userservice.benchmark;
+
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import com.userservice.dto.UserSummary;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Латентность поиска по имени на таблице из benchmark.rows строк (по умолчанию 10M).
+ * Цель - меньше 10 ms на запрос в обоих режимах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class NameSearchBenchmark {
+
+    private static final String[] PREFIX_QUERIES = {
+            "ivan", "anna petrov", "maria smirnov 1", "dmitry kozlov a", "olga"
+    };
+
+    /**
+     * Запросы с опечатками относительно сгенерированных имен
+     */
+    private static final String[] FUZZY_QUERIES = {
+            "Ivan Ivanof c4ca42", "Ana Petrova c81e72", "Sergei Kuznecov eccbc8", "Elena Popova a87ff6"
+    };
+
+    @Param({"20"})
+    private int limit;
+
+    private SessionFactory sessionFactory;
+    private UserDAO userDAO;
+
+    @Setup(Level.Trial)
+    public void setUpDatabase() {
+        sessionFactory = BenchmarkDatabase.createSessionFactory();
+        BenchmarkDatabase.ensureUsers(sessionFactory);
+        userDAO = new UserDAOImpl(sessionFactory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<UserSummary> prefixSearch() {
+        return userDAO.searchByName(pick(PREFIX_QUERIES), NameSearchMode.PREFIX, limit);
+    }
+
+    @Benchmark
+    public List<UserSummary> fuzzySearch() {
+        return userDAO.searchByName(pick(FUZZY_QUERIES), NameSearchMode.FUZZY, limit);
+    }
+
+    private static String pick(String[] queries) {
+        return queries[ThreadLocalRandom.current().nextInt(queries.length)];
+    }
+}
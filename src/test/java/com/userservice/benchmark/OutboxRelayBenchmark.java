@@ -0,0 +1,98 @@
+package com.userservice.benchmark;
+
+import com.userservice.outbox.FileOutboxSink;
+import com.userservice.outbox.OutboxRelay;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность relay outbox в событиях в секунду (счетчик events) при разных размерах пачки.
+ * Получатель - файл с fsync на пачку. Параллельные relay - через число потоков JMH (-t).
+ * Перед каждой итерацией очередь пополняется до benchmark.outbox.events строк.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class OutboxRelayBenchmark {
+
+    private static final String SEED_SQL = "INSERT INTO user_outbox (event_type, user_id, payload) "
+            + "SELECT 'UPDATED', g, json_build_object('name', 'User ' || g, 'email', 'bench' || g || '@example.com', "
+            + "'age', 18 + g % 60)::text FROM generate_series(1, ?) AS g";
+
+    @Param({"100", "1000", "5000"})
+    private int batchSize;
+
+    private SessionFactory sessionFactory;
+    private Path directory;
+    private FileOutboxSink sink;
+    private OutboxRelay relay;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sessionFactory = BenchmarkDatabase.createSessionFactory();
+        directory = Files.createTempDirectory("outbox-benchmark");
+        sink = new FileOutboxSink(directory.resolve("events.jsonl"));
+        relay = new OutboxRelay(sessionFactory, sink, batchSize, id -> id, "benchmark");
+    }
+
+    @Setup(Level.Iteration)
+    public void fillOutbox() {
+        long events = Long.getLong("benchmark.outbox.events", 2_000_000L);
+        sessionFactory.inTransaction(session -> {
+            session.createNativeMutationQuery("DELETE FROM user_outbox").executeUpdate();
+            session.createNativeMutationQuery(SEED_SQL).setParameter(1, events).executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sink.close();
+        Files.deleteIfExists(sink.getFile());
+        Files.deleteIfExists(directory);
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int relayBatch(EventCounters counters) {
+        int relayed = relay.relayBatch();
+        counters.events += relayed;
+
+        return relayed;
+    }
+
+    /**
+     * Число отправленных событий: JMH выводит его как пропускную способность в events/s
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounters {
+
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            events = 0;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.userservice.benchmark;
+
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Страница полных сущностей (findPage) против страницы проекций UserSummary (findSummaryPage).
+ * Кроме времени выводится счетчик bytesPerRow - байты, выделенные потоком бенчмарка на одну строку
+ * (включая драйвер и Hibernate), по com.sun.management.ThreadMXBean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(1)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Param({"100", "1000"})
+    private int limit;
+
+    private SessionFactory sessionFactory;
+    private UserDAO userDAO;
+    private long rows;
+
+    @Setup(Level.Trial)
+    public void setUpDatabase() {
+        sessionFactory = BenchmarkDatabase.createSessionFactory();
+        rows = BenchmarkDatabase.ensureUsers(sessionFactory);
+        userDAO = new UserDAOImpl(sessionFactory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<UserEntity> entityPage(Allocation allocation) {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        List<UserEntity> page = userDAO.findPage(randomAfterId(), limit);
+        allocation.record(THREADS.getCurrentThreadAllocatedBytes() - before, page.size());
+
+        return page;
+    }
+
+    @Benchmark
+    public List<UserSummary> summaryPage(Allocation allocation) {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        List<UserSummary> page = userDAO.findSummaryPage(randomAfterId(), limit);
+        allocation.record(THREADS.getCurrentThreadAllocatedBytes() - before, page.size());
+
+        return page;
+    }
+
+    private long randomAfterId() {
+        return ThreadLocalRandom.current().nextLong(Math.max(1, rows - limit));
+    }
+
+    /**
+     * Выделение памяти на строку за итерацию
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Allocation {
+
+        public long bytesPerRow;
+        private long allocatedBytes;
+        private long rowCount;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerRow = 0;
+            allocatedBytes = 0;
+            rowCount = 0;
+        }
+
+        void record(long bytes, int rowsRead) {
+            allocatedBytes += bytes;
+            rowCount += rowsRead;
+            bytesPerRow = rowCount == 0 ? 0 : allocatedBytes / rowCount;
+        }
+    }
+}
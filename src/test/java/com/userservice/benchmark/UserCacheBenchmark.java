@@ -0,0 +1,104 @@
+package com.userservice.benchmark;
+
+import com.userservice.cache.OffHeapUserCache;
+import com.userservice.entity.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш findById вне кучи против HashMap&lt;Long, UserEntity&gt;: пропускная способность чтения
+ * и занятая память (печатается при подготовке; для аллокаций на чтение - {@code -prof gc}).
+ * Не требует базы данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+@Threads(4)
+public class UserCacheBenchmark {
+
+    private static final int SLOT_SIZE = 96;
+
+    @Param({"offheap", "hashmap"})
+    private String implementation;
+
+    @Param({"1000000", "10000000"})
+    private int entries;
+
+    private OffHeapUserCache offHeapCache;
+    private Map<Long, UserEntity> heapCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long heapBefore = usedHeapAfterGc();
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        if ("offheap".equals(implementation)) {
+            offHeapCache = new OffHeapUserCache(entries, SLOT_SIZE);
+            for (long id = 1; id <= entries; id++) {
+                offHeapCache.put(user(id, createdAt));
+            }
+        } else {
+            heapCache = new HashMap<>(entries * 2);
+            for (long id = 1; id <= entries; id++) {
+                heapCache.put(id, user(id, createdAt));
+            }
+        }
+
+        long heapBytes = usedHeapAfterGc() - heapBefore;
+        long offHeapBytes = offHeapCache != null ? offHeapCache.getOffHeapBytes() : 0;
+        System.out.printf("%n%s, %d entries: heap %d MB (%d B/entry), off-heap %d MB (%d B/entry)%n",
+                implementation, entries, heapBytes >> 20, heapBytes / entries,
+                offHeapBytes >> 20, offHeapBytes / entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offHeapCache = null;
+        heapCache = null;
+    }
+
+    @Benchmark
+    public Optional<UserEntity> get() {
+        long id = 1 + ThreadLocalRandom.current().nextInt(entries);
+
+        return offHeapCache != null ? offHeapCache.get(id) : Optional.ofNullable(heapCache.get(id));
+    }
+
+    private static UserEntity user(long id, LocalDateTime createdAt) {
+        UserEntity userEntity = new UserEntity("User Name " + id, "user" + id + "@example.com", 18 + (int) (id % 60));
+        userEntity.setId(id);
+        userEntity.setCreatedAt(createdAt.minusSeconds(id));
+        return userEntity;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
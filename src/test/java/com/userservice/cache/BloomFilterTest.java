@@ -0,0 +1,65 @@
+package com.userservice.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Юнит-тесты для BloomFilter
+ */
+@DisplayName("BloomFilter Unit Tests")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Should never report an added value as absent")
+    void testMightContain_AddedValues_ShouldBeTrue() {
+        // Given
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        // Then
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+        assertThat(filter.getInsertions()).isEqualTo(100_000);
+    }
+
+    @Test
+    @DisplayName("Should keep false positive rate close to target")
+    void testFalsePositiveRate_ShouldMatchTarget() {
+        // Given
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("absent" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(filter.getExpectedFalsePositiveRate()).isBetween(0.005, 0.015);
+        assertThat(filter.getHashCount()).isEqualTo(7);
+        assertThat(filter.getMemoryBytes()).isBetween(110_000L, 130_000L);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid false positive rate")
+    void testCreate_InvalidRate_ShouldThrow() {
+        assertThatThrownBy(() -> BloomFilter.create(10, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.create(10, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
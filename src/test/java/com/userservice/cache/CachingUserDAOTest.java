@@ -0,0 +1,157 @@
+package com.userservice.cache;
+
+import com.userservice.dao.RoutingUserDAO;
+import com.userservice.dao.UserDAO;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для CachingUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingUserDAO Unit Tests")
+class CachingUserDAOTest {
+
+    @Mock
+    private UserDAO delegate;
+
+    private OffHeapUserCache cache;
+
+    private CachingUserDAO cachingDAO;
+
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OffHeapUserCache(16, 128);
+        cachingDAO = new CachingUserDAO(delegate, cache);
+        testUser = new UserEntity("Test", "test@example.com", 30);
+        testUser.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Should load user once and then serve it from cache")
+    void testFindById_ShouldCacheHit() {
+        // Given
+        when(delegate.findByIdOnPrimary(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<UserEntity> first = cachingDAO.findById(1L);
+        Optional<UserEntity> second = cachingDAO.findById(1L);
+
+        // Then
+        assertThat(first).contains(testUser);
+        assertThat(second).contains(testUser);
+        verify(delegate, times(1)).findByIdOnPrimary(1L);
+    }
+
+    @Test
+    @DisplayName("Should refresh cache on update and drop it on delete")
+    void testWrites_ShouldKeepCacheConsistent() {
+        // Given
+        cache.put(testUser);
+        UserEntity updated = new UserEntity("Updated", "test@example.com", 31);
+        updated.setId(1L);
+        when(delegate.update(any(UserEntity.class))).thenReturn(updated);
+        when(delegate.delete(1L)).thenReturn(true);
+
+        // When
+        cachingDAO.update(updated);
+        Optional<UserEntity> afterUpdate = cache.get(1L);
+        cachingDAO.delete(1L);
+
+        // Then
+        assertThat(afterUpdate).get().extracting(UserEntity::getName).isEqualTo("Updated");
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not cache a row invalidated while it was being read")
+    void testFindById_InvalidatedDuringRead_ShouldNotCacheStaleRow() {
+        // Given: уведомление об изменении приходит, пока запрос читает старую строку
+        when(delegate.findByIdOnPrimary(1L)).thenAnswer(invocation -> {
+            cache.invalidate(1L);
+            return Optional.of(testUser);
+        });
+
+        // When
+        Optional<UserEntity> found = cachingDAO.findById(1L);
+
+        // Then
+        assertThat(found).contains(testUser);
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.getStalePuts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should load a miss after an invalidation from the primary, not a lagging replica")
+    void testFindById_WithReplica_ShouldLoadMissFromPrimary() {
+        // Given: уведомление об изменении уже пришло, реплика еще отдает старую строку
+        UserDAO primary = mock(UserDAO.class);
+        UserDAO replica = mock(UserDAO.class);
+        UserEntity updated = new UserEntity("Updated", "test@example.com", 31);
+        updated.setId(1L);
+        when(primary.findById(1L)).thenReturn(Optional.of(updated));
+        CachingUserDAO replicatedDAO = new CachingUserDAO(new RoutingUserDAO(primary, replica), cache);
+        cache.put(testUser);
+        cache.invalidate(1L);
+
+        // When
+        Optional<UserEntity> found = replicatedDAO.findById(1L);
+
+        // Then
+        assertThat(found).contains(updated);
+        assertThat(cache.get(1L)).contains(updated);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached user when update fails")
+    void testUpdate_Failure_ShouldInvalidate() {
+        // Given
+        cache.put(testUser);
+        when(delegate.update(any(UserEntity.class))).thenThrow(new IllegalStateException("conflict"));
+
+        // When / Then
+        assertThatThrownBy(() -> cachingDAO.update(testUser)).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should invalidate deleted ids and drop cache on purge by date")
+    void testBulkDeletes_ShouldKeepCacheConsistent() {
+        // Given
+        UserEntity other = new UserEntity("Other", "other@example.com", 40);
+        other.setId(2L);
+        cache.put(testUser);
+        cache.put(other);
+        when(delegate.deleteByIds(List.of(1L))).thenReturn(1);
+
+        // When
+        cachingDAO.deleteByIds(List.of(1L));
+        Optional<UserEntity> otherAfterDelete = cache.get(2L);
+        cachingDAO.deleteCreatedBefore(LocalDateTime.now());
+
+        // Then
+        assertThat(otherAfterDelete).isPresent();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,148 @@
+package com.userservice.cache;
+
+import com.userservice.dao.UserDAO;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для EmailFilterUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailFilterUserDAO Unit Tests")
+class EmailFilterUserDAOTest {
+
+    @Mock
+    private UserDAO delegate;
+
+    private final List<String> emails = new ArrayList<>(List.of("ivan@example.com", "anna@example.com"));
+
+    private EmailFilterUserDAO filterDAO;
+
+    @BeforeEach
+    void setUp() {
+        filterDAO = new EmailFilterUserDAO(delegate, this::streamEmails, 0.01);
+    }
+
+    @Test
+    @DisplayName("Should pass every check to database before the filter is built")
+    void testExistsByEmail_NotBuilt_ShouldQueryDatabase() {
+        // Given
+        when(delegate.existsByEmail("new@example.com")).thenReturn(false);
+
+        // When
+        boolean exists = filterDAO.existsByEmail("new@example.com");
+
+        // Then
+        assertThat(exists).isFalse();
+        verify(delegate).existsByEmail("new@example.com");
+    }
+
+    @Test
+    @DisplayName("Should answer definite negatives without database")
+    void testExistsByEmail_DefiniteNegative_ShouldSkipDatabase() {
+        // Given
+        filterDAO.rebuild();
+
+        // When
+        boolean exists = filterDAO.existsByEmail("new@example.com");
+
+        // Then
+        assertThat(exists).isFalse();
+        assertThat(filterDAO.getSkippedQueries()).isEqualTo(1);
+        assertThat(filterDAO.getMemoryBytes()).isPositive();
+        verify(delegate, never()).existsByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should pass possible positives to database")
+    void testExistsByEmail_PossiblePositive_ShouldQueryDatabase() {
+        // Given
+        filterDAO.rebuild();
+        when(delegate.existsByEmail("ivan@example.com")).thenReturn(true);
+
+        // When
+        boolean exists = filterDAO.existsByEmail("ivan@example.com");
+
+        // Then
+        assertThat(exists).isTrue();
+        assertThat(filterDAO.getPassedQueries()).isEqualTo(1);
+        assertThat(filterDAO.getObservedFalsePositiveRate()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should add emails on create and update")
+    void testWrites_ShouldUpdateFilter() {
+        // Given
+        filterDAO.rebuild();
+        UserEntity created = new UserEntity("New", "new@example.com", 20);
+        created.setId(3L);
+        UserEntity changed = new UserEntity("Ivan", "ivan.new@example.com", 30);
+        changed.setId(1L);
+        when(delegate.create(any(UserEntity.class))).thenReturn(created);
+        when(delegate.update(any(UserEntity.class))).thenReturn(changed);
+        when(delegate.existsByEmail(any())).thenReturn(true);
+
+        // When
+        filterDAO.create(created);
+        filterDAO.update(changed);
+
+        // Then
+        assertThat(filterDAO.existsByEmail("new@example.com")).isTrue();
+        assertThat(filterDAO.existsByEmail("ivan.new@example.com")).isTrue();
+        verify(delegate).existsByEmail("new@example.com");
+        verify(delegate).existsByEmail("ivan.new@example.com");
+    }
+
+    @Test
+    @DisplayName("Should shed deleted emails on rebuild")
+    void testRebuild_ShouldDropDeletedEmails() {
+        // Given
+        filterDAO.rebuild();
+        emails.remove("anna@example.com");
+
+        // When
+        filterDAO.rebuild();
+        boolean exists = filterDAO.existsByEmail("anna@example.com");
+
+        // Then
+        assertThat(exists).isFalse();
+        verify(delegate, never()).existsByEmail("anna@example.com");
+    }
+
+    @Test
+    @DisplayName("Should pass checks to database while resyncing and then see other writers' emails")
+    void testResync_ShouldDropFilterAndRebuild() {
+        // Given: email другого узла, уведомление о котором потеряно при разрыве слушателя
+        filterDAO.rebuild();
+        emails.add("other.node@example.com");
+        when(delegate.existsByEmail("other.node@example.com")).thenReturn(true);
+
+        // When
+        filterDAO.resync();
+        boolean exists = filterDAO.existsByEmail("other.node@example.com");
+
+        // Then
+        assertThat(exists).isTrue();
+        verify(delegate).existsByEmail("other.node@example.com");
+    }
+
+    private long streamEmails(Consumer<String> consumer) {
+        emails.forEach(consumer);
+        return emails.size();
+    }
+}
@@ -0,0 +1,133 @@
+package com.userservice.cache;
+
+import com.userservice.dao.UserDAO;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для ListingCacheUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ListingCacheUserDAO Unit Tests")
+class ListingCacheUserDAOTest {
+
+    @Mock
+    private UserDAO delegate;
+
+    private ListingCacheUserDAO listingDAO;
+
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        listingDAO = new ListingCacheUserDAO(delegate, 2);
+        testUser = new UserEntity("Test", "test@example.com", 30);
+        testUser.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated findAll of the same version without querying")
+    void testFindAll_SameVersion_ShouldHitCache() {
+        // Given
+        when(delegate.findAll()).thenReturn(new ArrayList<>(List.of(testUser)));
+
+        // When
+        List<UserEntity> first = listingDAO.findAll();
+        List<UserEntity> second = listingDAO.findAll();
+
+        // Then
+        assertThat(second).isSameAs(first).containsExactly(testUser);
+        assertThatThrownBy(() -> first.add(testUser)).isInstanceOf(UnsupportedOperationException.class);
+        verify(delegate, times(1)).findAll();
+        assertThat(listingDAO.getHits()).isEqualTo(1);
+        assertThat(listingDAO.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload lists after a write, even a failed one")
+    void testWrite_ShouldBumpVersion() {
+        // Given
+        when(delegate.findAll()).thenReturn(List.of(testUser));
+        when(delegate.create(any())).thenReturn(testUser);
+        when(delegate.delete(1L)).thenThrow(new IllegalStateException("connection lost"));
+        listingDAO.findAll();
+
+        // When
+        listingDAO.create(new UserEntity("New", "new@example.com", 20));
+        listingDAO.findAll();
+        assertThatThrownBy(() -> listingDAO.delete(1L)).isInstanceOf(IllegalStateException.class);
+        listingDAO.findAll();
+
+        // Then
+        verify(delegate, times(3)).findAll();
+        assertThat(listingDAO.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reload lists after external invalidation")
+    void testInvalidate_ShouldReload() {
+        // Given
+        List<UserSummary> summaries = List.of(new UserSummary(1L, "Test", "test@example.com"));
+        when(delegate.findSummaryPage(null, 10)).thenReturn(summaries);
+        listingDAO.findSummaryPage(null, 10);
+
+        // When
+        listingDAO.invalidate();
+        listingDAO.findSummaryPage(null, 10);
+        listingDAO.findSummaryPage(null, 10);
+
+        // Then
+        verify(delegate, times(2)).findSummaryPage(null, 10);
+    }
+
+    @Test
+    @DisplayName("Should key pages by their parameters and bound the number of lists")
+    void testFindPage_ShouldKeyByParameters() {
+        // Given
+        when(delegate.findPage(any(), anyInt())).thenReturn(List.of(testUser));
+
+        // When
+        listingDAO.findPage(null, 10);
+        listingDAO.findPage(1L, 10);
+        listingDAO.findPage(null, 10);
+        listingDAO.findPage(null, 20);
+        listingDAO.findPage(1L, 10);
+
+        // Then
+        verify(delegate, times(1)).findPage(null, 10);
+        verify(delegate, times(2)).findPage(1L, 10);
+        verify(delegate, times(1)).findPage(null, 20);
+    }
+
+    @Test
+    @DisplayName("Should not cache empty results")
+    void testFindAll_Empty_ShouldNotCache() {
+        // Given
+        when(delegate.findAll()).thenReturn(Collections.emptyList());
+
+        // When
+        listingDAO.findAll();
+        listingDAO.findAll();
+
+        // Then
+        verify(delegate, times(2)).findAll();
+    }
+}
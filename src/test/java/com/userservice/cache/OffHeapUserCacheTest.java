@@ -0,0 +1,210 @@
+package com.userservice.cache;
+
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.LongUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Юнит-тесты для OffHeapUserCache
+ */
+@DisplayName("OffHeapUserCache Unit Tests")
+class OffHeapUserCacheTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_000);
+
+    @Test
+    @DisplayName("Should return a copy of the cached user")
+    void testGet_ShouldCopyOut() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(16, 128);
+        UserEntity user = user(1L, "Иван", "ivan@example.com");
+        cache.put(user);
+
+        // When
+        Optional<UserEntity> first = cache.get(1L);
+        Optional<UserEntity> second = cache.get(1L);
+
+        // Then
+        assertThat(first).isPresent();
+        assertThat(first.get()).isNotSameAs(second.get()).isNotSameAs(user);
+        assertThat(first.get().getName()).isEqualTo("Иван");
+        assertThat(first.get().getEmail()).isEqualTo("ivan@example.com");
+        assertThat(first.get().getAge()).isEqualTo(30);
+        assertThat(first.get().getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(cache.get(2L)).isEmpty();
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should replace cached user and keep nullable fields")
+    void testPut_Existing_ShouldReplace() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(16, 128);
+        cache.put(user(1L, "Old", "old@example.com"));
+        UserEntity updated = new UserEntity("New", "new@example.com", null);
+        updated.setId(1L);
+
+        // When
+        cache.put(updated);
+
+        // Then
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(1L)).get().satisfies(user -> {
+            assertThat(user.getEmail()).isEqualTo("new@example.com");
+            assertThat(user.getAge()).isNull();
+            assertThat(user.getCreatedAt()).isNull();
+        });
+    }
+
+    @Test
+    @DisplayName("Should evict unreferenced users first when full")
+    void testPut_Full_ShouldEvictByClock() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(3, 128);
+        cache.put(user(1L, "One", "one@example.com"));
+        cache.put(user(2L, "Two", "two@example.com"));
+        cache.put(user(3L, "Three", "three@example.com"));
+        cache.get(1L);
+
+        // When
+        cache.put(user(4L, "Four", "four@example.com"));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.get(1L)).isPresent();
+        assertThat(cache.get(2L)).isEmpty();
+        assertThat(cache.get(4L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should not evict pinned users while unpinned ones remain")
+    void testPut_Full_ShouldSkipPinned() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(3, 128);
+        cache.setPinned(id -> id == 1L || id == 2L);
+        cache.put(user(1L, "One", "one@example.com"));
+        cache.put(user(2L, "Two", "two@example.com"));
+        cache.put(user(3L, "Three", "three@example.com"));
+
+        // When
+        cache.put(user(4L, "Four", "four@example.com"));
+        cache.put(user(5L, "Five", "five@example.com"));
+
+        // Then
+        assertThat(cache.get(1L)).isPresent();
+        assertThat(cache.get(2L)).isPresent();
+        assertThat(cache.get(3L)).isEmpty();
+        assertThat(cache.get(4L)).isEmpty();
+        assertThat(cache.get(5L)).isPresent();
+        assertThat(cache.getPinnedSkips()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should evict a pinned user when every slot is pinned")
+    void testPut_AllPinned_ShouldStillEvict() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(2, 128);
+        cache.setPinned(id -> true);
+        cache.put(user(1L, "One", "one@example.com"));
+        cache.put(user(2L, "Two", "two@example.com"));
+
+        // When
+        cache.put(user(3L, "Three", "three@example.com"));
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.get(3L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should skip users that do not fit into a slot")
+    void testPut_Oversized_ShouldReject() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(4, 40);
+        cache.put(user(1L, "A", "a@b.c"));
+
+        // When
+        cache.put(user(1L, "Very long name", "very.long.email@example.com"));
+
+        // Then
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.getRejections()).isEqualTo(1);
+        assertThatThrownBy(() -> cache.put(user(0L, "Zero", "zero@example.com")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should not store a value read before a write or invalidation of its key")
+    void testPutIfUnchanged_AfterConcurrentChange_ShouldSkip() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(16, 128);
+        long beforeInvalidate = cache.generation(1L);
+        cache.invalidate(1L);
+        long beforePut = cache.generation(2L);
+        cache.put(user(2L, "New", "new@example.com"));
+        LongUnaryOperator snapshot = cache.generationSnapshot();
+        cache.clear();
+
+        // When
+        boolean afterInvalidate = cache.putIfUnchanged(user(1L, "Stale", "stale@example.com"), beforeInvalidate);
+        boolean afterPut = cache.putIfUnchanged(user(2L, "Stale", "stale@example.com"), beforePut);
+        boolean afterClear = cache.putIfUnchanged(user(3L, "Stale", "stale@example.com"), snapshot.applyAsLong(3L));
+        boolean unchanged = cache.putIfUnchanged(user(4L, "Fresh", "fresh@example.com"), cache.generation(4L));
+
+        // Then
+        assertThat(afterInvalidate).isFalse();
+        assertThat(afterPut).isFalse();
+        assertThat(afterClear).isFalse();
+        assertThat(unchanged).isTrue();
+        assertThat(cache.get(4L)).isPresent();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getStalePuts()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should match a HashMap model under random puts, gets and invalidations")
+    void testRandomOperations_ShouldMatchModel() {
+        // Given
+        OffHeapUserCache cache = new OffHeapUserCache(20_000, 96);
+        Map<Long, String> model = new HashMap<>();
+        Random random = new Random(42);
+
+        // When / Then
+        for (int i = 0; i < 100_000; i++) {
+            long id = 1 + random.nextInt(10_000);
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                String email = "user" + id + "." + i + "@example.com";
+                cache.put(user(id, "User", email));
+                model.put(id, email);
+            } else if (operation == 1) {
+                cache.invalidate(id);
+                model.remove(id);
+            } else {
+                assertThat(cache.get(id).map(UserEntity::getEmail)).isEqualTo(Optional.ofNullable(model.get(id)));
+            }
+        }
+        assertThat(cache.size()).isEqualTo(model.size());
+        assertThat(cache.getEvictions()).isZero();
+    }
+
+    private static UserEntity user(long id, String name, String email) {
+        UserEntity userEntity = new UserEntity(name, email, 30);
+        userEntity.setId(id);
+        userEntity.setCreatedAt(CREATED_AT);
+        return userEntity;
+    }
+}
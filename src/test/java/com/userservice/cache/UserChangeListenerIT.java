@@ -0,0 +1,145 @@
+package com.userservice.cache;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционные тесты инвалидации кэша через LISTEN/NOTIFY
+ */
+@DisplayName("UserChangeListener Integration Tests")
+class UserChangeListenerIT extends BaseIntegrationTest {
+
+    private UserDAO userDAO;
+    private OffHeapUserCache cache;
+    private UserChangeListener listener;
+
+    @BeforeEach
+    void setUpListener() {
+        migrateSchema();
+        userDAO = new UserDAOImpl(getSessionFactory());
+        cache = new OffHeapUserCache(1024, 128);
+        listener = new UserChangeListener(getSessionFactory(), cache, id -> id, "it");
+    }
+
+    @AfterEach
+    void closeListener() {
+        listener.close();
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached user updated by another writer")
+    void testUpdate_ShouldInvalidateCache() throws InterruptedException {
+        // Given
+        UserEntity user = userDAO.create(new UserEntity("Ivan", "ivan@example.com", 30));
+        listener.start();
+        awaitSubscription(user);
+
+        // When
+        user.setName("Ivan Updated");
+        userDAO.update(user);
+
+        // Then
+        assertThat(await(() -> cache.get(user.getId()).isEmpty())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached user deleted by another writer")
+    void testDelete_ShouldInvalidateCache() throws InterruptedException {
+        // Given
+        UserEntity user = userDAO.create(new UserEntity("Anna", "anna@example.com", 25));
+        listener.start();
+        awaitSubscription(user);
+
+        // When
+        userDAO.delete(user.getId());
+
+        // Then
+        assertThat(await(() -> cache.get(user.getId()).isEmpty())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should bump listing cache version when another writer inserts a user")
+    void testInsert_ShouldBumpListingVersion() throws InterruptedException {
+        // Given
+        ListingCacheUserDAO listingDAO = new ListingCacheUserDAO(userDAO, 4);
+        UserChangeListener versionListener = new UserChangeListener(getSessionFactory(),
+                UserChangeListener.VERSION_CHANNEL, versions -> listingDAO.invalidate(), listingDAO::invalidate,
+                version -> version, "it-version");
+        try {
+            userDAO.create(new UserEntity("Ivan", "ivan@example.com", 30));
+            versionListener.start();
+            assertThat(await(() -> listingDAO.getVersion() == 1)).isTrue();
+            assertThat(listingDAO.findAll()).hasSize(1);
+
+            // When
+            userDAO.create(new UserEntity("Anna", "anna@example.com", 25));
+
+            // Then
+            assertThat(await(() -> listingDAO.getVersion() > 1)).isTrue();
+            assertThat(listingDAO.findAll()).hasSize(2);
+        } finally {
+            versionListener.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should add emails inserted or changed by another writer to the email filter")
+    void testInsert_ShouldReachEmailFilter() throws InterruptedException {
+        // Given
+        EmailFilterUserDAO filterDAO = new EmailFilterUserDAO(userDAO, consumer -> {
+            userDAO.findAll().forEach(user -> consumer.accept(user.getEmail()));
+            return userDAO.findAll().size();
+        }, 0.001);
+        UserChangeListener emailListener = new UserChangeListener(getSessionFactory(),
+                UserChangeListener.EMAIL_CHANNEL, emails -> Arrays.stream(emails).forEach(filterDAO::remember),
+                filterDAO::resync, "it-email");
+        try {
+            emailListener.start();
+            assertThat(await(() -> filterDAO.getMemoryBytes() > 0)).isTrue();
+
+            // When: запись в обход filterDAO, как с другого узла
+            userDAO.create(new UserEntity("Ivan", "ivan@example.com", 30));
+            UserEntity anna = userDAO.create(new UserEntity("Anna", "anna@example.com", 25));
+            anna.setEmail("anna.new@example.com");
+            userDAO.update(anna);
+
+            // Then
+            assertThat(await(() -> filterDAO.existsByEmail("ivan@example.com"))).isTrue();
+            assertThat(await(() -> filterDAO.existsByEmail("anna.new@example.com"))).isTrue();
+        } finally {
+            emailListener.close();
+        }
+    }
+
+    /**
+     * Ожидание подписки: после LISTEN слушатель очищает кэш, затем запись кладется заново
+     */
+    private void awaitSubscription(UserEntity user) throws InterruptedException {
+        cache.put(user);
+        assertThat(await(() -> cache.size() == 0)).isTrue();
+        cache.put(user);
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,124 @@
+package com.userservice.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для UserChangeListener
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserChangeListener Unit Tests")
+class UserChangeListenerTest {
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private Statement statement;
+
+    private final List<long[]> batches = new ArrayList<>();
+    private final AtomicInteger drops = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.createStatement()).thenReturn(statement);
+    }
+
+    @Test
+    @DisplayName("Should drop cache after LISTEN and invalidate notified ids in batches")
+    void testListen_ShouldInvalidateBatches() throws SQLException {
+        // Given
+        UserChangeListener listener = new UserChangeListener(() -> connection, batches::add,
+                drops::incrementAndGet, id -> id * 10, "test");
+        PGNotification[] first = {
+                notification("1,ivan@example.com"), notification("2,anna@example.com"),
+                notification("1,ivan@example.com"), notification("garbage")};
+        PGNotification[] second = {notification("3,petr@example.com")};
+        when(pgConnection.getNotifications(anyInt()))
+                .thenReturn(first)
+                .thenReturn(new PGNotification[0])
+                .thenReturn(second)
+                .thenThrow(new SQLException("connection lost", "08006"));
+
+        // When / Then
+        assertThatThrownBy(listener::listen).isInstanceOf(SQLException.class);
+        assertThat(drops.get()).isEqualTo(1);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).containsExactly(10L, 20L);
+        assertThat(batches.get(1)).containsExactly(30L);
+        var order = inOrder(statement, pgConnection);
+        order.verify(statement).execute("LISTEN " + UserChangeListener.CHANNEL);
+        order.verify(pgConnection, times(4)).getNotifications(anyInt());
+    }
+
+    @Test
+    @DisplayName("Should drop cache again on every reconnect")
+    void testListen_Reconnect_ShouldDropCacheEachTime() throws SQLException {
+        // Given
+        UserChangeListener listener = new UserChangeListener(() -> connection, batches::add,
+                drops::incrementAndGet, id -> id, "test");
+        when(pgConnection.getNotifications(anyInt())).thenThrow(new SQLException("connection lost", "08006"));
+
+        // When
+        assertThatThrownBy(listener::listen).isInstanceOf(SQLException.class);
+        assertThatThrownBy(listener::listen).isInstanceOf(SQLException.class);
+
+        // Then
+        assertThat(drops.get()).isEqualTo(2);
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should pass raw payloads of a custom channel")
+    void testListen_PayloadChannel_ShouldPassPayloads() throws SQLException {
+        // Given
+        List<String[]> payloads = new ArrayList<>();
+        UserChangeListener listener = new UserChangeListener(() -> connection, UserChangeListener.EMAIL_CHANNEL,
+                payloads::add, drops::incrementAndGet, "test");
+        PGNotification[] emails = {notification("ivan@example.com"), notification("anna@example.com")};
+        when(pgConnection.getNotifications(anyInt()))
+                .thenReturn(emails)
+                .thenThrow(new SQLException("connection lost", "08006"));
+
+        // When
+        assertThatThrownBy(listener::listen).isInstanceOf(SQLException.class);
+
+        // Then
+        assertThat(drops.get()).isEqualTo(1);
+        assertThat(payloads).hasSize(1);
+        assertThat(payloads.get(0)).containsExactly("ivan@example.com", "anna@example.com");
+        verify(statement).execute("LISTEN " + UserChangeListener.EMAIL_CHANNEL);
+    }
+
+    private static PGNotification notification(String payload) {
+        PGNotification notification = mock(PGNotification.class);
+        when(notification.getParameter()).thenReturn(payload);
+        return notification;
+    }
+}
@@ -0,0 +1,138 @@
+package com.userservice.console;
+
+import com.userservice.entity.UserEntity;
+import com.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit тесты для BatchCommandRunner
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BatchCommandRunner Unit Tests")
+class BatchCommandRunnerTest {
+
+    @Mock
+    private UserService userService;
+
+    private BatchCommandRunner runner;
+    private StringWriter output;
+
+    @BeforeEach
+    void setUp() {
+        runner = new BatchCommandRunner(userService, 500);
+        output = new StringWriter();
+    }
+
+    @Test
+    @DisplayName("Should create consecutive users in one batch before reading")
+    void testRun_ConsecutiveCreates_ShouldBatch() throws IOException {
+        // Given
+        when(userService.createUsers(anyList())).thenAnswer(invocation -> {
+            List<UserEntity> users = invocation.getArgument(0);
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i).setId(i + 1L);
+            }
+            return users;
+        });
+        when(userService.getUserById(2L)).thenReturn(Optional.empty());
+
+        // When
+        BatchCommandRunner.Summary summary = run("""
+                # импорт
+                create;Ivan;ivan@example.com;30
+                create; Anna ; anna@example.com ;
+
+                get;2
+                """);
+
+        // Then
+        verify(userService, times(1)).createUsers(anyList());
+        assertThat(lines()).containsExactly(
+                "2 OK created 1",
+                "3 OK created 2",
+                "5 NOT_FOUND 2");
+        assertThat(summary.commands()).isEqualTo(3);
+        assertThat(summary.failed()).isZero();
+        assertThat(output.toString()).contains("Processed 3 commands: 3 ok, 0 failed");
+    }
+
+    @Test
+    @DisplayName("Should retry rejected create batch one by one and report only failing lines")
+    void testRun_RejectedBatch_ShouldFallBackToSingleCreates() throws IOException {
+        // Given
+        when(userService.createUsers(anyList())).thenThrow(new IllegalArgumentException("Email already exists"));
+        UserEntity created = new UserEntity("Ivan", "ivan@example.com", 30);
+        created.setId(7L);
+        when(userService.createUser("Ivan", "ivan@example.com", 30)).thenReturn(created);
+        when(userService.createUser("Anna", "taken@example.com", null))
+                .thenThrow(new IllegalArgumentException("User with email taken@example.com already exists"));
+
+        // When
+        BatchCommandRunner.Summary summary = run("""
+                create;Ivan;ivan@example.com;30
+                create;Anna;taken@example.com;
+                """);
+
+        // Then
+        assertThat(lines()).containsExactly(
+                "1 OK created 7",
+                "2 ERROR User with email taken@example.com already exists");
+        assertThat(summary.succeeded()).isEqualTo(1);
+        assertThat(summary.failed()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should group consecutive deletes and report malformed lines")
+    void testRun_DeletesAndMalformedLines() throws IOException {
+        // Given
+        when(userService.deleteUsers(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        // When
+        BatchCommandRunner.Summary summary = run("""
+                delete;1
+                delete;2
+                delete;3
+                delete;abc
+                rename;1
+                """);
+
+        // Then
+        assertThat(lines()).containsExactly(
+                "1-3 OK deleted 2 of 3",
+                "4 ERROR Invalid user ID: abc",
+                "5 ERROR Unknown command: rename");
+        assertThat(summary.commands()).isEqualTo(5);
+        assertThat(summary.failed()).isEqualTo(2);
+    }
+
+    private BatchCommandRunner.Summary run(String commands) throws IOException {
+        return runner.run(new BufferedReader(new StringReader(commands)), output);
+    }
+
+    /**
+     * Строки результатов без итоговой сводки
+     */
+    private List<String> lines() {
+        List<String> lines = output.toString().lines().toList();
+
+        return lines.subList(0, lines.size() - 1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.userservice.dao;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционные тесты для HotUserLoader
+ */
+@DisplayName("HotUserLoader Integration Tests")
+class HotUserLoaderIT extends BaseIntegrationTest {
+
+    private UserDAO userDAO;
+
+    @BeforeEach
+    void setUpDAO() {
+        userDAO = new UserDAOImpl(getSessionFactory());
+    }
+
+    @Test
+    @DisplayName("Should load users by ids and emails in parallel chunks")
+    void testLoad_ShouldFindUsersByIdsAndEmails() {
+        // Given
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            users.add(new UserEntity("Hot " + i, "hot" + i + "@example.com", i % 2 == 0 ? 20 + i : null));
+        }
+        List<UserEntity> created = userDAO.createAll(users);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(created.get(i).getId());
+        }
+        ids.add(Long.MAX_VALUE);
+        List<String> emails = List.of("hot20@example.com", "hot21@example.com", "missing@example.com");
+        Map<Long, UserEntity> loaded = new ConcurrentHashMap<>();
+
+        // When
+        HotUserLoader.Result result = new HotUserLoader(List.of(getSessionFactory()), false)
+                .load(ids, emails, 4, 3, userEntity -> loaded.put(userEntity.getId(), userEntity));
+
+        // Then
+        assertThat(result.requested()).isEqualTo(24);
+        assertThat(result.loaded()).isEqualTo(22);
+        assertThat(result.failedChunks()).isZero();
+        assertThat(loaded).hasSize(22);
+        UserEntity expected = userDAO.findById(created.get(2).getId()).orElseThrow();
+        assertThat(loaded.get(expected.getId()))
+                .usingRecursiveComparison()
+                .isEqualTo(expected);
+        assertThat(loaded.get(created.get(21).getId()).getEmail()).isEqualTo("hot21@example.com");
+    }
+
+    @Test
+    @DisplayName("Should map global ids to shard-local ids and back")
+    void testLoad_Sharded_ShouldUseGlobalIds() {
+        // Given
+        UserEntity user = userDAO.create(new UserEntity("Shard", "shard@example.com", 30));
+        long globalId = ShardedUserDAO.globalId(user.getId(), 0);
+        List<UserEntity> loaded = new ArrayList<>();
+
+        // When
+        HotUserLoader.Result result = new HotUserLoader(List.of(getSessionFactory()), true)
+                .load(List.of(globalId), List.of(), 100, 1, loaded::add);
+
+        // Then
+        assertThat(result.loaded()).isEqualTo(1);
+        assertThat(loaded).singleElement().extracting(UserEntity::getId).isEqualTo(globalId);
+    }
+}
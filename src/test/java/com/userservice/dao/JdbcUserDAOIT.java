@@ -0,0 +1,57 @@
+package com.userservice.dao;
+
+import com.userservice.entity.UserEntity;
+import org.hibernate.StaleObjectStateException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Интеграционные тесты для JdbcUserDAO: контракт UserDAOImplIT и совместимость с UserDAOImpl
+ */
+@DisplayName("JdbcUserDAO Integration Tests")
+class JdbcUserDAOIT extends UserDAOImplIT {
+
+    @Override
+    protected UserDAO createUserDAO(QueryTimeouts timeouts) {
+        return new JdbcUserDAO(getSessionFactory(), timeouts);
+    }
+
+    @Test
+    @DisplayName("Should read rows written by Hibernate with the same values")
+    void testFindById_RowWrittenByHibernate_ShouldMatch() {
+        // Given
+        UserEntity user = new UserEntity("Hibernate User", "hibernate@example.com", null);
+        user.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000));
+        UserEntity created = new UserDAOImpl(getSessionFactory()).create(user);
+
+        // When
+        Optional<UserEntity> found = createUserDAO(QueryTimeouts.none()).findById(created.getId());
+
+        // Then
+        assertThat(found).isPresent();
+        assertThat(found.get().getName()).isEqualTo("Hibernate User");
+        assertThat(found.get().getAge()).isNull();
+        assertThat(found.get().getCreatedAt()).isEqualTo(user.getCreatedAt());
+        assertThat(found.get().getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should fail to update a user deleted in the meantime")
+    void testUpdate_DeletedUser_ShouldFail() {
+        // Given
+        UserDAO jdbcDAO = createUserDAO(QueryTimeouts.none());
+        UserEntity created = jdbcDAO.create(new UserEntity("Gone", "gone@example.com", 40));
+        jdbcDAO.delete(created.getId());
+
+        // When / Then
+        created.setName("Still Gone");
+        assertThatThrownBy(() -> jdbcDAO.update(created)).isInstanceOf(StaleObjectStateException.class);
+        assertThat(jdbcDAO.findById(created.getId())).isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package com.userservice.dao;
+
+import com.userservice.util.SchemaManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционные тесты для JdbcUserDAO на hash-секционированной таблице: контракт JdbcUserDAOIT
+ */
+@DisplayName("Partitioned JdbcUserDAO Integration Tests")
+class PartitionedJdbcUserDAOIT extends JdbcUserDAOIT {
+
+    @Override
+    protected UserDAO createUserDAO(QueryTimeouts timeouts) {
+        SchemaManager.partitionUsers(getSessionFactory(), 4);
+
+        return new JdbcUserDAO(getSessionFactory(), timeouts);
+    }
+
+    @Test
+    @DisplayName("Should look up emails through the index of each partition")
+    void testFindByEmail_ShouldUsePartitionIndexes() {
+        // Given
+        createUserDAO(QueryTimeouts.none());
+
+        // When: без индекса план остался бы Seq Scan даже с запретом последовательного чтения
+        String plan = getSessionFactory().fromTransaction(session -> {
+            session.createNativeMutationQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+
+            return String.join("\n", session.createNativeQuery(
+                            "EXPLAIN (COSTS OFF) SELECT * FROM users WHERE email = 'a@example.com'", String.class)
+                    .list());
+        });
+
+        // Then
+        assertThat(plan).doesNotContain("Seq Scan").contains("Index");
+    }
+}
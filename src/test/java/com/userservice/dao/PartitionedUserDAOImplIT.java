@@ -0,0 +1,93 @@
+package com.userservice.dao;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.SchemaManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Интеграционные тесты для UserDAOImpl на hash-секционированной таблице: контракт UserDAOImplIT,
+ * уникальность email через user_emails и параллельное чтение секций
+ */
+@DisplayName("Partitioned UserDAO Integration Tests")
+class PartitionedUserDAOImplIT extends UserDAOImplIT {
+
+    private static final int PARTITIONS = 4;
+
+    @Override
+    protected UserDAO createUserDAO(QueryTimeouts timeouts) {
+        SchemaManager.partitionUsers(getSessionFactory(), PARTITIONS);
+        List<String> partitions = SchemaManager.userPartitions(getSessionFactory());
+
+        return new UserDAOImpl(getSessionFactory(), timeouts, new PartitionScanner(getSessionFactory(), partitions, 2));
+    }
+
+    @Test
+    @DisplayName("Should reject a duplicate email stored in another partition")
+    void testCreate_DuplicateEmailAcrossPartitions_ShouldFail() {
+        // Given
+        UserDAO userDAO = createUserDAO(QueryTimeouts.none());
+        for (int i = 0; i < 20; i++) {
+            userDAO.create(new UserEntity("User " + i, "user" + i + "@example.com", 20 + i));
+        }
+
+        // When / Then: ID новой строки попадает в любую секцию, ограничение одно на всю таблицу
+        for (int i = 0; i < 20; i++) {
+            UserEntity duplicate = new UserEntity("Duplicate", "user" + i + "@example.com", 30);
+            assertThatThrownBy(() -> userDAO.create(duplicate)).isInstanceOf(RuntimeException.class);
+        }
+        assertThat(userDAO.findAll()).hasSize(20);
+    }
+
+    @Test
+    @DisplayName("Should keep the email lookup in sync on update and delete")
+    void testUpdateAndDelete_ShouldMaintainEmailLookup() {
+        // Given
+        UserDAO userDAO = createUserDAO(QueryTimeouts.none());
+        UserEntity user = userDAO.create(new UserEntity("Renamed", "old@example.com", 30));
+        UserEntity other = userDAO.create(new UserEntity("Deleted", "deleted@example.com", 40));
+
+        // When
+        user.setEmail("new@example.com");
+        userDAO.update(user);
+        userDAO.delete(other.getId());
+
+        // Then
+        assertThat(userDAO.findByEmail("old@example.com")).isEmpty();
+        assertThat(userDAO.existsByEmail("old@example.com")).isFalse();
+        assertThat(userDAO.findByEmail("new@example.com")).get().extracting(UserEntity::getId).isEqualTo(user.getId());
+        assertThat(userDAO.findSummaryByEmail("new@example.com"))
+                .contains(new UserSummary(user.getId(), "Renamed", "new@example.com"));
+        assertThat(userDAO.existsByEmail("deleted@example.com")).isFalse();
+        assertThat(userDAO.create(new UserEntity("Reused", "old@example.com", 50)).getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should read all partitions in parallel and return users ordered by id")
+    void testFindAll_ShouldMergePartitions() {
+        // Given
+        UserDAO userDAO = createUserDAO(QueryTimeouts.none());
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            users.add(new UserEntity("Scan " + i, "scan" + i + "@example.com", i));
+        }
+        userDAO.createAll(users);
+
+        // When
+        List<UserEntity> all = userDAO.findAll();
+        List<UserSummary> summaries = userDAO.findAllSummaries();
+
+        // Then
+        assertThat(SchemaManager.userPartitions(getSessionFactory())).hasSize(PARTITIONS);
+        assertThat(all).hasSize(100).isSortedAccordingTo((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertThat(all.get(0).getCreatedAt()).isNotNull();
+        assertThat(summaries).extracting(UserSummary::id).isSorted().hasSize(100);
+    }
+}
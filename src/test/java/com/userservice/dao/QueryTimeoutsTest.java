@@ -0,0 +1,94 @@
+package com.userservice.dao;
+
+import com.userservice.util.Deadline;
+import com.userservice.util.DeadlineExceededException;
+import org.hibernate.QueryTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit тесты для QueryTimeouts
+ */
+@DisplayName("QueryTimeouts Unit Tests")
+class QueryTimeoutsTest {
+
+    @Test
+    @DisplayName("Should prefer the operation timeout over the default one")
+    void testBegin_OperationTimeout_ShouldOverrideDefault() {
+        // Given
+        QueryTimeouts timeouts = QueryTimeouts.parse(Duration.ofSeconds(5), "findById:100, searchByName:0");
+
+        // Then
+        assertThat(timeouts.begin("findById")).isEqualTo(100);
+        assertThat(timeouts.begin("searchByName")).isZero();
+        assertThat(timeouts.begin("update")).isEqualTo(5_000);
+        assertThat(QueryTimeouts.none().begin("update")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cap the timeout by the remaining caller deadline")
+    void testBegin_WithDeadline_ShouldUseRemainingTime() {
+        // Given
+        QueryTimeouts timeouts = new QueryTimeouts(Duration.ofSeconds(5), Map.of());
+
+        // When
+        long timeout = Deadline.within(Duration.ofMillis(300), () -> timeouts.begin("findById"));
+        long nested = Deadline.within(Duration.ofSeconds(10),
+                () -> Deadline.within(Duration.ofMinutes(1), () -> timeouts.begin("findById")));
+
+        // Then
+        assertThat(timeout).isBetween(1L, 300L);
+        assertThat(nested).isEqualTo(5_000);
+        assertThat(Deadline.current()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should abandon work whose deadline has expired and count it")
+    void testBegin_ExpiredDeadline_ShouldThrow() {
+        // Given
+        QueryTimeouts timeouts = QueryTimeouts.none();
+
+        // When / Then
+        assertThatThrownBy(() -> Deadline.within(Duration.ZERO, () -> timeouts.begin("findByEmail")))
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasMessageContaining("findByEmail");
+        assertThat(timeouts.getAbandoned("findByEmail")).isEqualTo(1);
+        assertThat(timeouts.getTimeouts("findByEmail")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count only statement and lock timeouts")
+    void testOnError_TimeoutErrors_ShouldBeCounted() {
+        // Given
+        QueryTimeouts timeouts = QueryTimeouts.none();
+
+        // When
+        timeouts.onError("update", new QueryTimeoutException("canceled",
+                new SQLException("canceling statement due to statement timeout", "57014"), "update"));
+        timeouts.onError("update", new RuntimeException("wrapped",
+                new SQLException("canceling statement due to lock timeout", "55P03")));
+        timeouts.onError("update", new IllegalStateException("other"));
+
+        // Then
+        assertThat(timeouts.getTimeouts("update")).isEqualTo(2);
+        assertThat(timeouts.toString()).isEqualTo("update=2 timed out/0 abandoned");
+    }
+
+    @Test
+    @DisplayName("Should reject malformed operation timeouts")
+    void testParse_InvalidSpec_ShouldThrow() {
+        assertThatThrownBy(() -> QueryTimeouts.parse(Duration.ZERO, "findById"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> QueryTimeouts.parse(Duration.ZERO, "findById:fast"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> QueryTimeouts.parse(Duration.ZERO, "findById:-1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,218 @@
+package com.userservice.dao;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
+import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import org.hibernate.StaleObjectStateException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Интеграционные тесты для ReactiveUserDAOImpl
+ */
+@DisplayName("ReactiveUserDAO Integration Tests")
+class ReactiveUserDAOImplIT extends BaseIntegrationTest {
+
+    private static final int POOL_SIZE = 4;
+
+    private ConnectionPool connectionPool;
+    private ReactiveUserDAO reactiveDAO;
+
+    @BeforeEach
+    void setUpDAO() {
+        migrateSchema();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(new PostgresqlConnectionFactory(
+                        PostgresqlConnectionConfiguration.builder()
+                                .host(postgresContainer.getHost())
+                                .port(postgresContainer.getMappedPort(5432))
+                                .database(postgresContainer.getDatabaseName())
+                                .username(postgresContainer.getUsername())
+                                .password(postgresContainer.getPassword())
+                                .build()))
+                .maxSize(POOL_SIZE)
+                .build());
+        reactiveDAO = new ReactiveUserDAOImpl(connectionPool);
+    }
+
+    @AfterEach
+    void closePool() {
+        connectionPool.dispose();
+    }
+
+    @Test
+    @DisplayName("Should create user and find it by id and email")
+    void testCreate_ShouldBeFoundByIdAndEmail() {
+        // Given
+        UserEntity user = new UserEntity("Ivan Ivanov", "ivan@example.com", null);
+
+        // When
+        UserEntity created = reactiveDAO.create(user).block();
+
+        // Then
+        assertThat(created).isNotNull();
+        assertThat(created.getId()).isPositive();
+        UserEntity found = reactiveDAO.findById(created.getId()).block();
+        assertThat(found).isNotNull();
+        assertThat(found.getName()).isEqualTo("Ivan Ivanov");
+        assertThat(found.getAge()).isNull();
+        assertThat(found.getCreatedAt()).isEqualTo(created.getCreatedAt());
+        assertThat(reactiveDAO.findByEmail("ivan@example.com").map(UserEntity::getId).block())
+                .isEqualTo(created.getId());
+        assertThat(reactiveDAO.findById(999_999L).blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should read rows written by Hibernate with the same values")
+    void testFindById_RowWrittenByHibernate_ShouldMatch() {
+        // Given
+        UserEntity user = new UserEntity("Hibernate User", "hibernate@example.com", 33);
+        user.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000));
+        UserEntity created = new UserDAOImpl(getSessionFactory()).create(user);
+
+        // When
+        UserEntity found = reactiveDAO.findById(created.getId()).block();
+
+        // Then
+        assertThat(found).isNotNull();
+        assertThat(found.getCreatedAt()).isEqualTo(user.getCreatedAt());
+        assertThat(found.getUpdatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should create users batch atomically")
+    void testCreateAll_ShouldCreateInOneTransaction() {
+        // Given
+        List<UserEntity> users = List.of(
+                new UserEntity("Batch1", "batch1@example.com", 20),
+                new UserEntity("Batch2", "batch2@example.com", 25));
+
+        // When
+        List<UserEntity> created = reactiveDAO.createAll(users).collectList().block();
+
+        // Then
+        assertThat(created).extracting(UserEntity::getId).doesNotContainNull();
+        assertThatThrownBy(() -> reactiveDAO.createAll(List.of(
+                new UserEntity("Batch3", "batch3@example.com", 30),
+                new UserEntity("Duplicate", "batch1@example.com", 35))).blockLast())
+                .isInstanceOf(RuntimeException.class);
+        assertThat(reactiveDAO.existsByEmail("batch3@example.com").block()).isFalse();
+        assertThat(reactiveDAO.findAll().count().block()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should stream all users in id order following subscriber demand")
+    void testFindAll_ShouldStreamWithBackpressure() {
+        // Given
+        int total = ReactiveUserDAOImpl.FETCH_SIZE * 2 + 10;
+        reactiveDAO.createAll(IntStream.range(0, total)
+                .mapToObj(i -> new UserEntity("Stream " + i, "stream" + i + "@example.com", 20))
+                .toList()).blockLast();
+        List<Long> requests = new CopyOnWriteArrayList<>();
+
+        // When
+        List<UserEntity> firstRows = reactiveDAO.findAll()
+                .doOnRequest(requests::add)
+                .limitRate(10)
+                .take(25)
+                .collectList()
+                .block();
+
+        // Then
+        assertThat(firstRows).hasSize(25);
+        assertThat(firstRows).extracting(UserEntity::getId).isSorted();
+        assertThat(requests).allMatch(request -> request <= 10);
+        assertThat(reactiveDAO.findAll().count().block()).isEqualTo(total);
+        assertThat(reactiveDAO.findAllSummaries().map(UserSummary::email).distinct().count().block())
+                .isEqualTo(total);
+    }
+
+    @Test
+    @DisplayName("Should serve many concurrent lookups with a small connection pool")
+    void testFindById_ManyConcurrentLookups_ShouldComplete() {
+        // Given
+        UserEntity user = reactiveDAO.create(new UserEntity("Hot", "hot@example.com", 30)).block();
+
+        // When
+        Long found = Flux.range(0, 1_000)
+                .flatMap(i -> reactiveDAO.findById(user.getId()), 256)
+                .count()
+                .block();
+
+        // Then
+        assertThat(found).isEqualTo(1_000);
+    }
+
+    @Test
+    @DisplayName("Should return pages, summaries and name search results")
+    void testQueries_ShouldReturnPagesSummariesAndSearchResults() {
+        // Given
+        List<UserEntity> users = reactiveDAO.createAll(List.of(
+                new UserEntity("Ivanova Maria", "maria@example.com", 20),
+                new UserEntity("Ivan Petrov", "ivan@example.com", 25),
+                new UserEntity("Petr Ivanov", "petr@example.com", 30))).collectList().block();
+
+        // When
+        List<UserEntity> firstPage = reactiveDAO.findPage(null, 2).collectList().block();
+        List<UserSummary> secondPage = reactiveDAO.findSummaryPage(firstPage.get(1).getId(), 2).collectList().block();
+        List<UserSummary> prefix = reactiveDAO.searchByName("IVAN", NameSearchMode.PREFIX, 10).collectList().block();
+        List<UserSummary> fuzzy = reactiveDAO.searchByName("Ivanov Petr", NameSearchMode.FUZZY, 10)
+                .collectList().block();
+
+        // Then
+        assertThat(firstPage).extracting(UserEntity::getId)
+                .containsExactly(users.get(0).getId(), users.get(1).getId());
+        assertThat(secondPage).extracting(UserSummary::id).containsExactly(users.get(2).getId());
+        assertThat(prefix).extracting(UserSummary::name).containsExactly("Ivan Petrov", "Ivanova Maria");
+        assertThat(fuzzy).isNotEmpty();
+        assertThat(reactiveDAO.findSummaryByEmail("petr@example.com").block())
+                .isEqualTo(new UserSummary(users.get(2).getId(), "Petr Ivanov", "petr@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should update and delete users")
+    void testUpdateAndDelete_ShouldChangeRows() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<UserEntity> old = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserEntity user = new UserEntity("Old " + i, "old" + i + "@example.com", 50);
+            user.setCreatedAt(cutoff.minusDays(i + 1));
+            old.add(user);
+        }
+        reactiveDAO.createAll(old).blockLast();
+        UserEntity fresh = reactiveDAO.create(new UserEntity("Fresh", "fresh@example.com", 20)).block();
+        UserEntity other = reactiveDAO.create(new UserEntity("Other", "other@example.com", 40)).block();
+
+        // When
+        fresh.setName("Updated");
+        UserEntity updated = reactiveDAO.update(fresh).block();
+        long deletedOld = reactiveDAO.deleteCreatedBefore(cutoff).block();
+        int deletedByIds = reactiveDAO.deleteByIds(List.of(other.getId(), 999_999L, other.getId())).block();
+
+        // Then
+        assertThat(updated.getName()).isEqualTo("Updated");
+        assertThat(updated.getUpdatedAt()).isNotNull();
+        assertThat(deletedOld).isEqualTo(3);
+        assertThat(deletedByIds).isEqualTo(1);
+        assertThat(reactiveDAO.delete(fresh.getId()).block()).isTrue();
+        assertThat(reactiveDAO.delete(fresh.getId()).block()).isFalse();
+        assertThatThrownBy(() -> reactiveDAO.update(fresh).block()).isInstanceOf(StaleObjectStateException.class);
+        assertThat(reactiveDAO.findAll().count().block()).isZero();
+    }
+}
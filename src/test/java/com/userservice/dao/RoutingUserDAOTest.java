@@ -0,0 +1,156 @@
+package com.userservice.dao;
+
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для RoutingUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoutingUserDAO Unit Tests")
+class RoutingUserDAOTest {
+
+    @Mock
+    private UserDAO primary;
+
+    @Mock
+    private UserDAO replica;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private RoutingUserDAO routingDAO;
+
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        routingDAO = new RoutingUserDAO(primary, replica, Duration.ofSeconds(2), clock::get);
+        testUser = new UserEntity("Test", "test@example.com", 30);
+        testUser.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Should route reads to replica")
+    void testReads_ShouldGoToReplica() {
+        // Given
+        when(replica.findById(1L)).thenReturn(Optional.of(testUser));
+        when(replica.existsByEmail("test@example.com")).thenReturn(true);
+
+        // When
+        Optional<UserEntity> found = routingDAO.findById(1L);
+        boolean exists = routingDAO.existsByEmail("test@example.com");
+        routingDAO.findByEmail("test@example.com");
+        routingDAO.findAll();
+
+        // Then
+        assertThat(found).contains(testUser);
+        assertThat(exists).isTrue();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("Should route writes to primary")
+    void testWrites_ShouldGoToPrimary() {
+        // Given
+        when(primary.create(any(UserEntity.class))).thenReturn(testUser);
+        when(primary.update(any(UserEntity.class))).thenReturn(testUser);
+        when(primary.delete(1L)).thenReturn(true);
+
+        // When
+        routingDAO.create(testUser);
+        routingDAO.update(testUser);
+        boolean deleted = routingDAO.delete(1L);
+
+        // Then
+        assertThat(deleted).isTrue();
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("Should read from primary within read-your-writes window")
+    void testReadYourWrites_WithinWindow_ShouldReadPrimary() {
+        // Given
+        when(primary.create(any(UserEntity.class))).thenReturn(testUser);
+        when(primary.findById(1L)).thenReturn(Optional.of(testUser));
+        routingDAO.create(testUser);
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Optional<UserEntity> found = routingDAO.findById(1L);
+
+        // Then
+        assertThat(found).contains(testUser);
+        verify(replica, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should return to replica after read-your-writes window")
+    void testReadYourWrites_AfterWindow_ShouldReadReplica() {
+        // Given
+        when(primary.create(any(UserEntity.class))).thenReturn(testUser);
+        when(replica.findById(1L)).thenReturn(Optional.of(testUser));
+        routingDAO.create(testUser);
+
+        // When
+        clock.addAndGet(Duration.ofSeconds(3).toNanos());
+        routingDAO.findById(1L);
+
+        // Then
+        verify(replica).findById(1L);
+        verify(primary, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should not pin to primary when window is disabled")
+    void testReadYourWrites_Disabled_ShouldReadReplica() {
+        // Given
+        RoutingUserDAO noPinning = new RoutingUserDAO(primary, replica);
+        when(primary.delete(1L)).thenReturn(true);
+
+        // When
+        noPinning.delete(1L);
+        noPinning.findById(1L);
+
+        // Then
+        verify(replica).findById(1L);
+        verify(primary, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should read from primary when asked for a primary read")
+    void testFindByIdOnPrimary_ShouldReadPrimary() {
+        // Given
+        when(primary.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<UserEntity> found = routingDAO.findByIdOnPrimary(1L);
+
+        // Then
+        assertThat(found).contains(testUser);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("Should reject negative read-your-writes window")
+    void testConstructor_NegativeWindow_ShouldThrowException() {
+        assertThatThrownBy(() -> new RoutingUserDAO(primary, replica, Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,237 @@
+package com.userservice.dao;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для ShardedUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShardedUserDAO Unit Tests")
+class ShardedUserDAOTest {
+
+    @Mock
+    private UserDAO shard0;
+
+    @Mock
+    private UserDAO shard1;
+
+    private ShardedUserDAO shardedDAO;
+
+    @BeforeEach
+    void setUp() {
+        shardedDAO = new ShardedUserDAO(List.of(shard0, shard1));
+    }
+
+    @Test
+    @DisplayName("Should encode shard into global id and decode it back")
+    void testGlobalId_RoundTrip() {
+        long globalId = ShardedUserDAO.globalId(42L, 1);
+
+        assertThat(ShardedUserDAO.shardOf(globalId)).isEqualTo(1);
+        assertThat(ShardedUserDAO.localIdOf(globalId)).isEqualTo(42L);
+        assertThat(globalId).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should create user on email home shard and return global id")
+    void testCreate_ShouldPlaceByEmailHash() {
+        // Given
+        String email = "ivan@example.com";
+        int home = shardedDAO.shardForEmail(email);
+        UserDAO homeShard = home == 0 ? shard0 : shard1;
+        when(homeShard.create(any(UserEntity.class))).thenAnswer(invocation -> {
+            UserEntity user = invocation.getArgument(0);
+            user.setId(7L);
+            return user;
+        });
+
+        // When
+        UserEntity created = shardedDAO.create(new UserEntity("Ivan", email, 30));
+
+        // Then
+        assertThat(created.getId()).isEqualTo(ShardedUserDAO.globalId(7L, home));
+        verify(home == 0 ? shard1 : shard0, never()).create(any());
+    }
+
+    @Test
+    @DisplayName("Should route findById to shard encoded in id")
+    void testFindById_ShouldRouteByEncodedShard() {
+        // Given
+        UserEntity stored = user(5L, "a@example.com");
+        when(shard1.findById(5L)).thenReturn(Optional.of(stored));
+
+        // When
+        Optional<UserEntity> found = shardedDAO.findById(ShardedUserDAO.globalId(5L, 1));
+
+        // Then
+        assertThat(found).isPresent();
+        assertThat(found.get().getId()).isEqualTo(ShardedUserDAO.globalId(5L, 1));
+        verify(shard0, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Should return empty for id of unknown shard")
+    void testFindById_UnknownShard_ShouldReturnEmpty() {
+        assertThat(shardedDAO.findById(ShardedUserDAO.globalId(5L, 3))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should merge findAll results from all shards by global id")
+    void testFindAll_ShouldMergeByGlobalId() {
+        // Given
+        when(shard0.findAll()).thenReturn(List.of(user(1L, "a@example.com"), user(2L, "b@example.com")));
+        when(shard1.findAll()).thenReturn(List.of(user(1L, "c@example.com")));
+
+        // When
+        List<UserEntity> users = shardedDAO.findAll();
+
+        // Then
+        assertThat(users).extracting(UserEntity::getEmail)
+                .containsExactly("a@example.com", "c@example.com", "b@example.com");
+    }
+
+    @Test
+    @DisplayName("Should continue page from the last global id on every shard")
+    void testFindPage_ShouldComputePerShardThreshold() {
+        // Given: последняя запись предыдущей страницы - local 3 на шарде 0
+        long afterId = ShardedUserDAO.globalId(3L, 0);
+        when(shard0.findPage(3L, 2)).thenReturn(List.of(user(4L, "d@example.com")));
+        when(shard1.findPage(2L, 2)).thenReturn(List.of(user(3L, "e@example.com"), user(4L, "f@example.com")));
+
+        // When
+        List<UserEntity> page = shardedDAO.findPage(afterId, 2);
+
+        // Then
+        assertThat(page).extracting(UserEntity::getEmail).containsExactly("e@example.com", "d@example.com");
+    }
+
+    @Test
+    @DisplayName("Should reject email change that moves user to another shard")
+    void testUpdate_EmailMovesShard_ShouldReject() {
+        // Given
+        String newEmail = emailForShard(1);
+        UserEntity user = user(ShardedUserDAO.globalId(9L, 0), newEmail);
+
+        // When / Then
+        assertThatThrownBy(() -> shardedDAO.update(user))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cross-shard");
+        assertThat(user.getId()).isEqualTo(ShardedUserDAO.globalId(9L, 0));
+        verifyNoInteractions(shard0, shard1);
+    }
+
+    @Test
+    @DisplayName("Should allow email change only within the user's shard")
+    void testCanChangeEmail_ShouldCompareShards() {
+        // Given
+        Long id = ShardedUserDAO.globalId(9L, 0);
+
+        // When / Then
+        assertThat(shardedDAO.canChangeEmail(id, emailForShard(0))).isTrue();
+        assertThat(shardedDAO.canChangeEmail(id, emailForShard(1))).isFalse();
+        verifyNoInteractions(shard0, shard1);
+    }
+
+    @Test
+    @DisplayName("Should update in place when email stays on the same shard")
+    void testUpdate_SameShard_ShouldUpdateLocalRow() {
+        // Given
+        String email = emailForShard(0);
+        UserEntity user = user(ShardedUserDAO.globalId(9L, 0), email);
+        when(shard0.update(argThat(entity -> entity.getId() == 9L))).thenReturn(user(9L, email));
+
+        // When
+        UserEntity updated = shardedDAO.update(user);
+
+        // Then
+        assertThat(updated.getId()).isEqualTo(ShardedUserDAO.globalId(9L, 0));
+        verify(shard1, never()).create(any());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid shard count")
+    void testConstructor_NoShards_ShouldThrowException() {
+        assertThatThrownBy(() -> new ShardedUserDAO(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should merge summary pages from all shards by global id")
+    void testFindSummaryPage_ShouldMergeByGlobalId() {
+        // Given
+        when(shard0.findSummaryPage(0L, 3)).thenReturn(List.of(
+                new UserSummary(1L, "A", "a@example.com"), new UserSummary(2L, "C", "c@example.com")));
+        when(shard1.findSummaryPage(-1L, 3)).thenReturn(List.of(
+                new UserSummary(1L, "B", "b@example.com"), new UserSummary(2L, "D", "d@example.com")));
+
+        // When
+        List<UserSummary> page = shardedDAO.findSummaryPage(null, 3);
+
+        // Then
+        assertThat(page).extracting(UserSummary::name).containsExactly("A", "B", "C");
+        assertThat(page.get(1).id()).isEqualTo(ShardedUserDAO.globalId(1L, 1));
+    }
+
+    @Test
+    @DisplayName("Should group bulk delete ids by shard and sum deleted counts")
+    void testDeleteByIds_ShouldGroupByShard() {
+        // Given
+        when(shard0.deleteByIds(List.of(3L))).thenReturn(1);
+        when(shard1.deleteByIds(List.of(4L, 5L))).thenReturn(2);
+
+        // When
+        int deleted = shardedDAO.deleteByIds(List.of(
+                ShardedUserDAO.globalId(3L, 0), ShardedUserDAO.globalId(4L, 1), ShardedUserDAO.globalId(5L, 1),
+                ShardedUserDAO.globalId(6L, 7)));
+
+        // Then
+        assertThat(deleted).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should purge users created before date on every shard")
+    void testDeleteCreatedBefore_ShouldQueryAllShards() {
+        // Given
+        LocalDateTime createdBefore = LocalDateTime.of(2020, 1, 1, 0, 0);
+        when(shard0.deleteCreatedBefore(createdBefore)).thenReturn(10L);
+        when(shard1.deleteCreatedBefore(createdBefore)).thenReturn(5L);
+
+        // When / Then
+        assertThat(shardedDAO.deleteCreatedBefore(createdBefore)).isEqualTo(15L);
+    }
+
+    private UserEntity user(Long id, String email) {
+        UserEntity user = new UserEntity("User", email, 20);
+        user.setId(id);
+        return user;
+    }
+
+    private String emailForShard(int shard) {
+        for (int i = 0; ; i++) {
+            String email = "user" + i + "@example.com";
+            if (shardedDAO.shardForEmail(email) == shard) {
+                return email;
+            }
+        }
+    }
+}
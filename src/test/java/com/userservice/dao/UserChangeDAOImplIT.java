@@ -0,0 +1,139 @@
+package com.userservice.dao;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dto.ChangePage;
+import com.userservice.dto.UserChange;
+import com.userservice.entity.UserEntity;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Интеграционные тесты для UserChangeDAOImpl
+ */
+@DisplayName("UserChangeDAO Integration Tests")
+class UserChangeDAOImplIT extends BaseIntegrationTest {
+
+    private UserDAO userDAO;
+    private UserChangeDAO userChangeDAO;
+
+    @BeforeEach
+    void setUpDAO() {
+        migrateSchema();
+        userDAO = new UserDAOImpl(getSessionFactory());
+        userChangeDAO = new UserChangeDAOImpl(getSessionFactory());
+    }
+
+    @Test
+    @DisplayName("Should return creates, updates and delete tombstones in order")
+    void testFindChangesSince_ShouldReturnChangesInOrder() {
+        // Given
+        UserEntity ivan = userDAO.create(new UserEntity("Ivan", "ivan@example.com", 30));
+        UserEntity anna = userDAO.create(new UserEntity("Anna", "anna@example.com", 25));
+        ivan.setName("Ivan Updated");
+        userDAO.update(ivan);
+        userDAO.delete(anna.getId());
+
+        // When
+        ChangePage page = userChangeDAO.findChangesSince(null, 10);
+
+        // Then
+        assertThat(page.changes()).extracting(UserChange::type, UserChange::id, UserChange::email)
+                .containsExactly(
+                        tuple(UserChange.Type.UPSERT, ivan.getId(), "ivan@example.com"),
+                        tuple(UserChange.Type.DELETE, anna.getId(), "anna@example.com"));
+        assertThat(page.changes().get(0).name()).isEqualTo("Ivan Updated");
+        assertThat(page.changes().get(0).changedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should page through changes and return only new ones after cursor")
+    void testFindChangesSince_Cursor_ShouldContinue() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            userDAO.create(new UserEntity("User " + i, "user" + i + "@example.com", 20 + i));
+        }
+
+        // When
+        List<UserChange> all = new ArrayList<>();
+        String cursor = null;
+        ChangePage page;
+        do {
+            page = userChangeDAO.findChangesSince(cursor, 2);
+            all.addAll(page.changes());
+            cursor = page.nextCursor();
+        } while (!page.changes().isEmpty());
+        UserEntity late = userDAO.create(new UserEntity("Late", "late@example.com", 40));
+        ChangePage next = userChangeDAO.findChangesSince(cursor, 10);
+
+        // Then
+        assertThat(all).hasSize(5);
+        assertThat(next.changes()).extracting(UserChange::id).containsExactly(late.getId());
+        assertThat(userChangeDAO.findChangesSince(next.nextCursor(), 10).changes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should hold back changes of transactions that are still open")
+    void testFindChangesSince_OpenTransaction_ShouldWait() {
+        // Given
+        userDAO.create(new UserEntity("Committed", "committed@example.com", 30));
+
+        try (Session session = getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.persist(new UserEntity("Open", "open@example.com", 31));
+            session.flush();
+
+            // When
+            ChangePage whileOpen = userChangeDAO.findChangesSince(null, 10);
+            session.getTransaction().commit();
+            ChangePage afterCommit = userChangeDAO.findChangesSince(whileOpen.nextCursor(), 10);
+
+            // Then
+            assertThat(afterCommit.changes()).extracting(UserChange::email).contains("open@example.com");
+            assertThat(whileOpen.changes()).extracting(UserChange::email).doesNotContain("open@example.com");
+        }
+    }
+
+    @Test
+    @DisplayName("Should purge old tombstones and reject cursors that could have missed them")
+    void testPurgeTombstonesBefore_ShouldExpireOlderCursors() {
+        // Given: надгробие старше срока хранения и курсор, взятый до удаления
+        UserEntity ivan = userDAO.create(new UserEntity("Ivan", "ivan@example.com", 30));
+        UserEntity anna = userDAO.create(new UserEntity("Anna", "anna@example.com", 25));
+        String beforeDelete = userChangeDAO.findChangesSince(null, 10).nextCursor();
+        userDAO.delete(anna.getId());
+        String afterDelete = userChangeDAO.findChangesSince(beforeDelete, 10).nextCursor();
+        getSessionFactory().inTransaction(session -> session.createNativeMutationQuery(
+                "UPDATE user_tombstones SET deleted_at = deleted_at - INTERVAL '40 days'").executeUpdate());
+
+        // When
+        long purged = userChangeDAO.purgeTombstonesBefore(LocalDateTime.now(ZoneOffset.UTC).minusDays(30));
+
+        // Then
+        assertThat(purged).isEqualTo(1);
+        assertThatThrownBy(() -> userChangeDAO.findChangesSince(beforeDelete, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("retention");
+        assertThat(userChangeDAO.findChangesSince(afterDelete, 10).changes()).isEmpty();
+        assertThat(userChangeDAO.findChangesSince(null, 10).changes()).extracting(UserChange::id)
+                .containsExactly(ivan.getId());
+        assertThat(userChangeDAO.purgeTombstonesBefore(LocalDateTime.now(ZoneOffset.UTC).minusDays(30))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursor")
+    void testFindChangesSince_InvalidCursor_ShouldThrowException() {
+        assertThatThrownBy(() -> userChangeDAO.findChangesSince("not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,12 +1,21 @@
 package com.userservice.dao;
 
 import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dto.UserSummary;
 import com.userservice.entity.UserEntity;
+import com.userservice.util.Deadline;
+import com.userservice.util.DeadlineExceededException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,7 +32,15 @@ class UserDAOImplIT extends BaseIntegrationTest {
     @BeforeEach
     void setUpDAO() {
         // Создаем DAO с тестовой SessionFactory
-        userDAO = new UserDAOImpl(getSessionFactory());
+        migrateSchema();
+        userDAO = createUserDAO(QueryTimeouts.none());
+    }
+
+    /**
+     * Проверяемая реализация; наследники прогоняют те же тесты на другой реализации UserDAO
+     */
+    protected UserDAO createUserDAO(QueryTimeouts timeouts) {
+        return new UserDAOImpl(getSessionFactory(), timeouts);
     }
 
     // ========== CREATE TESTS ==========
@@ -156,6 +173,130 @@ class UserDAOImplIT extends BaseIntegrationTest {
         assertThat(users).isEmpty();
     }
 
+    @Test
+    @DisplayName("Should return users page after given id")
+    void testFindPage_ShouldReturnUsersAfterId() {
+        // Given
+        UserEntity user1 = userDAO.create(new UserEntity("User1", "user1@example.com", 20));
+        UserEntity user2 = userDAO.create(new UserEntity("User2", "user2@example.com", 25));
+        UserEntity user3 = userDAO.create(new UserEntity("User3", "user3@example.com", 30));
+
+        // When
+        List<UserEntity> firstPage = userDAO.findPage(null, 2);
+        List<UserEntity> secondPage = userDAO.findPage(firstPage.get(1).getId(), 2);
+
+        // Then
+        assertThat(firstPage).extracting(UserEntity::getId).containsExactly(user1.getId(), user2.getId());
+        assertThat(secondPage).extracting(UserEntity::getId).containsExactly(user3.getId());
+    }
+
+    @Test
+    @DisplayName("Should create users batch atomically")
+    void testCreateAll_ShouldCreateInOneTransaction() {
+        // Given
+        List<UserEntity> users = List.of(
+                new UserEntity("Batch1", "batch1@example.com", 20),
+                new UserEntity("Batch2", "batch2@example.com", 25));
+
+        // When
+        List<UserEntity> created = userDAO.createAll(users);
+
+        // Then
+        assertThat(created).extracting(UserEntity::getId).doesNotContainNull();
+        assertThat(userDAO.findAll()).hasSize(2);
+        assertThatThrownBy(() -> userDAO.createAll(List.of(
+                new UserEntity("Batch3", "batch3@example.com", 30),
+                new UserEntity("Duplicate", "batch1@example.com", 35))))
+                .isInstanceOf(Exception.class);
+        assertThat(userDAO.findByEmail("batch3@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return summary projections without loading entities")
+    void testFindSummaries_ShouldReturnProjections() {
+        // Given
+        UserEntity user1 = userDAO.create(new UserEntity("User1", "user1@example.com", 20));
+        UserEntity user2 = userDAO.create(new UserEntity("User2", "user2@example.com", 25));
+        UserEntity user3 = userDAO.create(new UserEntity("User3", "user3@example.com", 30));
+
+        // When
+        List<UserSummary> firstPage = userDAO.findSummaryPage(null, 2);
+        List<UserSummary> secondPage = userDAO.findSummaryPage(firstPage.get(1).id(), 2);
+
+        // Then
+        assertThat(firstPage).containsExactly(
+                new UserSummary(user1.getId(), "User1", "user1@example.com"),
+                new UserSummary(user2.getId(), "User2", "user2@example.com"));
+        assertThat(secondPage).extracting(UserSummary::id).containsExactly(user3.getId());
+        assertThat(userDAO.findAllSummaries()).hasSize(3);
+        assertThat(userDAO.findSummaryByEmail("user2@example.com"))
+                .contains(new UserSummary(user2.getId(), "User2", "user2@example.com"));
+        assertThat(userDAO.findSummaryByEmail("missing@example.com")).isEmpty();
+    }
+
+    // ========== SEARCH TESTS ==========
+
+    @Test
+    @DisplayName("Should find users by name prefix ignoring case")
+    void testSearchByName_Prefix_ShouldReturnMatchesOrderedByName() {
+        // Given
+        userDAO.create(new UserEntity("Ivanova Maria", "maria@example.com", 20));
+        UserEntity ivan = userDAO.create(new UserEntity("Ivan Petrov", "ivan@example.com", 25));
+        userDAO.create(new UserEntity("Petr Ivanov", "petr@example.com", 30));
+
+        // When
+        List<UserSummary> found = userDAO.searchByName("ivan", NameSearchMode.PREFIX, 10);
+
+        // Then
+        assertThat(found).extracting(UserSummary::name).containsExactly("Ivan Petrov", "Ivanova Maria");
+        assertThat(found.get(0)).isEqualTo(new UserSummary(ivan.getId(), "Ivan Petrov", "ivan@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should treat LIKE wildcards in prefix query literally")
+    void testSearchByName_PrefixWithWildcard_ShouldEscape() {
+        // Given
+        userDAO.create(new UserEntity("Ivan", "ivan@example.com", 25));
+
+        // When
+        List<UserSummary> found = userDAO.searchByName("%", NameSearchMode.PREFIX, 10);
+
+        // Then
+        assertThat(found).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should find users with similar names")
+    void testSearchByName_Fuzzy_ShouldReturnMostSimilarFirst() {
+        // Given
+        userDAO.create(new UserEntity("Alexander Smirnov", "alex@example.com", 20));
+        userDAO.create(new UserEntity("Alexandra Smirnova", "alexandra@example.com", 25));
+        userDAO.create(new UserEntity("Boris Kuznetsov", "boris@example.com", 30));
+
+        // When
+        List<UserSummary> found = userDAO.searchByName("Aleksander Smirnov", NameSearchMode.FUZZY, 10);
+
+        // Then
+        assertThat(found).isNotEmpty();
+        assertThat(found.get(0).name()).isEqualTo("Alexander Smirnov");
+        assertThat(found).extracting(UserSummary::name).doesNotContain("Boris Kuznetsov");
+    }
+
+    @Test
+    @DisplayName("Should limit search results")
+    void testSearchByName_Limit_ShouldTruncate() {
+        // Given
+        userDAO.create(new UserEntity("Anna One", "anna1@example.com", 20));
+        userDAO.create(new UserEntity("Anna Two", "anna2@example.com", 21));
+        userDAO.create(new UserEntity("Anna Three", "anna3@example.com", 22));
+
+        // When
+        List<UserSummary> found = userDAO.searchByName("anna", NameSearchMode.PREFIX, 2);
+
+        // Then
+        assertThat(found).hasSize(2);
+    }
+
     // ========== UPDATE TESTS ==========
 
     @Test
@@ -247,6 +388,49 @@ class UserDAOImplIT extends BaseIntegrationTest {
         assertThat(users.get(0).getEmail()).isEqualTo("user1@example.com");
     }
 
+    @Test
+    @DisplayName("Should delete users by ids in chunks and ignore missing ids")
+    void testDeleteByIds_ShouldDeleteExistingOnly() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(userDAO.create(new UserEntity("Bulk " + i, "bulk" + i + "@example.com", 20 + i)).getId());
+        }
+        UserEntity kept = userDAO.create(new UserEntity("Kept", "kept@example.com", 40));
+        ids.add(999_999L);
+        ids.add(ids.get(0));
+
+        // When
+        int deleted = userDAO.deleteByIds(ids);
+
+        // Then
+        assertThat(deleted).isEqualTo(3);
+        assertThat(userDAO.findAll()).extracting(UserEntity::getId).containsExactly(kept.getId());
+    }
+
+    @Test
+    @DisplayName("Should delete only users created before given date")
+    void testDeleteCreatedBefore_ShouldDeleteOldUsers() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 3; i++) {
+            UserEntity old = new UserEntity("Old " + i, "old" + i + "@example.com", 50);
+            old.setCreatedAt(cutoff.minusDays(i + 1));
+            userDAO.create(old);
+        }
+        UserEntity fresh = new UserEntity("Fresh", "fresh@example.com", 20);
+        fresh.setCreatedAt(cutoff.plusDays(1));
+        userDAO.create(fresh);
+
+        // When
+        long deleted = userDAO.deleteCreatedBefore(cutoff);
+
+        // Then
+        assertThat(deleted).isEqualTo(3);
+        assertThat(userDAO.findAll()).extracting(UserEntity::getEmail).containsExactly("fresh@example.com");
+        assertThat(userDAO.deleteCreatedBefore(cutoff)).isZero();
+    }
+
     // ========== EXISTS TESTS ==========
 
     @Test
@@ -322,4 +506,43 @@ class UserDAOImplIT extends BaseIntegrationTest {
         assertThat(users).extracting(UserEntity::getName)
                 .containsExactlyInAnyOrder("Updated User1", "Updated User2");
     }
+
+    // ========== TIMEOUT TESTS ==========
+
+    @Test
+    @DisplayName("Should abort an update waiting on a row lock after the lock timeout")
+    void testUpdate_RowLocked_ShouldTimeOut() {
+        // Given
+        QueryTimeouts timeouts = new QueryTimeouts(Duration.ofMillis(200), Map.of());
+        UserDAO timedDAO = createUserDAO(timeouts);
+        UserEntity user = userDAO.create(new UserEntity("Locked", "locked@example.com", 30));
+
+        try (Session locker = getSessionFactory().openSession()) {
+            Transaction lock = locker.beginTransaction();
+            locker.createNativeQuery("SELECT id FROM users WHERE id = :id FOR UPDATE", Long.class)
+                    .setParameter("id", user.getId())
+                    .getSingleResult();
+
+            // When / Then
+            user.setName("Updated");
+            assertThatThrownBy(() -> timedDAO.update(user)).isInstanceOf(RuntimeException.class);
+            lock.rollback();
+        }
+        assertThat(timeouts.getTimeouts("update")).isEqualTo(1);
+        assertThat(userDAO.findById(user.getId())).get().extracting(UserEntity::getName).isEqualTo("Locked");
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when the caller deadline has expired")
+    void testFindById_ExpiredDeadline_ShouldAbandon() {
+        // Given
+        QueryTimeouts timeouts = QueryTimeouts.none();
+        UserDAO timedDAO = createUserDAO(timeouts);
+
+        // When / Then
+        assertThatThrownBy(() -> Deadline.within(Duration.ZERO, () -> timedDAO.findById(1L)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(timeouts.getAbandoned("findById")).isEqualTo(1);
+        assertThat(Deadline.within(Duration.ofSeconds(5), () -> timedDAO.findById(1L))).isEmpty();
+    }
 }
@@ -0,0 +1,84 @@
+package com.userservice.dao;
+
+import org.hibernate.JDBCException;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.JDBCConnectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для UserDAOImpl: ошибки чтения списков
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDAOImpl Unit Tests")
+class UserDAOImplTest {
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    private UserDAOImpl userDAO;
+
+    @BeforeEach
+    void setUp() {
+        userDAO = new UserDAOImpl(sessionFactory);
+    }
+
+    @Test
+    @DisplayName("Should rethrow connection failures instead of returning empty results")
+    void testReads_ConnectionFailure_ShouldThrow() {
+        // Given
+        when(sessionFactory.openSession()).thenThrow(new JDBCConnectionException("Unable to acquire connection",
+                new SQLException("Connection refused", "08001")));
+
+        // When / Then
+        assertThatThrownBy(() -> userDAO.findAll()).isInstanceOf(JDBCConnectionException.class);
+        assertThatThrownBy(() -> userDAO.findPage(null, 10)).isInstanceOf(JDBCConnectionException.class);
+        assertThatThrownBy(() -> userDAO.findAllSummaries()).isInstanceOf(JDBCConnectionException.class);
+        assertThatThrownBy(() -> userDAO.findSummaryPage(null, 10)).isInstanceOf(JDBCConnectionException.class);
+        assertThatThrownBy(() -> userDAO.searchByName("john", NameSearchMode.PREFIX, 10))
+                .isInstanceOf(JDBCConnectionException.class);
+        assertThatThrownBy(() -> userDAO.existsByEmail("test@example.com"))
+                .isInstanceOf(JDBCConnectionException.class);
+    }
+
+    @Test
+    @DisplayName("Should return empty results on other database errors")
+    void testReads_QueryError_ShouldReturnEmpty() {
+        // Given
+        when(sessionFactory.openSession()).thenThrow(new JDBCException("Query failed",
+                new SQLException("relation does not exist", "42P01")));
+
+        // When / Then
+        assertThat(userDAO.findAll()).isEmpty();
+        assertThat(userDAO.findPage(null, 10)).isEmpty();
+        assertThat(userDAO.findAllSummaries()).isEmpty();
+        assertThat(userDAO.findSummaryPage(null, 10)).isEmpty();
+        assertThat(userDAO.searchByName("john", NameSearchMode.PREFIX, 10)).isEmpty();
+        assertThat(userDAO.existsByEmail("test@example.com")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should rethrow connection failures from a partition scan")
+    void testFindAll_Partitioned_ConnectionFailure_ShouldThrow() {
+        // Given
+        PartitionScanner scanner = new PartitionScanner(sessionFactory, List.of("users_p0", "users_p1"), 2);
+        UserDAOImpl partitionedDAO = new UserDAOImpl(sessionFactory, QueryTimeouts.none(), scanner);
+        when(sessionFactory.openSession()).thenThrow(new JDBCConnectionException("Unable to acquire connection",
+                new SQLException("Connection refused", "08001")));
+
+        // When / Then
+        assertThatThrownBy(partitionedDAO::findAll).isInstanceOf(JDBCConnectionException.class);
+        assertThatThrownBy(partitionedDAO::findAllSummaries).isInstanceOf(JDBCConnectionException.class);
+    }
+}
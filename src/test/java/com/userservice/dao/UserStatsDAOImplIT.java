@@ -0,0 +1,154 @@
+package com.userservice.dao;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dto.AgeBucket;
+import com.userservice.dto.SignupCount;
+import com.userservice.entity.UserEntity;
+import com.userservice.util.SchemaManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционные тесты для UserStatsDAOImpl
+ */
+@DisplayName("UserStatsDAO Integration Tests")
+class UserStatsDAOImplIT extends BaseIntegrationTest {
+
+    private UserDAO userDAO;
+    private UserStatsDAO userStatsDAO;
+
+    @BeforeEach
+    void setUpDAO() {
+        migrateSchema();
+        userDAO = new UserDAOImpl(getSessionFactory());
+        userStatsDAO = new UserStatsDAOImpl(getSessionFactory());
+    }
+
+    @Test
+    @DisplayName("Should count users per age bucket including empty buckets")
+    void testCountByAgeBuckets_ShouldReturnAllBuckets() {
+        // Given
+        userDAO.create(new UserEntity("Teen", "teen@example.com", 15));
+        userDAO.create(new UserEntity("Young", "young@example.com", 18));
+        userDAO.create(new UserEntity("Adult", "adult@example.com", 29));
+        userDAO.create(new UserEntity("Senior", "senior@example.com", 70));
+        userDAO.create(new UserEntity("Unknown", "unknown@example.com", null));
+
+        // When
+        List<AgeBucket> buckets = userStatsDAO.countByAgeBuckets(new int[]{18, 30, 45});
+
+        // Then
+        assertThat(buckets).containsExactly(
+                new AgeBucket(0, 18, 1),
+                new AgeBucket(18, 30, 2),
+                new AgeBucket(30, 45, 0),
+                new AgeBucket(45, null, 1));
+    }
+
+    @Test
+    @DisplayName("Should count signups per day within range")
+    void testCountSignups_PerDay_ShouldGroupByDate() {
+        // Given
+        LocalDateTime day = LocalDateTime.of(2025, 3, 10, 12, 0);
+        createUserAt("a@example.com", day);
+        createUserAt("b@example.com", day.plusHours(3));
+        createUserAt("c@example.com", day.plusDays(1));
+        createUserAt("d@example.com", day.plusDays(10));
+
+        // When
+        List<SignupCount> signups = userStatsDAO.countSignups(day.minusHours(12), day.plusDays(2), SignupPeriod.DAY);
+
+        // Then
+        assertThat(signups).containsExactly(
+                new SignupCount(LocalDate.of(2025, 3, 10), 2),
+                new SignupCount(LocalDate.of(2025, 3, 11), 1));
+    }
+
+    @Test
+    @DisplayName("Should count signups per ISO week")
+    void testCountSignups_PerWeek_ShouldStartOnMonday() {
+        // Given: 2025-03-12 - среда
+        createUserAt("a@example.com", LocalDateTime.of(2025, 3, 12, 9, 0));
+        createUserAt("b@example.com", LocalDateTime.of(2025, 3, 16, 9, 0));
+
+        // When
+        List<SignupCount> signups = userStatsDAO.countSignups(
+                LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0), SignupPeriod.WEEK);
+
+        // Then
+        assertThat(signups).containsExactly(new SignupCount(LocalDate.of(2025, 3, 10), 2));
+    }
+
+    @Test
+    @DisplayName("Should count signups in the JVM time zone when it is not UTC")
+    void testCountSignups_NonUtcZone_ShouldUseLocalDates() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        try {
+            // Given: 05:00 по Токио (UTC+9) - в UTC это еще 9 марта, 12:00 - уже 10 марта
+            createUserAt("a@example.com", LocalDateTime.of(2025, 3, 10, 5, 0));
+            createUserAt("b@example.com", LocalDateTime.of(2025, 3, 10, 12, 0));
+            createUserAt("c@example.com", LocalDateTime.of(2025, 3, 11, 12, 0));
+
+            // When
+            List<SignupCount> signups = userStatsDAO.countSignups(
+                    LocalDateTime.of(2025, 3, 10, 0, 0), LocalDateTime.of(2025, 3, 11, 0, 0), SignupPeriod.DAY);
+
+            // Then
+            assertThat(signups).containsExactly(new SignupCount(LocalDate.of(2025, 3, 10), 2));
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    @DisplayName("Should return exact count and estimate for table")
+    void testCounts_ShouldMatchRowCount() {
+        // Given
+        userDAO.create(new UserEntity("User1", "user1@example.com", 20));
+        userDAO.create(new UserEntity("User2", "user2@example.com", 25));
+
+        // When & Then
+        assertThat(userStatsDAO.countAll()).isEqualTo(2);
+        assertThat(userStatsDAO.estimateCount()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should estimate count of a partitioned table from its partitions")
+    void testEstimateCount_Partitioned_ShouldSumPartitionStatistics() {
+        // Given
+        SchemaManager.partitionUsers(getSessionFactory(), 4);
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(new UserEntity("User" + i, "user" + i + "@example.com", 20));
+        }
+        userDAO.createAll(users);
+        getSessionFactory().inTransaction(session ->
+                session.createNativeMutationQuery("ANALYZE users").executeUpdate());
+        // Удаление без VACUUM не меняет ни статистику, ни размер секций: оценка отличается от точного count(*)
+        getSessionFactory().inTransaction(session ->
+                session.createNativeMutationQuery("DELETE FROM users").executeUpdate());
+
+        // When
+        long estimate = userStatsDAO.estimateCount();
+
+        // Then
+        assertThat(userStatsDAO.countAll()).isZero();
+        assertThat(estimate).isBetween(150L, 250L);
+    }
+
+    private void createUserAt(String email, LocalDateTime createdAt) {
+        UserEntity user = new UserEntity("User", email, 30);
+        user.setCreatedAt(createdAt);
+        userDAO.create(user);
+    }
+}
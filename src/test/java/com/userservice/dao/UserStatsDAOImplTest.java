@@ -0,0 +1,26 @@
+package com.userservice.dao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты для UserStatsDAOImpl: часовой пояс периодов регистрации
+ */
+@DisplayName("UserStatsDAOImpl Unit Tests")
+class UserStatsDAOImplTest {
+
+    @Test
+    @DisplayName("Should pass region zones by name and fixed offsets in POSIX form")
+    void testDatabaseZone_ShouldMapJvmZone() {
+        // When / Then
+        assertThat(UserStatsDAOImpl.databaseZone(ZoneId.of("Asia/Tokyo"))).isEqualTo("Asia/Tokyo");
+        assertThat(UserStatsDAOImpl.databaseZone(ZoneOffset.UTC)).isEqualTo("UTC");
+        assertThat(UserStatsDAOImpl.databaseZone(ZoneId.of("GMT+05:30"))).isEqualTo("UTC-05:30");
+        assertThat(UserStatsDAOImpl.databaseZone(ZoneOffset.ofHours(-3))).isEqualTo("UTC+03:00");
+    }
+}
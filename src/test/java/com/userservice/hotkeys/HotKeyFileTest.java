@@ -0,0 +1,58 @@
+package com.userservice.hotkeys;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Юнит-тесты для HotKeyFile
+ */
+@DisplayName("HotKeyFile Unit Tests")
+class HotKeyFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back saved ids and emails in order")
+    void testSaveAndLoad_ShouldRoundTrip() throws IOException {
+        // Given
+        HotKeyFile file = new HotKeyFile(directory.resolve("state/hot-keys.txt"));
+
+        // When
+        file.save(List.of(42L, 7L, 1_000_000_000_000L), List.of("hot@example.com", "warm@example.com"));
+        file.save(List.of(42L, 7L, 1_000_000_000_000L, 3L), List.of("hot@example.com", "warm@example.com"));
+        HotKeyFile.Contents contents = file.load();
+
+        // Then
+        assertThat(contents.ids()).containsExactly(42L, 7L, 1_000_000_000_000L, 3L);
+        assertThat(contents.emails()).containsExactly("hot@example.com", "warm@example.com");
+        assertThat(directory.resolve("state")).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    @DisplayName("Should return empty contents for a missing file and skip damaged lines")
+    void testLoad_MissingOrDamaged_ShouldBeLenient() throws IOException {
+        // Given
+        Path path = directory.resolve("hot-keys.txt");
+        HotKeyFile file = new HotKeyFile(path);
+        assertThat(file.load().isEmpty()).isTrue();
+        Files.writeString(path, "id\t5\nid\tnot-a-number\ngarbage\nemail\t\nemail\tok@example.com\nid\t6",
+                StandardCharsets.UTF_8);
+
+        // When
+        HotKeyFile.Contents contents = file.load();
+
+        // Then
+        assertThat(contents.ids()).containsExactly(5L, 6L);
+        assertThat(contents.emails()).containsExactly("ok@example.com");
+    }
+}
@@ -0,0 +1,165 @@
+package com.userservice.hotkeys;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Юнит-тесты для HotKeyTracker
+ */
+@DisplayName("HotKeyTracker Unit Tests")
+class HotKeyTrackerTest {
+
+    @Test
+    @DisplayName("Should find heavy hitters among uniform noise")
+    void testTopKeys_ShouldFindHeavyHitters() {
+        // Given
+        HotKeyTracker<Long> tracker = new HotKeyTracker<>(3, 1024, Long::longValue);
+        Random random = new Random(42);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            int choice = random.nextInt(100);
+            if (choice < 20) {
+                tracker.record(7L);
+            } else if (choice < 35) {
+                tracker.record(11L);
+            } else if (choice < 45) {
+                tracker.record(13L);
+            } else {
+                tracker.record(1_000L + random.nextInt(50_000));
+            }
+        }
+
+        // Then
+        List<HotKeyTracker.HotKey<Long>> top = tracker.topKeys();
+        assertThat(top).extracting(HotKeyTracker.HotKey::key).containsExactly(7L, 11L, 13L);
+        assertThat(top.get(0).count()).isBetween(19_000L, 22_000L);
+        assertThat(tracker.isHot(7L)).isTrue();
+        assertThat(tracker.isHot(1_001L)).isFalse();
+        assertThat(tracker.getLookups()).isEqualTo(100_000);
+    }
+
+    @Test
+    @DisplayName("Should never underestimate key frequency")
+    void testEstimate_ShouldNotUnderestimate() {
+        // Given
+        HotKeyTracker<String> tracker = new HotKeyTracker<>(5, 64, String::hashCode);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            for (int repeat = 0; repeat <= i % 5; repeat++) {
+                tracker.record("user" + i + "@example.com");
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(tracker.estimate("user" + i + "@example.com")).isGreaterThanOrEqualTo(i % 5 + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should halve estimates on decay and let new hot keys replace old ones")
+    void testDecay_ShouldHalveEstimates() {
+        // Given
+        HotKeyTracker<Long> tracker = new HotKeyTracker<>(1, 1024, Long::longValue);
+        record(tracker, 1L, 1_000);
+
+        // When
+        tracker.decay();
+        long afterDecay = tracker.estimate(1L);
+        tracker.decay();
+        record(tracker, 2L, 600);
+        tracker.trim();
+
+        // Then
+        assertThat(afterDecay).isEqualTo(500);
+        assertThat(tracker.estimate(1L)).isEqualTo(250);
+        assertThat(tracker.topKeys()).extracting(HotKeyTracker.HotKey::key).containsExactly(2L);
+        assertThat(tracker.isHot(2L)).isTrue();
+        assertThat(tracker.isHot(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should estimate rate over the decayed window")
+    void testTopKeys_ShouldEstimateRate() {
+        // Given
+        AtomicLong clock = new AtomicLong();
+        HotKeyTracker<Long> tracker = new HotKeyTracker<>(1, 1024, Long::longValue, clock::get);
+
+        // When: 100 обращений в секунду в течение трех периодов по 10 секунд
+        for (int period = 0; period < 3; period++) {
+            record(tracker, 5L, 1_000);
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+            tracker.decay();
+        }
+        record(tracker, 5L, 500);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        // Then
+        assertThat(tracker.topKeys()).singleElement()
+                .satisfies(hotKey -> assertThat(hotKey.ratePerSecond()).isCloseTo(100.0, within(1.0)));
+    }
+
+    @Test
+    @DisplayName("Should keep candidates bounded under concurrent recording")
+    void testRecord_Concurrent_ShouldKeepHotKey() throws Exception {
+        // Given
+        HotKeyTracker<Long> tracker = new HotKeyTracker<>(4, 4096, Long::longValue);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int seed = thread;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 50_000; i++) {
+                        tracker.record(i % 4 == 0 ? 99L : 1_000L + random.nextInt(100_000));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        tracker.trim();
+
+        // Then
+        assertThat(tracker.getLookups()).isEqualTo(200_000);
+        assertThat(tracker.topKeys()).hasSizeLessThanOrEqualTo(4);
+        assertThat(tracker.topKeys().get(0).key()).isEqualTo(99L);
+        assertThat(tracker.estimate(99L)).isGreaterThanOrEqualTo(50_000);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid sizes")
+    void testConstructor_Invalid_ShouldThrow() {
+        assertThatThrownBy(() -> new HotKeyTracker<Long>(0, 1024, Long::longValue))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HotKeyTracker<Long>(10, 0, Long::longValue))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void record(HotKeyTracker<Long> tracker, long key, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(key);
+        }
+    }
+}
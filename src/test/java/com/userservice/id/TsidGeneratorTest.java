@@ -0,0 +1,124 @@
+package com.userservice.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Юнит-тесты для TsidGenerator
+ */
+@DisplayName("TsidGenerator Unit Tests")
+class TsidGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-03-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    @DisplayName("Should encode timestamp and node into positive ids")
+    void testNext_ShouldEncodeTimestampAndNode() {
+        // Given
+        TsidGenerator generator = new TsidGenerator(513, () -> NOW);
+
+        // When
+        long first = generator.next();
+        long second = generator.next();
+
+        // Then
+        assertThat(first).isPositive();
+        assertThat(second).isEqualTo(first + 1);
+        assertThat(TsidGenerator.timestampOf(first)).isEqualTo(Instant.ofEpochMilli(NOW));
+        assertThat(TsidGenerator.nodeOf(first)).isEqualTo(513);
+    }
+
+    @Test
+    @DisplayName("Should borrow the next millisecond when the counter overflows")
+    void testNext_CounterOverflow_ShouldStayMonotonic() {
+        // Given
+        TsidGenerator generator = new TsidGenerator(1, () -> NOW);
+
+        // When
+        long last = 0;
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.next();
+            assertThat(id).isGreaterThan(last);
+            last = id;
+        }
+
+        // Then
+        assertThat(TsidGenerator.timestampOf(last)).isEqualTo(Instant.ofEpochMilli(NOW + 1));
+        assertThat(TsidGenerator.nodeOf(last)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep ids increasing when the clock moves back")
+    void testNext_ClockMovesBack_ShouldStayMonotonic() {
+        // Given
+        AtomicLong clock = new AtomicLong(NOW);
+        TsidGenerator generator = new TsidGenerator(0, clock::get);
+        long beforeJump = generator.next();
+
+        // When
+        clock.set(NOW - 10_000);
+        long afterJump = generator.next();
+        clock.set(NOW + 5);
+        long afterRecovery = generator.next();
+
+        // Then
+        assertThat(afterJump).isGreaterThan(beforeJump);
+        assertThat(afterRecovery).isGreaterThan(afterJump);
+        assertThat(TsidGenerator.timestampOf(afterRecovery)).isEqualTo(Instant.ofEpochMilli(NOW + 5));
+    }
+
+    @Test
+    @DisplayName("Should issue unique ids from concurrent threads")
+    void testNext_Concurrent_ShouldBeUnique() throws Exception {
+        // Given
+        TsidGenerator generator = new TsidGenerator(7);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.next());
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> unique = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                List<Long> ids = future.get();
+                assertThat(ids).isSorted();
+                unique.addAll(ids);
+            }
+
+            // Then
+            assertThat(unique).hasSize(40_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject node ids outside 10 bits")
+    void testConstructor_InvalidNode_ShouldThrow() {
+        assertThatThrownBy(() -> new TsidGenerator(TsidGenerator.MAX_NODE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TsidGenerator(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.userservice.id;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционные тесты для UserIdGenerator в режиме pooled
+ */
+@DisplayName("UserIdGenerator Integration Tests")
+class UserIdGeneratorIT extends BaseIntegrationTest {
+
+    private UserDAO userDAO;
+
+    @BeforeAll
+    static void enablePooledIds() {
+        System.setProperty(UserIdGenerator.MODE_PROPERTY, "pooled");
+        System.setProperty(UserIdGenerator.POOL_SIZE_PROPERTY, "10");
+    }
+
+    @AfterAll
+    static void resetIdGenerator() {
+        System.clearProperty(UserIdGenerator.MODE_PROPERTY);
+        System.clearProperty(UserIdGenerator.POOL_SIZE_PROPERTY);
+    }
+
+    @BeforeEach
+    void setUpDAO() {
+        userDAO = new UserDAOImpl(getSessionFactory());
+    }
+
+    @Test
+    @DisplayName("Should assign ids before insert and send inserts in batches")
+    void testCreateAll_Pooled_ShouldBatchInserts() {
+        // Given
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            users.add(new UserEntity("Pooled " + i, "pooled" + i + "@example.com", 30));
+        }
+        getSessionFactory().getStatistics().clear();
+
+        // When
+        List<UserEntity> created = userDAO.createAll(users);
+
+        // Then
+        assertThat(created).extracting(UserEntity::getId).doesNotContainNull().doesNotHaveDuplicates();
+        // 3 выборки по 10 ID из последовательности и один пакет INSERT
+        assertThat(getSessionFactory().getStatistics().getPrepareStatementCount()).isEqualTo(4);
+        assertThat(userDAO.findById(created.get(24).getId()))
+                .hasValueSatisfying(user -> assertThat(user.getEmail()).isEqualTo("pooled24@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should share the identity sequence with inserts that bypass Hibernate")
+    void testCreate_Pooled_ShouldNotCollideWithIdentityInserts() {
+        // Given
+        UserEntity pooled = userDAO.create(new UserEntity("Pooled", "pooled@example.com", 30));
+
+        // When
+        Long identityId = getSessionFactory().fromTransaction(session -> session.createNativeQuery(
+                        "INSERT INTO users (name, email, age, created_at) "
+                                + "VALUES ('Identity', 'identity@example.com', 31, now()) RETURNING id", Long.class)
+                .getSingleResult());
+        UserEntity next = userDAO.create(new UserEntity("Pooled Next", "pooled-next@example.com", 32));
+
+        // Then
+        assertThat(identityId).isNotIn(pooled.getId(), next.getId());
+        assertThat(userDAO.findAll()).hasSize(3);
+    }
+}
@@ -0,0 +1,68 @@
+package com.userservice.loadgen;
+
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import com.userservice.service.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit тесты для LoadGenerator
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoadGenerator Unit Tests")
+class LoadGeneratorTest {
+
+    @Mock
+    private UserService userService;
+
+    @Test
+    @DisplayName("Should drive the open-loop schedule and report measured operations")
+    void testRun_OpenLoop_ShouldReportOperations() throws Exception {
+        // Given
+        when(userService.listUsers(isNull(), eq(2))).thenReturn(List.of(
+                new UserSummary(1L, "Ivan", "ivan@example.com"),
+                new UserSummary(2L, "Anna", "anna@example.com")));
+        when(userService.getUserById(anyLong())).thenReturn(Optional.empty());
+        when(userService.createUser(anyString(), anyString(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Email already exists"));
+        LoadGenConfig config = new LoadGenConfig(LoadGenConfig.Mode.OPEN, WorkloadMix.parse("get=1,create=1"),
+                200, 4, Duration.ZERO, Duration.ofSeconds(1), Duration.ofSeconds(1), 2, 0.99, 42, null);
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+
+        // When
+        LoadGenerator.Result result = new LoadGenerator(userService, config,
+                new PrintStream(report, true, StandardCharsets.UTF_8)).run();
+
+        // Then
+        assertThat(result.operations()).isBetween(150L, 250L);
+        assertThat(result.errors()).isPositive().isLessThan(result.operations());
+        assertThat(result.latency().getMaxValue()).isPositive();
+        assertThat(report.toString(StandardCharsets.UTF_8))
+                .contains("measure")
+                .contains("from intended start")
+                .contains("service");
+        verify(userService, atLeastOnce()).getUserById(any());
+    }
+}
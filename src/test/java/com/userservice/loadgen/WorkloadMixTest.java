@@ -0,0 +1,56 @@
+package com.userservice.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit тесты для WorkloadMix
+ */
+@DisplayName("WorkloadMix Unit Tests")
+class WorkloadMixTest {
+
+    @Test
+    @DisplayName("Should normalize weights and pick operations by cumulative share")
+    void testParse_ValidSpec_ShouldPickByShare() {
+        // When
+        WorkloadMix mix = WorkloadMix.parse("get=8, email=1, create=0.5, update=0.5");
+
+        // Then
+        assertThat(mix.share(Operation.GET_BY_ID)).isCloseTo(0.8, within(1e-9));
+        assertThat(mix.share(Operation.UPDATE)).isCloseTo(0.05, within(1e-9));
+        assertThat(mix.pick(0.0)).isEqualTo(Operation.GET_BY_ID);
+        assertThat(mix.pick(0.79)).isEqualTo(Operation.GET_BY_ID);
+        assertThat(mix.pick(0.85)).isEqualTo(Operation.GET_BY_EMAIL);
+        assertThat(mix.pick(0.92)).isEqualTo(Operation.CREATE);
+        assertThat(mix.pick(0.999)).isEqualTo(Operation.UPDATE);
+    }
+
+    @Test
+    @DisplayName("Should skip zero weights")
+    void testParse_ZeroWeight_ShouldNeverPick() {
+        // When
+        WorkloadMix mix = WorkloadMix.parse("get=1,create=0");
+
+        // Then
+        assertThat(mix.share(Operation.CREATE)).isZero();
+        assertThat(mix.pick(0.999)).isEqualTo(Operation.GET_BY_ID);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed specs")
+    void testParse_InvalidSpec_ShouldThrow() {
+        assertThatThrownBy(() -> WorkloadMix.parse("get"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WorkloadMix.parse("delete=5"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown operation: delete");
+        assertThatThrownBy(() -> WorkloadMix.parse("get=1,get=2"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> WorkloadMix.parse("get=0"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
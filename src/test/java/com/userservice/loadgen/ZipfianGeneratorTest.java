@@ -0,0 +1,68 @@
+package com.userservice.loadgen;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit тесты для ZipfianGenerator
+ */
+@DisplayName("ZipfianGenerator Unit Tests")
+class ZipfianGeneratorTest {
+
+    @Test
+    @DisplayName("Should skew ranks towards the head of the keyspace")
+    void testNext_Skewed_ShouldFavorLowRanks() {
+        // Given
+        ZipfianGenerator generator = new ZipfianGenerator(1_000, 0.99);
+        Random random = new Random(42);
+        int[] counts = new int[1_000];
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            long rank = generator.next(random);
+            assertThat(rank).isBetween(0L, 999L);
+            counts[(int) rank]++;
+        }
+
+        // Then
+        int top10 = 0;
+        for (int i = 0; i < 10; i++) {
+            top10 += counts[i];
+        }
+        assertThat(counts[0]).isGreaterThan(counts[1]).isGreaterThan(counts[100]);
+        assertThat(top10).isGreaterThan(30_000);
+    }
+
+    @Test
+    @DisplayName("Should be uniform when theta is zero")
+    void testNext_ThetaZero_ShouldBeUniform() {
+        // Given
+        ZipfianGenerator generator = new ZipfianGenerator(10, 0);
+        Random random = new Random(7);
+        int[] counts = new int[10];
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            counts[(int) generator.next(random)]++;
+        }
+
+        // Then
+        for (int count : counts) {
+            assertThat(count).isBetween(9_000, 11_000);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject invalid parameters")
+    void testConstructor_InvalidParameters_ShouldThrow() {
+        assertThatThrownBy(() -> new ZipfianGenerator(0, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfianGenerator(10, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
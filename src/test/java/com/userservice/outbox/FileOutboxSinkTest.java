@@ -0,0 +1,69 @@
+package com.userservice.outbox;
+
+import com.userservice.dto.OutboxEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit тесты для FileOutboxSink
+ */
+@DisplayName("FileOutboxSink Unit Tests")
+class FileOutboxSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should append one JSON line per event across batches")
+    void testPublish_ShouldAppendJsonLines() throws IOException {
+        // Given
+        Path file = directory.resolve("events/user-events.jsonl");
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+        // When
+        try (FileOutboxSink sink = new FileOutboxSink(file)) {
+            sink.publish(List.of(
+                    new OutboxEvent(1, OutboxEvent.Type.CREATED, 10, "{\"name\":\"Ivan\"}", createdAt),
+                    new OutboxEvent(2, OutboxEvent.Type.UPDATED, 10, "{\"name\":\"Ivan Updated\"}", createdAt)));
+            sink.publish(List.of(
+                    new OutboxEvent(3, OutboxEvent.Type.DELETED, 10, "{\"email\":\"ivan@example.com\"}", createdAt)));
+        }
+
+        // Then
+        assertThat(Files.readAllLines(file)).containsExactly(
+                "{\"id\":1,\"type\":\"CREATED\",\"userId\":10,\"createdAt\":\"2025-01-15T10:30\","
+                        + "\"payload\":{\"name\":\"Ivan\"}}",
+                "{\"id\":2,\"type\":\"UPDATED\",\"userId\":10,\"createdAt\":\"2025-01-15T10:30\","
+                        + "\"payload\":{\"name\":\"Ivan Updated\"}}",
+                "{\"id\":3,\"type\":\"DELETED\",\"userId\":10,\"createdAt\":\"2025-01-15T10:30\","
+                        + "\"payload\":{\"email\":\"ivan@example.com\"}}");
+    }
+
+    @Test
+    @DisplayName("Should keep existing events when file is reopened")
+    void testPublish_Reopen_ShouldAppend() throws IOException {
+        // Given
+        Path file = directory.resolve("user-events.jsonl");
+        OutboxEvent event = new OutboxEvent(1, OutboxEvent.Type.CREATED, 1, "{}", LocalDateTime.now());
+        try (FileOutboxSink sink = new FileOutboxSink(file)) {
+            sink.publish(List.of(event));
+        }
+
+        // When
+        try (FileOutboxSink sink = new FileOutboxSink(file)) {
+            sink.publish(List.of(event));
+        }
+
+        // Then
+        assertThat(Files.readAllLines(file)).hasSize(2);
+    }
+}
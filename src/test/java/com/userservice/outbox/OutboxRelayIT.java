@@ -0,0 +1,132 @@
+package com.userservice.outbox;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import com.userservice.dto.OutboxEvent;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Интеграционные тесты outbox: события пишутся триггером, relay отправляет и удаляет их
+ */
+@DisplayName("OutboxRelay Integration Tests")
+class OutboxRelayIT extends BaseIntegrationTest {
+
+    private UserDAO userDAO;
+    private List<OutboxEvent> published;
+
+    @BeforeEach
+    void setUpOutbox() {
+        migrateSchema();
+        OutboxRelay.enableCapture(getSessionFactory());
+        getSessionFactory().inTransaction(session ->
+                session.createNativeMutationQuery("DELETE FROM user_outbox").executeUpdate());
+        userDAO = new UserDAOImpl(getSessionFactory());
+        published = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test
+    @DisplayName("Should publish create, update and delete events in commit order")
+    void testDrain_ShouldPublishLifecycleEvents() {
+        // Given
+        UserEntity user = userDAO.create(new UserEntity("Ivan", "ivan@example.com", 30));
+        user.setName("Ivan Updated");
+        userDAO.update(user);
+        userDAO.delete(user.getId());
+        OutboxRelay relay = new OutboxRelay(getSessionFactory(), published::addAll, 100, id -> id, "it");
+
+        // When
+        long relayed = relay.drain();
+
+        // Then
+        assertThat(relayed).isEqualTo(3);
+        assertThat(published).extracting(OutboxEvent::type, OutboxEvent::userId).containsExactly(
+                tuple(OutboxEvent.Type.CREATED, user.getId()),
+                tuple(OutboxEvent.Type.UPDATED, user.getId()),
+                tuple(OutboxEvent.Type.DELETED, user.getId()));
+        assertThat(published.get(1).payload()).contains("\"name\" : \"Ivan Updated\"");
+        assertThat(relay.drain()).isZero();
+        assertThat(relay.getEventsPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should not capture events until a relay enables capture")
+    void testEnableCapture_ShouldStartWritingEvents() {
+        // Given: свежая схема, relay еще не запускался
+        migrateSchema();
+        userDAO.create(new UserEntity("Before", "before@example.com", 30));
+        OutboxRelay relay = new OutboxRelay(getSessionFactory(), published::addAll, 100, id -> id, "it");
+        assertThat(relay.drain()).isZero();
+
+        // When
+        OutboxRelay.enableCapture(getSessionFactory());
+        OutboxRelay.enableCapture(getSessionFactory());
+        UserEntity after = userDAO.create(new UserEntity("After", "after@example.com", 31));
+
+        // Then
+        assertThat(relay.drain()).isEqualTo(1);
+        assertThat(published).extracting(OutboxEvent::userId).containsExactly(after.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep events in outbox when sink fails")
+    void testRelayBatch_SinkFailure_ShouldRetry() {
+        // Given
+        userDAO.create(new UserEntity("Anna", "anna@example.com", 25));
+        OutboxRelay failing = new OutboxRelay(getSessionFactory(), events -> {
+            throw new IOException("Broker is unavailable");
+        }, 100, id -> id, "failing");
+
+        // When
+        assertThatThrownBy(failing::relayBatch).isInstanceOf(RuntimeException.class);
+        long relayed = new OutboxRelay(getSessionFactory(), published::addAll, 100, id -> id, "it").drain();
+
+        // Then
+        assertThat(relayed).isEqualTo(1);
+        assertThat(failing.getFailedBatches()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should let parallel relays drain outbox without duplicates")
+    void testDrain_ParallelRelays_ShouldNotDuplicate() throws Exception {
+        // Given
+        for (int i = 0; i < 200; i++) {
+            userDAO.create(new UserEntity("User " + i, "user" + i + "@example.com", 20 + i % 50));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                OutboxRelay relay = new OutboxRelay(getSessionFactory(), published::addAll, 10, id -> id, "it-" + i);
+                results.add(executor.submit(relay::drain));
+            }
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+
+            // Then
+            assertThat(total).isEqualTo(200);
+            assertThat(published).extracting(OutboxEvent::id).doesNotHaveDuplicates().hasSize(200);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,7 +1,17 @@
 package com.userservice.service;
 
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.SignupPeriod;
+import com.userservice.dao.UserChangeDAO;
 import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserStatsDAO;
+import com.userservice.dto.AgeBucket;
+import com.userservice.dto.ChangePage;
+import com.userservice.dto.SignupCount;
+import com.userservice.dto.UserChange;
+import com.userservice.dto.UserSummary;
 import com.userservice.entity.UserEntity;
+import com.userservice.hotkeys.HotKeys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +20,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -19,6 +31,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
@@ -37,6 +51,12 @@ class UserServiceImplTest {
     @Mock
     private UserDAO userDAO;
 
+    @Mock
+    private UserStatsDAO userStatsDAO;
+
+    @Mock
+    private UserChangeDAO userChangeDAO;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -298,6 +318,31 @@ class UserServiceImplTest {
         verify(userDAO, never()).findByEmail(any());
     }
 
+    @Test
+    @DisplayName("Should record id and email lookups as hot keys")
+    void testGetUser_WithHotKeys_ShouldRecordLookups() {
+        // Given
+        HotKeys hotKeys = new HotKeys(2, 256);
+        UserServiceImpl trackedService = new UserServiceImpl(userDAO, null, null, hotKeys);
+        when(userDAO.findById(anyLong())).thenReturn(Optional.empty());
+        when(userDAO.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            trackedService.getUserById(1L);
+            trackedService.getUserById(2L + i);
+        }
+        hotKeys.decay();
+        trackedService.getUserByEmail("test@example.com");
+
+        // Then
+        assertThat(hotKeys.getIdLookups()).isEqualTo(20);
+        assertThat(hotKeys.getEmailLookups()).isEqualTo(1);
+        assertThat(hotKeys.hotIds()).first().isEqualTo(1L);
+        assertThat(hotKeys.isHotId(1L)).isTrue();
+        assertThat(hotKeys.getTopEmails()).singleElement().asString().startsWith("test@example.com=");
+    }
+
     @Test
     @DisplayName("Should get all users")
     void testGetAllUsers_ShouldReturnList() {
@@ -327,6 +372,47 @@ class UserServiceImplTest {
         verify(userDAO, times(1)).findAll();
     }
 
+    // ========== SEARCH USER TESTS ==========
+
+    @Test
+    @DisplayName("Should search users by name with trimmed query")
+    void testSearchUsersByName_ValidQuery_ShouldReturnSummaries() {
+        // Given
+        List<UserSummary> summaries = List.of(new UserSummary(1L, "Ivan Ivanov", "ivan@example.com"));
+        when(userDAO.searchByName("Iva", NameSearchMode.PREFIX, 10)).thenReturn(summaries);
+
+        // When
+        List<UserSummary> found = userService.searchUsersByName("  Iva ", NameSearchMode.PREFIX, 10);
+
+        // Then
+        assertThat(found).isEqualTo(summaries);
+        verify(userDAO, times(1)).searchByName("Iva", NameSearchMode.PREFIX, 10);
+    }
+
+    @Test
+    @DisplayName("Should fail to search users with empty query")
+    void testSearchUsersByName_EmptyQuery_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.searchUsersByName(" ", NameSearchMode.FUZZY, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Search query cannot be empty");
+
+        verify(userDAO, never()).searchByName(anyString(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should fail to search users with limit out of range")
+    void testSearchUsersByName_InvalidLimit_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.searchUsersByName("Ivan", NameSearchMode.FUZZY, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Search limit must be between");
+        assertThatThrownBy(() -> userService.searchUsersByName("Ivan", NameSearchMode.FUZZY, 101))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verify(userDAO, never()).searchByName(anyString(), any(), anyInt());
+    }
+
     // ========== UPDATE USER TESTS ==========
 
     @Test
@@ -350,6 +436,7 @@ class UserServiceImplTest {
     void testUpdateUser_EmailChanged_ShouldCheckUniqueness() {
         // Given
         when(userDAO.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userDAO.canChangeEmail(1L, "newemail@example.com")).thenReturn(true);
         when(userDAO.existsByEmail("newemail@example.com")).thenReturn(false);
         when(userDAO.update(any(UserEntity.class))).thenReturn(testUser);
 
@@ -381,6 +468,7 @@ class UserServiceImplTest {
     void testUpdateUser_ExistingEmail_ShouldThrowException() {
         // Given
         when(userDAO.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userDAO.canChangeEmail(1L, "existing@example.com")).thenReturn(true);
         when(userDAO.existsByEmail("existing@example.com")).thenReturn(true);
 
         // When & Then
@@ -391,6 +479,23 @@ class UserServiceImplTest {
         verify(userDAO, never()).update(any(UserEntity.class));
     }
 
+    @Test
+    @DisplayName("Should reject email change that would move user to another shard")
+    void testUpdateUser_EmailMovesShard_ShouldThrowException() {
+        // Given
+        when(userDAO.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userDAO.canChangeEmail(1L, "other.shard@example.com")).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.updateUser(1L, "Test", "other.shard@example.com", 30))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("another shard");
+
+        assertThat(testUser.getEmail()).isEqualTo("test@example.com");
+        verify(userDAO, never()).existsByEmail(any());
+        verify(userDAO, never()).update(any(UserEntity.class));
+    }
+
     @Test
     @DisplayName("Should fail to update non-existing user")
     void testUpdateUser_NonExistingUser_ShouldThrowException() {
@@ -482,6 +587,226 @@ class UserServiceImplTest {
         verify(userDAO, never()).delete(any());
     }
 
+    // ========== ANALYTICS TESTS ==========
+
+    @Test
+    @DisplayName("Should build age histogram from stats DAO")
+    void testGetAgeHistogram_ValidBounds_ShouldReturnBuckets() {
+        // Given
+        List<AgeBucket> buckets = List.of(new AgeBucket(0, 18, 2), new AgeBucket(18, null, 5));
+        when(userStatsDAO.countByAgeBuckets(new int[]{18})).thenReturn(buckets);
+
+        // When
+        List<AgeBucket> histogram = userService.getAgeHistogram(18);
+
+        // Then
+        assertThat(histogram).isEqualTo(buckets);
+        verifyNoInteractions(userDAO);
+    }
+
+    @Test
+    @DisplayName("Should reject unordered age histogram bounds")
+    void testGetAgeHistogram_UnorderedBounds_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.getAgeHistogram(30, 18))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("strictly ascending");
+
+        verifyNoInteractions(userStatsDAO);
+    }
+
+    @Test
+    @DisplayName("Should count signups per day in range")
+    void testGetSignups_ValidRange_ShouldReturnCounts() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(7);
+        List<SignupCount> signups = List.of(new SignupCount(LocalDate.of(2025, 1, 2), 3));
+        when(userStatsDAO.countSignups(from, to, SignupPeriod.DAY)).thenReturn(signups);
+
+        // When
+        List<SignupCount> found = userService.getSignups(from, to, SignupPeriod.DAY);
+
+        // Then
+        assertThat(found).isEqualTo(signups);
+    }
+
+    @Test
+    @DisplayName("Should reject signup range with from after to")
+    void testGetSignups_InvalidRange_ShouldThrowException() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2025, 1, 8, 0, 0);
+
+        // When & Then
+        assertThatThrownBy(() -> userService.getSignups(from, from.minusDays(1), SignupPeriod.WEEK))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("from before to");
+
+        verifyNoInteractions(userStatsDAO);
+    }
+
+    @Test
+    @DisplayName("Should return exact and estimated user counts")
+    void testCountUsers_ShouldDelegateToStatsDAO() {
+        // Given
+        when(userStatsDAO.countAll()).thenReturn(42L);
+        when(userStatsDAO.estimateCount()).thenReturn(40L);
+
+        // When & Then
+        assertThat(userService.countUsers()).isEqualTo(42L);
+        assertThat(userService.estimateUserCount()).isEqualTo(40L);
+        verify(userDAO, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should fail analytics when stats DAO is not configured")
+    void testCountUsers_NoStatsDAO_ShouldThrowException() {
+        // Given
+        UserServiceImpl serviceWithoutStats = new UserServiceImpl(userDAO);
+
+        // When & Then
+        assertThatThrownBy(serviceWithoutStats::countUsers)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should delete users by ids via DAO")
+    void testDeleteUsers_ShouldDelegate() {
+        // Given
+        when(userDAO.deleteByIds(List.of(1L, 2L))).thenReturn(2);
+
+        // When
+        int deleted = userService.deleteUsers(List.of(1L, 2L));
+
+        // Then
+        assertThat(deleted).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject empty or invalid ids for bulk delete")
+    void testDeleteUsers_InvalidIds_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.deleteUsers(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userService.deleteUsers(List.of(1L, -5L)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(userDAO, never()).deleteByIds(any());
+    }
+
+    @Test
+    @DisplayName("Should purge users created before date and reject null date")
+    void testDeleteUsersCreatedBefore() {
+        // Given
+        LocalDateTime createdBefore = LocalDateTime.of(2020, 1, 1, 0, 0);
+        when(userDAO.deleteCreatedBefore(createdBefore)).thenReturn(42L);
+
+        // When & Then
+        assertThat(userService.deleteUsersCreatedBefore(createdBefore)).isEqualTo(42L);
+        assertThatThrownBy(() -> userService.deleteUsersCreatedBefore(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should list user summaries page via DAO")
+    void testListUsers_ShouldDelegate() {
+        // Given
+        List<UserSummary> page = List.of(new UserSummary(2L, "Test", "test@example.com"));
+        when(userDAO.findSummaryPage(1L, 20)).thenReturn(page);
+
+        // When
+        List<UserSummary> result = userService.listUsers(1L, 20);
+
+        // Then
+        assertThat(result).isEqualTo(page);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid list page parameters")
+    void testListUsers_InvalidParameters_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.listUsers(-1L, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userService.listUsers(null, 1001))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(userDAO, never()).findSummaryPage(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should create users batch in one DAO call")
+    void testCreateUsers_ShouldDelegate() {
+        // Given
+        List<UserEntity> users = List.of(
+                new UserEntity("Ivan", "ivan@example.com", 30),
+                new UserEntity("Anna", "anna@example.com", null));
+        when(userDAO.createAll(users)).thenReturn(users);
+
+        // When
+        List<UserEntity> created = userService.createUsers(users);
+
+        // Then
+        assertThat(created).isSameAs(users);
+        verify(userDAO, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Should reject users batch with invalid data or repeated email")
+    void testCreateUsers_InvalidBatch_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.createUsers(List.of(
+                new UserEntity("Ivan", "ivan@example.com", 30),
+                new UserEntity("", "anna@example.com", 25))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userService.createUsers(List.of(
+                new UserEntity("Ivan", "same@example.com", 30),
+                new UserEntity("Anna", "same@example.com", 25))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate email");
+        verify(userDAO, never()).createAll(any());
+    }
+
+    // ========== CHANGE FEED TESTS ==========
+
+    @Test
+    @DisplayName("Should return changes after cursor from change DAO")
+    void testGetChangesSince_ShouldDelegate() {
+        // Given
+        ChangePage page = new ChangePage(List.of(
+                new UserChange(UserChange.Type.UPSERT, 1L, "Test", "test@example.com", 30, LocalDateTime.now()),
+                new UserChange(UserChange.Type.DELETE, 2L, null, "gone@example.com", null, LocalDateTime.now())),
+                "100.7.2");
+        when(userChangeDAO.findChangesSince("100.5.1", 50)).thenReturn(page);
+
+        // When
+        ChangePage result = userService.getChangesSince("100.5.1", 50);
+
+        // Then
+        assertThat(result).isEqualTo(page);
+        assertThat(result.changes()).extracting(UserChange::type)
+                .containsExactly(UserChange.Type.UPSERT, UserChange.Type.DELETE);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid changes limit")
+    void testGetChangesSince_InvalidLimit_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> userService.getChangesSince(null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> userService.getChangesSince(null, 10_001))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(userChangeDAO);
+    }
+
+    @Test
+    @DisplayName("Should fail change feed when change DAO is not configured")
+    void testGetChangesSince_NoChangeDAO_ShouldThrowException() {
+        // Given
+        UserServiceImpl serviceWithoutFeed = new UserServiceImpl(userDAO, userStatsDAO);
+
+        // When & Then
+        assertThatThrownBy(() -> serviceWithoutFeed.getChangesSince(null, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
     // ========== VALIDATION TESTS ==========
 
     @Test
@@ -0,0 +1,135 @@
+package com.userservice.snapshot;
+
+import com.userservice.admission.AdaptiveConcurrencyLimiter;
+import com.userservice.admission.OverloadedException;
+import com.userservice.dao.UserDAO;
+import com.userservice.entity.UserEntity;
+import org.hibernate.exception.JDBCConnectionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для SnapshotFallbackUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SnapshotFallbackUserDAO Unit Tests")
+class SnapshotFallbackUserDAOTest {
+
+    @Mock
+    private UserDAO live;
+
+    @Mock
+    private UserDAO snapshot;
+
+    private final AtomicLong clock = new AtomicLong(1);
+
+    private SnapshotFallbackUserDAO fallbackDAO;
+
+    private UserEntity testUser;
+
+    @BeforeEach
+    void setUp() {
+        fallbackDAO = new SnapshotFallbackUserDAO(live, snapshot, Duration.ofSeconds(5), clock::get);
+        testUser = new UserEntity("Test", "test@example.com", 30);
+        testUser.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Should read from live DAO while database is available")
+    void testRead_DatabaseUp_ShouldUseLive() {
+        // Given
+        when(live.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<UserEntity> found = fallbackDAO.findById(1L);
+
+        // Then
+        assertThat(found).contains(testUser);
+        assertThat(fallbackDAO.isDegraded()).isFalse();
+        verifyNoInteractions(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should serve reads from snapshot until retry interval expires")
+    void testRead_DatabaseDown_ShouldFallBackToSnapshot() {
+        // Given
+        when(live.findById(1L))
+                .thenThrow(new JDBCConnectionException("Connection refused", new SQLException("refused", "08001")))
+                .thenReturn(Optional.of(testUser));
+        when(snapshot.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // When
+        Optional<UserEntity> first = fallbackDAO.findById(1L);
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        Optional<UserEntity> second = fallbackDAO.findById(1L);
+        boolean degradedBeforeRetry = fallbackDAO.isDegraded();
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        Optional<UserEntity> third = fallbackDAO.findById(1L);
+
+        // Then
+        assertThat(first).contains(testUser);
+        assertThat(second).contains(testUser);
+        assertThat(third).contains(testUser);
+        assertThat(degradedBeforeRetry).isTrue();
+        assertThat(fallbackDAO.isDegraded()).isFalse();
+        verify(live, times(2)).findById(1L);
+        verify(snapshot, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Should propagate non-connection errors")
+    void testRead_OtherError_ShouldPropagate() {
+        // Given
+        when(live.findByEmail("test@example.com")).thenThrow(new IllegalArgumentException("bad email"));
+
+        // When / Then
+        assertThatThrownBy(() -> fallbackDAO.findByEmail("test@example.com"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(snapshot);
+    }
+
+    @Test
+    @DisplayName("Should always send writes to live DAO")
+    void testWrite_DatabaseDown_ShouldNotUseSnapshot() {
+        // Given
+        when(live.findById(1L)).thenThrow(new JDBCConnectionException("down", new SQLException("down", "08006")));
+        when(snapshot.findById(1L)).thenReturn(Optional.empty());
+        fallbackDAO.findById(1L);
+        when(live.delete(1L)).thenReturn(true);
+
+        // When
+        boolean deleted = fallbackDAO.delete(1L);
+
+        // Then
+        assertThat(deleted).isTrue();
+        verify(live).delete(1L);
+    }
+
+    @Test
+    @DisplayName("Should propagate overload instead of serving a stale snapshot")
+    void testRead_Overloaded_ShouldPropagate() {
+        // Given
+        when(live.findById(1L)).thenThrow(new OverloadedException(AdaptiveConcurrencyLimiter.Kind.READ, 10));
+
+        // When / Then
+        assertThatThrownBy(() -> fallbackDAO.findById(1L)).isInstanceOf(OverloadedException.class);
+        assertThat(fallbackDAO.isDegraded()).isFalse();
+        verifyNoInteractions(snapshot);
+    }
+}
@@ -0,0 +1,239 @@
+package com.userservice.snapshot;
+
+import com.userservice.dao.NameSearchMode;
+import com.userservice.dao.UserDAO;
+import com.userservice.dto.UserSummary;
+import com.userservice.entity.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+/**
+ * Юнит-тесты для UserSnapshot и SnapshotUserDAO
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserSnapshot Unit Tests")
+class UserSnapshotTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private UserDAO source;
+
+    private final List<UserEntity> table = new ArrayList<>();
+
+    /**
+     * Источник отказывает на страницах после первой, как база, ставшая недоступной посреди чтения
+     */
+    private boolean failAfterFirstPage;
+
+    @BeforeEach
+    void setUp() {
+        when(source.findPage(any(), anyInt())).thenAnswer(invocation -> {
+            Long afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            if (failAfterFirstPage && afterId != null) {
+                throw new IllegalStateException("Connection refused");
+            }
+            return table.stream()
+                    .filter(user -> afterId == null || user.getId() > afterId)
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Should serve users by id and email after rebuild and reopen")
+    void testRebuild_ShouldPersistUsers() {
+        // Given
+        addUser(1L, "Иван Иванов", "ivan@example.com", 30);
+        addUser(5L, "Anna", "anna@example.com", null);
+        addUser(7L, "Petr", "petr@example.com", 41);
+        UserSnapshot.open(directory).rebuild(source);
+
+        // When
+        UserSnapshot reopened = UserSnapshot.open(directory);
+
+        // Then
+        assertThat(reopened.size()).isEqualTo(3);
+        assertThat(reopened.getIdWatermark()).isEqualTo(7L);
+        assertThat(reopened.getCreatedAtWatermark()).contains(CREATED_AT);
+        Optional<UserEntity> ivan = reopened.findById(1L);
+        assertThat(ivan).isPresent();
+        assertThat(ivan.get().getName()).isEqualTo("Иван Иванов");
+        assertThat(ivan.get().getEmail()).isEqualTo("ivan@example.com");
+        assertThat(ivan.get().getAge()).isEqualTo(30);
+        assertThat(ivan.get().getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(reopened.findByEmail("anna@example.com")).get()
+                .satisfies(anna -> {
+                    assertThat(anna.getId()).isEqualTo(5L);
+                    assertThat(anna.getAge()).isNull();
+                });
+        assertThat(reopened.findById(2L)).isEmpty();
+        assertThat(reopened.findByEmail("missing@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should append only users above the id watermark on refresh")
+    void testRefresh_ShouldAppendDelta() throws Exception {
+        // Given
+        addUser(1L, "Ivan", "ivan@example.com", 30);
+        UserSnapshot snapshot = UserSnapshot.open(directory);
+        snapshot.rebuild(source);
+        addUser(2L, "Anna", "anna@example.com", 25);
+        addUser(3L, "Petr", "petr@example.com", 41);
+
+        // When
+        int added = snapshot.refresh(source);
+        int unchanged = snapshot.refresh(source);
+
+        // Then
+        assertThat(added).isEqualTo(2);
+        assertThat(unchanged).isZero();
+        assertThat(segmentFiles()).hasSize(2);
+        assertThat(snapshot.findByEmail("petr@example.com")).map(UserEntity::getId).contains(3L);
+        assertThat(UserSnapshot.open(directory).size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should compact deltas into a single segment on rebuild")
+    void testRebuild_ShouldCompactDeltas() throws Exception {
+        // Given
+        UserSnapshot snapshot = UserSnapshot.open(directory);
+        for (long id = 1; id <= UserSnapshot.MAX_DELTAS + 1; id++) {
+            addUser(id, "User " + id, "user" + id + "@example.com", 20);
+            snapshot.refresh(source);
+        }
+        addUser(100L, "Last", "last@example.com", 20);
+
+        // When
+        snapshot.refresh(source);
+
+        // Then
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(snapshot.size()).isEqualTo(UserSnapshot.MAX_DELTAS + 2);
+        assertThat(snapshot.findById(100L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should keep existing snapshot when source returns nothing")
+    void testRebuild_EmptySource_ShouldKeepSnapshot() {
+        // Given
+        addUser(1L, "Ivan", "ivan@example.com", 30);
+        UserSnapshot snapshot = UserSnapshot.open(directory);
+        snapshot.rebuild(source);
+        table.clear();
+
+        // When
+        int size = snapshot.rebuild(source);
+
+        // Then
+        assertThat(size).isEqualTo(1);
+        assertThat(snapshot.findById(1L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should keep existing snapshot when source fails in the middle of rebuild")
+    void testRebuild_SourceFailure_ShouldKeepSnapshot() throws Exception {
+        // Given
+        addUser(1L, "Ivan", "ivan@example.com", 30);
+        UserSnapshot snapshot = UserSnapshot.open(directory);
+        snapshot.rebuild(source);
+        List<Path> before = segmentFiles();
+        for (long id = 2; id <= 10_002; id++) {
+            addUser(id, "User " + id, "user" + id + "@example.com", 20);
+        }
+        failAfterFirstPage = true;
+
+        // When / Then
+        assertThatThrownBy(() -> snapshot.rebuild(source)).isInstanceOf(IllegalStateException.class);
+        assertThat(snapshot.size()).isEqualTo(1);
+        assertThat(snapshot.findById(1L)).isPresent();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.toList()).containsExactlyElementsOf(before);
+        }
+        assertThat(UserSnapshot.open(directory).size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should page and prefix-search users in read-only DAO")
+    void testSnapshotUserDAO_ShouldReadAcrossSegments() {
+        // Given
+        addUser(1L, "Ivan Petrov", "ivan@example.com", 30);
+        addUser(2L, "Anna", "anna@example.com", 25);
+        UserSnapshot snapshot = UserSnapshot.open(directory);
+        snapshot.rebuild(source);
+        addUser(3L, "ivan Sidorov", "sidorov@example.com", 35);
+        snapshot.refresh(source);
+        SnapshotUserDAO snapshotDAO = new SnapshotUserDAO(snapshot);
+
+        // When
+        List<UserEntity> page = snapshotDAO.findPage(1L, 10);
+        List<UserSummary> found = snapshotDAO.searchByName("IVAN", NameSearchMode.PREFIX, 10);
+
+        // Then
+        assertThat(page).extracting(UserEntity::getId).containsExactly(2L, 3L);
+        assertThat(snapshotDAO.findAll()).hasSize(3);
+        assertThat(found).extracting(UserSummary::id).containsExactly(1L, 3L);
+        assertThat(snapshotDAO.findSummaryPage(1L, 1))
+                .containsExactly(new UserSummary(2L, "Anna", "anna@example.com"));
+        assertThat(snapshotDAO.findSummaryByEmail("sidorov@example.com"))
+                .contains(new UserSummary(3L, "ivan Sidorov", "sidorov@example.com"));
+        assertThat(snapshotDAO.existsByEmail("sidorov@example.com")).isTrue();
+        assertThatThrownBy(() -> snapshotDAO.create(new UserEntity("New", "new@example.com", 20)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("read-only");
+    }
+
+    @Test
+    @DisplayName("Should resolve email collisions in the hash index")
+    void testFindByEmail_ManyUsers_ShouldResolveAll() {
+        // Given
+        for (long id = 1; id <= 5_000; id++) {
+            addUser(id, "User " + id, "user" + id + "@example.com", 20);
+        }
+
+        // When
+        UserSnapshot snapshot = UserSnapshot.open(directory);
+        snapshot.rebuild(source);
+
+        // Then
+        for (long id = 1; id <= 5_000; id++) {
+            assertThat(snapshot.findByEmail("user" + id + "@example.com")).map(UserEntity::getId).contains(id);
+        }
+    }
+
+    private void addUser(long id, String name, String email, Integer age) {
+        UserEntity userEntity = new UserEntity(name, email, age);
+        userEntity.setId(id);
+        userEntity.setCreatedAt(CREATED_AT);
+        table.add(userEntity);
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".snap")).toList();
+        }
+    }
+}
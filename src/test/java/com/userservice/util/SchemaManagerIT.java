@@ -0,0 +1,92 @@
+package com.userservice.util;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import com.userservice.entity.UserEntity;
+import com.userservice.outbox.OutboxRelay;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Интеграционные тесты для SchemaManager; база общая для тестов класса, поэтому проверка до миграции идет первой
+ */
+@DisplayName("SchemaManager Integration Tests")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SchemaManagerIT extends BaseIntegrationTest {
+
+    @Test
+    @Order(1)
+    @DisplayName("Should verify schema version only after migration")
+    void testVerify_BeforeAndAfterMigration() {
+        // Схема без schema_version не проходит проверку быстрого старта
+        assertThatThrownBy(() -> SchemaManager.verify(getSessionFactory()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expects " + SchemaManager.CURRENT_VERSION);
+
+        // When
+        SchemaManager.migrate(getSessionFactory());
+
+        // Then: повторная миграция ничего не применяет, проверка проходит
+        assertThatCode(() -> SchemaManager.migrate(getSessionFactory())).doesNotThrowAnyException();
+        assertThatCode(() -> SchemaManager.verify(getSessionFactory())).doesNotThrowAnyException();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Should partition users once, keeping rows, ids and triggers")
+    void testPartitionUsers_ShouldConvertTableOnce() {
+        // Given
+        SchemaManager.migrate(getSessionFactory());
+        // Строка до преобразования пишется без серверного prepared statement: кэшированный план
+        // INSERT ... RETURNING стал бы неверным, когда миграции заново добавят столбцы
+        long existingId = getSessionFactory().fromTransaction(session -> session.doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("INSERT INTO users (name, email, age, created_at) "
+                         + "VALUES ('Existing', 'existing@example.com', 30, now()) RETURNING id")) {
+                resultSet.next();
+
+                return resultSet.getLong(1);
+            }
+        }));
+
+        // When
+        boolean converted = SchemaManager.partitionUsers(getSessionFactory(), 4);
+
+        // Then
+        assertThat(converted).isTrue();
+        assertThat(SchemaManager.partitionUsers(getSessionFactory(), 8)).isFalse();
+        assertThat(SchemaManager.userPartitions(getSessionFactory()))
+                .containsExactly("users_p0", "users_p1", "users_p2", "users_p3");
+        UserDAO userDAO = new UserDAOImpl(getSessionFactory());
+        assertThat(userDAO.findById(existingId)).isPresent();
+
+        // Последовательность identity продолжается, триггер ленты изменений пересоздан
+        UserEntity created = userDAO.create(new UserEntity("Created", "created@example.com", 40));
+        assertThat(created.getId()).isGreaterThan(existingId);
+        assertThat(userDAO.findById(created.getId())).get()
+                .extracting(UserEntity::getUpdatedAt)
+                .isNotNull();
+
+        // Триггер outbox пересоздан выключенным и включается relay уже на секционированной таблице
+        assertThat(countOutboxEvents()).isZero();
+        OutboxRelay.enableCapture(getSessionFactory());
+        userDAO.create(new UserEntity("Captured", "captured@example.com", 41));
+        assertThat(countOutboxEvents()).isEqualTo(1);
+    }
+
+    private long countOutboxEvents() {
+        return getSessionFactory().fromSession(session -> session.createNativeQuery(
+                "SELECT count(*) FROM user_outbox", Long.class).getSingleResult());
+    }
+}
@@ -0,0 +1,42 @@
+package com.userservice.util;
+
+import com.userservice.base.BaseIntegrationTest;
+import com.userservice.dao.UserDAO;
+import com.userservice.dao.UserDAOImpl;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Интеграционные тесты для StartupWarmer
+ */
+@DisplayName("StartupWarmer Integration Tests")
+class StartupWarmerIT extends BaseIntegrationTest {
+
+    @Test
+    @DisplayName("Should compile hot query plans before the first user request")
+    void testWarmUp_FillPool_ShouldServeFirstRequestsFromPlanCache() {
+        // Given
+        migrateSchema();
+        Statistics statistics = getSessionFactory().getStatistics();
+        statistics.clear();
+
+        // When
+        StartupWarmer.warmUp(getSessionFactory(), UserDAOImpl::warmUpQueries, true);
+        long missesAfterWarmUp = statistics.getQueryPlanCacheMissCount();
+        long hitsAfterWarmUp = statistics.getQueryPlanCacheHitCount();
+
+        UserDAO userDAO = new UserDAOImpl(getSessionFactory());
+        userDAO.findByEmail("nobody@example.com");
+        userDAO.existsByEmail("nobody@example.com");
+        userDAO.findSummaryPage(null, 10);
+
+        // Then
+        assertThat(missesAfterWarmUp).isPositive();
+        assertThat(statistics.getQueryPlanCacheMissCount()).isEqualTo(missesAfterWarmUp);
+        assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThanOrEqualTo(hitsAfterWarmUp + 3);
+        assertThat(StartupWarmer.planCacheStats(getSessionFactory())).contains("hit ratio");
+    }
+}